@@ -2,7 +2,9 @@ package dev.codebymelendez.notifications;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Notification Service - Sistema de Notificaciones Multicanal
@@ -13,7 +15,9 @@ import org.springframework.retry.annotation.EnableRetry;
  * @see <a href="https://codebymelendez.com">codebymelendez.com</a>
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 @EnableRetry
+@EnableScheduling
 public class NotificationServiceApplication {
     
     public static void main(String[] args) {
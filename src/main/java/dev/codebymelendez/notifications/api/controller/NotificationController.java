@@ -1,12 +1,25 @@
 package dev.codebymelendez.notifications.api.controller;
 
 import dev.codebymelendez.notifications.api.dto.ApiError;
+import dev.codebymelendez.notifications.api.dto.BatchNotificationRequest;
+import dev.codebymelendez.notifications.api.dto.BatchNotificationResponse;
 import dev.codebymelendez.notifications.api.dto.NotificationRequest;
 import dev.codebymelendez.notifications.api.dto.NotificationResponse;
+import dev.codebymelendez.notifications.api.exception.InvalidNotificationException;
 import dev.codebymelendez.notifications.api.exception.NotificationNotFoundException;
 import dev.codebymelendez.notifications.application.NotificationService;
+import dev.codebymelendez.notifications.application.archive.NotificationArchiver;
+import dev.codebymelendez.notifications.application.circuit.SenderCircuitBreakers;
+import dev.codebymelendez.notifications.application.coalescing.NotificationCoalescer;
+import dev.codebymelendez.notifications.application.idempotency.IdempotencyKeyService;
+import dev.codebymelendez.notifications.application.idempotency.RedeliveryGuard;
+import dev.codebymelendez.notifications.application.metrics.DeliveryLatencyTracker;
+import dev.codebymelendez.notifications.application.metrics.StatusCounters;
+import dev.codebymelendez.notifications.application.ratelimit.DispatchRateLimiter;
 import dev.codebymelendez.notifications.domain.model.Notification;
 import dev.codebymelendez.notifications.domain.model.NotificationStatus;
+import dev.codebymelendez.notifications.infrastructure.messaging.ListenerAutoscaler;
+import dev.codebymelendez.notifications.infrastructure.messaging.ShardCoordinator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,13 +30,18 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 
@@ -34,41 +52,108 @@ import java.util.UUID;
 @Tag(name = "Notifications", description = "API para gestión de notificaciones multicanal")
 public class NotificationController {
     
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int IDEMPOTENCY_KEY_MAX_LENGTH = 255;
+    
     private final NotificationService notificationService;
+    private final IdempotencyKeyService idempotencyKeyService;
+    private final DeliveryLatencyTracker latencyTracker;
+    private final ObjectProvider<ListenerAutoscaler> autoscaler;
+    private final DispatchRateLimiter rateLimiter;
+    private final SenderCircuitBreakers circuitBreakers;
+    private final NotificationCoalescer coalescer;
+    private final RedeliveryGuard redeliveryGuard;
+    private final ShardCoordinator shardCoordinator;
+    private final NotificationArchiver archiver;
+    private final StatusCounters statusCounters;
     
     // ==================== Crear Notificación ====================
 
     @PostMapping
     @Operation(
         summary = "Enviar notificación",
-        description = "Crea y encola una nueva notificación. El procesamiento es asíncrono."
+        description = "Crea una nueva notificación y registra su evento en el outbox. " +
+                "La publicación y el procesamiento son asíncronos."
     )
     @ApiResponses({
         @ApiResponse(
             responseCode = "202",
-            description = "Notificación aceptada y encolada",
+            description = "Notificación aceptada",
             content = @Content(schema = @Schema(implementation = NotificationResponse.class))
         ),
         @ApiResponse(
             responseCode = "400",
             description = "Datos de entrada inválidos",
             content = @Content(schema = @Schema(implementation = ApiError.class))
+        ),
+        @ApiResponse(
+            responseCode = "422",
+            description = "Idempotency-Key ya usada con un cuerpo distinto",
+            content = @Content(schema = @Schema(implementation = ApiError.class))
         )
     })
     public ResponseEntity<NotificationResponse> createNotification(
-            @Valid @RequestBody NotificationRequest request) {
+            @Valid @RequestBody NotificationRequest request,
+            @Parameter(description = "Clave única por petición lógica; los reintentos con la misma clave " +
+                    "devuelven la respuesta original sin crear otra notificación")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         
         log.info("Recibida solicitud de notificación: channel={}, recipient={}", 
                 request.getChannel(), request.getRecipient());
         
+        if (idempotencyKey != null) {
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > IDEMPOTENCY_KEY_MAX_LENGTH) {
+                throw new InvalidNotificationException(IDEMPOTENCY_KEY_HEADER,
+                        "La Idempotency-Key debe tener entre 1 y " + IDEMPOTENCY_KEY_MAX_LENGTH + " caracteres");
+            }
+            IdempotencyKeyService.Result result = idempotencyKeyService.createAndQueue(idempotencyKey, request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()))
+                    .body(result.response());
+        }
+        
         Notification notification = notificationService.createAndQueue(request);
         
         NotificationResponse response = NotificationResponse.fromEntity(notification);
         
-        log.info("Notificación creada y encolada: id={}", notification.getId());
+        log.info("Notificación aceptada: id={}, status={}", notification.getId(), notification.getStatus());
         return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
     }
     
+    // ==================== Crear Lote de Notificaciones ====================
+
+    @PostMapping("/batch")
+    @Operation(
+        summary = "Enviar lote de notificaciones",
+        description = "Valida, persiste y encola un lote de notificaciones en una sola transacción. " +
+                "Si algún elemento es inválido se rechaza el lote completo."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "202",
+            description = "Lote aceptado",
+            content = @Content(schema = @Schema(implementation = BatchNotificationResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Uno o más elementos inválidos",
+            content = @Content(schema = @Schema(implementation = ApiError.class))
+        )
+    })
+    public ResponseEntity<BatchNotificationResponse> createNotificationBatch(
+            @Valid @RequestBody BatchNotificationRequest request) {
+
+        log.info("Recibido lote de notificaciones: size={}", request.getNotifications().size());
+
+        List<Notification> notifications = notificationService.createAndQueueBatch(request.getNotifications());
+
+        BatchNotificationResponse response = BatchNotificationResponse.fromEntities(notifications);
+
+        log.info("Lote aceptado: accepted={}", response.getAccepted());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
     // ==================== Consultar Notificación ====================
 
     @GetMapping("/{id}")
@@ -138,6 +223,207 @@ public class NotificationController {
         return ResponseEntity.ok(response);
     }
     
+    // ==================== Latencia por Prioridad ====================
+
+    @GetMapping("/stats/latency")
+    @Operation(
+        summary = "Latencia de entrega por prioridad",
+        description = "p50/p99 de creación a entrega por clase de prioridad y cumplimiento de su SLO " +
+                "(app.priority.slo), desde el arranque de esta instancia"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Latencias por prioridad"
+        )
+    })
+    public ResponseEntity<List<DeliveryLatencyTracker.LatencySnapshot>> getLatencyStats() {
+        return ResponseEntity.ok(latencyTracker.snapshot());
+    }
+    
+    @GetMapping("/stats/autoscaler")
+    @Operation(
+        summary = "Decisiones del autoscaler de listeners",
+        description = "Contadores y decisiones recientes de escalado de consumers y prefetch por listener"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Estadísticas del autoscaler"
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Autoscaler deshabilitado (app.autoscaler.enabled=false)"
+        )
+    })
+    public ResponseEntity<ListenerAutoscaler.Stats> getAutoscalerStats() {
+        ListenerAutoscaler listenerAutoscaler = autoscaler.getIfAvailable();
+        if (listenerAutoscaler == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(listenerAutoscaler.stats());
+    }
+    
+    @GetMapping("/stats/rate-limits")
+    @Operation(
+        summary = "Saturación del rate limiter",
+        description = "Por canal: ráfaga consumida del bucket del proveedor, buckets por destinatario/dominio " +
+                "activos y envíos inmediatos, retrasados y diferidos"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Saturación por canal"
+        )
+    })
+    public ResponseEntity<List<DispatchRateLimiter.Saturation>> getRateLimitStats() {
+        return ResponseEntity.ok(rateLimiter.saturation());
+    }
+    
+    @GetMapping("/stats/circuit-breakers")
+    @Operation(
+        summary = "Estado de los circuit breakers",
+        description = "Por canal: estado (CLOSED, OPEN, HALF_OPEN), tasa de fallos en la ventana, " +
+                "aperturas, mensajes aparcados sin llamar al proveedor y pruebas de HALF_OPEN en curso " +
+                "o liberadas por timeout"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Estado por canal"
+        )
+    })
+    public ResponseEntity<List<SenderCircuitBreakers.BreakerStatus>> getCircuitBreakerStats() {
+        return ResponseEntity.ok(circuitBreakers.status());
+    }
+    
+    @GetMapping("/health/circuit-breakers")
+    @Operation(
+        summary = "Salud de los circuit breakers",
+        description = "200 con lista vacía si todos los circuitos habilitados están CLOSED; " +
+                "503 con los que están OPEN o HALF_OPEN, para sondas y alertas"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Todos los circuitos cerrados"
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Algún circuito abierto o en pruebas"
+        )
+    })
+    public ResponseEntity<List<SenderCircuitBreakers.BreakerStatus>> getCircuitBreakerHealth() {
+        List<SenderCircuitBreakers.BreakerStatus> degraded = circuitBreakers.degraded();
+        return degraded.isEmpty()
+                ? ResponseEntity.ok(degraded)
+                : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(degraded);
+    }
+    
+    @GetMapping("/stats/coalescing")
+    @Operation(
+        summary = "Estadísticas de coalescing",
+        description = "Digests enviados, notificaciones agrupadas en ellos, envíos al proveedor ahorrados " +
+                "y notificaciones retenidas ahora mismo"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Estadísticas de coalescing"
+        )
+    })
+    public ResponseEntity<NotificationCoalescer.Stats> getCoalescingStats() {
+        return ResponseEntity.ok(coalescer.stats());
+    }
+    
+    @GetMapping("/stats/redeliveries")
+    @Operation(
+        summary = "Estadísticas de la guarda de idempotencia",
+        description = "Intentos reclamados, reentregas descartadas, mensajes aparcados por un claim vigente " +
+                "en otro consumer y eficacia del filtro de Bloom"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Estadísticas de reentregas"
+        )
+    })
+    public ResponseEntity<RedeliveryGuard.Stats> getRedeliveryStats() {
+        return ResponseEntity.ok(redeliveryGuard.stats());
+    }
+    
+    @GetMapping("/stats/shards")
+    @Operation(
+        summary = "Reparto de shards ordenados",
+        description = "Por shard de los canales con entrega ordenada: cola, instancia a la que corresponde " +
+                "y si su container está activo en esta instancia"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Reparto de shards"
+        )
+    })
+    public ResponseEntity<List<ShardCoordinator.ShardAssignment>> getShardAssignments() {
+        return ResponseEntity.ok(shardCoordinator.assignments());
+    }
+    
+    @GetMapping("/stats/status")
+    @Operation(
+        summary = "Notificaciones por estado",
+        description = "Notificaciones por estado y por canal, e intentos de entrega por resultado. Se leen de " +
+                "los contadores agregados, no de las tablas. Las notificaciones son las de las tablas calientes " +
+                "(archivarlas o expirar su partición las descuenta); los intentos son acumulados"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Totales por estado"
+        )
+    })
+    public ResponseEntity<StatusCounters.Totals> getStatusCounts() {
+        return ResponseEntity.ok(statusCounters.totals());
+    }
+    
+    @GetMapping("/stats/status/history")
+    @Operation(
+        summary = "Transiciones de estado por intervalo",
+        description = "Por intervalo, canal y estado: cuántas filas entraron y salieron de cada estado. " +
+                "Los intervalos anteriores a app.counters.compact-after están agregados por día"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Intervalos en el rango"
+        )
+    })
+    public ResponseEntity<List<StatusCounters.BucketCount>> getStatusHistory(
+            @Parameter(description = "Inicio (inclusive); por defecto hace 24 horas")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "Fin (exclusive); por defecto ahora")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofHours(24));
+        return ResponseEntity.ok(statusCounters.history(start, end));
+    }
+    
+    @GetMapping("/stats/archive")
+    @Operation(
+        summary = "Estadísticas del archivo",
+        description = "Notificaciones, intentos y bloques archivados por esta instancia, con bytes antes y " +
+                "después de comprimir"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Estadísticas del archivo"
+        )
+    })
+    public ResponseEntity<NotificationArchiver.Stats> getArchiveStats() {
+        return ResponseEntity.ok(archiver.stats());
+    }
+    
     // ==================== Consultar solo Estado ====================
 
     @GetMapping("/{id}/status")
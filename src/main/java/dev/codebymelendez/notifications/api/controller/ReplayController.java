@@ -0,0 +1,139 @@
+package dev.codebymelendez.notifications.api.controller;
+
+import dev.codebymelendez.notifications.api.dto.ApiError;
+import dev.codebymelendez.notifications.api.dto.ReplayJobResponse;
+import dev.codebymelendez.notifications.api.dto.ReplayRequest;
+import dev.codebymelendez.notifications.api.exception.ReplayJobNotFoundException;
+import dev.codebymelendez.notifications.application.replay.DeadLetterReplayService;
+import dev.codebymelendez.notifications.application.replay.ReplayJob;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/admin/replays")
+@RequiredArgsConstructor
+@Tag(name = "Replay", description = "Reenvío masivo de notificaciones fallidas (DLQ)")
+public class ReplayController {
+
+    private final DeadLetterReplayService replayService;
+
+    // ==================== Lanzar Replay ====================
+
+    @PostMapping
+    @Operation(
+        summary = "Lanzar replay",
+        description = "Reenvía las notificaciones FAILED que cumplen el filtro, en lotes y a un ritmo acotado. " +
+                "El replay se ejecuta en segundo plano y se pausa mientras las colas en vivo tengan backlog."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "202",
+            description = "Replay aceptado",
+            content = @Content(schema = @Schema(implementation = ReplayJobResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Filtro inválido",
+            content = @Content(schema = @Schema(implementation = ApiError.class))
+        )
+    })
+    public ResponseEntity<ReplayJobResponse> startReplay(@Valid @RequestBody ReplayRequest request) {
+        log.info("Recibida solicitud de replay: channel={}, errorContains={}, from={}, to={}, limit={}",
+                request.getChannel(), request.getErrorContains(), request.getFailedFrom(),
+                request.getFailedTo(), request.getLimit());
+
+        ReplayJob job = replayService.start(request.toFilter(), request.getLimit(), request.getRatePerSecond());
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ReplayJobResponse.fromJob(job));
+    }
+
+    // ==================== Consultar Replays ====================
+
+    @GetMapping
+    @Operation(
+        summary = "Listar replays",
+        description = "Replays de esta instancia, del más reciente al más antiguo"
+    )
+    public ResponseEntity<List<ReplayJobResponse>> listReplays() {
+        return ResponseEntity.ok(replayService.list().stream()
+                .map(ReplayJobResponse::fromJob)
+                .toList());
+    }
+
+    @GetMapping("/{id}")
+    @Operation(
+        summary = "Progreso de un replay",
+        description = "Estado y contadores del replay"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Replay encontrado",
+            content = @Content(schema = @Schema(implementation = ReplayJobResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Replay no encontrado",
+            content = @Content(schema = @Schema(implementation = ApiError.class))
+        )
+    })
+    public ResponseEntity<ReplayJobResponse> getReplay(
+            @Parameter(description = "ID del replay", required = true)
+            @PathVariable UUID id) {
+
+        return replayService.find(id)
+                .map(ReplayJobResponse::fromJob)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ReplayJobNotFoundException(id));
+    }
+
+    // ==================== Cancelar Replay ====================
+
+    @DeleteMapping("/{id}")
+    @Operation(
+        summary = "Cancelar replay",
+        description = "Detiene el replay al terminar el lote en curso. Lo ya reenviado no se deshace."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "202",
+            description = "Cancelación solicitada",
+            content = @Content(schema = @Schema(implementation = ReplayJobResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Replay no encontrado",
+            content = @Content(schema = @Schema(implementation = ApiError.class))
+        ),
+        @ApiResponse(
+            responseCode = "409",
+            description = "El replay ya terminó",
+            content = @Content(schema = @Schema(implementation = ApiError.class))
+        )
+    })
+    public ResponseEntity<ReplayJobResponse> cancelReplay(
+            @Parameter(description = "ID del replay", required = true)
+            @PathVariable UUID id) {
+
+        return replayService.cancel(id)
+                .map(ReplayJobResponse::fromJob)
+                .map(body -> ResponseEntity.status(HttpStatus.ACCEPTED).body(body))
+                .orElseThrow(() -> new ReplayJobNotFoundException(id));
+    }
+}
@@ -0,0 +1,35 @@
+package dev.codebymelendez.notifications.api.dto;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Solicitud de ingesta masiva. Todos los elementos se validan juntos: si alguno
+ * es inválido se rechaza el lote completo y no se persiste nada.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Solicitud para enviar un lote de notificaciones")
+public class BatchNotificationRequest {
+
+    public static final int MAX_BATCH_SIZE = 10_000;
+
+    @NotEmpty(message = "El lote debe contener al menos una notificación")
+    @Size(max = MAX_BATCH_SIZE, message = "El lote no puede exceder " + MAX_BATCH_SIZE + " notificaciones")
+    @ArraySchema(
+        arraySchema = @Schema(description = "Notificaciones del lote"),
+        schema = @Schema(implementation = NotificationRequest.class)
+    )
+    private List<@Valid NotificationRequest> notifications;
+}
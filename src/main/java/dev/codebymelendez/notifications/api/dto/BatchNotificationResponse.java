@@ -0,0 +1,66 @@
+package dev.codebymelendez.notifications.api.dto;
+
+import dev.codebymelendez.notifications.domain.model.Notification;
+import dev.codebymelendez.notifications.domain.model.NotificationStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de la ingesta masiva, en el mismo orden que la solicitud")
+public class BatchNotificationResponse {
+
+    @Schema(description = "Número de notificaciones aceptadas", example = "10000")
+    private int accepted;
+
+    @Schema(description = "Resultado por elemento")
+    private List<Item> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Resultado de un elemento del lote")
+    public static class Item {
+
+        @Schema(description = "Posición del elemento en la solicitud", example = "0")
+        private int index;
+
+        @Schema(description = "Identificador asignado a la notificación")
+        private UUID id;
+
+        @Schema(description = "Estado tras la ingesta")
+        private NotificationStatus status;
+
+        @Schema(description = "URL para consultar el estado de la notificación")
+        private String trackingUrl;
+    }
+
+    // ==================== Factory Methods ====================
+
+    public static BatchNotificationResponse fromEntities(List<Notification> notifications) {
+        List<Item> items = IntStream.range(0, notifications.size())
+                .mapToObj(i -> Item.builder()
+                        .index(i)
+                        .id(notifications.get(i).getId())
+                        .status(notifications.get(i).getStatus())
+                        .trackingUrl("/api/v1/notifications/" + notifications.get(i).getId())
+                        .build())
+                .toList();
+
+        return BatchNotificationResponse.builder()
+                .accepted(items.size())
+                .items(items)
+                .build();
+    }
+}
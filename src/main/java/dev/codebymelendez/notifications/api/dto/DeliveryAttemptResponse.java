@@ -29,6 +29,13 @@ public class DeliveryAttemptResponse {
     @Schema(description = "Mensaje de error (si falló)")
     private String errorMessage;
     
+    @Schema(description = "Código de error del proveedor (si falló)", example = "TIMEOUT")
+    private String errorCode;
+    
+    @Schema(description = "Decisión de reintento tomada tras el fallo y su motivo",
+            example = "RETRY: código transitorio TIMEOUT")
+    private String retryDecision;
+    
     @Schema(description = "Timestamp del intento")
     private Instant timestamp;
     
@@ -38,6 +45,8 @@ public class DeliveryAttemptResponse {
                 .attemptNumber(attempt.getAttemptNumber())
                 .status(attempt.getStatus())
                 .errorMessage(attempt.getErrorMessage())
+                .errorCode(attempt.getErrorCode())
+                .retryDecision(attempt.getRetryDecision())
                 .timestamp(attempt.getAttemptedAt())
                 .build();
     }
@@ -1,6 +1,7 @@
 package dev.codebymelendez.notifications.api.dto;
 
 import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.Priority;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -20,9 +21,9 @@ import java.util.Map;
  *   "recipient": "cliente@example.com",
  *   "subject": "Confirmación de pedido",
  *   "content": "Tu pedido #12345 ha sido confirmado",
+ *   "priority": "HIGH",
  *   "metadata": {
- *     "orderId": "12345",
- *     "priority": "high"
+ *     "orderId": "12345"
  *   }
  * }
  * </pre>
@@ -70,8 +71,27 @@ public class NotificationRequest {
     private String content;
     
 
+    @Schema(
+        description = "Prioridad de entrega. HIGH para OTP y transaccionales; " +
+                "si se omite se usa la clave 'priority' de metadata o NORMAL",
+        example = "NORMAL"
+    )
+    private Priority priority;
+    
+
     @Schema(
         description = "Metadatos adicionales (opcional)"
     )
     private Map<String, Object> metadata;
+    
+    /**
+     * Prioridad efectiva: el campo explícito o, para clientes que aún la envían
+     * en metadata, el valor de {@code metadata.priority}.
+     */
+    public Priority resolvePriority() {
+        if (priority != null) {
+            return priority;
+        }
+        return Priority.fromMetadata(metadata != null ? metadata.get("priority") : null);
+    }
 }
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import dev.codebymelendez.notifications.domain.model.Channel;
 import dev.codebymelendez.notifications.domain.model.Notification;
 import dev.codebymelendez.notifications.domain.model.NotificationStatus;
+import dev.codebymelendez.notifications.domain.model.Priority;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -30,6 +31,9 @@ public class NotificationResponse {
     @Schema(description = "Canal de envío")
     private Channel channel;
     
+    @Schema(description = "Prioridad de entrega")
+    private Priority priority;
+    
     @Schema(description = "Destinatario")
     private String recipient;
     
@@ -66,6 +70,7 @@ public class NotificationResponse {
         return NotificationResponse.builder()
                 .id(notification.getId())
                 .channel(notification.getChannel())
+                .priority(notification.getPriority())
                 .recipient(notification.getRecipient())
                 .subject(notification.getSubject())
                 .status(notification.getStatus())
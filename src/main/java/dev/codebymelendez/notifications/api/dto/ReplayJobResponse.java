@@ -0,0 +1,98 @@
+package dev.codebymelendez.notifications.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import dev.codebymelendez.notifications.application.replay.ReplayJob;
+import dev.codebymelendez.notifications.application.replay.ReplayStatus;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Estado y progreso de un replay")
+public class ReplayJobResponse {
+
+    @Schema(description = "Identificador del replay")
+    private UUID id;
+
+    @Schema(description = "Estado del replay")
+    private ReplayStatus status;
+
+    @Schema(description = "Canal filtrado (si aplica)")
+    private Channel channel;
+
+    @Schema(description = "Fragmento de error filtrado (si aplica)")
+    private String errorContains;
+
+    private Instant failedFrom;
+
+    private Instant failedTo;
+
+    @Schema(description = "Límite inferior de created_at con el que se buscan las notificaciones")
+    private Instant createdFrom;
+
+    @Schema(description = "Límite de notificaciones (si aplica)")
+    private Long limit;
+
+    @Schema(description = "Notificaciones por segundo")
+    private double ratePerSecond;
+
+    @Schema(description = "Notificaciones FAILED seleccionadas hasta ahora")
+    private long scanned;
+
+    @Schema(description = "Notificaciones devueltas a la cola")
+    private long replayed;
+
+    @Schema(description = "Seleccionadas que ya no estaban en FAILED al reiniciarlas")
+    private long skipped;
+
+    @Schema(description = "Tiempo total en pausa por backlog de las colas en vivo")
+    private long pausedMillis;
+
+    @Schema(description = "Error que detuvo el replay (si status = FAILED)")
+    private String error;
+
+    private Instant createdAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    @Schema(description = "URL para consultar el progreso")
+    private String trackingUrl;
+
+    // ==================== Factory Methods ====================
+
+    public static ReplayJobResponse fromJob(ReplayJob job) {
+        return ReplayJobResponse.builder()
+                .id(job.getId())
+                .status(job.getStatus())
+                .channel(job.getFilter().channel())
+                .errorContains(job.getFilter().errorContains())
+                .failedFrom(job.getFilter().failedFrom())
+                .failedTo(job.getFilter().failedTo())
+                .createdFrom(job.getFilter().createdFrom())
+                .limit(job.getLimit() != Long.MAX_VALUE ? job.getLimit() : null)
+                .ratePerSecond(job.getRatePerSecond())
+                .scanned(job.getScanned().get())
+                .replayed(job.getReplayed().get())
+                .skipped(job.getSkipped())
+                .pausedMillis(job.getPausedMillis().get())
+                .error(job.getError())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .trackingUrl("/api/v1/admin/replays/" + job.getId())
+                .build();
+    }
+}
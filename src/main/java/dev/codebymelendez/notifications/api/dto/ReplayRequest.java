@@ -0,0 +1,74 @@
+package dev.codebymelendez.notifications.api.dto;
+
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.repository.NotificationRepositoryCustom.FailedFilter;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Selección de notificaciones FAILED a reenviar. Todos los criterios son
+ * opcionales y se combinan con AND.
+ *
+ * <p>Ejemplo de uso:
+ * <pre>
+ * {
+ *   "channel": "SMS",
+ *   "errorContains": "timeout",
+ *   "failedFrom": "2026-10-17T14:00:00Z",
+ *   "failedTo": "2026-10-17T16:30:00Z",
+ *   "ratePerSecond": 100
+ * }
+ * </pre>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Solicitud de replay de notificaciones fallidas")
+public class ReplayRequest {
+
+    @Schema(description = "Solo este canal", example = "SMS")
+    private Channel channel;
+
+    @Size(max = 500, message = "El fragmento de error no puede exceder 500 caracteres")
+    @Schema(description = "Fragmento del motivo de fallo, sin distinguir mayúsculas", example = "timeout")
+    private String errorContains;
+
+    @Schema(description = "Fallidas desde este instante (inclusive)", example = "2026-10-17T14:00:00Z")
+    private Instant failedFrom;
+
+    @Schema(description = "Fallidas antes de este instante; por defecto, el inicio del replay",
+            example = "2026-10-17T16:30:00Z")
+    private Instant failedTo;
+
+    @Schema(description = "Solo las creadas desde este instante; por defecto, failedFrom menos " +
+            "app.replay.creation-lookback", example = "2026-10-10T14:00:00Z")
+    private Instant createdFrom;
+
+    @Positive(message = "El límite debe ser positivo")
+    @Schema(description = "Máximo de notificaciones a reenviar; por defecto, todas", example = "50000")
+    private Long limit;
+
+    @Positive(message = "El ritmo debe ser positivo")
+    @Schema(description = "Notificaciones por segundo; por defecto app.replay.rate, acotado a app.replay.max-rate",
+            example = "100")
+    private Double ratePerSecond;
+
+    @AssertTrue(message = "failedFrom debe ser anterior a failedTo")
+    @Schema(hidden = true)
+    public boolean isTimeRangeValid() {
+        return failedFrom == null || failedTo == null || failedFrom.isBefore(failedTo);
+    }
+
+    public FailedFilter toFilter() {
+        return new FailedFilter(channel, errorContains, failedFrom, failedTo, createdFrom);
+    }
+}
@@ -37,6 +37,22 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
     
+    @ExceptionHandler(ReplayJobNotFoundException.class)
+    public ResponseEntity<ApiError> handleReplayJobNotFound(
+            ReplayJobNotFoundException ex,
+            HttpServletRequest request) {
+        
+        log.warn("Replay no encontrado: {}", ex.getMessage());
+        
+        ApiError error = ApiError.notFound(
+                request.getRequestURI(),
+                ex.getMessage()
+        );
+        error.setCode(ex.getErrorCode());
+        
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+    
    @ExceptionHandler(InvalidNotificationException.class)
     public ResponseEntity<ApiError> handleInvalidNotification(
             InvalidNotificationException ex,
@@ -78,6 +94,24 @@ public class GlobalExceptionHandler {
     }
     
 
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public ResponseEntity<ApiError> handleIdempotencyKeyConflict(
+            IdempotencyKeyConflictException ex,
+            HttpServletRequest request) {
+        
+        log.warn("Conflicto de Idempotency-Key: {}", ex.getMessage());
+        
+        ApiError error = ApiError.of(
+                422,
+                "Unprocessable Entity",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        error.setCode(ex.getErrorCode());
+        
+        return ResponseEntity.unprocessableEntity().body(error);
+    }
+
     @ExceptionHandler(NotificationException.class)
     public ResponseEntity<ApiError> handleNotificationException(
             NotificationException ex,
@@ -0,0 +1,9 @@
+package dev.codebymelendez.notifications.api.exception;
+
+
+public class IdempotencyKeyConflictException extends NotificationException {
+
+    public IdempotencyKeyConflictException(String key) {
+        super("La Idempotency-Key '" + key + "' ya se usó con un cuerpo distinto", "IDEMPOTENCY_KEY_CONFLICT");
+    }
+}
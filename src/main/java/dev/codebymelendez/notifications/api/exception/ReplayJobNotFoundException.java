@@ -0,0 +1,11 @@
+package dev.codebymelendez.notifications.api.exception;
+
+import java.util.UUID;
+
+
+public class ReplayJobNotFoundException extends NotificationException {
+
+    public ReplayJobNotFoundException(UUID jobId) {
+        super(String.format("Replay no encontrado: %s", jobId), "REPLAY_NOT_FOUND");
+    }
+}
@@ -2,17 +2,28 @@ package dev.codebymelendez.notifications.application;
 
 import dev.codebymelendez.notifications.api.dto.NotificationRequest;
 import dev.codebymelendez.notifications.application.event.NotificationEvent;
+import dev.codebymelendez.notifications.application.event.NotificationEventFactory;
+import dev.codebymelendez.notifications.application.metrics.StatusCounters;
+import dev.codebymelendez.notifications.domain.model.EntityIds;
 import dev.codebymelendez.notifications.domain.model.Notification;
 import dev.codebymelendez.notifications.domain.model.NotificationStatus;
 import dev.codebymelendez.notifications.domain.repository.NotificationRepository;
+import dev.codebymelendez.notifications.domain.repository.OutboxRepository;
 import dev.codebymelendez.notifications.infrastructure.messaging.NotificationPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -24,6 +35,16 @@ public class NotificationService {
     
     private final NotificationRepository notificationRepository;
     private final NotificationPublisher notificationPublisher;
+    private final OutboxRepository outboxRepository;
+    private final NotificationEventFactory notificationEventFactory;
+    private final PlatformTransactionManager transactionManager;
+    private final StatusCounters statusCounters;
+
+    @Value("${app.outbox.enabled:true}")
+    private boolean outboxEnabled;
+
+    @Value("${app.publisher.async.enabled:false}")
+    private boolean asyncPublishing;
 
     @Transactional
     public Notification createAndQueue(NotificationRequest request) {
@@ -36,18 +57,32 @@ public class NotificationService {
                 .subject(request.getSubject())
                 .content(request.getContent())
                 .metadata(request.getMetadata())
+                .priority(request.resolvePriority())
                 .status(NotificationStatus.PENDING)
                 .build();
 
         notification = notificationRepository.save(notification);
+        statusCounters.created(notification.getChannel(), notification.getStatus());
         log.debug("Notificación persistida: id={}", notification.getId());
 
-        NotificationEvent event = NotificationEvent.of(notification.getId());
-        notificationPublisher.publish(event);
-        log.debug("Evento publicado en RabbitMQ: correlationId={}", event.getCorrelationId());
+        NotificationEvent event = notificationEventFactory.create(notification);
+
+        if (outboxEnabled) {
+            outboxRepository.save(event.toOutboxMessage());
+            log.info("Notificación registrada en outbox: id={}, correlationId={}",
+                    notification.getId(), event.getCorrelationId());
+            return notification;
+        }
+
+        if (asyncPublishing) {
+            publishAfterCommit(List.of(event));
+        } else {
+            publishSyncAfterCommit(List.of(event));
+        }
 
         notification.markAsQueued();
         notification = notificationRepository.save(notification);
+        statusCounters.transitioned(notification.getChannel(), NotificationStatus.PENDING, NotificationStatus.QUEUED);
         
         log.info("Notificación encolada exitosamente: id={}, status={}, correlationId={}", 
                 notification.getId(), notification.getStatus(), event.getCorrelationId());
@@ -55,12 +90,118 @@ public class NotificationService {
         return notification;
     }
 
+    /**
+     * Ingesta masiva: un único INSERT multi-fila por lote JDBC. Con outbox, los eventos
+     * se insertan en el mismo lote transaccional; sin él, se publican por un mismo
+     * canal AMQP tras el commit y una sola sentencia pasa las filas a QUEUED.
+     */
+    @Transactional
+    public List<Notification> createAndQueueBatch(List<NotificationRequest> requests) {
+        log.info("Creando lote de {} notificaciones", requests.size());
+
+        List<Notification> notifications = requests.stream()
+                .map(request -> Notification.builder()
+                        .id(EntityIds.newId())
+                        .channel(request.getChannel())
+                        .recipient(request.getRecipient())
+                        .subject(request.getSubject())
+                        .content(request.getContent())
+                        .metadata(request.getMetadata())
+                        .priority(request.resolvePriority())
+                        .status(NotificationStatus.PENDING)
+                        .build())
+                .toList();
+
+        notificationRepository.insertAll(notifications);
+
+        List<NotificationEvent> events = notifications.stream()
+                .map(notificationEventFactory::create)
+                .toList();
+
+        if (outboxEnabled) {
+            outboxRepository.insertAll(events.stream().map(NotificationEvent::toOutboxMessage).toList());
+            log.info("Lote registrado en outbox: {} notificaciones", notifications.size());
+            return notifications;
+        }
+
+        if (asyncPublishing) {
+            publishAfterCommit(events);
+        } else {
+            publishSyncAfterCommit(events);
+        }
+
+        List<UUID> ids = notifications.stream().map(Notification::getId).toList();
+        notificationRepository.markAllAsQueued(ids);
+        notifications.forEach(Notification::markAsQueued);
+
+        log.info("Lote encolado exitosamente: {} notificaciones", notifications.size());
+
+        return notifications;
+    }
+
+    /**
+     * Modo asíncrono: los eventos se publican con confirms tras el commit, de modo
+     * que el consumer nunca vea una notificación aún no persistida. Si el broker
+     * rechaza un evento (nack o timeout), la notificación pasa a FAILED en lugar
+     * de perderse en silencio.
+     */
+    private void publishAfterCommit(List<NotificationEvent> events) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                events.forEach(event -> notificationPublisher.publishAsync(event)
+                        .whenComplete((ignored, error) -> {
+                            if (error != null) {
+                                onPublishFailure(event, error);
+                            }
+                        }));
+            }
+        });
+    }
+
+    /**
+     * Modo síncrono: los eventos se publican por un mismo canal tras el commit,
+     * para que el consumer nunca reciba un ID aún no visible o que acabe en
+     * rollback. Si el broker falla, las notificaciones pasan a FAILED y el error
+     * llega al llamador.
+     */
+    private void publishSyncAfterCommit(List<NotificationEvent> events) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    notificationPublisher.publishAll(events);
+                } catch (RuntimeException e) {
+                    // La transacción original ya terminó: el cambio de estado necesita una propia
+                    TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+                    requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                    requiresNew.executeWithoutResult(status -> events.forEach(event -> onPublishFailure(event, e)));
+                    throw e;
+                }
+            }
+        });
+    }
+
+    private void onPublishFailure(NotificationEvent event, Throwable error) {
+        log.error("Publicación no confirmada: notificationId={}, error={}",
+                event.getNotificationId(), error.getMessage());
+
+        notificationRepository.transition(event.getNotificationId(), NotificationStatus.FAILED,
+                "Publicación no confirmada por el broker: " + error.getMessage(), NotificationStatus.QUEUED);
+    }
+
     public Optional<Notification> findById(UUID id) {
-        return notificationRepository.findById(id);
+        return notificationRepository.findById(id)
+                .or(() -> notificationRepository.findArchived(id));
     }
 
+    /**
+     * Si ya no está en las tablas calientes se busca en el archivo
+     * ({@code app.archive}); la notificación archivada es de solo lectura.
+     */
     public Optional<Notification> findByIdWithAttempts(UUID id) {
-        return notificationRepository.findByIdWithAttempts(id);
+        return notificationRepository.findByIdWithAttempts(id)
+                .or(() -> notificationRepository.findArchived(id));
     }
     
 
@@ -72,21 +213,29 @@ public class NotificationService {
         return notificationRepository.findAll(pageable);
     }
 
+    /**
+     * @return false si no existe o ya estaba en un estado terminal
+     */
     @Transactional
-    public void markAsDelivered(UUID id) {
-        notificationRepository.findById(id).ifPresent(notification -> {
-            notification.markAsDelivered();
-            notificationRepository.save(notification);
+    public boolean markAsDelivered(UUID id) {
+        boolean updated = notificationRepository.transition(id, NotificationStatus.DELIVERED, null,
+                NotificationStatus.nonTerminal());
+        if (updated) {
             log.info("Notificación marcada como entregada: id={}", id);
-        });
+        }
+        return updated;
     }
 
+    /**
+     * @return false si no existe o ya estaba en un estado terminal
+     */
     @Transactional
-    public void markAsFailed(UUID id, String reason) {
-        notificationRepository.findById(id).ifPresent(notification -> {
-            notification.markAsFailed(reason);
-            notificationRepository.save(notification);
+    public boolean markAsFailed(UUID id, String reason) {
+        boolean updated = notificationRepository.transition(id, NotificationStatus.FAILED, reason,
+                NotificationStatus.nonTerminal());
+        if (updated) {
             log.warn("Notificación marcada como fallida: id={}, reason={}", id, reason);
-        });
+        }
+        return updated;
     }
 }
@@ -0,0 +1,110 @@
+package dev.codebymelendez.notifications.application.archive;
+
+import dev.codebymelendez.notifications.domain.repository.NotificationArchiveRepositoryCustom.ArchiveChunk;
+import dev.codebymelendez.notifications.domain.repository.NotificationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mueve las notificaciones terminales (DELIVERED/FAILED) con más de
+ * {@code min-age} desde las tablas calientes al archivo comprimido.
+ *
+ * <p>Cada bloque de {@code chunk-size} notificaciones se archiva y se borra en su
+ * propia transacción, así que los locks y el WAL de cada paso están acotados y
+ * un fallo solo pierde el bloque en curso. Las filas se bloquean con
+ * {@code SKIP LOCKED}: varias instancias pueden archivar a la vez sin pisarse.
+ *
+ * <p>{@code min-age} debe ser menor que {@code app.partitions.retention}; lo que
+ * no se archive antes se elimina con su partición.
+ */
+@Slf4j
+@Component
+public class NotificationArchiver {
+
+    private final NotificationRepository notificationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+
+    private final LongAdder archived = new LongAdder();
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder blocks = new LongAdder();
+    private final LongAdder rawBytes = new LongAdder();
+    private final LongAdder storedBytes = new LongAdder();
+
+    public NotificationArchiver(
+            NotificationRepository notificationRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.archive.enabled:false}") boolean enabled,
+            @Value("${app.archive.min-age:7d}") Duration minAge,
+            @Value("${app.archive.chunk-size:500}") int chunkSize,
+            @Value("${app.archive.max-chunks-per-run:100}") int maxChunksPerRun) {
+        this.notificationRepository = notificationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${app.archive.interval:300000}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+
+        Instant cutoff = Instant.now().minus(minAge);
+        int total = 0;
+        try {
+            for (int i = 0; i < maxChunksPerRun; i++) {
+                ArchiveChunk chunk = transactionTemplate.execute(
+                        status -> notificationRepository.archiveTerminal(cutoff, chunkSize));
+                if (chunk == null || chunk.notifications() == 0) {
+                    break;
+                }
+                count(chunk);
+                total += chunk.notifications();
+                if (chunk.notifications() < chunkSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Error archivando notificaciones anteriores a {}: {}", cutoff, e.getMessage(), e);
+        }
+
+        if (total > 0) {
+            log.info("Archivadas {} notificaciones anteriores a {} (total {}, ratio {})",
+                    total, cutoff, archived.sum(), String.format("%.2f", stats().compressionRatio()));
+        }
+    }
+
+    public Stats stats() {
+        long stored = storedBytes.sum();
+        return new Stats(archived.sum(), attempts.sum(), blocks.sum(), rawBytes.sum(), stored,
+                stored > 0 ? (double) rawBytes.sum() / stored : 0);
+    }
+
+    private void count(ArchiveChunk chunk) {
+        archived.add(chunk.notifications());
+        attempts.add(chunk.attempts());
+        blocks.increment();
+        rawBytes.add(chunk.rawBytes());
+        storedBytes.add(chunk.storedBytes());
+    }
+
+    /**
+     * Contadores de esta instancia desde el arranque.
+     */
+    public record Stats(long notifications, long attempts, long blocks, long rawBytes, long storedBytes,
+                        double compressionRatio) {
+    }
+}
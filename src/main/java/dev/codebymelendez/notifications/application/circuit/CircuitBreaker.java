@@ -0,0 +1,224 @@
+package dev.codebymelendez.notifications.application.circuit;
+
+import dev.codebymelendez.notifications.config.ChannelProperties;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Circuit breaker de un sender con ventana deslizante por número de llamadas.
+ *
+ * <p>CLOSED → OPEN cuando, con al menos {@code minimum-calls} en la ventana, la
+ * tasa de fallos alcanza {@code failure-rate-threshold}. Pasado
+ * {@code open-duration} deja pasar {@code half-open-calls} pruebas; si todas van
+ * bien se cierra y el tráfico se recupera de forma gradual durante
+ * {@code ramp-up} (se admite una fracción creciente de los envíos). Un fallo en
+ * HALF_OPEN lo vuelve a abrir. Una prueba sin resultado ni devolución pasado
+ * {@code probe-timeout} (un envío cuyo futuro no termina) libera su plaza, para
+ * que el circuito no se quede en HALF_OPEN sin admitir más pruebas.
+ *
+ * <p>Usa un {@link ReentrantLock} en lugar de {@code synchronized} para no fijar
+ * virtual threads.
+ */
+final class CircuitBreaker {
+
+    private final ChannelProperties.CircuitBreaker config;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] window;
+
+    private CircuitState state = CircuitState.CLOSED;
+    private int windowIndex;
+    private int windowCalls;
+    private int windowFailures;
+    private long openedAt;
+    private long closedAt = Long.MIN_VALUE;
+    // Instantes de concesión de las pruebas en curso, de la más antigua a la más reciente
+    private final ArrayDeque<Long> probes = new ArrayDeque<>();
+    private int probeSuccesses;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder trips = new LongAdder();
+    private final LongAdder probeTimeouts = new LongAdder();
+
+    CircuitBreaker(ChannelProperties.CircuitBreaker config) {
+        this.config = config;
+        this.window = new boolean[Math.max(1, config.getWindowSize())];
+    }
+
+    /**
+     * @return 0 si la llamada puede hacerse, o los milisegundos que conviene
+     *         aparcar el mensaje
+     */
+    long tryAcquire() {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            switch (state) {
+                case OPEN -> {
+                    long remaining = openedAt + config.getOpenDuration().toNanos() - now;
+                    if (remaining > 0) {
+                        rejected.increment();
+                        return Duration.ofNanos(remaining).toMillis() + 1;
+                    }
+                    state = CircuitState.HALF_OPEN;
+                    probes.clear();
+                    probeSuccesses = 0;
+                    return acquireProbe(now);
+                }
+                case HALF_OPEN -> {
+                    return acquireProbe(now);
+                }
+                default -> {
+                    if (isRampingUp(now) && ThreadLocalRandom.current().nextDouble() > rampFraction(now)) {
+                        rejected.increment();
+                        return config.getRampUpDelay().toMillis();
+                    }
+                    return 0;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return el estado nuevo si el resultado provoca una transición; {@code null} si no
+     */
+    CircuitState record(boolean failure) {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            CircuitState before = state;
+            switch (state) {
+                case HALF_OPEN -> {
+                    // Sin identificador por prueba: el resultado cierra la más antigua
+                    probes.pollFirst();
+                    if (failure) {
+                        open(now);
+                    } else if (++probeSuccesses >= config.getHalfOpenCalls()) {
+                        close(now);
+                    }
+                }
+                case CLOSED -> {
+                    if (windowCalls == window.length) {
+                        if (window[windowIndex]) {
+                            windowFailures--;
+                        }
+                    } else {
+                        windowCalls++;
+                    }
+                    window[windowIndex] = failure;
+                    if (failure) {
+                        windowFailures++;
+                    }
+                    windowIndex = (windowIndex + 1) % window.length;
+
+                    if (windowCalls >= config.getMinimumCalls() && failureRate() >= config.getFailureRateThreshold()) {
+                        open(now);
+                    }
+                }
+                default -> {
+                    // Resultados de llamadas iniciadas antes de abrir: ya no cuentan
+                }
+            }
+            return state != before ? state : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Devuelve una prueba de HALF_OPEN que se concedió pero no llegó a usarse.
+     */
+    void release() {
+        lock.lock();
+        try {
+            if (state == CircuitState.HALF_OPEN) {
+                probes.pollFirst();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Snapshot snapshot() {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            long openRemaining = 0;
+            if (state == CircuitState.HALF_OPEN) {
+                expireProbes(now);
+            } else if (state == CircuitState.OPEN) {
+                openRemaining = Math.max(0,
+                        Duration.ofNanos(openedAt + config.getOpenDuration().toNanos() - now).toMillis());
+            }
+            return new Snapshot(state, windowCalls, failureRate(), trips.sum(), rejected.sum(),
+                    probes.size(), probeTimeouts.sum(), openRemaining);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    CircuitState state() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long acquireProbe(long now) {
+        expireProbes(now);
+        if (probes.size() + probeSuccesses >= config.getHalfOpenCalls()) {
+            rejected.increment();
+            return config.getRampUpDelay().toMillis();
+        }
+        probes.addLast(now);
+        return 0;
+    }
+
+    private void expireProbes(long now) {
+        long timeout = config.getProbeTimeout().toNanos();
+        while (!probes.isEmpty() && now - probes.peekFirst() >= timeout) {
+            probes.pollFirst();
+            probeTimeouts.increment();
+        }
+    }
+
+    private void open(long now) {
+        state = CircuitState.OPEN;
+        openedAt = now;
+        probes.clear();
+        trips.increment();
+    }
+
+    private void close(long now) {
+        state = CircuitState.CLOSED;
+        closedAt = now;
+        probes.clear();
+        windowIndex = 0;
+        windowCalls = 0;
+        windowFailures = 0;
+    }
+
+    private boolean isRampingUp(long now) {
+        return closedAt != Long.MIN_VALUE && now - closedAt < config.getRampUp().toNanos();
+    }
+
+    private double rampFraction(long now) {
+        double elapsed = (double) (now - closedAt) / config.getRampUp().toNanos();
+        return Math.max(0.1, elapsed);
+    }
+
+    private double failureRate() {
+        return windowCalls == 0 ? 0 : (double) windowFailures / windowCalls;
+    }
+
+    record Snapshot(CircuitState state, int calls, double failureRate, long trips, long rejected,
+                    int probesInFlight, long probeTimeouts, long openRemainingMillis) {
+    }
+}
@@ -0,0 +1,14 @@
+package dev.codebymelendez.notifications.application.circuit;
+
+
+public enum CircuitState {
+
+    /** Tráfico normal; se mide la tasa de fallos. */
+    CLOSED,
+
+    /** Proveedor caído: los mensajes se aparcan sin llamarlo. */
+    OPEN,
+
+    /** Tras la espera: solo unas pocas llamadas de prueba. */
+    HALF_OPEN
+}
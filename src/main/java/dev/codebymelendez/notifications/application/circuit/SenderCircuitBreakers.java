@@ -0,0 +1,122 @@
+package dev.codebymelendez.notifications.application.circuit;
+
+import dev.codebymelendez.notifications.config.ChannelProperties;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.DeliveryResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Circuit breakers por canal alrededor de los senders.
+ *
+ * <p>Los consumers llaman a {@link #tryAcquire} antes de enviar y a
+ * {@link #record} con el {@link DeliveryResult}. Los códigos de
+ * {@code ignored-codes} (errores del propio mensaje) no cuentan como fallo del
+ * proveedor. Configuración en {@code app.channels.<canal>.circuit-breaker}.
+ */
+@Slf4j
+@Component
+public class SenderCircuitBreakers {
+
+    private final ChannelProperties channelProperties;
+    private final Map<Channel, CircuitBreaker> breakers = new EnumMap<>(Channel.class);
+
+    public SenderCircuitBreakers(ChannelProperties channelProperties) {
+        this.channelProperties = channelProperties;
+        for (Channel channel : Channel.values()) {
+            breakers.put(channel, new CircuitBreaker(channelProperties.forChannel(channel).getCircuitBreaker()));
+        }
+    }
+
+    /**
+     * @return 0 si se puede llamar al sender, o los milisegundos que debe
+     *         aparcarse el mensaje
+     */
+    public long tryAcquire(Channel channel) {
+        if (!isEnabled(channel)) {
+            return 0;
+        }
+        return breakers.get(channel).tryAcquire();
+    }
+
+    /**
+     * El envío concedido por {@link #tryAcquire} no se hizo (p. ej. lo difirió el
+     * rate limiter).
+     */
+    public void release(Channel channel) {
+        if (isEnabled(channel)) {
+            breakers.get(channel).release();
+        }
+    }
+
+    public void record(Channel channel, DeliveryResult result) {
+        if (!isEnabled(channel)) {
+            return;
+        }
+        ChannelProperties.CircuitBreaker config = channelProperties.forChannel(channel).getCircuitBreaker();
+        if (result.isFailure() && result.errorCode() != null && config.getIgnoredCodes().contains(result.errorCode())) {
+            return;
+        }
+
+        CircuitState transition = breakers.get(channel).record(result.isFailure());
+        if (transition != null) {
+            if (transition == CircuitState.OPEN) {
+                log.warn("Circuito abierto: channel={}, openDuration={}, lastError={}",
+                        channel, config.getOpenDuration(), result.errorCode());
+            } else {
+                log.info("Circuito {}: channel={}", transition, channel);
+            }
+        }
+    }
+
+    public List<BreakerStatus> status() {
+        return Arrays.stream(Channel.values())
+                .map(channel -> {
+                    CircuitBreaker.Snapshot snapshot = breakers.get(channel).snapshot();
+                    return new BreakerStatus(channel, isEnabled(channel), snapshot.state(), snapshot.calls(),
+                            snapshot.failureRate(), snapshot.trips(), snapshot.rejected(),
+                            snapshot.probesInFlight(), snapshot.probeTimeouts(), snapshot.openRemainingMillis());
+                })
+                .toList();
+    }
+
+    private boolean isEnabled(Channel channel) {
+        return channelProperties.forChannel(channel).getCircuitBreaker().isEnabled();
+    }
+
+    /**
+     * Circuitos habilitados que no están CLOSED: sus envíos se aparcan o se
+     * limitan a las pruebas.
+     */
+    public List<BreakerStatus> degraded() {
+        return status().stream()
+                .filter(status -> status.enabled() && status.state() != CircuitState.CLOSED)
+                .toList();
+    }
+
+    /**
+     * @param calls               envíos en la ventana actual
+     * @param trips               veces que el circuito se ha abierto
+     * @param rejected            mensajes aparcados sin llamar al proveedor
+     * @param probesInFlight      pruebas de HALF_OPEN concedidas y aún sin resultado
+     * @param probeTimeouts       pruebas liberadas por {@code probe-timeout}
+     * @param openRemainingMillis tiempo hasta pasar a HALF_OPEN (solo OPEN)
+     */
+    public record BreakerStatus(
+            Channel channel,
+            boolean enabled,
+            CircuitState state,
+            int calls,
+            double failureRate,
+            long trips,
+            long rejected,
+            int probesInFlight,
+            long probeTimeouts,
+            long openRemainingMillis
+    ) {}
+}
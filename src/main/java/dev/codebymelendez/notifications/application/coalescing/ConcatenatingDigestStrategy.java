@@ -0,0 +1,58 @@
+package dev.codebymelendez.notifications.application.coalescing;
+
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.Notification;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Estrategia por defecto: concatena los contenidos en orden de llegada. Si todos
+ * comparten asunto se mantiene; si no, se usa un asunto genérico con el número
+ * de avisos. Queda la última para que cualquier estrategia propia tenga prioridad.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class ConcatenatingDigestStrategy implements DigestStrategy {
+
+    @Override
+    public boolean supports(Channel channel) {
+        return true;
+    }
+
+    @Override
+    public Notification merge(List<Notification> notifications) {
+        Notification first = notifications.get(0);
+        String separator = first.getChannel() == Channel.SMS ? "\n" : "\n\n";
+
+        String content = notifications.stream()
+                .map(Notification::getContent)
+                .collect(Collectors.joining(separator));
+
+        boolean sameSubject = notifications.stream()
+                .map(Notification::getSubject)
+                .allMatch(subject -> Objects.equals(subject, first.getSubject()));
+        String subject = sameSubject
+                ? first.getSubject()
+                : notifications.size() + " notificaciones";
+
+        return Notification.builder()
+                .id(first.getId())
+                .channel(first.getChannel())
+                .recipient(first.getRecipient())
+                .subject(subject)
+                .content(content)
+                .priority(first.getPriority())
+                .metadata(Map.of("digestOf", notifications.stream()
+                        .map(notification -> notification.getId().toString())
+                        .toList()))
+                .status(first.getStatus())
+                .createdAt(first.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,24 @@
+package dev.codebymelendez.notifications.application.coalescing;
+
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.Notification;
+
+import java.util.List;
+
+/**
+ * Fusiona varias notificaciones para el mismo destinatario en un único envío.
+ *
+ * <p>Las implementaciones son beans; el coalescer usa la primera (según
+ * {@code @Order}) que soporte el canal. El resultado es transitorio: no se
+ * persiste y solo se entrega al sender.
+ */
+public interface DigestStrategy {
+
+    boolean supports(Channel channel);
+
+    /**
+     * @param notifications al menos dos notificaciones del mismo canal y destinatario,
+     *                      en orden de llegada
+     */
+    Notification merge(List<Notification> notifications);
+}
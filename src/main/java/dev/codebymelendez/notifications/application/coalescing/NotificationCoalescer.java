@@ -0,0 +1,256 @@
+package dev.codebymelendez.notifications.application.coalescing;
+
+import dev.codebymelendez.notifications.config.ChannelProperties;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.DeliveryResult;
+import dev.codebymelendez.notifications.domain.model.Notification;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Etapa opcional previa al envío que agrupa notificaciones por (canal, destinatario).
+ *
+ * <p>Con {@code app.channels.<canal>.coalescing.enabled} las notificaciones se
+ * acumulan hasta {@code window} o {@code max-size} y se envían como un único
+ * digest construido por la {@link DigestStrategy} del canal. El resultado del
+ * digest se entrega a cada notificación original, que registra su propio intento
+ * y estado. Las notificaciones exprés (HIGH) nunca se retienen.
+ */
+@Slf4j
+@Component
+public class NotificationCoalescer {
+
+    private final ChannelProperties channelProperties;
+    private final List<DigestStrategy> strategies;
+    private final Map<Key, Buffer> buffers = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder digests = new LongAdder();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("coalescer-window").daemon().factory());
+
+    public NotificationCoalescer(ChannelProperties channelProperties, List<DigestStrategy> strategies) {
+        this.channelProperties = channelProperties;
+        this.strategies = strategies;
+    }
+
+    /**
+     * Los canales con entrega ordenada no agrupan: sus shards procesan de un
+     * mensaje en un mensaje y retenerlos bloquearía el shard durante la ventana.
+     */
+    public boolean isEnabled(Notification notification) {
+        ChannelProperties.Settings settings = channelProperties.forChannel(notification.getChannel());
+        return settings.getCoalescing().isEnabled()
+                && !settings.getOrdering().isEnabled()
+                && !notification.getPriority().isExpress();
+    }
+
+    /**
+     * Retiene la notificación en el buffer de su destinatario. Cuando el buffer se
+     * cierra, {@code dispatcher} recibe el digest (o la propia notificación si
+     * llegó sola) y su resultado completa el futuro de cada notificación agrupada.
+     */
+    public CompletableFuture<DeliveryResult> submit(
+            Notification notification, Function<Notification, CompletableFuture<DeliveryResult>> dispatcher) {
+        Pending pending = new Pending(notification);
+        Key key = Key.of(notification);
+        List<Pending> full = buffers.computeIfAbsent(key, k -> new Buffer(k, dispatcher)).add(pending);
+        if (full != null) {
+            flush(full, dispatcher);
+        }
+        return pending.result;
+    }
+
+    /**
+     * Agrupa un lote ya recibido (consumer por lotes), sin ventana de espera.
+     * Las notificaciones no agrupables quedan en grupos de uno.
+     */
+    public List<List<Notification>> group(List<Notification> notifications) {
+        Map<Key, List<Notification>> groups = new LinkedHashMap<>();
+        List<List<Notification>> result = new ArrayList<>();
+
+        for (Notification notification : notifications) {
+            if (!isEnabled(notification)) {
+                result.add(List.of(notification));
+                continue;
+            }
+            Key key = Key.of(notification);
+            List<Notification> group = groups.computeIfAbsent(key, k -> new ArrayList<>());
+            group.add(notification);
+            if (group.size() >= maxSize(notification.getChannel())) {
+                result.add(groups.remove(key));
+            }
+        }
+
+        result.addAll(groups.values());
+        return result;
+    }
+
+    /**
+     * @return la propia notificación si el grupo es de uno; si no, el digest
+     */
+    public Notification merge(List<Notification> group) {
+        if (group.size() == 1) {
+            return group.get(0);
+        }
+        Channel channel = group.get(0).getChannel();
+        DigestStrategy strategy = strategies.stream()
+                .filter(candidate -> candidate.supports(channel))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Sin DigestStrategy para el canal " + channel));
+
+        coalesced.add(group.size());
+        digests.increment();
+        return strategy.merge(group);
+    }
+
+    public Stats stats() {
+        long digestCount = digests.sum();
+        long coalescedCount = coalesced.sum();
+        return new Stats(digestCount, coalescedCount, coalescedCount - digestCount,
+                buffers.values().stream().mapToInt(Buffer::size).sum());
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        buffers.values().forEach(Buffer::flushNow);
+        scheduler.shutdown();
+    }
+
+    private void flush(List<Pending> batch, Function<Notification, CompletableFuture<DeliveryResult>> dispatcher) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<Notification> group = batch.stream().map(pending -> pending.notification).toList();
+        CompletableFuture<DeliveryResult> result;
+        try {
+            result = dispatcher.apply(merge(group));
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+
+        if (group.size() > 1) {
+            log.debug("Digest enviado: channel={}, notificaciones={}", group.get(0).getChannel(), group.size());
+        }
+        result.whenComplete((delivery, error) -> batch.forEach(pending -> {
+            if (error != null) {
+                pending.result.completeExceptionally(error);
+            } else {
+                pending.result.complete(delivery);
+            }
+        }));
+    }
+
+    private int maxSize(Channel channel) {
+        return Math.max(1, channelProperties.forChannel(channel).getCoalescing().getMaxSize());
+    }
+
+    /**
+     * @param saved envíos al proveedor ahorrados (notificaciones agrupadas menos digests)
+     * @param buffered notificaciones retenidas ahora mismo en los buffers
+     */
+    public record Stats(long digests, long coalesced, long saved, int buffered) {
+    }
+
+    private record Key(Channel channel, String recipient) {
+
+        private static Key of(Notification notification) {
+            return new Key(notification.getChannel(),
+                    notification.getRecipient().trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private static final class Pending {
+
+        private final Notification notification;
+        private final CompletableFuture<DeliveryResult> result = new CompletableFuture<>();
+
+        private Pending(Notification notification) {
+            this.notification = notification;
+        }
+    }
+
+    /**
+     * Buffer de un destinatario. Usa un {@link ReentrantLock} en lugar de
+     * {@code synchronized} para no fijar virtual threads a su carrier.
+     */
+    private final class Buffer {
+
+        private final Key key;
+        private final Function<Notification, CompletableFuture<DeliveryResult>> dispatcher;
+        private final ReentrantLock lock = new ReentrantLock();
+        private List<Pending> pending = new ArrayList<>();
+        private ScheduledFuture<?> windowTask;
+
+        private Buffer(Key key, Function<Notification, CompletableFuture<DeliveryResult>> dispatcher) {
+            this.key = key;
+            this.dispatcher = dispatcher;
+        }
+
+        /**
+         * @return el grupo a enviar si se alcanzó el tamaño máximo; {@code null} si no
+         */
+        private List<Pending> add(Pending item) {
+            lock.lock();
+            try {
+                pending.add(item);
+                if (pending.size() >= maxSize(key.channel())) {
+                    return drain();
+                }
+                if (windowTask == null) {
+                    long window = channelProperties.forChannel(key.channel()).getCoalescing().getWindow().toMillis();
+                    windowTask = scheduler.schedule(this::flushNow, window, TimeUnit.MILLISECONDS);
+                }
+                return null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void flushNow() {
+            flush(drain(), dispatcher);
+            // Un buffer vacío se descarta para que el mapa no crezca con cada destinatario
+            buffers.computeIfPresent(key, (k, buffer) -> buffer.size() == 0 ? null : buffer);
+        }
+
+        private int size() {
+            lock.lock();
+            try {
+                return pending.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private List<Pending> drain() {
+            lock.lock();
+            try {
+                if (windowTask != null) {
+                    windowTask.cancel(false);
+                    windowTask = null;
+                }
+                List<Pending> batch = pending;
+                pending = new ArrayList<>();
+                return batch;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
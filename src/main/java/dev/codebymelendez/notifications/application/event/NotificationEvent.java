@@ -1,11 +1,15 @@
 package dev.codebymelendez.notifications.application.event;
 
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.OutboxMessage;
+import dev.codebymelendez.notifications.domain.model.Priority;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -20,6 +24,23 @@ public class NotificationEvent implements Serializable {
 
     private UUID notificationId;
 
+    /**
+     * Canal de la notificación, usado para enrutar a la cola del canal.
+     * Puede ser null en mensajes publicados antes de las colas por canal.
+     */
+    private Channel channel;
+
+    /**
+     * Prioridad de entrega; decide el carril del canal. Null equivale a NORMAL.
+     */
+    private Priority priority;
+
+    /**
+     * Hash del destinatario; en los canales con entrega ordenada decide el shard.
+     * Null en mensajes publicados antes del sharding.
+     */
+    private Integer orderingKey;
+
     @Builder.Default
     private Instant createdAt = Instant.now();
     
@@ -28,6 +49,17 @@ public class NotificationEvent implements Serializable {
     private int attemptNumber = 1;
 
     private String correlationId;
+
+    /**
+     * Contenido de la notificación en modo fat; null en eventos solo con ID.
+     */
+    private NotificationPayload payload;
+
+    /**
+     * Instante antes del cual no se envía: un retry-after del proveedor mayor
+     * que el nivel de backoff más largo. Null si no hay espera pendiente.
+     */
+    private Instant notBefore;
     
     // ==================== Factory Methods ====================
 
@@ -38,12 +70,57 @@ public class NotificationEvent implements Serializable {
                 .build();
     }
 
+    public static NotificationEvent of(UUID notificationId, Channel channel) {
+        return NotificationEvent.builder()
+                .notificationId(notificationId)
+                .channel(channel)
+                .correlationId(UUID.randomUUID().toString())
+                .build();
+    }
+
+    public static NotificationEvent of(UUID notificationId, Channel channel, Priority priority) {
+        return NotificationEvent.builder()
+                .notificationId(notificationId)
+                .channel(channel)
+                .priority(priority)
+                .correlationId(UUID.randomUUID().toString())
+                .build();
+    }
+
+    public static NotificationEvent fromOutbox(OutboxMessage message) {
+        return NotificationEvent.builder()
+                .notificationId(message.getNotificationId())
+                .channel(message.getChannel())
+                .priority(message.getPriority())
+                .orderingKey(message.getOrderingKey())
+                .createdAt(message.getCreatedAt())
+                .attemptNumber(message.getAttemptNumber())
+                .correlationId(message.getCorrelationId())
+                .build();
+    }
+
+    public OutboxMessage toOutboxMessage() {
+        return OutboxMessage.builder()
+                .notificationId(this.notificationId)
+                .channel(this.channel)
+                .priority(this.priority)
+                .orderingKey(this.orderingKey)
+                .correlationId(this.correlationId)
+                .attemptNumber(this.attemptNumber)
+                .createdAt(this.createdAt)
+                .build();
+    }
+
     public NotificationEvent forRetry() {
         return NotificationEvent.builder()
                 .notificationId(this.notificationId)
+                .channel(this.channel)
+                .priority(this.priority)
+                .orderingKey(this.orderingKey)
                 .createdAt(Instant.now())
                 .attemptNumber(this.attemptNumber + 1)
                 .correlationId(this.correlationId)
+                .payload(this.payload)
                 .build();
     }
     
@@ -52,12 +129,27 @@ public class NotificationEvent implements Serializable {
     public boolean isRetry() {
         return attemptNumber > 1;
     }
+
+    public boolean hasPayload() {
+        return payload != null;
+    }
+
+    /**
+     * Milisegundos que faltan para {@link #notBefore}; 0 si ya se puede enviar.
+     */
+    public long remainingDelayMillis() {
+        return notBefore == null ? 0 : Math.max(0, Duration.between(Instant.now(), notBefore).toMillis());
+    }
+
+    public boolean isExpress() {
+        return priority != null && priority.isExpress();
+    }
     
     @Override
     public String toString() {
         return String.format(
-            "NotificationEvent{notificationId=%s, attempt=%d, correlationId=%s}",
-            notificationId, attemptNumber, correlationId
+            "NotificationEvent{notificationId=%s, channel=%s, priority=%s, attempt=%d, correlationId=%s, fat=%s}",
+            notificationId, channel, priority, attemptNumber, correlationId, hasPayload()
         );
     }
 }
@@ -0,0 +1,94 @@
+package dev.codebymelendez.notifications.application.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.codebymelendez.notifications.domain.model.Notification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Crea los eventos a publicar. Con {@code app.events.fat.enabled} el evento
+ * lleva el contenido de la notificación, salvo que supere
+ * {@code app.events.fat.max-bytes}: entonces se publica solo con el ID y el
+ * consumer la lee de la base de datos como siempre.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationEventFactory {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.events.fat.enabled:false}")
+    private boolean fatEvents;
+
+    @Value("${app.events.fat.max-bytes:8192}")
+    private int maxPayloadBytes;
+
+    public boolean isFatEnabled() {
+        return fatEvents;
+    }
+
+    public NotificationEvent create(Notification notification) {
+        NotificationEvent event =
+                NotificationEvent.of(notification.getId(), notification.getChannel(), notification.getPriority());
+        event.setOrderingKey(orderingKey(notification.getRecipient()));
+        return attachPayload(event, notification);
+    }
+
+    /**
+     * Hash estable del destinatario normalizado (FNV-1a con mezcla final de
+     * murmur3): el mismo destinatario cae siempre en el mismo shard y los bits
+     * bajos quedan bien repartidos para el módulo.
+     */
+    public static int orderingKey(String recipient) {
+        String normalized = recipient != null ? recipient.trim().toLowerCase(Locale.ROOT) : "";
+        int hash = 0x811c9dc5;
+        for (byte b : normalized.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x01000193;
+        }
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    /**
+     * Adjunta el contenido de la notificación al evento si el modo está activo
+     * y cabe en el umbral.
+     */
+    public NotificationEvent attachPayload(NotificationEvent event, Notification notification) {
+        if (fatEvents && estimateBytes(notification) <= maxPayloadBytes) {
+            event.setPayload(NotificationPayload.from(notification));
+        }
+        return event;
+    }
+
+    private long estimateBytes(Notification notification) {
+        return utf8Length(notification.getRecipient())
+                + utf8Length(notification.getSubject())
+                + utf8Length(notification.getContent())
+                + metadataLength(notification);
+    }
+
+    private long metadataLength(Notification notification) {
+        if (notification.getMetadata() == null || notification.getMetadata().isEmpty()) {
+            return 0;
+        }
+        try {
+            return objectMapper.writeValueAsBytes(notification.getMetadata()).length;
+        } catch (JsonProcessingException e) {
+            return Long.MAX_VALUE / 2;
+        }
+    }
+
+    private static long utf8Length(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8).length : 0;
+    }
+}
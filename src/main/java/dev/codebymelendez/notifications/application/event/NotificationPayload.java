@@ -0,0 +1,64 @@
+package dev.codebymelendez.notifications.application.event;
+
+import dev.codebymelendez.notifications.domain.model.Notification;
+import dev.codebymelendez.notifications.domain.model.NotificationStatus;
+import dev.codebymelendez.notifications.domain.model.Priority;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Contenido de la notificación embebido en un evento "fat": el consumer envía
+ * directamente desde el mensaje sin leer la fila de {@code notifications}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPayload implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String recipient;
+
+    private String subject;
+
+    private String content;
+
+    private Map<String, Object> metadata;
+
+    /** Creación de la notificación, para medir la latencia de entrega. */
+    private Instant notificationCreatedAt;
+
+    public static NotificationPayload from(Notification notification) {
+        return NotificationPayload.builder()
+                .recipient(notification.getRecipient())
+                .subject(notification.getSubject())
+                .content(notification.getContent())
+                .metadata(notification.getMetadata())
+                .notificationCreatedAt(notification.getCreatedAt())
+                .build();
+    }
+
+    /**
+     * Notificación transitoria (no gestionada por JPA) para entregarla al sender.
+     */
+    public Notification toNotification(NotificationEvent event) {
+        return Notification.builder()
+                .id(event.getNotificationId())
+                .channel(event.getChannel())
+                .priority(event.getPriority() != null ? event.getPriority() : Priority.NORMAL)
+                .recipient(recipient)
+                .subject(subject)
+                .content(content)
+                .metadata(metadata)
+                .status(NotificationStatus.PROCESSING)
+                .createdAt(notificationCreatedAt != null ? notificationCreatedAt : event.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,68 @@
+package dev.codebymelendez.notifications.application.idempotency;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caché acotada con expiración por TTL. Al superar {@code maxSize} se descarta
+ * la entrada más antigua; las expiradas se descartan al leerlas.
+ *
+ * <p>Usa un {@link ReentrantLock} en lugar de {@code synchronized} para no fijar
+ * virtual threads a su carrier.
+ */
+final class ExpiringCache<K, V> {
+
+    private final long ttlNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Timestamped<V>> entries;
+
+    ExpiringCache(int maxSize, Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Timestamped<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    V get(K key) {
+        lock.lock();
+        try {
+            Timestamped<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.storedAt() > ttlNanos) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void put(K key, V value) {
+        lock.lock();
+        try {
+            entries.put(key, new Timestamped<>(value, System.nanoTime()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Timestamped<V>(V value, long storedAt) {
+    }
+}
@@ -0,0 +1,178 @@
+package dev.codebymelendez.notifications.application.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.codebymelendez.notifications.api.dto.NotificationRequest;
+import dev.codebymelendez.notifications.api.dto.NotificationResponse;
+import dev.codebymelendez.notifications.api.exception.IdempotencyKeyConflictException;
+import dev.codebymelendez.notifications.api.exception.NotificationNotFoundException;
+import dev.codebymelendez.notifications.application.NotificationService;
+import dev.codebymelendez.notifications.domain.model.IdempotencyKey;
+import dev.codebymelendez.notifications.domain.model.Notification;
+import dev.codebymelendez.notifications.domain.repository.IdempotencyKeyRepository;
+import dev.codebymelendez.notifications.domain.repository.NotificationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creación idempotente con la cabecera {@code Idempotency-Key}.
+ *
+ * <p>Tres niveles, del más barato al definitivo:
+ * <ol>
+ *   <li>una caché acotada con TTL de las respuestas recientes: un reintento del
+ *       cliente devuelve la respuesta original sin tocar Postgres ni RabbitMQ;</li>
+ *   <li>las peticiones concurrentes con la misma clave en esta instancia esperan
+ *       a la primera en lugar de competir por la base de datos;</li>
+ *   <li>la clave primaria de {@code idempotency_keys}, reservada en la misma
+ *       transacción que crea la notificación, garantiza un único insert entre
+ *       instancias.</li>
+ * </ol>
+ *
+ * <p>La misma clave con un cuerpo distinto se rechaza con
+ * {@link IdempotencyKeyConflictException}.
+ */
+@Slf4j
+@Service
+public class IdempotencyKeyService {
+
+    private final NotificationService notificationService;
+    private final NotificationRepository notificationRepository;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper fingerprintMapper;
+    private final Duration retention;
+    private final ExpiringCache<String, Entry> recent;
+    private final Map<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyKeyService(
+            NotificationService notificationService,
+            NotificationRepository notificationRepository,
+            IdempotencyKeyRepository idempotencyKeyRepository,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            @Value("${app.idempotency.cache-max-size:10000}") int cacheMaxSize,
+            @Value("${app.idempotency.cache-ttl:10m}") Duration cacheTtl,
+            @Value("${app.idempotency.retention:24h}") Duration retention) {
+        this.notificationService = notificationService;
+        this.notificationRepository = notificationRepository;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.fingerprintMapper = objectMapper.copy().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        this.retention = retention;
+        this.recent = new ExpiringCache<>(cacheMaxSize, cacheTtl);
+    }
+
+    public Result createAndQueue(String key, NotificationRequest request) {
+        String requestHash = fingerprint(request);
+
+        Entry cached = recent.get(key);
+        if (cached != null) {
+            log.debug("Idempotency-Key resuelta desde caché: key={}", key);
+            return replay(key, requestHash, cached);
+        }
+
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            return replay(key, requestHash, await(leader));
+        }
+
+        try {
+            Entry entry = transactionTemplate.execute(status -> createOrLoad(key, requestHash, request));
+            recent.put(key, entry);
+            mine.complete(entry);
+            return entry.replayed() ? replay(key, requestHash, entry) : new Result(entry.response(), false);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Purga las claves más antiguas que la retención; pasado ese tiempo un
+     * reintento con la misma clave crea una notificación nueva.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval:3600000}")
+    @Transactional
+    public void purgeExpiredKeys() {
+        int deleted = idempotencyKeyRepository.deleteCreatedBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Idempotency-Keys purgadas: {}", deleted);
+        }
+    }
+
+    /**
+     * Reserva la clave; si otra transacción ya la tenía, el INSERT espera a su
+     * commit y se devuelve la notificación que creó.
+     */
+    private Entry createOrLoad(String key, String requestHash, NotificationRequest request) {
+        if (idempotencyKeyRepository.reserve(key, requestHash)) {
+            Notification notification = notificationService.createAndQueue(request);
+            idempotencyKeyRepository.bind(key, notification.getId());
+            return new Entry(NotificationResponse.fromEntity(notification), requestHash, false);
+        }
+
+        IdempotencyKey existing = idempotencyKeyRepository.findById(key)
+                .orElseThrow(() -> new IllegalStateException("Idempotency-Key reservada y no encontrada: " + key));
+        if (!existing.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyKeyConflictException(key);
+        }
+        Notification notification = notificationRepository.findById(existing.getNotificationId())
+                .orElseThrow(() -> new NotificationNotFoundException(existing.getNotificationId()));
+        return new Entry(NotificationResponse.fromEntity(notification), existing.getRequestHash(), true);
+    }
+
+    private Result replay(String key, String requestHash, Entry entry) {
+        if (!entry.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyConflictException(key);
+        }
+        log.info("Petición repetida con Idempotency-Key: key={}, notificationId={}", key, entry.response().getId());
+        return new Result(entry.response(), true);
+    }
+
+    private static Entry await(CompletableFuture<Entry> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private String fingerprint(NotificationRequest request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(fingerprintMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No se pudo calcular la huella de la petición", e);
+        }
+    }
+
+    /**
+     * @param replayed true si la respuesta corresponde a una petición anterior con la misma clave
+     */
+    public record Result(NotificationResponse response, boolean replayed) {
+    }
+
+    private record Entry(NotificationResponse response, String requestHash, boolean replayed) {
+    }
+}
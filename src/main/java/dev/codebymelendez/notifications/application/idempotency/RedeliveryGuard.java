@@ -0,0 +1,226 @@
+package dev.codebymelendez.notifications.application.idempotency;
+
+import dev.codebymelendez.notifications.application.event.NotificationEvent;
+import dev.codebymelendez.notifications.domain.model.NotificationStatus;
+import dev.codebymelendez.notifications.domain.repository.NotificationRepository;
+import dev.codebymelendez.notifications.domain.repository.NotificationRepositoryCustom.ClaimState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Guarda de idempotencia frente a mensajes AMQP reentregados.
+ *
+ * <p>Cada evento se identifica por (correlationId, attemptNumber) y solo se envía
+ * si consigue el claim atómico de ese intento en base de datos
+ * ({@link NotificationRepository#claimForDispatch}). En el camino habitual ese
+ * UPDATE condicionado es la única consulta, la misma que antes pasaba la
+ * notificación a PROCESSING.
+ *
+ * <p>Antes del claim se consultan dos estructuras en memoria:
+ * <ul>
+ *   <li>las claves en curso en este nodo: un duplicado concurrente se descarta
+ *       sin ir a la base de datos;</li>
+ *   <li>un filtro de Bloom con las claves ya procesadas. Si responde "seguro que
+ *       es nueva" se va directo al claim; si responde "quizá vista", se lee antes
+ *       el estado del claim y un duplicado se descarta sin escribir.</li>
+ * </ul>
+ *
+ * <p>Un claim en PROCESSING de otro consumer no se descarta: si ese consumer cae,
+ * el intento se recupera cuando vence {@code lease}. Mientras tanto el mensaje se
+ * aparca en la cola de retardo.
+ */
+@Slf4j
+@Component
+public class RedeliveryGuard {
+
+    private final NotificationRepository notificationRepository;
+    private final Duration lease;
+    private final RotatingBloomFilter processed;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder claimed = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder inProgress = new LongAdder();
+    private final LongAdder prechecks = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public RedeliveryGuard(
+            NotificationRepository notificationRepository,
+            @Value("${app.consumer.idempotency.lease:5m}") Duration lease,
+            @Value("${app.consumer.idempotency.expected-insertions:1000000}") int expectedInsertions,
+            @Value("${app.consumer.idempotency.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.notificationRepository = notificationRepository;
+        this.lease = lease;
+        this.processed = new RotatingBloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    /**
+     * Reclama el intento del evento. Si el resultado es {@link Outcome#CLAIMED},
+     * quien llama debe terminar con {@link #complete}, {@link #release} o
+     * {@link #abandon}.
+     */
+    public Admission admit(NotificationEvent event) {
+        String key = keyOf(event);
+        if (!inFlight.add(key)) {
+            duplicates.increment();
+            return Admission.duplicate("intento en curso en este nodo");
+        }
+
+        try {
+            if (processed.mightContain(key)) {
+                prechecks.increment();
+                Admission admission = classify(notificationRepository.findClaimState(event.getNotificationId()), event);
+                if (admission != null) {
+                    inFlight.remove(key);
+                    return count(admission);
+                }
+                falsePositives.increment();
+            }
+
+            if (notificationRepository.claimForDispatch(
+                    event.getNotificationId(), event.getAttemptNumber(), leaseExpiredBefore())) {
+                claimed.increment();
+                return Admission.CLAIMED;
+            }
+
+            Admission admission = classify(notificationRepository.findClaimState(event.getNotificationId()), event);
+            inFlight.remove(key);
+            // Reclamable justo después de fallar el claim: otro consumer lo liberó entre medias
+            return count(admission != null ? admission : Admission.inProgress(1000));
+
+        } catch (RuntimeException e) {
+            inFlight.remove(key);
+            throw e;
+        }
+    }
+
+    /**
+     * El intento se procesó: sus reentregas se detectan desde ahora en memoria.
+     */
+    public void complete(NotificationEvent event) {
+        String key = keyOf(event);
+        processed.put(key);
+        inFlight.remove(key);
+    }
+
+    /**
+     * El intento no se envió (diferido): se devuelve el claim para la republicación.
+     */
+    public void release(NotificationEvent event) {
+        notificationRepository.releaseClaims(Map.of(event.getNotificationId(), event.getAttemptNumber()));
+        inFlight.remove(keyOf(event));
+    }
+
+    /**
+     * Error inesperado: el claim queda en PROCESSING y se recupera al vencer el lease.
+     */
+    public void abandon(NotificationEvent event) {
+        inFlight.remove(keyOf(event));
+    }
+
+    public Instant leaseExpiredBefore() {
+        return Instant.now().minus(lease);
+    }
+
+    public Duration lease() {
+        return lease;
+    }
+
+    public Stats stats() {
+        return new Stats(claimed.sum(), duplicates.sum(), inProgress.sum(), prechecks.sum(),
+                falsePositives.sum(), inFlight.size());
+    }
+
+    /**
+     * @return null si el intento es reclamable
+     */
+    private Admission classify(Optional<ClaimState> claimState, NotificationEvent event) {
+        if (claimState.isEmpty()) {
+            return Admission.NOT_FOUND;
+        }
+
+        ClaimState state = claimState.get();
+        int attempt = event.getAttemptNumber();
+        if (state.status().isTerminal()) {
+            return Admission.duplicate("notificación en estado " + state.status());
+        }
+        if (state.claimedAttempt() > attempt) {
+            return Admission.duplicate("intento " + attempt + " superado por el " + state.claimedAttempt());
+        }
+        if (state.claimedAttempt() == attempt) {
+            if (state.status() != NotificationStatus.PROCESSING) {
+                return Admission.duplicate("intento " + attempt + " ya procesado");
+            }
+            if (state.claimedAt() != null && state.claimedAt().isAfter(leaseExpiredBefore())) {
+                long remaining = Duration.between(Instant.now(), state.claimedAt().plus(lease)).toMillis();
+                return Admission.inProgress(Math.max(1000, remaining));
+            }
+        }
+        return null;
+    }
+
+    private Admission count(Admission admission) {
+        switch (admission.outcome()) {
+            case DUPLICATE -> duplicates.increment();
+            case IN_PROGRESS -> inProgress.increment();
+            default -> { }
+        }
+        return admission;
+    }
+
+    private static String keyOf(NotificationEvent event) {
+        String id = event.getCorrelationId() != null
+                ? event.getCorrelationId()
+                : event.getNotificationId().toString();
+        return id + "#" + event.getAttemptNumber();
+    }
+
+    public enum Outcome {
+        CLAIMED,
+        /** Reentrega de un intento ya procesado o en curso en este nodo: se descarta. */
+        DUPLICATE,
+        /** Otro consumer tiene el claim vigente: se aparca hasta que venza el lease. */
+        IN_PROGRESS,
+        NOT_FOUND
+    }
+
+    /**
+     * @param retryAfterMillis espera antes de volver a intentarlo (solo IN_PROGRESS)
+     */
+    public record Admission(Outcome outcome, long retryAfterMillis, String reason) {
+
+        static final Admission CLAIMED = new Admission(Outcome.CLAIMED, 0, null);
+        static final Admission NOT_FOUND = new Admission(Outcome.NOT_FOUND, 0, "notificación no encontrada");
+
+        static Admission duplicate(String reason) {
+            return new Admission(Outcome.DUPLICATE, 0, reason);
+        }
+
+        static Admission inProgress(long retryAfterMillis) {
+            return new Admission(Outcome.IN_PROGRESS, retryAfterMillis, "claim vigente en otro consumer");
+        }
+    }
+
+    /**
+     * @param prechecks      claves que el filtro de Bloom dio como "quizá vistas"
+     * @param falsePositives prechecks que resultaron ser intentos nuevos
+     * @param inFlight       intentos reclamados en curso en este nodo
+     */
+    public record Stats(
+            long claimed,
+            long duplicates,
+            long inProgress,
+            long prechecks,
+            long falsePositives,
+            int inFlight
+    ) {}
+}
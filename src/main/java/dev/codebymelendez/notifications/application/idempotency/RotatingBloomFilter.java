@@ -0,0 +1,120 @@
+package dev.codebymelendez.notifications.application.idempotency;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Filtro de Bloom de claves ya procesadas, con dos generaciones.
+ *
+ * <p>Las inserciones van a la generación actual y las consultas miran las dos.
+ * Cuando la actual alcanza {@code expectedInsertions} pasa a ser la anterior y se
+ * descarta la más vieja, así la tasa de falsos positivos no crece con el tiempo
+ * y la memoria queda acotada (~1,2 bytes por clave con un 1 % de falsos positivos).
+ * Los bits se marcan con operaciones atómicas, sin locks en inserciones ni consultas.
+ */
+final class RotatingBloomFilter {
+
+    private final int expectedInsertions;
+    private final int bits;
+    private final int hashes;
+    private final ReentrantLock rotation = new ReentrantLock();
+
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    RotatingBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        this.expectedInsertions = Math.max(1, expectedInsertions);
+        double ln2 = Math.log(2);
+        this.bits = (int) Math.max(64, Math.ceil(-this.expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2)));
+        this.hashes = (int) Math.max(1, Math.round((double) bits / this.expectedInsertions * ln2));
+        this.current = new Generation(bits);
+        this.previous = new Generation(bits);
+    }
+
+    void put(String key) {
+        long hash1 = hash(key);
+        long hash2 = mix(hash1);
+        Generation generation = current;
+        for (int i = 0; i < hashes; i++) {
+            generation.set(index(hash1, hash2, i));
+        }
+        generation.insertions.increment();
+        if (generation.insertions.sum() >= expectedInsertions) {
+            rotate(generation);
+        }
+    }
+
+    /**
+     * @return false si la clave seguro que no se ha insertado
+     */
+    boolean mightContain(String key) {
+        long hash1 = hash(key);
+        long hash2 = mix(hash1);
+        return current.containsAll(hash1, hash2) || previous.containsAll(hash1, hash2);
+    }
+
+    private void rotate(Generation full) {
+        rotation.lock();
+        try {
+            if (current == full) {
+                previous = full;
+                current = new Generation(bits);
+            }
+        } finally {
+            rotation.unlock();
+        }
+    }
+
+    private int index(long hash1, long hash2, int i) {
+        return (int) Math.floorMod(hash1 + i * hash2, (long) bits);
+    }
+
+    /** FNV-1a de 64 bits sobre los bytes UTF-8 de la clave. */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /** Finalizador de SplitMix64: segundo hash independiente para el doble hashing. */
+    private static long mix(long value) {
+        long z = value + 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return (z ^ (z >>> 31)) | 1;
+    }
+
+    private final class Generation {
+
+        private final AtomicLongArray words;
+        private final LongAdder insertions = new LongAdder();
+
+        private Generation(int bits) {
+            this.words = new AtomicLongArray((bits + 63) / 64);
+        }
+
+        private void set(int bit) {
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long value = words.get(word);
+            while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask)) {
+                value = words.get(word);
+            }
+        }
+
+        private boolean containsAll(long hash1, long hash2) {
+            for (int i = 0; i < hashes; i++) {
+                int bit = index(hash1, hash2, i);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package dev.codebymelendez.notifications.application.metrics;
+
+import dev.codebymelendez.notifications.config.PriorityProperties;
+import dev.codebymelendez.notifications.domain.model.Priority;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencia de entrega (creación → entrega) por prioridad, comparada con el SLO
+ * de cada clase en {@code app.priority.slo}.
+ *
+ * <p>Histograma de buckets fijos con {@link LongAdder}: registrar una entrega no
+ * toma locks aunque la registren muchos consumers a la vez. Los percentiles se
+ * aproximan por el límite superior del bucket.
+ */
+@Slf4j
+@Component
+public class DeliveryLatencyTracker {
+
+    private static final long[] BUCKET_BOUNDS_MILLIS = {
+            10, 25, 50, 100, 250, 500,
+            1_000, 2_500, 5_000, 10_000, 30_000,
+            60_000, 300_000, 900_000, 3_600_000
+    };
+
+    private final PriorityProperties priorityProperties;
+    private final Map<Priority, Histogram> histograms = new EnumMap<>(Priority.class);
+
+    public DeliveryLatencyTracker(PriorityProperties priorityProperties) {
+        this.priorityProperties = priorityProperties;
+        for (Priority priority : Priority.values()) {
+            histograms.put(priority, new Histogram(priorityProperties.sloFor(priority).toMillis()));
+        }
+    }
+
+    public void record(Priority priority, Duration latency) {
+        Histogram histogram = histograms.get(priority != null ? priority : Priority.NORMAL);
+        long millis = Math.max(0, latency.toMillis());
+        histogram.record(millis);
+
+        if (millis > histogram.sloMillis) {
+            log.debug("Entrega fuera de SLO: priority={}, latency={}ms, slo={}ms",
+                    priority, millis, histogram.sloMillis);
+        }
+    }
+
+    public List<LatencySnapshot> snapshot() {
+        return Arrays.stream(Priority.values())
+                .map(priority -> histograms.get(priority).snapshot(priority))
+                .toList();
+    }
+
+    public record LatencySnapshot(
+            Priority priority,
+            long sloMillis,
+            long deliveries,
+            long sloBreaches,
+            double sloCompliance,
+            long p50Millis,
+            long p99Millis,
+            long maxMillis
+    ) {}
+
+    private static final class Histogram {
+
+        private final long sloMillis;
+        private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MILLIS.length + 1];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder breaches = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        private Histogram(long sloMillis) {
+            this.sloMillis = sloMillis;
+            Arrays.setAll(buckets, i -> new LongAdder());
+        }
+
+        private void record(long millis) {
+            int index = Arrays.binarySearch(BUCKET_BOUNDS_MILLIS, millis);
+            buckets[index >= 0 ? index : -index - 1].increment();
+            count.increment();
+            max.accumulate(millis);
+            if (millis > sloMillis) {
+                breaches.increment();
+            }
+        }
+
+        private LatencySnapshot snapshot(Priority priority) {
+            long total = count.sum();
+            long breached = breaches.sum();
+            return new LatencySnapshot(
+                    priority,
+                    sloMillis,
+                    total,
+                    breached,
+                    total == 0 ? 1.0 : (double) (total - breached) / total,
+                    percentile(0.50, total),
+                    percentile(0.99, total),
+                    max.get());
+        }
+
+        private long percentile(double quantile, long total) {
+            if (total == 0) {
+                return 0;
+            }
+            long target = (long) Math.ceil(quantile * total);
+            long cumulative = 0;
+            for (int i = 0; i < BUCKET_BOUNDS_MILLIS.length; i++) {
+                cumulative += buckets[i].sum();
+                if (cumulative >= target) {
+                    return BUCKET_BOUNDS_MILLIS[i];
+                }
+            }
+            return max.get();
+        }
+    }
+}
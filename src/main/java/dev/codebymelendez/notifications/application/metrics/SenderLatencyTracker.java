@@ -0,0 +1,51 @@
+package dev.codebymelendez.notifications.application.metrics;
+
+import dev.codebymelendez.notifications.domain.model.Channel;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Envíos completados y su duración por canal y carril, acumulados entre dos
+ * lecturas de {@link #sample}. Lo consume el autoscaler de listeners.
+ */
+@Component
+public class SenderLatencyTracker {
+
+    private final Map<Channel, Counters> standard = new EnumMap<>(Channel.class);
+    private final Map<Channel, Counters> express = new EnumMap<>(Channel.class);
+
+    public SenderLatencyTracker() {
+        for (Channel channel : Channel.values()) {
+            standard.put(channel, new Counters());
+            express.put(channel, new Counters());
+        }
+    }
+
+    public void record(Channel channel, boolean expressLane, long elapsedNanos) {
+        Counters counters = (expressLane ? express : standard).get(channel);
+        counters.sends.increment();
+        counters.nanos.add(elapsedNanos);
+    }
+
+    /**
+     * Devuelve lo acumulado desde la lectura anterior y reinicia los contadores.
+     */
+    public Sample sample(Channel channel, boolean expressLane) {
+        Counters counters = (expressLane ? express : standard).get(channel);
+        long sends = counters.sends.sumThenReset();
+        long nanos = counters.nanos.sumThenReset();
+        return new Sample(sends, sends == 0 ? 0 : nanos / sends / 1_000_000.0);
+    }
+
+    public record Sample(long sends, double averageMillis) {
+    }
+
+    private static final class Counters {
+
+        private final LongAdder sends = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+    }
+}
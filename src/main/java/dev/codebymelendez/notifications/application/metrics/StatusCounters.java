@@ -0,0 +1,299 @@
+package dev.codebymelendez.notifications.application.metrics;
+
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.DeliveryAttemptStatus;
+import dev.codebymelendez.notifications.domain.model.NotificationStatus;
+import dev.codebymelendez.notifications.domain.repository.StatusCounterRecorder;
+import dev.codebymelendez.notifications.domain.repository.StatusCounterRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Número de notificaciones por estado (y de intentos por resultado) sin
+ * recorrer las tablas.
+ *
+ * <p>Los repositorios registran cada transición que aplican a través de
+ * {@link StatusCounterRecorder}, que esta clase implementa. Se cuenta en
+ * memoria con {@link LongAdder} por intervalo, tipo, canal y estado, y al
+ * confirmarse la transacción: un rollback no deja rastro. Cada
+ * {@code flush-interval} se suman a {@code status_counters} los deltas
+ * pendientes desde el volcado anterior. Las lecturas agregan esa tabla (una fila
+ * por intervalo y clave) más lo que esta instancia aún no ha volcado.
+ *
+ * <p>Las notificaciones por estado son las que hay en las tablas calientes:
+ * archivarlas o expirar su partición las descuenta ({@link #removed}). Los
+ * intentos por resultado son acumulados y no bajan. Una caída pierde como
+ * mucho los deltas de un {@code flush-interval} de esta instancia.
+ */
+@Slf4j
+@Component
+public class StatusCounters implements StatusCounterRecorder {
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::bucketStart)
+            .thenComparing(Key::kind)
+            .thenComparing(Key::channel)
+            .thenComparing(Key::status);
+
+    private final StatusCounterRepository store;
+    private final TransactionTemplate transactionTemplate;
+    private final long bucketMillis;
+    private final Duration compactAfter;
+    private final Map<Key, Cell> cells = new ConcurrentHashMap<>();
+
+    public StatusCounters(
+            StatusCounterRepository store,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.counters.bucket:1h}") Duration bucket,
+            @Value("${app.counters.compact-after:7d}") Duration compactAfter) {
+        this.store = store;
+        this.transactionTemplate = transactionTemplate;
+        this.bucketMillis = bucket.toMillis();
+        this.compactAfter = compactAfter;
+    }
+
+    // ==================== Registro ====================
+
+    public void created(Channel channel, NotificationStatus status) {
+        record(List.of(new Change(Kind.NOTIFICATION, channel, null, status.name(), 1)));
+    }
+
+    public void transitioned(Channel channel, NotificationStatus from, NotificationStatus to) {
+        transitioned(List.of(new Transition(channel, from, to)));
+    }
+
+    @Override
+    public void transitioned(List<Transition> transitions) {
+        List<Change> changes = new ArrayList<>(transitions.size());
+        for (Transition transition : transitions) {
+            if (transition.from() != transition.to()) {
+                changes.add(new Change(Kind.NOTIFICATION, transition.channel(),
+                        transition.from() != null ? transition.from().name() : null, transition.to().name(), 1));
+            }
+        }
+        record(changes);
+    }
+
+    @Override
+    public void attempted(List<Attempt> attempts) {
+        record(attempts.stream()
+                .map(attempt -> new Change(Kind.ATTEMPT, attempt.channel(), null, attempt.status().name(), 1))
+                .toList());
+    }
+
+    @Override
+    public void removed(List<Removed> removed) {
+        record(removed.stream()
+                .filter(r -> r.count() > 0)
+                .map(r -> new Change(Kind.NOTIFICATION, r.channel(), r.status().name(), null, r.count()))
+                .toList());
+    }
+
+    /**
+     * Dentro de una transacción los cambios se aplican al confirmarla.
+     */
+    private void record(List<Change> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(changes);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(changes);
+            }
+        });
+    }
+
+    private void apply(List<Change> changes) {
+        Instant bucket = bucketOf(Instant.now());
+        for (Change change : changes) {
+            if (change.channel() == null) {
+                continue;
+            }
+            if (change.to() != null) {
+                cell(new Key(bucket, change.kind(), change.channel(), change.to())).entered.add(change.count());
+            }
+            if (change.from() != null) {
+                cell(new Key(bucket, change.kind(), change.channel(), change.from())).exited.add(change.count());
+            }
+        }
+    }
+
+    private Cell cell(Key key) {
+        return cells.computeIfAbsent(key, k -> new Cell());
+    }
+
+    private Instant bucketOf(Instant instant) {
+        long millis = instant.toEpochMilli();
+        return Instant.ofEpochMilli(millis - Math.floorMod(millis, bucketMillis));
+    }
+
+    // ==================== Volcado ====================
+
+    /**
+     * Suma a la tabla lo contado desde el último volcado. Los contadores en
+     * memoria no se ponen a cero: se recuerda el valor volcado, así que un
+     * incremento concurrente con el volcado entra en el siguiente.
+     */
+    @Scheduled(fixedDelayString = "${app.counters.flush-interval:5000}")
+    public synchronized void flush() {
+        List<Pending> pending = new ArrayList<>();
+        cells.forEach((key, cell) -> {
+            long entered = cell.entered.sum();
+            long exited = cell.exited.sum();
+            if (entered != cell.flushedEntered || exited != cell.flushedExited) {
+                pending.add(new Pending(key, cell, entered, exited));
+            }
+        });
+
+        if (!pending.isEmpty()) {
+            pending.sort(Comparator.comparing(Pending::key, KEY_ORDER));
+            try {
+                transactionTemplate.executeWithoutResult(status -> store.add(pending.stream()
+                        .map(p -> new StatusCounterRepository.Row(p.key().bucketStart(), p.key().kind().name(),
+                                p.key().channel(), p.key().status(),
+                                p.entered() - p.cell().flushedEntered, p.exited() - p.cell().flushedExited))
+                        .toList()));
+            } catch (RuntimeException e) {
+                log.warn("No se pudieron volcar {} contadores de estado, se reintenta: {}",
+                        pending.size(), e.getMessage());
+                return;
+            }
+            for (Pending p : pending) {
+                p.cell().flushedEntered = p.entered();
+                p.cell().flushedExited = p.exited();
+            }
+            log.debug("Volcados {} contadores de estado", pending.size());
+        }
+
+        // Intervalos cerrados y ya volcados: nadie más los incrementa
+        Instant closed = bucketOf(Instant.now()).minusMillis(bucketMillis);
+        cells.entrySet().removeIf(entry -> entry.getKey().bucketStart().isBefore(closed)
+                && entry.getValue().entered.sum() == entry.getValue().flushedEntered
+                && entry.getValue().exited.sum() == entry.getValue().flushedExited);
+    }
+
+    /**
+     * Funde por día los intervalos anteriores a {@code compact-after}, para que
+     * las lecturas crezcan con los días y no con los intervalos.
+     */
+    @Scheduled(fixedDelayString = "${app.counters.compact-interval:3600000}")
+    public void compact() {
+        try {
+            Integer rows = transactionTemplate.execute(status -> store.compact(Instant.now().minus(compactAfter)));
+            if (rows != null && rows > 0) {
+                log.info("Contadores de estado compactados por día: {} filas", rows);
+            }
+        } catch (RuntimeException e) {
+            log.error("Error compactando contadores de estado: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // ==================== Lectura ====================
+
+    public Totals totals() {
+        Totals totals = new Totals(new EnumMap<>(NotificationStatus.class), new EnumMap<>(Channel.class),
+                new EnumMap<>(DeliveryAttemptStatus.class));
+        for (StatusCounterRepository.Row row : store.totals()) {
+            totals.add(Kind.valueOf(row.kind()), row.channel(), row.status(), row.entered());
+        }
+        cells.forEach((key, cell) -> totals.add(key.kind(), key.channel(), key.status(),
+                (cell.entered.sum() - cell.flushedEntered) - (cell.exited.sum() - cell.flushedExited)));
+        return totals;
+    }
+
+    /**
+     * Intervalos volcados en {@code [from, to)}; lo que esta instancia aún no ha
+     * volcado no aparece.
+     */
+    public List<BucketCount> history(Instant from, Instant to) {
+        return store.history(from, to).stream()
+                .map(row -> new BucketCount(row.bucketStart(), Kind.valueOf(row.kind()), row.channel(),
+                        row.status(), row.entered(), row.exited()))
+                .toList();
+    }
+
+    // ==================== Tipos ====================
+
+    public enum Kind {
+        NOTIFICATION, ATTEMPT
+    }
+
+    /**
+     * @param notifications          notificaciones por estado en las tablas calientes
+     * @param notificationsByChannel lo mismo, por canal
+     * @param attempts               intentos de entrega por resultado, acumulados
+     *                               (incluye los de notificaciones archivadas o expiradas)
+     */
+    public record Totals(
+            Map<NotificationStatus, Long> notifications,
+            Map<Channel, Map<NotificationStatus, Long>> notificationsByChannel,
+            Map<DeliveryAttemptStatus, Long> attempts) {
+
+        private void add(Kind kind, Channel channel, String status, long count) {
+            if (count == 0) {
+                return;
+            }
+            if (kind == Kind.ATTEMPT) {
+                attempts.merge(DeliveryAttemptStatus.valueOf(status), count, Long::sum);
+                return;
+            }
+            NotificationStatus notificationStatus = NotificationStatus.valueOf(status);
+            notifications.merge(notificationStatus, count, Long::sum);
+            notificationsByChannel.computeIfAbsent(channel, c -> new EnumMap<>(NotificationStatus.class))
+                    .merge(notificationStatus, count, Long::sum);
+        }
+    }
+
+    /**
+     * @param entered filas que entraron en el estado durante el intervalo
+     * @param exited  filas que salieron de él
+     */
+    public record BucketCount(Instant bucketStart, Kind kind, Channel channel, String status,
+                              long entered, long exited) {
+    }
+
+    /**
+     * @param from null si la fila es nueva
+     * @param to   null si la fila sale de las tablas
+     */
+    private record Change(Kind kind, Channel channel, String from, String to, long count) {
+    }
+
+    private record Key(Instant bucketStart, Kind kind, Channel channel, String status) {
+    }
+
+    private record Pending(Key key, Cell cell, long entered, long exited) {
+    }
+
+    private static final class Cell {
+        private final LongAdder entered = new LongAdder();
+        private final LongAdder exited = new LongAdder();
+        private volatile long flushedEntered;
+        private volatile long flushedExited;
+    }
+}
@@ -0,0 +1,149 @@
+package dev.codebymelendez.notifications.application.ratelimit;
+
+import dev.codebymelendez.notifications.config.ChannelProperties;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.Notification;
+import dev.codebymelendez.notifications.infrastructure.sender.NotificationSender;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limitador de envíos consultado por los consumers antes de llamar al sender.
+ *
+ * <p>Dos niveles de token bucket por canal, configurados en
+ * {@code app.channels.<canal>.rate-limit}: uno para el canal y su sender (la
+ * cuota del proveedor) y otro opcional por destinatario o dominio. Si el token
+ * llega dentro de {@code max-inline-wait} se reserva y el envío espera; si no,
+ * no se reserva nada y el mensaje se difiere.
+ */
+@Slf4j
+@Component
+public class DispatchRateLimiter {
+
+    private final ChannelProperties channelProperties;
+    private final Map<String, TokenBucket> senderBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> keyBuckets = new ConcurrentHashMap<>();
+    private final Map<Channel, Counters> counters = new EnumMap<>(Channel.class);
+
+    public DispatchRateLimiter(ChannelProperties channelProperties) {
+        this.channelProperties = channelProperties;
+        for (Channel channel : Channel.values()) {
+            counters.put(channel, new Counters());
+        }
+    }
+
+    public RateLimitDecision acquire(NotificationSender sender, Notification notification) {
+        Channel channel = notification.getChannel();
+        ChannelProperties.RateLimit limit = channelProperties.forChannel(channel).getRateLimit();
+        long maxWaitNanos = limit.getMaxInlineWait().toNanos();
+        Counters stats = counters.get(channel);
+
+        TokenBucket senderBucket = limit.getPermitsPerSecond() > 0
+                ? senderBuckets.computeIfAbsent(senderKey(channel, sender),
+                        key -> new TokenBucket(limit.getPermitsPerSecond(), limit.getBurst()))
+                : null;
+        TokenBucket keyBucket = limit.getKey() != ChannelProperties.RateLimitKey.NONE
+                && limit.getKeyPermitsPerSecond() > 0
+                ? keyBuckets.computeIfAbsent(channel + ":" + keyOf(limit.getKey(), notification.getRecipient()),
+                        key -> new TokenBucket(limit.getKeyPermitsPerSecond(), limit.getKeyBurst()))
+                : null;
+
+        long senderWait = senderBucket != null ? senderBucket.reserve(maxWaitNanos) : 0;
+        if (senderWait < 0) {
+            stats.deferred.increment();
+            return RateLimitDecision.defer(toMillis(-senderWait));
+        }
+
+        long keyWait = keyBucket != null ? keyBucket.reserve(maxWaitNanos) : 0;
+        if (keyWait < 0) {
+            if (senderBucket != null) {
+                senderBucket.refund();
+            }
+            stats.deferred.increment();
+            return RateLimitDecision.defer(toMillis(-keyWait));
+        }
+
+        long wait = Math.max(senderWait, keyWait);
+        (wait > 0 ? stats.delayed : stats.immediate).increment();
+        return RateLimitDecision.after(toMillis(wait));
+    }
+
+    public List<Saturation> saturation() {
+        return Arrays.stream(Channel.values())
+                .map(channel -> {
+                    Counters stats = counters.get(channel);
+                    double senderSaturation = senderBuckets.entrySet().stream()
+                            .filter(entry -> entry.getKey().startsWith(channel + "/"))
+                            .mapToDouble(entry -> entry.getValue().saturation())
+                            .max()
+                            .orElse(0);
+                    long activeKeys = keyBuckets.keySet().stream()
+                            .filter(key -> key.startsWith(channel + ":"))
+                            .count();
+                    return new Saturation(channel, senderSaturation, activeKeys,
+                            stats.immediate.sum(), stats.delayed.sum(), stats.deferred.sum());
+                })
+                .toList();
+    }
+
+    /**
+     * Descarta los buckets por destinatario/dominio que se han vuelto a llenar:
+     * uno nuevo se comportaría igual, y así el mapa no crece con cada destinatario.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.cleanup-interval:60000}")
+    public void evictIdleBuckets() {
+        int before = keyBuckets.size();
+        keyBuckets.values().removeIf(TokenBucket::isFull);
+        if (before != keyBuckets.size()) {
+            log.debug("Buckets de rate limit descartados: {}", before - keyBuckets.size());
+        }
+    }
+
+    private String senderKey(Channel channel, NotificationSender sender) {
+        return channel + "/" + ClassUtils.getUserClass(sender).getSimpleName();
+    }
+
+    private String keyOf(ChannelProperties.RateLimitKey key, String recipient) {
+        String normalized = recipient != null ? recipient.trim().toLowerCase(Locale.ROOT) : "";
+        if (key == ChannelProperties.RateLimitKey.DOMAIN) {
+            int at = normalized.lastIndexOf('@');
+            return at >= 0 ? normalized.substring(at + 1) : normalized;
+        }
+        return normalized;
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos + 999_999);
+    }
+
+    /**
+     * @param senderSaturation fracción de la ráfaga del canal consumida (1 = sin tokens)
+     * @param activeKeys       buckets por destinatario/dominio vivos
+     */
+    public record Saturation(
+            Channel channel,
+            double senderSaturation,
+            long activeKeys,
+            long immediate,
+            long delayed,
+            long deferred
+    ) {}
+
+    private static final class Counters {
+
+        private final LongAdder immediate = new LongAdder();
+        private final LongAdder delayed = new LongAdder();
+        private final LongAdder deferred = new LongAdder();
+    }
+}
@@ -0,0 +1,25 @@
+package dev.codebymelendez.notifications.application.ratelimit;
+
+/**
+ * Resultado de consultar el limitador antes de un envío.
+ *
+ * @param granted   true si el envío puede hacerse (tras {@code waitMillis})
+ * @param waitMillis espera antes de enviar si {@code granted}; si no, tiempo
+ *                   mínimo por el que diferir el mensaje
+ */
+public record RateLimitDecision(boolean granted, long waitMillis) {
+
+    private static final RateLimitDecision IMMEDIATE = new RateLimitDecision(true, 0);
+
+    public static RateLimitDecision immediate() {
+        return IMMEDIATE;
+    }
+
+    public static RateLimitDecision after(long waitMillis) {
+        return waitMillis <= 0 ? IMMEDIATE : new RateLimitDecision(true, waitMillis);
+    }
+
+    public static RateLimitDecision defer(long waitMillis) {
+        return new RateLimitDecision(false, waitMillis);
+    }
+}
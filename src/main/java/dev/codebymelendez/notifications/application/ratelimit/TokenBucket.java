@@ -0,0 +1,66 @@
+package dev.codebymelendez.notifications.application.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sin locks (GCRA): todo el estado es el instante teórico de
+ * llegada del siguiente token, que se avanza con un único CAS por petición.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double permitsPerSecond, int burst) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.capacityNanos = intervalNanos * Math.max(1, burst);
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Reserva un token si está disponible ahora o en como mucho
+     * {@code maxWaitNanos}.
+     *
+     * @return espera hasta poder usar el token (0 = inmediato), o un valor
+     *         negativo cuyo módulo es la espera necesaria si excede el máximo
+     *         (en ese caso no se reserva nada)
+     */
+    long reserve(long maxWaitNanos) {
+        while (true) {
+            long now = System.nanoTime();
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, now) + intervalNanos;
+            long wait = next - now - capacityNanos;
+
+            if (wait > maxWaitNanos) {
+                return -wait;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return Math.max(0, wait);
+            }
+        }
+    }
+
+    /**
+     * Devuelve un token reservado que no llegó a usarse.
+     */
+    void refund() {
+        theoreticalArrival.addAndGet(-intervalNanos);
+    }
+
+    /**
+     * Fracción de la ráfaga consumida: 0 = bucket lleno, 1 = sin tokens.
+     */
+    double saturation() {
+        long pending = theoreticalArrival.get() - System.nanoTime();
+        return Math.clamp((double) pending / capacityNanos, 0.0, 1.0);
+    }
+
+    /**
+     * Un bucket lleno equivale a uno nuevo y se puede descartar.
+     */
+    boolean isFull() {
+        return theoreticalArrival.get() <= System.nanoTime();
+    }
+}
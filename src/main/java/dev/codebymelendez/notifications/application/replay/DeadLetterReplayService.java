@@ -0,0 +1,294 @@
+package dev.codebymelendez.notifications.application.replay;
+
+import dev.codebymelendez.notifications.application.event.NotificationEvent;
+import dev.codebymelendez.notifications.application.event.NotificationEventFactory;
+import dev.codebymelendez.notifications.config.ChannelTopology;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.Notification;
+import dev.codebymelendez.notifications.domain.model.Priority;
+import dev.codebymelendez.notifications.domain.repository.NotificationRepository;
+import dev.codebymelendez.notifications.domain.repository.NotificationRepositoryCustom.FailedFilter;
+import dev.codebymelendez.notifications.domain.repository.OutboxRepository;
+import dev.codebymelendez.notifications.infrastructure.messaging.NotificationPublisher;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replay masivo de notificaciones FAILED (las que agotaron reintentos y
+ * pasaron por la DLQ, o cualquier fallo definitivo) tras una caída del proveedor.
+ *
+ * <p>Cada lote se reinicia y se publica en una transacción: las filas vuelven a
+ * QUEUED con el claim a cero y se registra un evento nuevo (intento 1,
+ * correlationId nuevo) en el outbox, o se publica directamente si el outbox
+ * está desactivado. El historial de intentos se conserva.
+ *
+ * <p>El replay tiene su propio presupuesto para no desplazar al tráfico en vivo:
+ * <ul>
+ *   <li>los replays se ejecutan de uno en uno en un hilo propio, a como mucho
+ *       {@code rate} notificaciones por segundo;</li>
+ *   <li>antes de cada lote se consulta el backlog de las colas de los canales
+ *       afectados y el replay se pausa mientras supere {@code max-queue-depth};</li>
+ *   <li>los eventos se publican con prioridad LOW, así que nunca ocupan el
+ *       carril exprés aunque la notificación original fuera HIGH.</li>
+ * </ul>
+ *
+ * <p>El progreso se guarda en memoria; tras un reinicio basta con lanzar el mismo
+ * filtro otra vez, porque las filas ya reenviadas dejaron de estar en FAILED.
+ */
+@Slf4j
+@Service
+public class DeadLetterReplayService {
+
+    private final NotificationRepository notificationRepository;
+    private final OutboxRepository outboxRepository;
+    private final NotificationPublisher notificationPublisher;
+    private final NotificationEventFactory notificationEventFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final AmqpAdmin amqpAdmin;
+    private final ChannelTopology channelTopology;
+    private final Map<UUID, ReplayJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("dlq-replay").daemon().factory());
+
+    @Value("${app.outbox.enabled:true}")
+    private boolean outboxEnabled;
+
+    @Value("${app.replay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.replay.rate:50}")
+    private double defaultRate;
+
+    @Value("${app.replay.max-rate:500}")
+    private double maxRate;
+
+    @Value("${app.replay.max-queue-depth:5000}")
+    private long maxQueueDepth;
+
+    @Value("${app.replay.backlog-poll-interval:2000}")
+    private long backlogPollMillis;
+
+    @Value("${app.replay.creation-lookback:7d}")
+    private Duration creationLookback;
+
+    public DeadLetterReplayService(
+            NotificationRepository notificationRepository,
+            OutboxRepository outboxRepository,
+            NotificationPublisher notificationPublisher,
+            NotificationEventFactory notificationEventFactory,
+            TransactionTemplate transactionTemplate,
+            AmqpAdmin amqpAdmin,
+            ChannelTopology channelTopology) {
+        this.notificationRepository = notificationRepository;
+        this.outboxRepository = outboxRepository;
+        this.notificationPublisher = notificationPublisher;
+        this.notificationEventFactory = notificationEventFactory;
+        this.transactionTemplate = transactionTemplate;
+        this.amqpAdmin = amqpAdmin;
+        this.channelTopology = channelTopology;
+    }
+
+    /**
+     * Encola un replay. Sin {@code failedTo} se toma el instante actual, de modo
+     * que los fallos posteriores (incluidos los de este mismo replay) no se
+     * vuelven a seleccionar. Sin {@code createdFrom}, con {@code failedFrom} se
+     * buscan solo las creadas hasta {@code creation-lookback} antes, para no
+     * leer todas las particiones; una notificación creada antes y fallida en la
+     * ventana necesita un {@code createdFrom} explícito.
+     *
+     * @param limit         máximo de notificaciones; null = todas las que cumplan el filtro
+     * @param ratePerSecond null = {@code app.replay.rate}; se acota a {@code app.replay.max-rate}
+     */
+    public ReplayJob start(FailedFilter filter, Long limit, Double ratePerSecond) {
+        Instant createdFrom = filter.createdFrom() != null || filter.failedFrom() == null
+                ? filter.createdFrom()
+                : filter.failedFrom().minus(creationLookback);
+        FailedFilter snapshot = filter.withWindow(
+                filter.failedTo() != null ? filter.failedTo() : Instant.now(), createdFrom);
+        double rate = Math.min(ratePerSecond != null ? ratePerSecond : defaultRate, maxRate);
+
+        ReplayJob job = new ReplayJob(snapshot, limit != null ? limit : Long.MAX_VALUE, rate);
+        jobs.put(job.getId(), job);
+        executor.execute(() -> run(job));
+
+        log.info("Replay encolado: id={}, channel={}, errorContains={}, from={}, to={}, createdFrom={}, limit={}, rate={}/s",
+                job.getId(), snapshot.channel(), snapshot.errorContains(), snapshot.failedFrom(),
+                snapshot.failedTo(), snapshot.createdFrom(), limit, rate);
+        return job;
+    }
+
+    public Optional<ReplayJob> find(UUID id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public List<ReplayJob> list() {
+        List<ReplayJob> all = new ArrayList<>(jobs.values());
+        all.sort(Comparator.comparing(ReplayJob::getCreatedAt).reversed());
+        return all;
+    }
+
+    /**
+     * Pide detener el replay; el lote en curso termina y no se empieza otro.
+     *
+     * @throws IllegalStateException si el replay ya terminó
+     */
+    public Optional<ReplayJob> cancel(UUID id) {
+        ReplayJob job = jobs.get(id);
+        if (job == null) {
+            return Optional.empty();
+        }
+        if (job.getStatus().isFinished()) {
+            throw new IllegalStateException("El replay " + id + " ya terminó con estado " + job.getStatus());
+        }
+        job.requestCancel();
+        log.info("Cancelación solicitada para el replay {}", id);
+        return Optional.of(job);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(ReplayJob::requestCancel);
+        executor.shutdownNow();
+    }
+
+    private void run(ReplayJob job) {
+        if (job.isCancelRequested()) {
+            job.finish(ReplayStatus.CANCELLED, null);
+            return;
+        }
+
+        job.start();
+        long nanosPerNotification = (long) (TimeUnit.SECONDS.toNanos(1) / job.getRatePerSecond());
+
+        try {
+            long remaining = job.getLimit();
+            while (remaining > 0 && !job.isCancelRequested()) {
+                awaitBacklog(job);
+                if (job.isCancelRequested()) {
+                    break;
+                }
+
+                long start = System.nanoTime();
+                List<UUID> ids = notificationRepository.findFailedIds(
+                        job.getFilter(), job.getCursor(), (int) Math.min(batchSize, remaining));
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                Integer replayed = transactionTemplate.execute(status -> replayBatch(ids));
+                job.progress(ids.getLast(), ids.size(), replayed != null ? replayed : 0);
+                remaining -= ids.size();
+
+                log.info("Replay {}: lote de {} notificaciones, {} reenviadas (total {}/{})",
+                        job.getId(), ids.size(), replayed, job.getReplayed().get(), job.getScanned().get());
+
+                // Ritmo medio de rate por segundo: el lote "paga" su tamaño en tiempo
+                long elapsed = System.nanoTime() - start;
+                TimeUnit.NANOSECONDS.sleep(Math.max(0, ids.size() * nanosPerNotification - elapsed));
+            }
+
+            job.finish(job.isCancelRequested() ? ReplayStatus.CANCELLED : ReplayStatus.COMPLETED, null);
+            log.info("Replay {} terminado: estado={}, reenviadas={}, omitidas={}",
+                    job.getId(), job.getStatus(), job.getReplayed().get(), job.getSkipped());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(ReplayStatus.CANCELLED, "Interrumpido");
+        } catch (Exception e) {
+            log.error("Replay {} fallido tras {} notificaciones: error={}",
+                    job.getId(), job.getReplayed().get(), e.getMessage(), e);
+            job.finish(ReplayStatus.FAILED, e.getMessage());
+        }
+    }
+
+    private int replayBatch(List<UUID> ids) {
+        List<UUID> reset = notificationRepository.resetForReplay(ids);
+        if (reset.isEmpty()) {
+            return 0;
+        }
+
+        List<NotificationEvent> events = new ArrayList<>(reset.size());
+        for (Notification notification : notificationRepository.findAllForDispatch(reset)) {
+            NotificationEvent event = notificationEventFactory.create(notification);
+            event.setPriority(Priority.LOW);
+            events.add(event);
+        }
+
+        if (outboxEnabled) {
+            outboxRepository.insertAll(events.stream().map(NotificationEvent::toOutboxMessage).toList());
+        } else {
+            // Dentro de la transacción: si la publicación falla, las filas siguen en FAILED
+            notificationPublisher.publishAll(events);
+        }
+        return events.size();
+    }
+
+    /**
+     * Espera mientras alguna cola de los canales del replay tenga más de
+     * {@code max-queue-depth} mensajes. Si el broker no responde se trata como
+     * saturado.
+     */
+    private void awaitBacklog(ReplayJob job) throws InterruptedException {
+        while (!job.isCancelRequested()) {
+            long backlog = backlog(job.getFilter().channel());
+            if (backlog <= maxQueueDepth) {
+                if (job.getStatus() == ReplayStatus.PAUSED) {
+                    job.resume();
+                    log.info("Replay {} reanudado: backlog={}", job.getId(), backlog);
+                }
+                return;
+            }
+            if (job.getStatus() != ReplayStatus.PAUSED) {
+                job.pause();
+                log.info("Replay {} en pausa: backlog={} > {}", job.getId(), backlog, maxQueueDepth);
+            }
+            TimeUnit.MILLISECONDS.sleep(backlogPollMillis);
+            job.getPausedMillis().addAndGet(backlogPollMillis);
+        }
+    }
+
+    private long backlog(Channel only) {
+        long max = 0;
+        for (Channel channel : Channel.values()) {
+            if (only != null && channel != only) {
+                continue;
+            }
+            max = Math.max(max, messageCount(channelTopology.queue(channel)));
+            if (channelTopology.isOrdered(channel)) {
+                for (int shard = 0; shard < channelTopology.shards(channel); shard++) {
+                    max = Math.max(max, messageCount(channelTopology.shardQueue(channel, shard)));
+                }
+            }
+        }
+        return max;
+    }
+
+    private long messageCount(String queue) {
+        try {
+            QueueInformation info = amqpAdmin.getQueueInfo(queue);
+            return info != null ? info.getMessageCount() : 0;
+        } catch (AmqpException e) {
+            log.warn("No se pudo consultar el backlog de {}: {}", queue, e.getMessage());
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package dev.codebymelendez.notifications.application.replay;
+
+import dev.codebymelendez.notifications.domain.repository.NotificationRepositoryCustom.FailedFilter;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progreso de un replay. Lo escribe solo el hilo del replay; los contadores
+ * son atómicos para leerlos desde la API mientras avanza.
+ */
+@Getter
+public class ReplayJob {
+
+    private final UUID id = UUID.randomUUID();
+    private final FailedFilter filter;
+    private final long limit;
+    private final double ratePerSecond;
+    private final Instant createdAt = Instant.now();
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong pausedMillis = new AtomicLong();
+
+    private volatile ReplayStatus status = ReplayStatus.QUEUED;
+    private volatile boolean cancelRequested;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile UUID cursor;
+    private volatile String error;
+
+    ReplayJob(FailedFilter filter, long limit, double ratePerSecond) {
+        this.filter = filter;
+        this.limit = limit;
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    /**
+     * Filas seleccionadas que ya no estaban en FAILED al reiniciarlas (otro
+     * replay o un cambio manual las tomó antes).
+     */
+    public long getSkipped() {
+        return scanned.get() - replayed.get();
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        status = ReplayStatus.RUNNING;
+    }
+
+    void pause() {
+        status = ReplayStatus.PAUSED;
+    }
+
+    void resume() {
+        status = ReplayStatus.RUNNING;
+    }
+
+    void progress(UUID cursor, int scanned, int replayed) {
+        this.cursor = cursor;
+        this.scanned.addAndGet(scanned);
+        this.replayed.addAndGet(replayed);
+        batches.incrementAndGet();
+    }
+
+    void finish(ReplayStatus status, String error) {
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.status = status;
+    }
+
+    void requestCancel() {
+        cancelRequested = true;
+    }
+}
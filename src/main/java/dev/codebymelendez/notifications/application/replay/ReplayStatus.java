@@ -0,0 +1,23 @@
+package dev.codebymelendez.notifications.application.replay;
+
+
+public enum ReplayStatus {
+
+    /** En cola detrás de otro replay. */
+    QUEUED,
+
+    RUNNING,
+
+    /** Esperando a que baje el backlog de las colas en vivo. */
+    PAUSED,
+
+    COMPLETED,
+
+    CANCELLED,
+
+    FAILED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == CANCELLED || this == FAILED;
+    }
+}
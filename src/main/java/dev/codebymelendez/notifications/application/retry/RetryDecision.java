@@ -0,0 +1,35 @@
+package dev.codebymelendez.notifications.application.retry;
+
+/**
+ * Decisión de la política de reintentos para un envío fallido.
+ *
+ * @param retry          si se publica un nuevo intento
+ * @param minDelayMillis espera mínima antes del reintento (0 = la del nivel de backoff)
+ * @param reason         motivo legible, se persiste con el intento
+ */
+public record RetryDecision(
+        boolean retry,
+        long minDelayMillis,
+        String reason
+) {
+    
+    // ==================== Factory Methods ====================
+    
+    public static RetryDecision retry(long minDelayMillis, String reason) {
+        return new RetryDecision(true, minDelayMillis, reason);
+    }
+    
+    public static RetryDecision fail(String reason) {
+        return new RetryDecision(false, 0, reason);
+    }
+    
+    // ==================== Object Methods ====================
+    
+    /**
+     * Forma persistida en {@code delivery_attempts.retry_decision}.
+     */
+    @Override
+    public String toString() {
+        return (retry ? "RETRY: " : "FAIL: ") + reason;
+    }
+}
@@ -0,0 +1,69 @@
+package dev.codebymelendez.notifications.application.retry;
+
+import dev.codebymelendez.notifications.config.ChannelProperties;
+import dev.codebymelendez.notifications.config.RetryProperties;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.DeliveryResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decide si un envío fallido se reintenta a partir de su código de error.
+ *
+ * <p>Orden de evaluación: códigos fail-fast del canal, códigos reintentables del
+ * canal, códigos fail-fast globales, códigos reintentables globales y, por último,
+ * {@code retry-unknown} para lo no clasificado. Un código reintentable solo se
+ * reintenta si quedan intentos, y respeta el retry-after del proveedor.
+ */
+@Component
+@RequiredArgsConstructor
+public class RetryPolicy {
+
+    private final RetryProperties retryProperties;
+    private final ChannelProperties channelProperties;
+
+    /**
+     * @param attemptNumber número del intento que acaba de fallar (1 = primero)
+     */
+    public RetryDecision decide(Channel channel, DeliveryResult result, int attemptNumber) {
+        ChannelProperties.RetryOverrides overrides = channelProperties.forChannel(channel).getRetry();
+        RetryProperties.Policy policy = retryProperties.getPolicy();
+        String code = result.errorCode();
+
+        if (code != null && overrides.getFailFastCodes().contains(code)) {
+            return RetryDecision.fail("código permanente " + code + " (canal " + channel + ")");
+        }
+        if (code != null && overrides.getRetryableCodes().contains(code)) {
+            return retryIfAttemptsLeft(channel, result, attemptNumber,
+                    "código transitorio " + code + " (canal " + channel + ")");
+        }
+        if (code != null && policy.getFailFastCodes().contains(code)) {
+            return RetryDecision.fail("código permanente " + code);
+        }
+        if (code != null && policy.getRetryableCodes().contains(code)) {
+            return retryIfAttemptsLeft(channel, result, attemptNumber, "código transitorio " + code);
+        }
+        if (!policy.isRetryUnknown()) {
+            return RetryDecision.fail("código no clasificado " + code);
+        }
+        return retryIfAttemptsLeft(channel, result, attemptNumber, "código no clasificado " + code);
+    }
+
+    public int maxAttempts(Channel channel) {
+        Integer override = channelProperties.forChannel(channel).getRetry().getMaxAttempts();
+        return override != null ? override : retryProperties.getMaxAttempts();
+    }
+
+    private RetryDecision retryIfAttemptsLeft(
+            Channel channel, DeliveryResult result, int attemptNumber, String reason) {
+        int maxAttempts = maxAttempts(channel);
+        if (attemptNumber >= maxAttempts) {
+            return RetryDecision.fail(reason + ", intentos agotados (" + attemptNumber + "/" + maxAttempts + ")");
+        }
+        if (result.hasRetryAfter()) {
+            long retryAfter = result.retryAfter().toMillis();
+            return RetryDecision.retry(retryAfter, reason + ", retry-after " + retryAfter + "ms");
+        }
+        return RetryDecision.retry(0, reason);
+    }
+}
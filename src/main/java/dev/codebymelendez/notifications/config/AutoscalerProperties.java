@@ -0,0 +1,43 @@
+package dev.codebymelendez.notifications.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Ajuste automático de consumers y prefetch de los listeners por canal, bajo
+ * {@code app.autoscaler}. Los límites de consumers son los
+ * {@code concurrency}/{@code max-concurrency} de cada canal (y de su carril exprés).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.autoscaler")
+public class AutoscalerProperties {
+
+    private boolean enabled = false;
+
+    /** Milisegundos entre muestreos. */
+    private long interval = 5000;
+
+    /** Backlog por consumer a partir del cual se añaden consumers. */
+    private int backlogPerConsumer = 500;
+
+    /** Ocupación del cupo en vuelo a partir de la cual se añade un consumer si hay backlog. */
+    private double scaleUpUtilization = 0.8;
+
+    /** Ocupación por debajo de la cual, sin backlog, se retira un consumer. */
+    private double scaleDownUtilization = 0.3;
+
+    private int minPrefetch = 10;
+
+    private int maxPrefetch = 500;
+
+    /**
+     * Tiempo mínimo entre dos cambios de prefetch de un mismo listener: cada
+     * cambio reinicia sus consumers.
+     */
+    private Duration prefetchCooldown = Duration.ofMinutes(1);
+
+    /** Decisiones recientes que se conservan para consulta. */
+    private int historySize = 100;
+}
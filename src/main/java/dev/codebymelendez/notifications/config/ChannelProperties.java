@@ -0,0 +1,197 @@
+package dev.codebymelendez.notifications.config;
+
+import dev.codebymelendez.notifications.domain.model.Channel;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ajustes por canal bajo {@code app.channels.<canal>}.
+ *
+ * <p>Los ajustes propios de cada sender ({@code from}, {@code simulate-failure-rate}...)
+ * se siguen leyendo con {@code @Value} en el sender; aquí solo viven los que
+ * la infraestructura aplica de forma genérica a todos los canales.
+ */
+@Data
+@ConfigurationProperties(prefix = "app")
+public class ChannelProperties {
+
+    private Map<Channel, Settings> channels = new EnumMap<>(Channel.class);
+
+    public Settings forChannel(Channel channel) {
+        return channels.getOrDefault(channel, new Settings());
+    }
+
+    @Data
+    public static class Settings {
+
+        /** Consumers iniciales del listener container del canal. */
+        private int concurrency = 1;
+
+        /** Máximo de consumers que el container puede levantar bajo carga. */
+        private int maxConcurrency = 4;
+
+        /** Mensajes sin ack que el broker entrega a cada consumer. */
+        private int prefetch = 10;
+
+        /** Envíos asíncronos en vuelo permitidos para el canal, sumando todos sus consumers. */
+        private int maxInFlight = 100;
+
+        /** Carril exprés (prioridad HIGH) del canal. */
+        private Express express = new Express();
+
+        /** Sobrescrituras de la política de reintentos para el canal. */
+        private RetryOverrides retry = new RetryOverrides();
+
+        /** Límite de envíos por segundo del canal/proveedor y, opcionalmente, por destinatario o dominio. */
+        private RateLimit rateLimit = new RateLimit();
+
+        /** Circuit breaker alrededor del sender del canal. */
+        private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+        /** Agrupación de notificaciones por destinatario en un único envío. */
+        private Coalescing coalescing = new Coalescing();
+
+        /** Entrega ordenada por destinatario mediante colas sharded. */
+        private Ordering ordering = new Ordering();
+    }
+
+    /**
+     * Ajustes del carril exprés. Prefetch y envíos en vuelo pequeños: el carril
+     * prioriza latencia, no throughput, y no comparte cupo con la cola masiva.
+     */
+    @Data
+    public static class Express {
+
+        private int concurrency = 1;
+
+        private int maxConcurrency = 2;
+
+        private int prefetch = 10;
+
+        private int maxInFlight = 20;
+    }
+
+    /**
+     * Token buckets consultados antes de cada envío. Un límite a 0 desactiva
+     * ese nivel.
+     */
+    @Data
+    public static class RateLimit {
+
+        /** Envíos por segundo del canal (cuota del proveedor). */
+        private double permitsPerSecond = 0;
+
+        /** Envíos que se admiten de golpe con el bucket lleno. */
+        private int burst = 1;
+
+        /** Clave del segundo nivel de límite. */
+        private RateLimitKey key = RateLimitKey.NONE;
+
+        /** Envíos por segundo por cada valor de la clave (destinatario o dominio). */
+        private double keyPermitsPerSecond = 0;
+
+        private int keyBurst = 1;
+
+        /**
+         * Esperas de hasta este tiempo se absorben antes de enviar; las mayores
+         * difieren el mensaje a la cola de retardo.
+         */
+        private Duration maxInlineWait = Duration.ofMillis(250);
+    }
+
+    public enum RateLimitKey {
+        NONE,
+        RECIPIENT,
+        /** Dominio del email; para otros destinatarios, el destinatario completo. */
+        DOMAIN
+    }
+
+    /**
+     * Circuit breaker del sender. Con el circuito abierto los mensajes se aparcan
+     * en la cola de retardo sin llamar al proveedor ni consumir intentos.
+     */
+    @Data
+    public static class CircuitBreaker {
+
+        private boolean enabled = true;
+
+        /** Últimos envíos sobre los que se calcula la tasa de fallos. */
+        private int windowSize = 50;
+
+        /** Envíos mínimos en la ventana antes de poder abrir el circuito. */
+        private int minimumCalls = 20;
+
+        /** Tasa de fallos (0-1) que abre el circuito. */
+        private double failureRateThreshold = 0.5;
+
+        /** Tiempo abierto antes de pasar a HALF_OPEN. */
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        /** Envíos de prueba en HALF_OPEN; si todos van bien, el circuito se cierra. */
+        private int halfOpenCalls = 3;
+
+        /** Una prueba sin resultado pasado este tiempo deja libre su plaza en HALF_OPEN. */
+        private Duration probeTimeout = Duration.ofSeconds(30);
+
+        /** Tras cerrarse, el tráfico admitido crece de forma lineal durante este tiempo. */
+        private Duration rampUp = Duration.ofSeconds(30);
+
+        /** Espera de los mensajes que no entran en las pruebas o en la rampa. */
+        private Duration rampUpDelay = Duration.ofSeconds(2);
+
+        /** Códigos que no indican un problema del proveedor y no cuentan como fallo. */
+        private Set<String> ignoredCodes = new HashSet<>(Set.of("VALIDATION_ERROR", "UNSUPPORTED_CHANNEL"));
+    }
+
+    /**
+     * Agrupación opcional por (canal, destinatario). Los mensajes retenidos siguen
+     * sin ack, así que {@code prefetch} debe dejar margen para {@code max-size}.
+     */
+    @Data
+    public static class Coalescing {
+
+        private boolean enabled = false;
+
+        /** Tiempo máximo que se retiene la primera notificación de un destinatario. */
+        private Duration window = Duration.ofSeconds(5);
+
+        /** Notificaciones que cierran el digest sin esperar a la ventana. */
+        private int maxSize = 20;
+    }
+
+    /**
+     * Entrega ordenada: el destinatario se reparte por hash entre {@code shards}
+     * colas con un único consumer activo cada una, que procesa de mensaje en
+     * mensaje. El throughput del canal escala con el número de shards.
+     */
+    @Data
+    public static class Ordering {
+
+        private boolean enabled = false;
+
+        /**
+         * Número de colas del canal. Cambiarlo reasigna destinatarios a otros
+         * shards: el orden no se garantiza para los mensajes ya encolados.
+         */
+        private int shards = 8;
+    }
+
+    @Data
+    public static class RetryOverrides {
+
+        /** Máximo de intentos del canal; null usa {@code app.retry.max-attempts}. */
+        private Integer maxAttempts;
+
+        /** Códigos adicionales que el canal reintenta. */
+        private Set<String> retryableCodes = new HashSet<>();
+
+        /** Códigos adicionales que el canal da por fallidos sin reintentar. */
+        private Set<String> failFastCodes = new HashSet<>();
+    }
+}
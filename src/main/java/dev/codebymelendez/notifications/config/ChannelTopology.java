@@ -0,0 +1,133 @@
+package dev.codebymelendez.notifications.config;
+
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.Priority;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Nombres de colas y routing keys por canal, derivados de las plantillas
+ * {@code app.rabbitmq.channel.*} con el código del canal.
+ *
+ * <p>Cada canal tiene además un carril exprés para la prioridad HIGH, con cola
+ * y consumers propios: un backlog masivo en la cola del canal no retrasa los
+ * OTP ni los transaccionales.
+ *
+ * <p>Los canales con {@code ordering.enabled} tienen también N colas sharded
+ * por hash del destinatario ({@code shard-queue}, {@code shard-routing-key}).
+ */
+@Component("channelTopology")
+public class ChannelTopology {
+
+    private final String queueTemplate;
+    private final String deadLetterQueueTemplate;
+    private final String routingKeyTemplate;
+    private final String deadLetterRoutingKeyTemplate;
+    private final String expressQueueTemplate;
+    private final String expressRoutingKeyTemplate;
+    private final String shardQueueTemplate;
+    private final String shardRoutingKeyTemplate;
+    private final ChannelProperties channelProperties;
+
+    public ChannelTopology(
+            @Value("${app.rabbitmq.channel.queue:notifications.%s.queue}") String queueTemplate,
+            @Value("${app.rabbitmq.channel.dlq:notifications.%s.dlq}") String deadLetterQueueTemplate,
+            @Value("${app.rabbitmq.channel.routing-key:notification.send.%s}") String routingKeyTemplate,
+            @Value("${app.rabbitmq.channel.dlq-routing-key:notification.dead.%s}") String deadLetterRoutingKeyTemplate,
+            @Value("${app.rabbitmq.channel.express-queue:notifications.%s.express.queue}") String expressQueueTemplate,
+            @Value("${app.rabbitmq.channel.express-routing-key:notification.send.%s.express}") String expressRoutingKeyTemplate,
+            @Value("${app.rabbitmq.channel.shard-queue:notifications.%s.shard.%d.queue}") String shardQueueTemplate,
+            @Value("${app.rabbitmq.channel.shard-routing-key:notification.send.%s.shard.%d}") String shardRoutingKeyTemplate,
+            ChannelProperties channelProperties) {
+        this.queueTemplate = queueTemplate;
+        this.deadLetterQueueTemplate = deadLetterQueueTemplate;
+        this.routingKeyTemplate = routingKeyTemplate;
+        this.deadLetterRoutingKeyTemplate = deadLetterRoutingKeyTemplate;
+        this.expressQueueTemplate = expressQueueTemplate;
+        this.expressRoutingKeyTemplate = expressRoutingKeyTemplate;
+        this.shardQueueTemplate = shardQueueTemplate;
+        this.shardRoutingKeyTemplate = shardRoutingKeyTemplate;
+        this.channelProperties = channelProperties;
+    }
+
+    public String queue(Channel channel) {
+        return String.format(queueTemplate, channel.getCode());
+    }
+
+    public String expressQueue(Channel channel) {
+        return String.format(expressQueueTemplate, channel.getCode());
+    }
+
+    public String deadLetterQueue(Channel channel) {
+        return String.format(deadLetterQueueTemplate, channel.getCode());
+    }
+
+    public String routingKey(Channel channel) {
+        return String.format(routingKeyTemplate, channel.getCode());
+    }
+
+    public String expressRoutingKey(Channel channel) {
+        return String.format(expressRoutingKeyTemplate, channel.getCode());
+    }
+
+    public String routingKey(Channel channel, Priority priority) {
+        return priority != null && priority.isExpress()
+                ? expressRoutingKey(channel)
+                : routingKey(channel);
+    }
+
+    /**
+     * Como {@link #routingKey(Channel, Priority)}, pero en los canales con
+     * entrega ordenada los mensajes no exprés van al shard de su destinatario.
+     */
+    public String routingKey(Channel channel, Priority priority, Integer orderingKey) {
+        if (orderingKey != null && isOrdered(channel) && (priority == null || !priority.isExpress())) {
+            return shardRoutingKey(channel, shardOf(channel, orderingKey));
+        }
+        return routingKey(channel, priority);
+    }
+
+    public boolean isOrdered(Channel channel) {
+        return channelProperties.forChannel(channel).getOrdering().isEnabled();
+    }
+
+    public int shards(Channel channel) {
+        return Math.max(1, channelProperties.forChannel(channel).getOrdering().getShards());
+    }
+
+    public int shardOf(Channel channel, int orderingKey) {
+        return Math.floorMod(orderingKey, shards(channel));
+    }
+
+    public String shardQueue(Channel channel, int shard) {
+        return String.format(shardQueueTemplate, channel.getCode(), shard);
+    }
+
+    public String shardRoutingKey(Channel channel, int shard) {
+        return String.format(shardRoutingKeyTemplate, channel.getCode(), shard);
+    }
+
+    public String deadLetterRoutingKey(Channel channel) {
+        return String.format(deadLetterRoutingKeyTemplate, channel.getCode());
+    }
+
+    public String listenerId(Channel channel) {
+        return "notifications." + channel.getCode();
+    }
+
+    public String expressListenerId(Channel channel) {
+        return listenerId(channel) + ".express";
+    }
+
+    public String shardListenerId(Channel channel, int shard) {
+        return listenerId(channel) + ".shard." + shard;
+    }
+
+    public String[] deadLetterQueues() {
+        return Arrays.stream(Channel.values())
+                .map(this::deadLetterQueue)
+                .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,21 @@
+package dev.codebymelendez.notifications.config;
+
+import dev.codebymelendez.notifications.domain.model.EntityIds;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Aplica {@code app.ids.time-ordered} a {@link EntityIds} al arrancar. El
+ * generador lo instancia Hibernate, fuera del contexto de Spring, por eso el
+ * modo se guarda en un campo estático.
+ */
+@Slf4j
+@Configuration
+public class EntityIdConfig {
+
+    public EntityIdConfig(@Value("${app.ids.time-ordered:false}") boolean timeOrdered) {
+        EntityIds.setTimeOrdered(timeOrdered);
+        log.info("Identificadores de notificaciones: {}", timeOrdered ? "UUID v7 (ordenados por tiempo)" : "UUID v4");
+    }
+}
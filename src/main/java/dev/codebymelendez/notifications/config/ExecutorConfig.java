@@ -0,0 +1,41 @@
+package dev.codebymelendez.notifications.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor para despachar envíos en paralelo desde los consumers.
+ *
+ * <p>Sigue {@code spring.threads.virtual.enabled}: en modo virtual cada envío
+ * obtiene su propio virtual thread; en modo plataforma se usa un pool acotado.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    @Bean(name = "senderExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public AsyncTaskExecutor virtualSenderExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("sender-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    @Bean(name = "senderExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public AsyncTaskExecutor platformSenderExecutor(
+            @Value("${app.senders.pool-size:32}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("sender-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(Integer.MAX_VALUE);
+        executor.initialize();
+        return executor;
+    }
+}
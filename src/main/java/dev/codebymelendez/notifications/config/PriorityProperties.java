@@ -0,0 +1,27 @@
+package dev.codebymelendez.notifications.config;
+
+import dev.codebymelendez.notifications.domain.model.Priority;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * SLO de latencia de entrega (creación → entrega) por prioridad, bajo
+ * {@code app.priority.slo.<prioridad>}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.priority")
+public class PriorityProperties {
+
+    private Map<Priority, Duration> slo = new EnumMap<>(Map.of(
+            Priority.HIGH, Duration.ofSeconds(5),
+            Priority.NORMAL, Duration.ofMinutes(1),
+            Priority.LOW, Duration.ofMinutes(15)));
+
+    public Duration sloFor(Priority priority) {
+        return slo.getOrDefault(priority, Duration.ofMinutes(1));
+    }
+}
@@ -1,5 +1,8 @@
 package dev.codebymelendez.notifications.config;
 
+import dev.codebymelendez.notifications.application.event.NotificationEvent;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.infrastructure.messaging.NotificationEventMessageConverter;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -9,6 +12,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 
 @Configuration
 public class RabbitMQConfig {
@@ -19,6 +25,9 @@ public class RabbitMQConfig {
     @Value("${app.rabbitmq.exchange.dlx}")
     private String deadLetterExchange;
     
+    @Value("${app.rabbitmq.exchange.retry}")
+    private String retryExchange;
+    
     @Value("${app.rabbitmq.queue.notifications}")
     private String notificationsQueue;
     
@@ -88,19 +97,138 @@ public class RabbitMQConfig {
                 .with(dlqRoutingKey);
     }
     
+    // ==================== Colas por Canal ====================
+    
+    /**
+     * Una cola y una DLQ por canal, para que el backlog de un canal lento no
+     * retrase a los demás. La cola compartida se mantiene para drenar los
+     * mensajes publicados antes del enrutado por canal.
+     */
+    @Bean
+    public Declarables channelQueues(ChannelTopology topology) {
+        List<Declarable> declarables = new ArrayList<>();
+        
+        for (Channel channel : Channel.values()) {
+            Queue queue = QueueBuilder
+                    .durable(topology.queue(channel))
+                    .withArgument("x-dead-letter-exchange", deadLetterExchange)
+                    .withArgument("x-dead-letter-routing-key", topology.deadLetterRoutingKey(channel))
+                    .build();
+            Queue express = QueueBuilder
+                    .durable(topology.expressQueue(channel))
+                    .withArgument("x-dead-letter-exchange", deadLetterExchange)
+                    .withArgument("x-dead-letter-routing-key", topology.deadLetterRoutingKey(channel))
+                    .build();
+            Queue dlq = QueueBuilder
+                    .durable(topology.deadLetterQueue(channel))
+                    .build();
+            
+            declarables.add(queue);
+            declarables.add(express);
+            declarables.add(dlq);
+            declarables.add(new Binding(queue.getName(), Binding.DestinationType.QUEUE,
+                    notificationsExchange, topology.routingKey(channel), null));
+            declarables.add(new Binding(express.getName(), Binding.DestinationType.QUEUE,
+                    notificationsExchange, topology.expressRoutingKey(channel), null));
+            declarables.add(new Binding(dlq.getName(), Binding.DestinationType.QUEUE,
+                    deadLetterExchange, topology.deadLetterRoutingKey(channel), null));
+        }
+        
+        return new Declarables(declarables);
+    }
+    
+    /**
+     * Colas sharded de los canales con entrega ordenada. Con
+     * {@code x-single-active-consumer} el broker entrega cada shard a un único
+     * consumer aunque varias instancias estén suscritas, y pasa al siguiente si
+     * ese consumer se desconecta.
+     */
+    @Bean
+    public Declarables shardQueues(ChannelTopology topology) {
+        List<Declarable> declarables = new ArrayList<>();
+        
+        for (Channel channel : Channel.values()) {
+            if (!topology.isOrdered(channel)) {
+                continue;
+            }
+            for (int shard = 0; shard < topology.shards(channel); shard++) {
+                Queue queue = QueueBuilder
+                        .durable(topology.shardQueue(channel, shard))
+                        .singleActiveConsumer()
+                        .withArgument("x-dead-letter-exchange", deadLetterExchange)
+                        .withArgument("x-dead-letter-routing-key", topology.deadLetterRoutingKey(channel))
+                        .build();
+                
+                declarables.add(queue);
+                declarables.add(new Binding(queue.getName(), Binding.DestinationType.QUEUE,
+                        notificationsExchange, topology.shardRoutingKey(channel, shard), null));
+            }
+        }
+        
+        return new Declarables(declarables);
+    }
+    
+    // ==================== Colas de Reintento ====================
+    
+    /**
+     * Un exchange de tipo headers y una cola con TTL por nivel de backoff. El
+     * mensaje se enruta al nivel por la cabecera {@link RetryTopology#DELAY_HEADER}
+     * y, al expirar, vuelve al exchange de notificaciones conservando su routing
+     * key (no se fija {@code x-dead-letter-routing-key}), es decir, a la cola de
+     * su canal. La espera ocurre en el broker, sin ocupar ningún consumer. Los
+     * niveles para aparcar se declaran igual que los de reintento.
+     */
+    @Bean
+    public Declarables retryQueues(RetryTopology topology) {
+        List<Declarable> declarables = new ArrayList<>();
+        
+        HeadersExchange exchange = ExchangeBuilder
+                .headersExchange(retryExchange)
+                .durable(true)
+                .build();
+        declarables.add(exchange);
+        
+        List<Long> delays = new ArrayList<>(topology.delays());
+        delays.addAll(topology.parkDelays());
+        for (long delay : delays) {
+            Queue queue = QueueBuilder
+                    .durable(topology.queue(delay))
+                    .ttl((int) delay)
+                    .withArgument("x-dead-letter-exchange", notificationsExchange)
+                    .build();
+            
+            declarables.add(queue);
+            declarables.add(BindingBuilder
+                    .bind(queue)
+                    .to(exchange)
+                    .where(RetryTopology.DELAY_HEADER)
+                    .matches(String.valueOf(delay)));
+        }
+        
+        return new Declarables(declarables);
+    }
+    
     // ==================== Message Converter ====================
     
 
+    /**
+     * JSON por defecto. El formato binario de {@link NotificationEvent} se lee
+     * siempre y solo se escribe con {@code app.rabbitmq.converter=binary}, de modo
+     * que activarlo o desactivarlo no deja mensajes ilegibles en las colas.
+     */
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter jsonMessageConverter(
+            @Value("${app.rabbitmq.converter:json}") String converter) {
+        return new NotificationEventMessageConverter(
+                new Jackson2JsonMessageConverter(),
+                "binary".equalsIgnoreCase(converter));
     }
     
 
     @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, MessageConverter messageConverter) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
-        template.setMessageConverter(jsonMessageConverter());
+        template.setMessageConverter(messageConverter);
         return template;
     }
 }
@@ -0,0 +1,42 @@
+package dev.codebymelendez.notifications.config;
+
+import dev.codebymelendez.notifications.domain.model.DeliveryResult;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Política global de reintentos bajo {@code app.retry}. Cada canal puede
+ * sobrescribirla en {@code app.channels.<canal>.retry}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.retry")
+public class RetryProperties {
+
+    private int maxAttempts = 3;
+
+    private Policy policy = new Policy();
+
+    @Data
+    public static class Policy {
+
+        /**
+         * Códigos de error transitorios: se reintentan mientras queden intentos.
+         * Por defecto, los de {@link DeliveryResult#isTransient()}.
+         */
+        private Set<String> retryableCodes = new HashSet<>(DeliveryResult.TRANSIENT_CODES);
+
+        /** Códigos de error permanentes: fallan en el primer intento. */
+        private Set<String> failFastCodes = new HashSet<>(Set.of(
+                "VALIDATION_ERROR", "UNSUPPORTED_CHANNEL"));
+
+        /**
+         * Qué hacer con códigos no clasificados (o sin código), como las
+         * excepciones inesperadas de un sender. Por defecto fallan: un error
+         * desconocido no se repite contra el proveedor sin clasificarlo antes.
+         */
+        private boolean retryUnknown = false;
+    }
+}
@@ -0,0 +1,139 @@
+package dev.codebymelendez.notifications.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Niveles de reintento con backoff exponencial, derivados de
+ * {@code app.retry.initial-interval}, {@code multiplier} y {@code max-interval}.
+ *
+ * <p>Cada nivel es una cola con {@code x-message-ttl} fijo que, al expirar el
+ * mensaje, lo devuelve (dead-letter) al exchange de notificaciones con su routing
+ * key original. Con la configuración por defecto: 1s, 2s, 4s, 8s, 10s.
+ *
+ * <p>Por encima de {@code max-interval} la serie sigue hasta
+ * {@code max-park-interval} (20s, 40s, 80s, 160s, 300s) con niveles que no usa
+ * el backoff de reintentos, solo las esperas largas que se aparcan: un claim en
+ * curso hasta su lease, un circuito abierto o un retry-after del proveedor.
+ */
+@Component("retryTopology")
+public class RetryTopology {
+
+    public static final String DELAY_HEADER = "x-retry-delay";
+
+    private final String queueTemplate;
+    private final List<Long> delays;
+    private final List<Long> parkDelays;
+
+    public RetryTopology(
+            @Value("${app.rabbitmq.retry.queue:notifications.retry.%dms}") String queueTemplate,
+            @Value("${app.retry.initial-interval:1000}") long initialInterval,
+            @Value("${app.retry.multiplier:2.0}") double multiplier,
+            @Value("${app.retry.max-interval:10000}") long maxInterval,
+            @Value("${app.retry.max-park-interval:300000}") long maxParkInterval) {
+        this.queueTemplate = queueTemplate;
+        this.delays = computeDelays(initialInterval, multiplier, maxInterval);
+        this.parkDelays = computeParkDelays(maxInterval, multiplier, maxParkInterval);
+    }
+
+    /**
+     * Niveles del backoff de reintentos.
+     */
+    public List<Long> delays() {
+        return delays;
+    }
+
+    /**
+     * Niveles por encima de {@link #maxDelay()}, solo para aparcar; puede estar vacía.
+     */
+    public List<Long> parkDelays() {
+        return parkDelays;
+    }
+
+    public String queue(long delay) {
+        return String.format(queueTemplate, delay);
+    }
+
+    /**
+     * Retardo del reintento número {@code retryNumber} (1 = primer reintento).
+     */
+    public long delayForRetry(int retryNumber) {
+        int index = Math.min(Math.max(retryNumber, 1) - 1, delays.size() - 1);
+        return delays.get(index);
+    }
+
+    /**
+     * Retardo del nivel más largo.
+     */
+    public long maxDelay() {
+        return delays.get(delays.size() - 1);
+    }
+
+    /**
+     * Menor nivel que espera al menos {@code minDelay} ms, o el mayor si ninguno alcanza.
+     */
+    public long delayAtLeast(long minDelay) {
+        return delays.stream()
+                .filter(delay -> delay >= minDelay)
+                .findFirst()
+                .orElse(maxDelay());
+    }
+
+    /**
+     * Nivel en el que aparcar una espera de {@code wait} ms. Hasta el nivel de
+     * reintento mayor, el menor que la cubre; por encima, el mayor que no se
+     * pasa, de modo que una espera larga se recorre en unos pocos saltos
+     * decrecientes (290s: 160s, 80s, 40s, 10s) y el evento vuelve a revisarse
+     * cuando se cumple, no un nivel entero después.
+     */
+    public long parkDelay(long wait) {
+        if (wait <= maxDelay()) {
+            return delayAtLeast(wait);
+        }
+        long delay = maxDelay();
+        for (long park : parkDelays) {
+            if (park <= wait) {
+                delay = park;
+            }
+        }
+        return delay;
+    }
+
+    private static List<Long> computeDelays(long initialInterval, double multiplier, long maxInterval) {
+        if (initialInterval <= 0 || multiplier < 1.0 || maxInterval < initialInterval) {
+            throw new IllegalArgumentException(String.format(
+                    "Configuración de reintentos inválida: initial=%d, multiplier=%.2f, max=%d",
+                    initialInterval, multiplier, maxInterval));
+        }
+
+        List<Long> result = new ArrayList<>();
+        long delay = initialInterval;
+        while (delay < maxInterval && (result.isEmpty() || delay > result.get(result.size() - 1))) {
+            result.add(delay);
+            delay = (long) (delay * multiplier);
+        }
+        result.add(maxInterval);
+        return Collections.unmodifiableList(result);
+    }
+
+    private static List<Long> computeParkDelays(long maxInterval, double multiplier, long maxParkInterval) {
+        List<Long> result = new ArrayList<>();
+        if (maxParkInterval <= maxInterval) {
+            return List.of();
+        }
+
+        long delay = (long) (maxInterval * multiplier);
+        long previous = maxInterval;
+        while (delay < maxParkInterval && delay > previous) {
+            result.add(delay);
+            previous = delay;
+            delay = (long) (delay * multiplier);
+        }
+        result.add(maxParkInterval);
+        return Collections.unmodifiableList(result);
+    }
+}
@@ -0,0 +1,27 @@
+package dev.codebymelendez.notifications.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+
+@Entity
+@Table(name = "consumer_instances")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConsumerInstance {
+
+    @Id
+    @Column(name = "instance_id", length = 128)
+    private String instanceId;
+
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private Instant startedAt;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private Instant heartbeatAt;
+}
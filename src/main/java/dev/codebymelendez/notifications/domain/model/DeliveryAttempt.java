@@ -2,21 +2,19 @@ package dev.codebymelendez.notifications.domain.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.Instant;
 import java.util.UUID;
 
-
+/**
+ * Intento de entrega. La tabla está particionada por el {@code created_at} de su
+ * notificación, copiado en {@code notification_created_at}: los intentos caen en
+ * la misma partición que la notificación y la base de datos impone la unicidad
+ * de (notification_id, attempt_number).
+ */
 @Entity
-@Table(
-    name = "delivery_attempts",
-    uniqueConstraints = {
-        @UniqueConstraint(
-            name = "uq_notification_attempt",
-            columnNames = {"notification_id", "attempt_number"}
-        )
-    }
-)
+@Table(name = "delivery_attempts")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -26,7 +24,8 @@ public class DeliveryAttempt {
     
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue
+    @UuidGenerator(algorithm = EntityIdGenerator.class)
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -43,8 +42,18 @@ public class DeliveryAttempt {
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
     
+    @Column(name = "error_code", length = 64)
+    private String errorCode;
+    
+    @Column(name = "retry_decision", length = 255)
+    private String retryDecision;
+    
     @Column(name = "attempted_at", nullable = false)
     private Instant attemptedAt;
+
+    /** Clave de partición; se toma de la notificación al insertar. */
+    @Column(name = "notification_created_at", nullable = false, updatable = false)
+    private Instant notificationCreatedAt;
     
     // ==================== Lifecycle Callbacks ====================
     
@@ -53,6 +62,9 @@ public class DeliveryAttempt {
         if (this.attemptedAt == null) {
             this.attemptedAt = Instant.now();
         }
+        if (this.notificationCreatedAt == null && this.notification != null) {
+            this.notificationCreatedAt = this.notification.getCreatedAt();
+        }
     }
     
     // ==================== Business Methods ====================
@@ -1,31 +1,54 @@
 package dev.codebymelendez.notifications.domain.model;
 
+import java.time.Duration;
+import java.util.Set;
 
+
+/**
+ * Resultado de un envío.
+ *
+ * @param retryAfter espera sugerida por el proveedor antes de reintentar
+ *                   (p. ej. cabecera Retry-After); null si no la indica
+ */
 public record DeliveryResult(
         boolean success,
         String errorMessage,
-        String errorCode
+        String errorCode,
+        Duration retryAfter
 ) {
+
+    /**
+     * Códigos de un fallo transitorio del proveedor. SIMULATED_FAILURE es el
+     * fallo aleatorio de los senders simulados, que emula uno de estos.
+     */
+    public static final Set<String> TRANSIENT_CODES = Set.of(
+            "TIMEOUT", "CONNECTION_ERROR", "SERVICE_UNAVAILABLE",
+            "RATE_LIMITED", "TEMPORARY_FAILURE", "SIMULATED_FAILURE");
     
     // ==================== Factory Methods ====================
     
     public static DeliveryResult ok() {
-        return new DeliveryResult(true, null, null);
+        return new DeliveryResult(true, null, null, null);
     }
     
     public static DeliveryResult failure(String errorMessage) {
-        return new DeliveryResult(false, errorMessage, null);
+        return new DeliveryResult(false, errorMessage, null, null);
     }
     
     public static DeliveryResult failure(String errorMessage, String errorCode) {
-        return new DeliveryResult(false, errorMessage, errorCode);
+        return new DeliveryResult(false, errorMessage, errorCode, null);
+    }
+    
+    public static DeliveryResult failure(String errorMessage, String errorCode, Duration retryAfter) {
+        return new DeliveryResult(false, errorMessage, errorCode, retryAfter);
     }
     
     public static DeliveryResult fromException(Exception exception) {
         return new DeliveryResult(
                 false,
                 exception.getMessage(),
-                exception.getClass().getSimpleName()
+                exception.getClass().getSimpleName(),
+                null
         );
     }
     
@@ -35,19 +58,16 @@ public record DeliveryResult(
         return !success;
     }
     
+    public boolean hasRetryAfter() {
+        return retryAfter != null && !retryAfter.isNegative() && !retryAfter.isZero();
+    }
+    
     public boolean hasErrorCode(String code) {
         return errorCode != null && errorCode.equals(code);
     }
     
     public boolean isTransient() {
-        if (success || errorCode == null) {
-            return false;
-        }
-        return switch (errorCode) {
-            case "TIMEOUT", "CONNECTION_ERROR", "SERVICE_UNAVAILABLE", 
-                 "RATE_LIMITED", "TEMPORARY_FAILURE" -> true;
-            default -> false;
-        };
+        return !success && errorCode != null && TRANSIENT_CODES.contains(errorCode);
     }
     
     // ==================== Object Methods ====================
@@ -0,0 +1,18 @@
+package dev.codebymelendez.notifications.domain.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.util.UUID;
+
+/**
+ * Algoritmo de {@code @UuidGenerator} para las entidades: delega en
+ * {@link EntityIds}, de modo que los inserts JPA y los JDBC usan el mismo formato.
+ */
+public class EntityIdGenerator implements UuidValueGenerator {
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return EntityIds.newId();
+    }
+}
@@ -0,0 +1,54 @@
+package dev.codebymelendez.notifications.domain.model;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Identificadores de notificaciones e intentos.
+ *
+ * <p>Por defecto son UUID v4 aleatorios. Con {@code app.ids.time-ordered} se
+ * generan UUID v7 (RFC 9562): los 48 bits altos son el instante en
+ * milisegundos, así que los IDs nuevos se insertan al final del índice de la
+ * clave primaria en lugar de repartirse por todo el B-tree. PostgreSQL compara
+ * los {@code uuid} byte a byte, por lo que el orden del índice es el temporal.
+ *
+ * <p>Dentro de un mismo milisegundo los 12 bits siguientes hacen de contador
+ * (método 3 de la RFC) y los IDs de esta JVM son estrictamente crecientes; si
+ * el contador se agota se toma prestado el milisegundo siguiente. Los 62 bits
+ * finales son aleatorios. Los dos formatos conviven en la misma columna.
+ */
+public final class EntityIds {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final AtomicLong LAST = new AtomicLong();
+    private static volatile boolean timeOrdered;
+
+    private EntityIds() {
+    }
+
+    public static void setTimeOrdered(boolean enabled) {
+        timeOrdered = enabled;
+    }
+
+    public static boolean isTimeOrdered() {
+        return timeOrdered;
+    }
+
+    public static UUID newId() {
+        return timeOrdered ? uuidV7() : UUID.randomUUID();
+    }
+
+    static UUID uuidV7() {
+        // Marca de tiempo (48 bits) y contador (12 bits) en un único long creciente
+        long now = System.currentTimeMillis() << 12;
+        long stamp = LAST.updateAndGet(last -> Math.max(last + 1, now));
+
+        long msb = (stamp >>> 12) << 16
+                | 0x7000L
+                | (stamp & 0xFFFL);
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL)
+                | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
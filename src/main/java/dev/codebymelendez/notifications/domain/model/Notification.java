@@ -3,6 +3,7 @@ package dev.codebymelendez.notifications.domain.model;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UuidGenerator;
 import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
@@ -22,7 +23,8 @@ import java.util.UUID;
 public class Notification {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue
+    @UuidGenerator(algorithm = EntityIdGenerator.class)
     private UUID id;
     
     @Enumerated(EnumType.STRING)
@@ -38,6 +40,11 @@ public class Notification {
     @Column(name = "content", nullable = false, columnDefinition = "TEXT")
     private String content;
     
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority", nullable = false, length = 10)
+    @Builder.Default
+    private Priority priority = Priority.NORMAL;
+    
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "metadata", columnDefinition = "jsonb")
     private Map<String, Object> metadata;
@@ -59,6 +66,18 @@ public class Notification {
     @Column(name = "delivered_at")
     private Instant deliveredAt;
     
+    /**
+     * Versión optimista. Las transiciones JDBC también la incrementan, así que
+     * guardar una entidad leída antes de una transición falla en lugar de pisarla.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
+    /** Último intento reclamado; lo escribe solo el UPDATE condicionado del claim. */
+    @Column(name = "claimed_attempt", insertable = false, updatable = false)
+    private int claimedAttempt;
+    
     @OneToMany(mappedBy = "notification", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("attemptNumber ASC")
     @Builder.Default
@@ -109,6 +128,10 @@ public class Notification {
     }
     
     public DeliveryAttempt recordAttempt(boolean success, String errorMessage) {
+        return recordAttempt(success, errorMessage, null, null);
+    }
+    
+    public DeliveryAttempt recordAttempt(boolean success, String errorMessage, String errorCode, String retryDecision) {
         int attemptNumber = this.deliveryAttempts.size() + 1;
         
         DeliveryAttempt attempt = DeliveryAttempt.builder()
@@ -116,6 +139,8 @@ public class Notification {
                 .attemptNumber(attemptNumber)
                 .status(success ? DeliveryAttemptStatus.SUCCESS : DeliveryAttemptStatus.FAILED)
                 .errorMessage(errorMessage)
+                .errorCode(errorCode)
+                .retryDecision(retryDecision)
                 .build();
         
         this.deliveryAttempts.add(attempt);
@@ -135,8 +160,8 @@ public class Notification {
     @Override
     public String toString() {
         return String.format(
-            "Notification{id=%s, channel=%s, recipient='%s', status=%s, attempts=%d}",
-            id, channel, recipient, status, getAttemptCount()
+            "Notification{id=%s, channel=%s, priority=%s, recipient='%s', status=%s, attempts=%d}",
+            id, channel, priority, recipient, status, getAttemptCount()
         );
     }
 }
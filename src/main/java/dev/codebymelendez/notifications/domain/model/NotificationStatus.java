@@ -33,4 +33,11 @@ public enum NotificationStatus {
     public boolean canBeProcessed() {
         return !terminal;
     }
+
+    /**
+     * Estados de origen válidos para cerrar una notificación.
+     */
+    public static NotificationStatus[] nonTerminal() {
+        return new NotificationStatus[] {PENDING, QUEUED, PROCESSING};
+    }
 }
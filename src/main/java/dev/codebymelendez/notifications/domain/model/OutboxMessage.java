@@ -0,0 +1,65 @@
+package dev.codebymelendez.notifications.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+
+@Entity
+@Table(name = "notification_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "notification_id", nullable = false)
+    private UUID notificationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel", length = 20)
+    private Channel channel;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority", length = 10)
+    private Priority priority;
+
+    @Column(name = "ordering_key")
+    private Integer orderingKey;
+
+    @Column(name = "correlation_id", nullable = false, length = 64)
+    private String correlationId;
+
+    @Column(name = "attempt_number", nullable = false)
+    @Builder.Default
+    private int attemptNumber = 1;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    // ==================== Lifecycle Callbacks ====================
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.createdAt == null) {
+            this.createdAt = Instant.now();
+        }
+    }
+
+    // ==================== Object Methods ====================
+
+    @Override
+    public String toString() {
+        return String.format(
+            "OutboxMessage{id=%d, notificationId=%s, attempt=%d, correlationId=%s}",
+            id, notificationId, attemptNumber, correlationId
+        );
+    }
+}
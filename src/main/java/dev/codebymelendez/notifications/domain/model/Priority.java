@@ -0,0 +1,54 @@
+package dev.codebymelendez.notifications.domain.model;
+
+
+/**
+ * Prioridad de entrega. {@link #HIGH} (OTP, restablecimiento de contraseña,
+ * transaccionales) viaja por el carril exprés de su canal; {@link #NORMAL} y
+ * {@link #LOW} comparten la cola del canal.
+ */
+public enum Priority {
+
+    HIGH("high"),
+
+    NORMAL("normal"),
+
+    LOW("low");
+
+    private final String code;
+
+    Priority(String code) {
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public boolean isExpress() {
+        return this == HIGH;
+    }
+
+    public static Priority fromCode(String code) {
+        for (Priority priority : values()) {
+            if (priority.code.equalsIgnoreCase(code)) {
+                return priority;
+            }
+        }
+        throw new IllegalArgumentException("Prioridad desconocida: " + code);
+    }
+
+    /**
+     * Prioridad declarada antes de existir el campo, como clave libre
+     * {@code priority} en metadata. Valores desconocidos se tratan como NORMAL.
+     */
+    public static Priority fromMetadata(Object value) {
+        if (value != null) {
+            for (Priority priority : values()) {
+                if (priority.code.equalsIgnoreCase(value.toString().trim())) {
+                    return priority;
+                }
+            }
+        }
+        return NORMAL;
+    }
+}
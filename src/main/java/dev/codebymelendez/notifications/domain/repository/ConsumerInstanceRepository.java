@@ -0,0 +1,38 @@
+package dev.codebymelendez.notifications.domain.repository;
+
+import dev.codebymelendez.notifications.domain.model.ConsumerInstance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+
+@Repository
+public interface ConsumerInstanceRepository extends JpaRepository<ConsumerInstance, String> {
+
+    /**
+     * Registra la instancia o renueva su heartbeat en una sola sentencia.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO consumer_instances (instance_id, started_at, heartbeat_at)
+        VALUES (:instanceId, NOW(), NOW())
+        ON CONFLICT (instance_id) DO UPDATE SET heartbeat_at = NOW()
+        """, nativeQuery = true)
+    void heartbeat(@Param("instanceId") String instanceId);
+
+    @Query("""
+        SELECT i.instanceId FROM ConsumerInstance i
+        WHERE i.heartbeatAt >= :since
+        ORDER BY i.instanceId
+        """)
+    List<String> findLiveInstanceIds(@Param("since") Instant since);
+
+    @Modifying
+    @Query("DELETE FROM ConsumerInstance i WHERE i.heartbeatAt < :before")
+    int deleteStale(@Param("before") Instant before);
+}
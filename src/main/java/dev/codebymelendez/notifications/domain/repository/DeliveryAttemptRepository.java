@@ -8,12 +8,13 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 
 @Repository
-public interface DeliveryAttemptRepository extends JpaRepository<DeliveryAttempt, UUID> {
+public interface DeliveryAttemptRepository extends JpaRepository<DeliveryAttempt, UUID>, DeliveryAttemptRepositoryCustom {
     
     List<DeliveryAttempt> findByNotificationIdOrderByAttemptNumberAsc(UUID notificationId);
     
@@ -26,12 +27,13 @@ public interface DeliveryAttemptRepository extends JpaRepository<DeliveryAttempt
     );
     
     @Query("""
-        SELECT da.status, COUNT(da)
+        SELECT da.notification.id, MAX(da.attemptNumber)
         FROM DeliveryAttempt da
-        GROUP BY da.status
+        WHERE da.notification.id IN :notificationIds
+        GROUP BY da.notification.id
         """)
-    List<Object[]> countByStatusGrouped();
-    
+    List<Object[]> findLastAttemptNumbers(@Param("notificationIds") Collection<UUID> notificationIds);
+
     @Query(value = """
         SELECT error_message, COUNT(*) as count 
         FROM delivery_attempts 
@@ -0,0 +1,24 @@
+package dev.codebymelendez.notifications.domain.repository;
+
+import dev.codebymelendez.notifications.domain.model.DeliveryAttempt;
+
+import java.util.List;
+
+/**
+ * Inserción de intentos de entrega con JDBC, sin cargar la notificación.
+ */
+public interface DeliveryAttemptRepositoryCustom {
+
+    /**
+     * Inserta los intentos en lotes JDBC. Los IDs deben venir asignados.
+     */
+    void insertAll(List<DeliveryAttempt> attempts);
+
+    /**
+     * Inserta el intento con el siguiente número libre de su notificación,
+     * calculado en la propia sentencia.
+     *
+     * @return número de intento asignado
+     */
+    int append(DeliveryAttempt attempt);
+}
@@ -0,0 +1,19 @@
+package dev.codebymelendez.notifications.domain.repository;
+
+import dev.codebymelendez.notifications.domain.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String>, IdempotencyKeyRepositoryCustom {
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,18 @@
+package dev.codebymelendez.notifications.domain.repository;
+
+import java.util.UUID;
+
+/**
+ * Reserva de claves con {@code INSERT ... ON CONFLICT DO NOTHING}: una clave
+ * duplicada no aborta la transacción y la reserva concurrente de otra
+ * instancia espera a su commit en el índice único.
+ */
+public interface IdempotencyKeyRepositoryCustom {
+
+    /**
+     * @return true si esta transacción reservó la clave; false si ya existía
+     */
+    boolean reserve(String key, String requestHash);
+
+    void bind(String key, UUID notificationId);
+}
@@ -0,0 +1,39 @@
+package dev.codebymelendez.notifications.domain.repository;
+
+import dev.codebymelendez.notifications.domain.model.Notification;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Archivo de notificaciones terminales en bloques comprimidos, fuera de las
+ * tablas calientes.
+ */
+public interface NotificationArchiveRepositoryCustom {
+
+    /**
+     * Mueve al archivo hasta {@code limit} notificaciones DELIVERED/FAILED
+     * creadas antes de {@code createdBefore}, con sus intentos, como un único
+     * bloque: inserta el bloque y su índice y borra las filas calientes. Las
+     * filas bloqueadas por otra transacción se saltan. Debe ejecutarse dentro
+     * de una transacción.
+     */
+    ArchiveChunk archiveTerminal(Instant createdBefore, int limit);
+
+    /**
+     * Notificación archivada con sus intentos, reconstruida desde su bloque.
+     * La entidad devuelta no está gestionada por JPA.
+     */
+    Optional<Notification> findArchived(UUID id);
+
+    /**
+     * @param notifications notificaciones archivadas; 0 si no quedaba ninguna
+     * @param rawBytes      tamaño del bloque sin comprimir
+     * @param storedBytes   tamaño del bloque comprimido
+     */
+    record ArchiveChunk(int notifications, int attempts, long rawBytes, long storedBytes) {
+
+        public static final ArchiveChunk EMPTY = new ArchiveChunk(0, 0, 0, 0);
+    }
+}
@@ -3,42 +3,56 @@ package dev.codebymelendez.notifications.domain.repository;
 import dev.codebymelendez.notifications.domain.model.Channel;
 import dev.codebymelendez.notifications.domain.model.Notification;
 import dev.codebymelendez.notifications.domain.model.NotificationStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface NotificationRepository extends JpaRepository<Notification, UUID> {
+public interface NotificationRepository extends JpaRepository<Notification, UUID>, NotificationRepositoryCustom,
+        NotificationArchiveRepositoryCustom {
     
     List<Notification> findByStatus(NotificationStatus status);
     
     Page<Notification> findByStatus(NotificationStatus status, Pageable pageable);
     
-    long countByStatus(NotificationStatus status);
-    
     List<Notification> findByChannel(Channel channel);
     
     List<Notification> findByChannelAndStatus(Channel channel, NotificationStatus status);
     
     Page<Notification> findByRecipientOrderByCreatedAtDesc(String recipient, Pageable pageable);
     
+    /**
+     * Filtra por la clave de partición: solo se leen las particiones del rango.
+     */
     List<Notification> findByCreatedAtBetween(Instant start, Instant end);
     
+    /**
+     * Fallidas desde {@code since} entre las creadas desde {@code createdSince}.
+     * El límite sobre {@code created_at} permite descartar las particiones
+     * anteriores; {@code updated_at} no es clave de partición.
+     */
     @Query("""
         SELECT n FROM Notification n
         WHERE n.status = 'FAILED'
+        AND n.createdAt >= :createdSince
         AND n.updatedAt >= :since
         ORDER BY n.updatedAt DESC
         """)
-    List<Notification> findRecentFailedNotifications(@Param("since") Instant since);
+    List<Notification> findRecentFailedNotifications(
+            @Param("createdSince") Instant createdSince,
+            @Param("since") Instant since);
 
     @Query("""
         SELECT n FROM Notification n
@@ -47,17 +61,15 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
         """)
     Optional<Notification> findByIdWithAttempts(@Param("id") UUID id);
 
+    /**
+     * Carga un lote para despacho en una sola consulta {@code WHERE id IN (...)}.
+     * Las entidades son de solo lectura: los cambios de estado se escriben con
+     * {@link NotificationRepositoryCustom#updateStatuses}, no por dirty checking.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("""
-        SELECT n.status, COUNT(n)
-        FROM Notification n
-        GROUP BY n.status
-        """)
-    List<Object[]> countByStatusGrouped();
-    
-    @Query("""
-        SELECT n.channel, n.status, COUNT(n)
-        FROM Notification n
-        GROUP BY n.channel, n.status
+        SELECT n FROM Notification n
+        WHERE n.id IN :ids
         """)
-    List<Object[]> countByChannelAndStatusGrouped();
+    List<Notification> findAllForDispatch(@Param("ids") Collection<UUID> ids);
 }
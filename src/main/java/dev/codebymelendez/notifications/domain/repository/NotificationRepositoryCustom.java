@@ -0,0 +1,118 @@
+package dev.codebymelendez.notifications.domain.repository;
+
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.Notification;
+import dev.codebymelendez.notifications.domain.model.NotificationStatus;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Operaciones masivas sobre notificaciones implementadas con JDBC batching,
+ * para los caminos donde el ciclo save/flush de JPA por fila es demasiado costoso.
+ */
+public interface NotificationRepositoryCustom {
+
+    /**
+     * Inserta las notificaciones en lotes JDBC. Los IDs deben venir asignados.
+     */
+    void insertAll(List<Notification> notifications);
+
+    /**
+     * Transición PENDING → QUEUED en una sola sentencia.
+     *
+     * @return número de filas actualizadas
+     */
+    int markAllAsQueued(Collection<UUID> ids);
+
+    /**
+     * Reclama el intento {@code attemptNumber} de la notificación y la pasa a
+     * PROCESSING en un único UPDATE condicionado, sin leerla antes. Solo lo
+     * consigue un consumer por intento: falla si la notificación es terminal, si
+     * ese intento (o uno posterior) ya se reclamó, salvo que siga en PROCESSING
+     * con un claim anterior a {@code leaseExpiredBefore} (consumer caído).
+     *
+     * @return false si no existe o el intento ya está reclamado
+     */
+    boolean claimForDispatch(UUID id, int attemptNumber, Instant leaseExpiredBefore);
+
+    /**
+     * Variante por lotes de {@link #claimForDispatch}.
+     *
+     * @param attempts intento a reclamar por ID de notificación
+     * @return IDs reclamados
+     */
+    Set<UUID> claimAllForDispatch(Map<UUID, Integer> attempts, Instant leaseExpiredBefore);
+
+    /**
+     * Devuelve el claim sin enviar (mensaje diferido): la notificación vuelve a
+     * QUEUED y el mismo intento se puede reclamar de nuevo.
+     */
+    void releaseClaims(Map<UUID, Integer> attempts);
+
+    /**
+     * Estado del claim, para clasificar un claim fallido.
+     */
+    Optional<ClaimState> findClaimState(UUID id);
+
+    /**
+     * Transición de estado en un UPDATE condicionado, sin SELECT ... FOR UPDATE
+     * previo: solo se aplica si el estado actual es uno de {@code from}. Entre
+     * consumers concurrentes gana uno y el resto recibe false. Incrementa
+     * {@code version}, así que una entidad cargada antes ya no se puede guardar.
+     *
+     * @param failureReason motivo a guardar; null conserva el actual
+     * @return true si esta llamada hizo la transición
+     */
+    boolean transition(UUID id, NotificationStatus to, String failureReason, NotificationStatus... from);
+
+    /**
+     * Escribe status, failure_reason y delivered_at de cada notificación en lotes
+     * JDBC. Solo se aplica a las que siguen en PROCESSING con el
+     * {@code claimedAttempt} de la entidad: si el lease venció y otro consumer
+     * reclamó un intento posterior, el resultado no lo pisa.
+     */
+    void updateStatuses(List<Notification> notifications);
+
+    /**
+     * Página de IDs de notificaciones FAILED que cumplen el filtro, ordenados por
+     * ID y posteriores a {@code afterId} (paginación por clave, sin OFFSET).
+     *
+     * @param afterId último ID de la página anterior; null para la primera
+     */
+    List<UUID> findFailedIds(FailedFilter filter, UUID afterId, int limit);
+
+    /**
+     * Devuelve a QUEUED las notificaciones que siguen en FAILED y reinicia su
+     * claim, de modo que el intento 1 de un evento nuevo se pueda reclamar. El
+     * historial de intentos se conserva.
+     *
+     * @return IDs reiniciados (los que ya no estaban en FAILED quedan fuera)
+     */
+    List<UUID> resetForReplay(Collection<UUID> ids);
+
+    /**
+     * @param channel       null = todos los canales
+     * @param errorContains fragmento de {@code failure_reason}, sin distinguir mayúsculas; null = cualquiera
+     * @param failedFrom    inicio (inclusive) de {@code updated_at}; null = sin límite
+     * @param failedTo      fin (exclusive) de {@code updated_at}; null = sin límite. También acota
+     *                      {@code created_at}, que nunca es posterior a {@code updated_at}
+     * @param createdFrom   inicio (inclusive) de {@code created_at}, la clave de partición: las
+     *                      particiones anteriores no se leen; null = sin límite
+     */
+    record FailedFilter(Channel channel, String errorContains, Instant failedFrom, Instant failedTo,
+                        Instant createdFrom) {
+
+        public FailedFilter withWindow(Instant failedTo, Instant createdFrom) {
+            return new FailedFilter(channel, errorContains, failedFrom, failedTo, createdFrom);
+        }
+    }
+
+    record ClaimState(NotificationStatus status, int claimedAttempt, Instant claimedAt) {
+    }
+}
@@ -0,0 +1,26 @@
+package dev.codebymelendez.notifications.domain.repository;
+
+import dev.codebymelendez.notifications.domain.model.OutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxMessage, Long>, OutboxRepositoryCustom {
+
+    /**
+     * Bloquea el siguiente lote de eventos. Las filas ya bloqueadas por otra
+     * instancia del relay se saltan, por lo que varias instancias drenan en paralelo.
+     */
+    @Query(value = """
+        SELECT * FROM notification_outbox
+        ORDER BY id
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<OutboxMessage> lockNextBatch(@Param("limit") int limit);
+}
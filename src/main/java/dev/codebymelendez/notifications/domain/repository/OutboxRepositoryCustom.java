@@ -0,0 +1,13 @@
+package dev.codebymelendez.notifications.domain.repository;
+
+import dev.codebymelendez.notifications.domain.model.OutboxMessage;
+
+import java.util.List;
+
+/**
+ * Inserción masiva del outbox para la ingesta por lotes.
+ */
+public interface OutboxRepositoryCustom {
+
+    void insertAll(List<OutboxMessage> messages);
+}
@@ -0,0 +1,38 @@
+package dev.codebymelendez.notifications.domain.repository;
+
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.DeliveryAttemptStatus;
+import dev.codebymelendez.notifications.domain.model.NotificationStatus;
+
+import java.util.List;
+
+/**
+ * Destino de las transiciones de estado que aplican los repositorios, para
+ * mantener los contadores por estado sin recorrer las tablas. Dentro de una
+ * transacción, los cambios solo cuentan si se confirma.
+ */
+public interface StatusCounterRecorder {
+
+    void transitioned(List<Transition> transitions);
+
+    void attempted(List<Attempt> attempts);
+
+    /**
+     * Notificaciones que salen de las tablas calientes (archivo o retención de
+     * particiones): se descuentan del estado en que estaban. Los intentos no se
+     * descuentan; sus contadores son acumulados.
+     */
+    void removed(List<Removed> removed);
+
+    /**
+     * @param from null si la notificación se acaba de crear
+     */
+    record Transition(Channel channel, NotificationStatus from, NotificationStatus to) {
+    }
+
+    record Attempt(Channel channel, DeliveryAttemptStatus status) {
+    }
+
+    record Removed(Channel channel, NotificationStatus status, long count) {
+    }
+}
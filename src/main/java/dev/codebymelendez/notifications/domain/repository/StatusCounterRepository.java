@@ -0,0 +1,36 @@
+package dev.codebymelendez.notifications.domain.repository;
+
+import dev.codebymelendez.notifications.domain.model.Channel;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Contadores de estado agregados por intervalo ({@code status_counters}). Las
+ * lecturas agregan filas por intervalo, nunca filas de notificaciones.
+ */
+public interface StatusCounterRepository {
+
+    /**
+     * Suma los deltas a sus filas. Deben venir ordenados por clave para que dos
+     * instancias que vuelcan a la vez bloqueen las filas en el mismo orden.
+     */
+    void add(List<Row> deltas);
+
+    /**
+     * Total por tipo, canal y estado ({@code entered - exited}); {@code bucketStart} es null.
+     */
+    List<Row> totals();
+
+    List<Row> history(Instant from, Instant to);
+
+    /**
+     * Funde en un intervalo por día las filas anteriores a {@code before}.
+     *
+     * @return filas insertadas o actualizadas
+     */
+    int compact(Instant before);
+
+    record Row(Instant bucketStart, String kind, Channel channel, String status, long entered, long exited) {
+    }
+}
@@ -0,0 +1,327 @@
+package dev.codebymelendez.notifications.infrastructure.messaging;
+
+import dev.codebymelendez.notifications.application.circuit.SenderCircuitBreakers;
+import dev.codebymelendez.notifications.application.coalescing.NotificationCoalescer;
+import dev.codebymelendez.notifications.application.event.NotificationEvent;
+import dev.codebymelendez.notifications.application.idempotency.RedeliveryGuard;
+import dev.codebymelendez.notifications.application.metrics.DeliveryLatencyTracker;
+import dev.codebymelendez.notifications.application.metrics.SenderLatencyTracker;
+import dev.codebymelendez.notifications.application.ratelimit.DispatchRateLimiter;
+import dev.codebymelendez.notifications.application.ratelimit.RateLimitDecision;
+import dev.codebymelendez.notifications.application.retry.RetryDecision;
+import dev.codebymelendez.notifications.application.retry.RetryPolicy;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.DeliveryAttempt;
+import dev.codebymelendez.notifications.domain.model.DeliveryAttemptStatus;
+import dev.codebymelendez.notifications.domain.model.DeliveryResult;
+import dev.codebymelendez.notifications.domain.model.EntityIds;
+import dev.codebymelendez.notifications.domain.model.Notification;
+import dev.codebymelendez.notifications.domain.model.NotificationStatus;
+import dev.codebymelendez.notifications.domain.repository.DeliveryAttemptRepository;
+import dev.codebymelendez.notifications.domain.repository.NotificationRepository;
+import dev.codebymelendez.notifications.infrastructure.sender.NotificationSender;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumer por lotes: recibe N eventos, carga todas las notificaciones con una
+ * consulta {@code WHERE id IN (...)}, despacha los envíos en paralelo con
+ * {@link NotificationSender#sendAsync} y escribe estados e intentos con JDBC
+ * batch. El lote se confirma (ack) al terminar el método.
+ *
+ * <p>Ninguna transacción abarca los envíos: el claim se confirma en una
+ * transacción corta, los proveedores se llaman sin conexión retenida y los
+ * intentos y transiciones se escriben en una segunda transacción corta. Las
+ * republicaciones (diferidos y reintentos) se hacen tras el commit de la
+ * transacción que las decide. Si el proceso cae entre medias, las
+ * notificaciones quedan en PROCESSING y se recuperan al vencer el lease.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.consumer.batch.enabled", havingValue = "true")
+public class BatchNotificationConsumer {
+
+    private final NotificationRepository notificationRepository;
+    private final DeliveryAttemptRepository deliveryAttemptRepository;
+    private final NotificationPublisher notificationPublisher;
+    private final RetryPolicy retryPolicy;
+    private final DeliveryLatencyTracker latencyTracker;
+    private final SenderLatencyTracker senderLatencyTracker;
+    private final DispatchRateLimiter rateLimiter;
+    private final SenderCircuitBreakers circuitBreakers;
+    private final NotificationCoalescer coalescer;
+    private final RedeliveryGuard redeliveryGuard;
+    private final TransactionTemplate transactionTemplate;
+    private final List<NotificationSender> senders;
+
+    public BatchNotificationConsumer(
+            NotificationRepository notificationRepository,
+            DeliveryAttemptRepository deliveryAttemptRepository,
+            NotificationPublisher notificationPublisher,
+            RetryPolicy retryPolicy,
+            DeliveryLatencyTracker latencyTracker,
+            SenderLatencyTracker senderLatencyTracker,
+            DispatchRateLimiter rateLimiter,
+            SenderCircuitBreakers circuitBreakers,
+            NotificationCoalescer coalescer,
+            RedeliveryGuard redeliveryGuard,
+            TransactionTemplate transactionTemplate,
+            List<NotificationSender> senders) {
+        this.notificationRepository = notificationRepository;
+        this.deliveryAttemptRepository = deliveryAttemptRepository;
+        this.notificationPublisher = notificationPublisher;
+        this.retryPolicy = retryPolicy;
+        this.latencyTracker = latencyTracker;
+        this.senderLatencyTracker = senderLatencyTracker;
+        this.rateLimiter = rateLimiter;
+        this.circuitBreakers = circuitBreakers;
+        this.coalescer = coalescer;
+        this.redeliveryGuard = redeliveryGuard;
+        this.transactionTemplate = transactionTemplate;
+        this.senders = senders;
+    }
+
+    public void processBatch(List<NotificationEvent> events) {
+        log.info("Procesando lote de {} eventos", events.size());
+
+        // Retry-after más largo que el nivel de backoff mayor: vuelven a la cola de retardo
+        Map<UUID, NotificationEvent> eventsById = new LinkedHashMap<>();
+        for (NotificationEvent event : events) {
+            long notBefore = event.remainingDelayMillis();
+            if (notBefore > 0) {
+                notificationPublisher.publishDelayed(event, notBefore);
+            } else {
+                eventsById.put(event.getNotificationId(), event);
+            }
+        }
+        if (eventsById.isEmpty()) {
+            return;
+        }
+
+        // 1. Claim en su propia transacción: los locks se sueltan antes de llamar a los proveedores
+        ClaimedBatch batch = transactionTemplate.execute(status -> claim(eventsById));
+        batch.claimedElsewhere().forEach(notificationPublisher::publishDelayed);
+
+        List<Notification> notifications = batch.notifications();
+        int inProgress = batch.claimedElsewhere().size();
+        if (notifications.size() < eventsById.size()) {
+            log.warn("Lote con {} eventos descartados (no encontrados, en estado terminal o duplicados) "
+                            + "y {} aparcados con claim vigente en otro consumer",
+                    eventsById.size() - notifications.size() - inProgress, inProgress);
+        }
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        // 2. Envíos sin transacción ni conexión abiertas
+        Map<NotificationEvent, Long> deferrals = new LinkedHashMap<>();
+        List<Notification> toSend = new ArrayList<>(notifications.size());
+        List<CompletableFuture<DeliveryResult>> results = new ArrayList<>(notifications.size());
+
+        // Con coalescing, cada grupo del mismo destinatario se envía como un digest:
+        // breaker, rate limit y sender se aplican una vez por grupo
+        int parked = 0;
+        for (List<Notification> group : coalescer.group(notifications)) {
+            Channel channel = group.get(0).getChannel();
+            NotificationSender sender = findSender(channel);
+            long parkMillis = sender != null ? circuitBreakers.tryAcquire(channel) : 0;
+            if (parkMillis > 0) {
+                parked += group.size();
+                group.forEach(notification -> deferrals.put(eventsById.get(notification.getId()), parkMillis));
+                continue;
+            }
+
+            Notification digest = coalescer.merge(group);
+            RateLimitDecision rateLimit = sender != null
+                    ? rateLimiter.acquire(sender, digest)
+                    : RateLimitDecision.immediate();
+            if (rateLimit.granted()) {
+                CompletableFuture<DeliveryResult> result = dispatch(digest, sender, rateLimit.waitMillis());
+                for (Notification notification : group) {
+                    toSend.add(notification);
+                    results.add(result);
+                }
+            } else {
+                circuitBreakers.release(channel);
+                group.forEach(notification ->
+                        deferrals.put(eventsById.get(notification.getId()), rateLimit.waitMillis()));
+            }
+        }
+
+        if (!deferrals.isEmpty()) {
+            Map<UUID, Integer> released = new LinkedHashMap<>();
+            deferrals.keySet().forEach(event -> released.put(event.getNotificationId(), event.getAttemptNumber()));
+            transactionTemplate.executeWithoutResult(status -> notificationRepository.releaseClaims(released));
+            deferrals.forEach(notificationPublisher::publishDelayed);
+        }
+        if (toSend.isEmpty()) {
+            return;
+        }
+
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+
+        // 3. Intentos y transiciones en una segunda transacción corta, con JDBC batch
+        Map<NotificationEvent, Long> retries = transactionTemplate.execute(status ->
+                record(toSend, results, eventsById));
+        retries.forEach(notificationPublisher::publishRetry);
+
+        log.info("Lote procesado: {} notificaciones, {} reintentos, {} diferidas por rate limit, {} aparcadas por circuito abierto",
+                toSend.size(), retries.size(), deferrals.size() - parked, parked);
+    }
+
+    /**
+     * Reclama cada intento en un único batch: las reentregas no llegan al proveedor.
+     * Los claims fallidos con un claim vigente en otro consumer se devuelven con
+     * la espera del lease, para republicarlos.
+     */
+    private ClaimedBatch claim(Map<UUID, NotificationEvent> eventsById) {
+        List<Notification> dispatchable = notificationRepository.findAllForDispatch(eventsById.keySet())
+                .stream()
+                .filter(this::isDispatchable)
+                .toList();
+
+        Map<UUID, Integer> claims = new LinkedHashMap<>();
+        dispatchable.forEach(notification ->
+                claims.put(notification.getId(), eventsById.get(notification.getId()).getAttemptNumber()));
+        Set<UUID> claimed = notificationRepository.claimAllForDispatch(claims, redeliveryGuard.leaseExpiredBefore());
+
+        Map<NotificationEvent, Long> claimedElsewhere = new LinkedHashMap<>();
+        List<Notification> notifications = new ArrayList<>(claimed.size());
+        for (Notification notification : dispatchable) {
+            int attempt = claims.get(notification.getId());
+            if (claimed.contains(notification.getId())) {
+                notification.setClaimedAttempt(attempt);
+                notifications.add(notification);
+            } else if (isClaimedElsewhere(notification, attempt)) {
+                claimedElsewhere.put(eventsById.get(notification.getId()), redeliveryGuard.lease().toMillis());
+            }
+        }
+        return new ClaimedBatch(notifications, claimedElsewhere);
+    }
+
+    /**
+     * Inserta los intentos y aplica las transiciones del lote.
+     *
+     * @return eventos a reintentar, con la espera mínima de cada uno
+     */
+    private Map<NotificationEvent, Long> record(List<Notification> toSend,
+                                                List<CompletableFuture<DeliveryResult>> results,
+                                                Map<UUID, NotificationEvent> eventsById) {
+        Map<UUID, Integer> lastAttempts = loadLastAttemptNumbers(toSend);
+
+        List<DeliveryAttempt> attempts = new ArrayList<>(toSend.size());
+        Map<NotificationEvent, Long> retries = new LinkedHashMap<>();
+        Instant now = Instant.now();
+
+        for (int i = 0; i < toSend.size(); i++) {
+            Notification notification = toSend.get(i);
+            DeliveryResult result = results.get(i).join();
+            int attemptNumber = lastAttempts.getOrDefault(notification.getId(), 0) + 1;
+            // La política usa el intento del evento: tras un replay el historial sigue
+            // creciendo pero el presupuesto de reintentos empieza de nuevo
+            RetryDecision decision = result.success()
+                    ? null
+                    : retryPolicy.decide(notification.getChannel(), result,
+                            eventsById.get(notification.getId()).getAttemptNumber());
+
+            attempts.add(DeliveryAttempt.builder()
+                    .id(EntityIds.newId())
+                    .notification(notification)
+                    .attemptNumber(attemptNumber)
+                    .status(result.success() ? DeliveryAttemptStatus.SUCCESS : DeliveryAttemptStatus.FAILED)
+                    .errorMessage(result.errorMessage())
+                    .errorCode(result.errorCode())
+                    .retryDecision(decision != null ? decision.toString() : null)
+                    .attemptedAt(now)
+                    .build());
+
+            if (result.success()) {
+                notification.markAsDelivered();
+                latencyTracker.record(notification.getPriority(),
+                        Duration.between(notification.getCreatedAt(), notification.getDeliveredAt()));
+            } else if (decision.retry()) {
+                notification.setStatus(NotificationStatus.QUEUED);
+                retries.put(eventsById.get(notification.getId()), decision.minDelayMillis());
+            } else {
+                notification.markAsFailed(result.errorMessage());
+            }
+        }
+
+        deliveryAttemptRepository.insertAll(attempts);
+        notificationRepository.updateStatuses(toSend);
+        return retries;
+    }
+
+    private boolean isDispatchable(Notification notification) {
+        return !notification.getStatus().isTerminal();
+    }
+
+    /**
+     * Claim fallido porque otro consumer procesa ese mismo intento: se reintenta
+     * al vencer el lease por si ese consumer cayó. El resto son duplicados.
+     */
+    private boolean isClaimedElsewhere(Notification notification, int attemptNumber) {
+        return notification.getStatus() == NotificationStatus.PROCESSING
+                && notification.getClaimedAttempt() == attemptNumber;
+    }
+
+    private Map<UUID, Integer> loadLastAttemptNumbers(List<Notification> notifications) {
+        Map<UUID, Integer> lastAttempts = new HashMap<>();
+        deliveryAttemptRepository.findLastAttemptNumbers(
+                notifications.stream().map(Notification::getId).toList()
+        ).forEach(row -> lastAttempts.put((UUID) row[0], ((Number) row[1]).intValue()));
+        return lastAttempts;
+    }
+
+    private CompletableFuture<DeliveryResult> dispatch(
+            Notification notification, NotificationSender sender, long waitMillis) {
+        if (sender == null) {
+            return CompletableFuture.completedFuture(DeliveryResult.failure(
+                    "Canal no soportado o deshabilitado: " + notification.getChannel(),
+                    "UNSUPPORTED_CHANNEL"));
+        }
+        Executor executor = waitMillis > 0
+                ? CompletableFuture.delayedExecutor(waitMillis, TimeUnit.MILLISECONDS)
+                : Runnable::run;
+        return CompletableFuture.runAsync(() -> { }, executor)
+                .thenCompose(ignored -> {
+                    long start = System.nanoTime();
+                    return sender.sendAsync(notification)
+                            .whenComplete((result, error) -> senderLatencyTracker.record(
+                                    notification.getChannel(),
+                                    notification.getPriority().isExpress(),
+                                    System.nanoTime() - start));
+                })
+                .thenApply(result -> {
+                    circuitBreakers.record(notification.getChannel(), result);
+                    return result;
+                });
+    }
+
+    private NotificationSender findSender(Channel channel) {
+        return senders.stream()
+                .filter(sender -> sender.supports(channel))
+                .filter(NotificationSender::isEnabled)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private record ClaimedBatch(List<Notification> notifications,
+                                Map<NotificationEvent, Long> claimedElsewhere) {
+    }
+}
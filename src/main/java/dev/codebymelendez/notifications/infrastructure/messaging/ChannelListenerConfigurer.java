@@ -0,0 +1,216 @@
+package dev.codebymelendez.notifications.infrastructure.messaging;
+
+import dev.codebymelendez.notifications.application.event.NotificationEvent;
+import dev.codebymelendez.notifications.config.ChannelProperties;
+import dev.codebymelendez.notifications.config.ChannelTopology;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.MethodRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Registra un listener container por canal sobre su propia cola, cada uno con
+ * su concurrencia y prefetch de {@code app.channels.<canal>}. Así la latencia
+ * de un canal no limita el throughput de los demás.
+ *
+ * <p>Cada canal tiene también un container para su carril exprés (prioridad
+ * HIGH) con los ajustes de {@code app.channels.<canal>.express}.
+ *
+ * <p>Según {@code app.consumer.batch.enabled} el endpoint invoca al consumer
+ * por mensaje o al consumer por lotes.
+ *
+ * <p>Los canales con {@code ordering.enabled} registran además un container por
+ * shard, siempre con {@link NotificationConsumer#processOrdered}, un único
+ * consumer y prefetch 1 para procesar en orden. No arrancan solos: {@link ShardCoordinator} arranca los
+ * shards que corresponden a esta instancia.
+ *
+ * <p>La cola compartida anterior a las colas por canal se drena siempre con
+ * {@link NotificationConsumer#processNotification}: como devuelve un
+ * {@code CompletableFuture}, su container también necesita ack manual.
+ */
+@Slf4j
+@Component
+public class ChannelListenerConfigurer implements RabbitListenerConfigurer {
+
+    private static final String SHARED_LISTENER_ID = "notifications.shared";
+
+    private final ChannelTopology channelTopology;
+    private final ChannelProperties channelProperties;
+    private final SimpleRabbitListenerContainerFactoryConfigurer containerConfigurer;
+    private final ConnectionFactory connectionFactory;
+    private final NotificationConsumer notificationConsumer;
+    private final ObjectProvider<BatchNotificationConsumer> batchConsumer;
+
+    @Value("${app.rabbitmq.queue.notifications}")
+    private String sharedQueue;
+
+    @Value("${app.autoscaler.enabled:false}")
+    private boolean autoscalerEnabled;
+
+    @Value("${app.consumer.batch.enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${app.consumer.batch.size:100}")
+    private int consumerBatchSize;
+
+    @Value("${app.consumer.batch.receive-timeout:100}")
+    private long consumerBatchReceiveTimeout;
+
+    public ChannelListenerConfigurer(
+            ChannelTopology channelTopology,
+            ChannelProperties channelProperties,
+            SimpleRabbitListenerContainerFactoryConfigurer containerConfigurer,
+            ConnectionFactory connectionFactory,
+            NotificationConsumer notificationConsumer,
+            ObjectProvider<BatchNotificationConsumer> batchConsumer) {
+        this.channelTopology = channelTopology;
+        this.channelProperties = channelProperties;
+        this.containerConfigurer = containerConfigurer;
+        this.connectionFactory = connectionFactory;
+        this.notificationConsumer = notificationConsumer;
+        this.batchConsumer = batchConsumer;
+    }
+
+    @Override
+    public void configureRabbitListeners(RabbitListenerEndpointRegistrar registrar) {
+        DefaultMessageHandlerMethodFactory handlerMethodFactory = new DefaultMessageHandlerMethodFactory();
+        handlerMethodFactory.afterPropertiesSet();
+
+        Object bean = batchEnabled ? batchConsumer.getObject() : notificationConsumer;
+        Method method = batchEnabled
+                ? findMethod(bean, "processBatch", List.class)
+                : findMethod(bean, "processNotification", NotificationEvent.class);
+        Method orderedMethod = findMethod(notificationConsumer, "processOrdered", NotificationEvent.class);
+
+        registrar.registerEndpoint(
+                endpoint(SHARED_LISTENER_ID, sharedQueue, notificationConsumer,
+                        findMethod(notificationConsumer, "processNotification", NotificationEvent.class),
+                        handlerMethodFactory, false),
+                sharedContainerFactory());
+
+        for (Channel channel : Channel.values()) {
+            ChannelProperties.Settings settings = channelProperties.forChannel(channel);
+            ChannelProperties.Express express = settings.getExpress();
+
+            registrar.registerEndpoint(
+                    endpoint(channelTopology.listenerId(channel), channelTopology.queue(channel),
+                            bean, method, handlerMethodFactory),
+                    containerFactory(channelTopology.queue(channel), settings.getConcurrency(),
+                            settings.getMaxConcurrency(), settings.getPrefetch(), settings.getMaxInFlight()));
+
+            registrar.registerEndpoint(
+                    endpoint(channelTopology.expressListenerId(channel), channelTopology.expressQueue(channel),
+                            bean, method, handlerMethodFactory),
+                    containerFactory(channelTopology.expressQueue(channel), express.getConcurrency(),
+                            express.getMaxConcurrency(), express.getPrefetch(), express.getMaxInFlight()));
+
+            if (channelTopology.isOrdered(channel)) {
+                for (int shard = 0; shard < channelTopology.shards(channel); shard++) {
+                    MethodRabbitListenerEndpoint endpoint = endpoint(channelTopology.shardListenerId(channel, shard),
+                            channelTopology.shardQueue(channel, shard), notificationConsumer, orderedMethod,
+                            handlerMethodFactory, false);
+                    endpoint.setAutoStartup(false);
+                    registrar.registerEndpoint(endpoint, orderedContainerFactory());
+                }
+                log.info("Listener ordenado: channel={}, shards={}", channel, channelTopology.shards(channel));
+            }
+        }
+    }
+
+    private MethodRabbitListenerEndpoint endpoint(
+            String id, String queue, Object bean, Method method,
+            DefaultMessageHandlerMethodFactory handlerMethodFactory) {
+        return endpoint(id, queue, bean, method, handlerMethodFactory, batchEnabled);
+    }
+
+    private MethodRabbitListenerEndpoint endpoint(
+            String id, String queue, Object bean, Method method,
+            DefaultMessageHandlerMethodFactory handlerMethodFactory, boolean batch) {
+        MethodRabbitListenerEndpoint endpoint = new MethodRabbitListenerEndpoint();
+        endpoint.setId(id);
+        endpoint.setQueueNames(queue);
+        endpoint.setBean(bean);
+        endpoint.setMethod(method);
+        endpoint.setMessageHandlerMethodFactory(handlerMethodFactory);
+        endpoint.setBatchListener(batch);
+        return endpoint;
+    }
+
+    /**
+     * Un consumer y un mensaje sin ack a la vez: el siguiente mensaje del shard
+     * no se entrega hasta confirmar el anterior.
+     */
+    private SimpleRabbitListenerContainerFactory orderedContainerFactory() {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        containerConfigurer.configure(factory, connectionFactory);
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(1);
+        factory.setPrefetchCount(1);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        return factory;
+    }
+
+    /**
+     * Concurrencia y prefetch de {@code spring.rabbitmq.listener.simple}, con ack
+     * manual: el adapter hace ack/nack cuando se completa el futuro.
+     */
+    private SimpleRabbitListenerContainerFactory sharedContainerFactory() {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        containerConfigurer.configure(factory, connectionFactory);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        return factory;
+    }
+
+    private SimpleRabbitListenerContainerFactory containerFactory(
+            String queue, int concurrency, int maxConcurrency, int prefetch, int maxInFlight) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        containerConfigurer.configure(factory, connectionFactory);
+        factory.setConcurrentConsumers(concurrency);
+        // Con el autoscaler, el container no escala por su cuenta: ListenerAutoscaler decide hasta maxConcurrency
+        factory.setMaxConcurrentConsumers(autoscalerEnabled ? concurrency : Math.max(concurrency, maxConcurrency));
+        factory.setPrefetchCount(prefetch);
+
+        if (!batchEnabled) {
+            // El consumer devuelve un CompletableFuture y el adapter hace ack/nack al completarse
+            factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        } else {
+            factory.setBatchListener(true);
+            factory.setConsumerBatchEnabled(true);
+            factory.setBatchSize(consumerBatchSize);
+            factory.setReceiveTimeout(consumerBatchReceiveTimeout);
+            factory.setPrefetchCount(Math.max(prefetch, consumerBatchSize));
+        }
+
+        log.info("Listener: queue={}, concurrency={}-{}, prefetch={}, maxInFlight={}, batch={}",
+                queue,
+                concurrency,
+                maxConcurrency,
+                prefetch,
+                maxInFlight,
+                batchEnabled);
+
+        return factory;
+    }
+
+    private Method findMethod(Object bean, String name, Class<?>... parameterTypes) {
+        Method method = ReflectionUtils.findMethod(AopUtils.getTargetClass(bean), name, parameterTypes);
+        if (method == null) {
+            throw new IllegalStateException("Método de listener no encontrado: " + name);
+        }
+        return AopUtils.selectInvocableMethod(method, bean.getClass());
+    }
+}
@@ -0,0 +1,226 @@
+package dev.codebymelendez.notifications.infrastructure.messaging;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publicación asíncrona con publisher confirms correlacionados.
+ *
+ * <p>Los mensajes se acumulan por destino (exchange + routing key, es decir, por
+ * canal) y se envían en un único canal AMQP cuando el lote alcanza
+ * {@code app.publisher.async.max-batch-size} o pasa el {@code linger}. Cada
+ * mensaje devuelve un futuro que se completa con el ack del broker y falla con
+ * el nack o si la confirmación no llega dentro de {@code confirm-timeout}.
+ *
+ * <p>La ventana {@code max-outstanding-confirms} acota los mensajes pendientes
+ * de confirmación: cuando está llena, quien publica espera (backpressure) y, si
+ * no se libera a tiempo, recibe un futuro fallido.
+ */
+@Slf4j
+@Component
+public class ConfirmBatchingPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final long lingerMillis;
+    private final int maxBatchSize;
+    private final long confirmTimeoutMillis;
+    private final int maxOutstandingConfirms;
+    private final Semaphore window;
+    private final Map<Destination, Lane> lanes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("publisher-linger").daemon().factory());
+
+    public ConfirmBatchingPublisher(
+            RabbitTemplate rabbitTemplate,
+            @Value("${app.publisher.async.linger:5}") long lingerMillis,
+            @Value("${app.publisher.async.max-batch-size:100}") int maxBatchSize,
+            @Value("${app.publisher.async.max-outstanding-confirms:1000}") int maxOutstandingConfirms,
+            @Value("${app.publisher.async.confirm-timeout:5000}") long confirmTimeoutMillis) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.lingerMillis = lingerMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.confirmTimeoutMillis = confirmTimeoutMillis;
+        this.maxOutstandingConfirms = maxOutstandingConfirms;
+        this.window = new Semaphore(maxOutstandingConfirms);
+    }
+
+    /**
+     * Encola el mensaje en el lote de su destino.
+     *
+     * @return futuro que se completa cuando el broker confirma (ack) el mensaje
+     */
+    public CompletableFuture<Void> publish(String exchange, String routingKey, Object payload, String correlationId) {
+        try {
+            if (!window.tryAcquire(confirmTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return CompletableFuture.failedFuture(new AmqpException(
+                        "Ventana de confirms llena: " + outstandingConfirms() + " mensajes pendientes"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(new AmqpException("Publicación interrumpida", e));
+        }
+
+        Pending pending = new Pending(payload, new CorrelationData(correlationId));
+        Destination destination = new Destination(exchange, routingKey);
+        List<Pending> full = lanes.computeIfAbsent(destination, Lane::new).add(pending);
+        if (full != null) {
+            send(destination, full);
+        }
+        return pending.result;
+    }
+
+    /**
+     * Mensajes publicados (o en lote) que aún esperan confirmación.
+     */
+    public int outstandingConfirms() {
+        return maxOutstandingConfirms - window.availablePermits();
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        lanes.forEach((destination, lane) -> send(destination, lane.drain()));
+        scheduler.shutdown();
+    }
+
+    private void send(Destination destination, List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (Pending pending : batch) {
+                    operations.convertAndSend(destination.exchange(), destination.routingKey(),
+                            pending.payload, pending.correlation);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Error al publicar lote de {} mensajes en routingKey={}: error={}",
+                    batch.size(), destination.routingKey(), e.getMessage(), e);
+            batch.forEach(pending -> pending.fail(new AmqpException("Error al publicar en RabbitMQ", e)));
+            return;
+        }
+
+        for (Pending pending : batch) {
+            pending.correlation.getFuture()
+                    .orTimeout(confirmTimeoutMillis, TimeUnit.MILLISECONDS)
+                    .whenComplete((confirm, error) -> {
+                        if (error != null) {
+                            pending.fail(new AmqpException("Confirmación no recibida: " + error, error));
+                        } else if (confirm.isAck()) {
+                            pending.complete();
+                        } else {
+                            pending.fail(new AmqpException("Mensaje rechazado por el broker (nack): "
+                                    + confirm.getReason()));
+                        }
+                    });
+        }
+
+        log.debug("Lote publicado: {} mensajes en routingKey={}", batch.size(), destination.routingKey());
+    }
+
+    private record Destination(String exchange, String routingKey) {
+    }
+
+    /**
+     * Mensaje pendiente de confirmación; libera su permiso de la ventana una sola vez.
+     */
+    private final class Pending {
+
+        private final Object payload;
+        private final CorrelationData correlation;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Pending(Object payload, CorrelationData correlation) {
+            this.payload = payload;
+            this.correlation = correlation;
+        }
+
+        private void complete() {
+            release();
+            result.complete(null);
+        }
+
+        private void fail(Throwable error) {
+            release();
+            result.completeExceptionally(error);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                window.release();
+            }
+        }
+    }
+
+    /**
+     * Buffer de un destino. Usa un {@link ReentrantLock} en lugar de
+     * {@code synchronized} para no fijar virtual threads a su carrier.
+     */
+    private final class Lane {
+
+        private final Destination destination;
+        private final ReentrantLock lock = new ReentrantLock();
+        private List<Pending> buffer = new ArrayList<>();
+        private ScheduledFuture<?> lingerTask;
+
+        private Lane(Destination destination) {
+            this.destination = destination;
+        }
+
+        /**
+         * @return el lote a enviar si se alcanzó el tamaño máximo; {@code null} si no
+         */
+        private List<Pending> add(Pending pending) {
+            lock.lock();
+            try {
+                buffer.add(pending);
+                if (buffer.size() >= maxBatchSize) {
+                    return drain();
+                }
+                if (lingerTask == null) {
+                    lingerTask = scheduler.schedule(
+                            () -> send(destination, drain()), lingerMillis, TimeUnit.MILLISECONDS);
+                }
+                return null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private List<Pending> drain() {
+            lock.lock();
+            try {
+                if (lingerTask != null) {
+                    lingerTask.cancel(false);
+                    lingerTask = null;
+                }
+                List<Pending> batch = buffer;
+                buffer = new ArrayList<>();
+                return batch;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package dev.codebymelendez.notifications.infrastructure.messaging;
+
+import dev.codebymelendez.notifications.application.metrics.SenderLatencyTracker;
+import dev.codebymelendez.notifications.config.AutoscalerProperties;
+import dev.codebymelendez.notifications.config.ChannelProperties;
+import dev.codebymelendez.notifications.config.ChannelTopology;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ajusta en caliente los consumers y el prefetch de cada listener container
+ * por canal (y de su carril exprés) según el backlog de su cola, la ocupación
+ * del cupo de envíos en vuelo y la latencia de los senders.
+ *
+ * <ul>
+ *   <li>Consumers: suben mientras el backlog por consumer supere
+ *       {@code backlog-per-consumer} o el cupo esté casi lleno con backlog; bajan
+ *       de uno en uno con la cola vacía y el cupo ocioso. Siempre dentro de
+ *       {@code concurrency}..{@code max-concurrency} del canal.</li>
+ *   <li>Prefetch: con backlog, el necesario para que los consumers llenen el
+ *       cupo en vuelo; sin backlog, el que pide la ley de Little (tasa × latencia
+ *       del sender) con un margen del 50%.</li>
+ * </ul>
+ *
+ * <p>El prefetch (basic.qos) de un consumer se fija al abrir su canal, así que
+ * un prefetch nuevo se aplica reiniciando los consumers del container; como
+ * mucho una vez por {@code prefetch-cooldown}. Los mensajes sin ack en ese
+ * momento se reentregan y {@code RedeliveryGuard} descarta los ya reclamados.
+ *
+ * <p>Con el autoscaler activo, {@link ChannelListenerConfigurer} crea los
+ * containers con {@code max-concurrency} igual a {@code concurrency}: el
+ * escalado propio del container no compite con estas decisiones. El
+ * autoscaler sube ambos valores a la vez.
+ *
+ * <p>Cada decisión se registra en el log y en {@link #decisions()}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.autoscaler.enabled", havingValue = "true")
+public class ListenerAutoscaler {
+
+    private final RabbitListenerEndpointRegistry registry;
+    private final AmqpAdmin amqpAdmin;
+    private final ChannelTopology channelTopology;
+    private final ChannelProperties channelProperties;
+    private final AutoscalerProperties properties;
+    private final NotificationConsumer notificationConsumer;
+    private final SenderLatencyTracker senderLatencyTracker;
+
+    private final Map<String, Integer> prefetch = new ConcurrentHashMap<>();
+    private final Map<String, Instant> prefetchChangedAt = new ConcurrentHashMap<>();
+    private final Deque<ScalingDecision> history = new ConcurrentLinkedDeque<>();
+    private final LongAdder scaleUps = new LongAdder();
+    private final LongAdder scaleDowns = new LongAdder();
+    private final LongAdder prefetchChanges = new LongAdder();
+
+    @Value("${app.consumer.batch.enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${app.consumer.batch.size:100}")
+    private int consumerBatchSize;
+
+    public ListenerAutoscaler(
+            RabbitListenerEndpointRegistry registry,
+            AmqpAdmin amqpAdmin,
+            ChannelTopology channelTopology,
+            ChannelProperties channelProperties,
+            AutoscalerProperties properties,
+            NotificationConsumer notificationConsumer,
+            SenderLatencyTracker senderLatencyTracker) {
+        this.registry = registry;
+        this.amqpAdmin = amqpAdmin;
+        this.channelTopology = channelTopology;
+        this.channelProperties = channelProperties;
+        this.properties = properties;
+        this.notificationConsumer = notificationConsumer;
+        this.senderLatencyTracker = senderLatencyTracker;
+    }
+
+    @Scheduled(fixedDelayString = "${app.autoscaler.interval:5000}")
+    public void rebalance() {
+        for (Channel channel : Channel.values()) {
+            ChannelProperties.Settings settings = channelProperties.forChannel(channel);
+            ChannelProperties.Express express = settings.getExpress();
+
+            rebalance(channel, false, channelTopology.listenerId(channel), channelTopology.queue(channel),
+                    settings.getConcurrency(), settings.getMaxConcurrency(),
+                    settings.getPrefetch(), settings.getMaxInFlight());
+            rebalance(channel, true, channelTopology.expressListenerId(channel), channelTopology.expressQueue(channel),
+                    express.getConcurrency(), express.getMaxConcurrency(),
+                    express.getPrefetch(), express.getMaxInFlight());
+        }
+    }
+
+    public List<ScalingDecision> decisions() {
+        return new ArrayList<>(history);
+    }
+
+    public Stats stats() {
+        return new Stats(scaleUps.sum(), scaleDowns.sum(), prefetchChanges.sum(), decisions());
+    }
+
+    private void rebalance(
+            Channel channel, boolean express, String listenerId, String queue,
+            int minConsumers, int maxConsumers, int configuredPrefetch, int maxInFlight) {
+        if (!(registry.getListenerContainer(listenerId) instanceof SimpleMessageListenerContainer container)
+                || !container.isRunning()) {
+            return;
+        }
+
+        QueueInformation info = amqpAdmin.getQueueInfo(queue);
+        if (info == null) {
+            return;
+        }
+
+        long backlog = info.getMessageCount();
+        double utilization = notificationConsumer.inFlightUtilization(channel, express);
+        SenderLatencyTracker.Sample sample = senderLatencyTracker.sample(channel, express);
+        maxConsumers = Math.max(minConsumers, maxConsumers);
+
+        int consumers = Math.max(container.getActiveConsumerCount(), minConsumers);
+        int targetConsumers = consumers;
+        String reason = null;
+
+        if (backlog > (long) consumers * properties.getBacklogPerConsumer()) {
+            targetConsumers = (int) Math.min(maxConsumers,
+                    Math.ceilDiv(backlog, properties.getBacklogPerConsumer()));
+            reason = "backlog";
+        } else if (backlog > 0 && utilization >= properties.getScaleUpUtilization()) {
+            targetConsumers = Math.min(maxConsumers, consumers + 1);
+            reason = "utilization";
+        } else if (backlog == 0 && utilization < properties.getScaleDownUtilization()) {
+            targetConsumers = Math.max(minConsumers, consumers - 1);
+            reason = "idle";
+        }
+
+        int currentPrefetch = prefetch.computeIfAbsent(listenerId, id -> effectivePrefetch(configuredPrefetch));
+        int targetPrefetch = targetPrefetch(backlog, sample, targetConsumers, maxInFlight);
+        Instant lastChange = prefetchChangedAt.get(listenerId);
+        if (lastChange != null && lastChange.plus(properties.getPrefetchCooldown()).isAfter(Instant.now())) {
+            targetPrefetch = currentPrefetch;
+        }
+
+        if (targetConsumers == consumers && targetPrefetch == currentPrefetch) {
+            return;
+        }
+
+        if (targetConsumers != consumers) {
+            resize(container, targetConsumers);
+            (targetConsumers > consumers ? scaleUps : scaleDowns).increment();
+        }
+        if (targetPrefetch != currentPrefetch) {
+            if (restartWithPrefetch(container, listenerId, targetPrefetch)) {
+                prefetch.put(listenerId, targetPrefetch);
+                prefetchChanges.increment();
+            } else {
+                targetPrefetch = currentPrefetch;
+            }
+            prefetchChangedAt.put(listenerId, Instant.now());
+        }
+        if (targetConsumers == consumers && targetPrefetch == currentPrefetch) {
+            return;
+        }
+
+        ScalingDecision decision = new ScalingDecision(
+                Instant.now(), listenerId, backlog, utilization, sample.sends(), sample.averageMillis(),
+                consumers, targetConsumers, currentPrefetch, targetPrefetch,
+                reason != null ? reason : "prefetch");
+        record(decision);
+    }
+
+    /**
+     * El máximo del container sigue al número de consumers para que su
+     * escalado propio no los cambie; el orden respeta que concurrency no
+     * supere nunca a max-concurrency.
+     */
+    private static void resize(SimpleMessageListenerContainer container, int consumers) {
+        if (consumers > container.getActiveConsumerCount()) {
+            container.setMaxConcurrentConsumers(consumers);
+            container.setConcurrentConsumers(consumers);
+        } else {
+            container.setConcurrentConsumers(consumers);
+            container.setMaxConcurrentConsumers(consumers);
+        }
+    }
+
+    /**
+     * Reinicia los consumers para que abran sus canales con el prefetch nuevo.
+     *
+     * @return false si el container no volvió a arrancar; se restaura el prefetch anterior
+     */
+    private boolean restartWithPrefetch(SimpleMessageListenerContainer container, String listenerId, int value) {
+        int previous = prefetch.get(listenerId);
+        container.setPrefetchCount(value);
+        try {
+            container.stop();
+            container.start();
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Autoscaler {}: prefetch {} no aplicado: {}", listenerId, value, e.getMessage());
+            container.setPrefetchCount(previous);
+            if (!container.isRunning()) {
+                try {
+                    container.start();
+                } catch (RuntimeException retry) {
+                    log.error("Autoscaler {}: el container no volvió a arrancar: {}", listenerId, retry.getMessage());
+                }
+            }
+            return false;
+        }
+    }
+
+    private int targetPrefetch(long backlog, SenderLatencyTracker.Sample sample, int consumers, int maxInFlight) {
+        double demand;
+        if (backlog > 0) {
+            demand = (double) maxInFlight / consumers;
+        } else {
+            double ratePerMilli = (double) sample.sends() / properties.getInterval();
+            demand = ratePerMilli * sample.averageMillis() * 1.5 / consumers;
+        }
+        return effectivePrefetch((int) Math.ceil(demand));
+    }
+
+    private int effectivePrefetch(int value) {
+        int min = batchEnabled
+                ? Math.max(properties.getMinPrefetch(), consumerBatchSize)
+                : properties.getMinPrefetch();
+        return Math.clamp(value, min, Math.max(min, properties.getMaxPrefetch()));
+    }
+
+    private void record(ScalingDecision decision) {
+        history.addFirst(decision);
+        while (history.size() > properties.getHistorySize()) {
+            history.pollLast();
+        }
+
+        log.info("Autoscaler {}: consumers {}→{}, prefetch {}→{}, backlog={}, utilization={}, "
+                        + "sends={}, senderLatency={}ms, reason={}",
+                decision.listenerId(),
+                decision.fromConsumers(), decision.toConsumers(),
+                decision.fromPrefetch(), decision.toPrefetch(),
+                decision.backlog(),
+                String.format("%.2f", decision.utilization()),
+                decision.sends(),
+                String.format("%.1f", decision.senderLatencyMillis()),
+                decision.reason());
+    }
+
+    public record ScalingDecision(
+            Instant at,
+            String listenerId,
+            long backlog,
+            double utilization,
+            long sends,
+            double senderLatencyMillis,
+            int fromConsumers,
+            int toConsumers,
+            int fromPrefetch,
+            int toPrefetch,
+            String reason
+    ) {}
+
+    public record Stats(
+            long scaleUps,
+            long scaleDowns,
+            long prefetchChanges,
+            List<ScalingDecision> recentDecisions
+    ) {}
+}
@@ -2,37 +2,133 @@ package dev.codebymelendez.notifications.infrastructure.messaging;
 
 import dev.codebymelendez.notifications.api.exception.NotificationNotFoundException;
 import dev.codebymelendez.notifications.api.exception.UnsupportedChannelException;
+import dev.codebymelendez.notifications.application.circuit.SenderCircuitBreakers;
+import dev.codebymelendez.notifications.application.coalescing.NotificationCoalescer;
 import dev.codebymelendez.notifications.application.event.NotificationEvent;
+import dev.codebymelendez.notifications.application.idempotency.RedeliveryGuard;
+import dev.codebymelendez.notifications.application.metrics.DeliveryLatencyTracker;
+import dev.codebymelendez.notifications.application.metrics.SenderLatencyTracker;
+import dev.codebymelendez.notifications.application.ratelimit.DispatchRateLimiter;
+import dev.codebymelendez.notifications.application.ratelimit.RateLimitDecision;
+import dev.codebymelendez.notifications.application.retry.RetryDecision;
+import dev.codebymelendez.notifications.application.retry.RetryPolicy;
+import dev.codebymelendez.notifications.config.ChannelProperties;
+import dev.codebymelendez.notifications.config.RetryTopology;
 import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.DeliveryAttempt;
+import dev.codebymelendez.notifications.domain.model.DeliveryAttemptStatus;
 import dev.codebymelendez.notifications.domain.model.DeliveryResult;
+import dev.codebymelendez.notifications.domain.model.EntityIds;
 import dev.codebymelendez.notifications.domain.model.Notification;
 import dev.codebymelendez.notifications.domain.model.NotificationStatus;
+import dev.codebymelendez.notifications.domain.repository.DeliveryAttemptRepository;
 import dev.codebymelendez.notifications.domain.repository.NotificationRepository;
 import dev.codebymelendez.notifications.infrastructure.sender.NotificationSender;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
-
+/**
+ * Consumer por mensaje con envío asíncrono.
+ *
+ * <p>El listener devuelve un {@link CompletableFuture}: el container trabaja en
+ * modo de ack manual y confirma (ack) o rechaza (nack → DLQ) cada delivery tag
+ * cuando el futuro termina. Un mismo hilo de listener puede así mantener muchos
+ * envíos en vuelo; la concurrencia la acota {@code app.channels.<canal>.max-in-flight}
+ * (y {@code express.max-in-flight} para el carril de prioridad HIGH).
+ *
+ * <p>Un fallo que {@link RetryPolicy} considera reintentable no rechaza el
+ * mensaje: se registra el intento junto con la decisión, se confirma el
+ * original y el siguiente intento se publica tras el commit en la cola de
+ * backoff correspondiente (ver {@link NotificationPublisher#publishRetry}).
+ *
+ * <p>Cada mensaje pasa primero por {@link RedeliveryGuard}: solo se envía si
+ * reclama su intento en base de datos, así una reentrega no llega al proveedor.
+ *
+ * <p>Antes de cada envío se consulta {@link DispatchRateLimiter}: los mensajes
+ * por encima del límite se difieren a la cola de retardo en lugar de fallar.
+ *
+ * <p>Los eventos fat ({@code app.events.fat.enabled}) se envían desde el propio
+ * mensaje: la base de datos solo recibe escrituras (claim, intento y estado).
+ *
+ * <p>Los shards de entrega ordenada usan {@link #processOrdered}: en lugar de
+ * republicar, retienen el mensaje hasta resolverlo.
+ */
 @Slf4j
 @Component
 public class NotificationConsumer {
     
+    // Espera mínima de un shard retenido: evita reintentar en bucle sin pausa
+    private static final long MIN_HOLD_MILLIS = 50;
+
     private final NotificationRepository notificationRepository;
+    private final DeliveryAttemptRepository deliveryAttemptRepository;
     private final List<NotificationSender> senders;
-    
-    @Value("${app.retry.max-attempts:3}")
-    private int maxAttempts;
+    private final NotificationPublisher notificationPublisher;
+    private final RetryPolicy retryPolicy;
+    private final RetryTopology retryTopology;
+    private final TransactionTemplate transactionTemplate;
+    private final DeliveryLatencyTracker latencyTracker;
+    private final SenderLatencyTracker senderLatencyTracker;
+    private final DispatchRateLimiter rateLimiter;
+    private final SenderCircuitBreakers circuitBreakers;
+    private final NotificationCoalescer coalescer;
+    private final RedeliveryGuard redeliveryGuard;
+    private final Map<Channel, Semaphore> inFlight = new EnumMap<>(Channel.class);
+    private final Map<Channel, Semaphore> expressInFlight = new EnumMap<>(Channel.class);
+    private final Map<Channel, Integer> limits = new EnumMap<>(Channel.class);
+    private final Map<Channel, Integer> expressLimits = new EnumMap<>(Channel.class);
     
     public NotificationConsumer(
             NotificationRepository notificationRepository,
-            List<NotificationSender> senders) {
+            DeliveryAttemptRepository deliveryAttemptRepository,
+            List<NotificationSender> senders,
+            NotificationPublisher notificationPublisher,
+            RetryPolicy retryPolicy,
+            RetryTopology retryTopology,
+            TransactionTemplate transactionTemplate,
+            DeliveryLatencyTracker latencyTracker,
+            SenderLatencyTracker senderLatencyTracker,
+            DispatchRateLimiter rateLimiter,
+            SenderCircuitBreakers circuitBreakers,
+            NotificationCoalescer coalescer,
+            RedeliveryGuard redeliveryGuard,
+            ChannelProperties channelProperties) {
         this.notificationRepository = notificationRepository;
+        this.deliveryAttemptRepository = deliveryAttemptRepository;
         this.senders = senders;
+        this.notificationPublisher = notificationPublisher;
+        this.retryPolicy = retryPolicy;
+        this.retryTopology = retryTopology;
+        this.transactionTemplate = transactionTemplate;
+        this.latencyTracker = latencyTracker;
+        this.senderLatencyTracker = senderLatencyTracker;
+        this.rateLimiter = rateLimiter;
+        this.circuitBreakers = circuitBreakers;
+        this.coalescer = coalescer;
+        this.redeliveryGuard = redeliveryGuard;
+
+        for (Channel channel : Channel.values()) {
+            ChannelProperties.Settings settings = channelProperties.forChannel(channel);
+            limits.put(channel, settings.getMaxInFlight());
+            expressLimits.put(channel, settings.getExpress().getMaxInFlight());
+            inFlight.put(channel, new Semaphore(settings.getMaxInFlight()));
+            expressInFlight.put(channel, new Semaphore(settings.getExpress().getMaxInFlight()));
+        }
 
         log.info("NotificationConsumer inicializado con {} senders: {}",
                 senders.size(),
@@ -41,43 +137,343 @@ public class NotificationConsumer {
                         .toList());
     }
     
-    @RabbitListener(queues = "${app.rabbitmq.queue.notifications}")
-    @Transactional
-    public void processNotification(NotificationEvent event) {
+    /**
+     * Listener de las colas por canal y de su carril exprés. Además drena la
+     * cola compartida anterior a las colas por canal en ambos modos de consumo;
+     * {@link ChannelListenerConfigurer} registra todos estos endpoints con ack
+     * manual.
+     */
+    public CompletableFuture<Void> processNotification(NotificationEvent event) {
         log.info("Procesando notificación: id={}, attempt={}, correlationId={}", 
                 event.getNotificationId(), 
                 event.getAttemptNumber(),
                 event.getCorrelationId());
         
         try {
-            Notification notification = loadNotification(event);
+            // Retry-after más largo que el nivel de backoff mayor: vuelve a la cola de retardo
+            long notBefore = event.remainingDelayMillis();
+            if (notBefore > 0) {
+                log.debug("Retry-after pendiente, aparcando de nuevo: id={}, attempt={}, remaining={}ms",
+                        event.getNotificationId(), event.getAttemptNumber(), notBefore);
+                notificationPublisher.publishDelayed(event, notBefore);
+                return CompletableFuture.completedFuture(null);
+            }
 
-            if (notification.getStatus().isTerminal()) {
-                log.warn("Notificación ya en estado terminal, ignorando: id={}, status={}", 
-                        notification.getId(), notification.getStatus());
-                return;
+            // Descarta reentregas antes de cualquier llamada al proveedor
+            RedeliveryGuard.Admission admission = redeliveryGuard.admit(event);
+            switch (admission.outcome()) {
+                case DUPLICATE -> {
+                    log.warn("Mensaje duplicado descartado: id={}, attempt={}, motivo={}",
+                            event.getNotificationId(), event.getAttemptNumber(), admission.reason());
+                    return CompletableFuture.completedFuture(null);
+                }
+                case IN_PROGRESS -> {
+                    log.warn("Intento en curso en otro consumer, aparcando: id={}, attempt={}, wait={}ms",
+                            event.getNotificationId(), event.getAttemptNumber(), admission.retryAfterMillis());
+                    notificationPublisher.publishDelayed(event, admission.retryAfterMillis());
+                    return CompletableFuture.completedFuture(null);
+                }
+                case NOT_FOUND -> {
+                    log.error("Notificación no encontrada, descartando mensaje: id={}",
+                            event.getNotificationId());
+                    return CompletableFuture.completedFuture(null);
+                }
+                default -> { }
             }
+        } catch (RuntimeException e) {
+            return rejected(event, false, e);
+        }
 
-            notification.setStatus(NotificationStatus.PROCESSING);
-            notificationRepository.save(notification);
-            
-            NotificationSender sender = findSender(notification.getChannel());
-            
-            DeliveryResult result = sender.send(notification);
-            
-            handleResult(notification, result, event);
+        try {
+            return deliver(event);
+        } catch (RuntimeException e) {
+            return rejected(event, true, e);
+        }
+    }
+
+    /**
+     * Envío de un intento ya reclamado. Lo que lance antes de devolver el futuro
+     * lo convierte {@link #processNotification} en un futuro fallido.
+     */
+    private CompletableFuture<Void> deliver(NotificationEvent event) {
+        Notification notification;
+        NotificationSender sender;
+        
+        try {
+            // Modo fat: la notificación a enviar se construye desde el mensaje, sin leer la fila
+            notification = event.hasPayload()
+                    ? event.getPayload().toNotification(event)
+                    : loadNotification(event);
+            sender = findSender(notification.getChannel());
             
         } catch (NotificationNotFoundException e) {
             log.error("Notificación no encontrada, descartando mensaje: id={}",
                     event.getNotificationId());
+            redeliveryGuard.complete(event);
+            return CompletableFuture.completedFuture(null);
+        } catch (UnsupportedChannelException e) {
+            log.error("Canal no soportado, descartando mensaje: id={}, channel={}",
+                    event.getNotificationId(), e.getChannel());
+            transactionTemplate.executeWithoutResult(status ->
+                    markAsFailed(event.getNotificationId(), e.getMessage()));
+            redeliveryGuard.complete(event);
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        // Con el circuito abierto el mensaje se aparca sin llamar al proveedor
+        Channel channel = notification.getChannel();
+        long parkMillis = circuitBreakers.tryAcquire(channel);
+        if (parkMillis > 0) {
+            defer(notification, event, parkMillis, "circuito abierto");
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (coalescer.isEnabled(notification)) {
+            // Con el circuito cerrado se retiene; breaker y rate limit se piden de nuevo para cada digest
+            circuitBreakers.release(channel);
+            Semaphore permits = inFlight.get(channel);
+            permits.acquireUninterruptibly();
+            return coalescer.submit(notification, digest -> dispatch(sender, digest))
+                    .whenComplete((result, error) -> permits.release())
+                    .thenAccept(result -> completeDelivery(notification, event, result))
+                    .whenComplete((ignored, error) -> exitGuard(event, error));
+        }
+
+        RateLimitDecision rateLimit = rateLimiter.acquire(sender, notification);
+        if (!rateLimit.granted()) {
+            circuitBreakers.release(channel);
+            defer(notification, event, rateLimit.waitMillis(), "rate limit");
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        // El carril exprés tiene su propio cupo: un backlog masivo no lo agota
+        boolean express = notification.getPriority().isExpress();
+        Semaphore permits = express ? expressInFlight.get(channel) : inFlight.get(channel);
+        permits.acquireUninterruptibly();
+        
+        return delay(rateLimit.waitMillis())
+                .thenCompose(ignored -> send(sender, notification))
+                .whenComplete((result, error) -> permits.release())
+                .thenAccept(result -> completeDelivery(notification, event, result))
+                .whenComplete((ignored, error) -> exitGuard(event, error));
+    }
+
+    /**
+     * Listener de los shards ordenados. Nunca republica el mensaje: la cola de
+     * retardo lo devolvería detrás de los posteriores del mismo destinatario.
+     * Un claim en curso en otro consumer, el circuito abierto, el rate limit o
+     * un fallo reintentable se esperan en línea y el futuro no termina (ni se
+     * confirma el mensaje) hasta la entrega o el fallo definitivo. Con prefetch 1,
+     * el shard queda retenido mientras tanto. No se aplica coalescing.
+     */
+    public CompletableFuture<Void> processOrdered(NotificationEvent event) {
+        log.info("Procesando notificación ordenada: id={}, attempt={}, correlationId={}",
+                event.getNotificationId(),
+                event.getAttemptNumber(),
+                event.getCorrelationId());
+
+        try {
+            RedeliveryGuard.Admission admission = redeliveryGuard.admit(event);
+            switch (admission.outcome()) {
+                case DUPLICATE -> {
+                    log.warn("Mensaje duplicado descartado: id={}, attempt={}, motivo={}",
+                            event.getNotificationId(), event.getAttemptNumber(), admission.reason());
+                    return CompletableFuture.completedFuture(null);
+                }
+                case IN_PROGRESS -> {
+                    log.warn("Intento en curso en otro consumer, reteniendo el shard: id={}, attempt={}, wait={}ms",
+                            event.getNotificationId(), event.getAttemptNumber(), admission.retryAfterMillis());
+                    return delay(Math.max(admission.retryAfterMillis(), MIN_HOLD_MILLIS))
+                            .thenCompose(ignored -> processOrdered(event));
+                }
+                case NOT_FOUND -> {
+                    log.error("Notificación no encontrada, descartando mensaje: id={}",
+                            event.getNotificationId());
+                    return CompletableFuture.completedFuture(null);
+                }
+                default -> { }
+            }
+        } catch (RuntimeException e) {
+            return rejected(event, false, e);
+        }
+
+        try {
+            return deliverOrdered(event);
+        } catch (RuntimeException e) {
+            return rejected(event, true, e);
+        }
+    }
+
+    private CompletableFuture<Void> deliverOrdered(NotificationEvent event) {
+        Notification notification;
+        NotificationSender sender;
+
+        try {
+            notification = event.hasPayload()
+                    ? event.getPayload().toNotification(event)
+                    : loadNotification(event);
+            sender = findSender(notification.getChannel());
+
+        } catch (NotificationNotFoundException e) {
+            log.error("Notificación no encontrada, descartando mensaje: id={}",
+                    event.getNotificationId());
+            redeliveryGuard.complete(event);
+            return CompletableFuture.completedFuture(null);
         } catch (UnsupportedChannelException e) {
             log.error("Canal no soportado, descartando mensaje: id={}, channel={}",
                     event.getNotificationId(), e.getChannel());
-            markAsFailed(event.getNotificationId(), e.getMessage());
+            transactionTemplate.executeWithoutResult(status ->
+                    markAsFailed(event.getNotificationId(), e.getMessage()));
+            redeliveryGuard.complete(event);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Channel channel = notification.getChannel();
+        long parkMillis = circuitBreakers.tryAcquire(channel);
+        if (parkMillis > 0) {
+            return hold(notification, event, parkMillis, "circuito abierto");
+        }
+
+        RateLimitDecision rateLimit = rateLimiter.acquire(sender, notification);
+        if (!rateLimit.granted()) {
+            circuitBreakers.release(channel);
+            return hold(notification, event, rateLimit.waitMillis(), "rate limit");
+        }
+
+        Semaphore permits = inFlight.get(channel);
+        permits.acquireUninterruptibly();
+
+        return delay(rateLimit.waitMillis())
+                .thenCompose(ignored -> send(sender, notification))
+                .whenComplete((result, error) -> permits.release())
+                .thenApply(result -> transactionTemplate.execute(status -> recordResult(notification, result, event)))
+                .whenComplete((retry, error) -> exitGuard(event, error))
+                .thenCompose(retry -> {
+                    if (retry == null) {
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    NotificationEvent next = event.forRetry();
+                    long wait = Math.max(retryTopology.delayForRetry(next.getAttemptNumber() - 1),
+                            retry.minDelayMillis());
+                    log.debug("Reintento en línea del shard: id={}, attempt={}, wait={}ms",
+                            next.getNotificationId(), next.getAttemptNumber(), wait);
+                    return delay(wait).thenCompose(ignored -> processOrdered(next));
+                });
+    }
+
+    /**
+     * Error antes de tener el futuro del envío (guard, lectura, transacción o
+     * republicación). Si escapara del listener, con ack manual el mensaje
+     * quedaría sin ack ni nack; como futuro fallido el adapter lo rechaza y va a
+     * la DLQ. Un claim ya conseguido queda en PROCESSING hasta que venza el lease.
+     */
+    private CompletableFuture<Void> rejected(NotificationEvent event, boolean claimed, RuntimeException e) {
+        if (claimed) {
+            redeliveryGuard.abandon(event);
+        }
+        log.error("Error antes del envío, rechazando mensaje: id={}, attempt={}",
+                event.getNotificationId(), event.getAttemptNumber(), e);
+        return CompletableFuture.failedFuture(e);
+    }
+
+    /**
+     * Variante de {@link #defer} para los shards ordenados: devuelve el claim y
+     * vuelve a intentarlo tras la espera, sin soltar el mensaje.
+     */
+    private CompletableFuture<Void> hold(Notification notification, NotificationEvent event, long waitMillis,
+                                         String reason) {
+        redeliveryGuard.release(event);
+        log.debug("Shard retenido por {}: id={}, channel={}, wait={}ms",
+                reason, notification.getId(), notification.getChannel(), waitMillis);
+        return delay(Math.max(waitMillis, MIN_HOLD_MILLIS)).thenCompose(ignored -> processOrdered(event));
+    }
+
+    /**
+     * Envía un digest del coalescer con un único turno del breaker y del rate
+     * limiter, como el consumer por lotes con cada grupo; {@link #send} registra
+     * el resultado en el breaker. Si el circuito está abierto o el rate limiter
+     * lo difiere, espera sin bloquear y vuelve a pedir turno: los mensajes
+     * agrupados ya están reclamados y no se republican.
+     */
+    private CompletableFuture<DeliveryResult> dispatch(NotificationSender sender, Notification digest) {
+        Channel channel = digest.getChannel();
+        long parkMillis = circuitBreakers.tryAcquire(channel);
+        if (parkMillis > 0) {
+            return delay(parkMillis).thenCompose(ignored -> dispatch(sender, digest));
+        }
+
+        RateLimitDecision rateLimit = rateLimiter.acquire(sender, digest);
+        if (!rateLimit.granted()) {
+            circuitBreakers.release(channel);
+            return delay(rateLimit.waitMillis()).thenCompose(ignored -> dispatch(sender, digest));
+        }
+        return delay(rateLimit.waitMillis()).thenCompose(ignored -> send(sender, digest));
+    }
+
+    private CompletableFuture<DeliveryResult> send(NotificationSender sender, Notification notification) {
+        Channel channel = notification.getChannel();
+        boolean express = notification.getPriority().isExpress();
+        long start = System.nanoTime();
+        return sender.sendAsync(notification)
+                .toCompletableFuture()
+                .whenComplete((result, error) ->
+                        senderLatencyTracker.record(channel, express, System.nanoTime() - start))
+                .thenApply(result -> {
+                    circuitBreakers.record(channel, result);
+                    return result;
+                });
+    }
+
+    private void exitGuard(NotificationEvent event, Throwable error) {
+        if (error == null) {
+            redeliveryGuard.complete(event);
+        } else {
+            redeliveryGuard.abandon(event);
         }
     }
 
-    @RabbitListener(queues = "${app.rabbitmq.queue.dlq}")
+    private void completeDelivery(Notification notification, NotificationEvent event, DeliveryResult result) {
+        transactionTemplate.executeWithoutResult(status -> {
+            RetryDecision retry = recordResult(notification, result, event);
+            if (retry != null) {
+                scheduleRetry(event, retry.minDelayMillis());
+            }
+        });
+    }
+
+    /**
+     * Espera del rate limiter sin bloquear el hilo del listener.
+     */
+    private static CompletableFuture<Void> delay(long millis) {
+        if (millis <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> { },
+                CompletableFuture.delayedExecutor(millis, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Mensaje por encima del límite o con el circuito abierto: vuelve a QUEUED y
+     * se republica en la cola de retardo sin consumir un intento.
+     */
+    private void defer(Notification notification, NotificationEvent event, long waitMillis, String reason) {
+        redeliveryGuard.release(event);
+        notificationPublisher.publishDelayed(event, waitMillis);
+
+        log.debug("Envío diferido por {}: id={}, channel={}, wait={}ms",
+                reason, notification.getId(), notification.getChannel(), waitMillis);
+    }
+
+    /**
+     * Fracción del cupo de envíos en vuelo ocupada en el carril indicado.
+     */
+    public double inFlightUtilization(Channel channel, boolean express) {
+        Semaphore permits = express ? expressInFlight.get(channel) : inFlight.get(channel);
+        int limit = express ? expressLimits.get(channel) : limits.get(channel);
+        return limit == 0 ? 0 : (double) (limit - permits.availablePermits()) / limit;
+    }
+
+    @RabbitListener(queues = {"${app.rabbitmq.queue.dlq}", "#{@channelTopology.deadLetterQueues()}"})
     @Transactional
     public void handleDeadLetter(NotificationEvent event) {
         log.error("Notificación en DLQ después de {} intentos: id={}, correlationId={}", 
@@ -102,46 +498,79 @@ public class NotificationConsumer {
                 .orElseThrow(() -> new UnsupportedChannelException(channel));
     }
     
-    private void handleResult(Notification notification, DeliveryResult result, NotificationEvent event) {
-        notification.recordAttempt(result.success(), result.errorMessage());
-        
+    /**
+     * Registra el resultado sin volver a cargar la notificación ni su historial:
+     * un INSERT del intento y una transición condicionada desde PROCESSING. Si
+     * otro consumer ya cerró la notificación (lease vencido), la transición no
+     * se aplica y no se programa reintento. El número de intento para la
+     * política es el del evento: un replay empieza de nuevo en 1 y conserva los
+     * intentos anteriores.
+     *
+     * @return la decisión si la notificación volvió a QUEUED para reintentarse;
+     *         quien llama programa el reintento
+     */
+    private RetryDecision recordResult(Notification notification, DeliveryResult result, NotificationEvent event) {
+        RetryDecision decision = result.success()
+                ? null
+                : retryPolicy.decide(notification.getChannel(), result, event.getAttemptNumber());
+
+        int attemptNumber = deliveryAttemptRepository.append(DeliveryAttempt.builder()
+                .id(EntityIds.newId())
+                .notification(notification)
+                .status(result.success() ? DeliveryAttemptStatus.SUCCESS : DeliveryAttemptStatus.FAILED)
+                .errorMessage(result.errorMessage())
+                .errorCode(result.errorCode())
+                .retryDecision(decision != null ? decision.toString() : null)
+                .attemptedAt(Instant.now())
+                .build());
+
+        NotificationStatus next = result.success()
+                ? NotificationStatus.DELIVERED
+                : decision.retry() ? NotificationStatus.QUEUED : NotificationStatus.FAILED;
+        if (!notificationRepository.transition(notification.getId(), next,
+                result.success() ? null : result.errorMessage(), NotificationStatus.PROCESSING)) {
+            log.warn("Resultado no aplicado, la notificación ya no está en PROCESSING: id={}, attempt={}, resultado={}",
+                    notification.getId(), event.getAttemptNumber(), next);
+            return null;
+        }
+
         if (result.success()) {
             notification.markAsDelivered();
-            notificationRepository.save(notification);
-            
-            log.info("Notificación entregada exitosamente: id={}, channel={}, attempts={}", 
-                    notification.getId(), 
-                    notification.getChannel(),
-                    notification.getAttemptCount());
+            latencyTracker.record(notification.getPriority(),
+                    Duration.between(notification.getCreatedAt(), notification.getDeliveredAt()));
+            log.info("Notificación entregada exitosamente: id={}, channel={}, attempts={}",
+                    notification.getId(), notification.getChannel(), attemptNumber);
+
+        } else if (decision.retry()) {
+            log.warn("Intento fallido, reintentando: id={}, attempt={}/{}, error={}, decision={}",
+                    notification.getId(),
+                    event.getAttemptNumber(),
+                    retryPolicy.maxAttempts(notification.getChannel()),
+                    result.errorMessage(),
+                    decision);
+            return decision;
+
         } else {
-            if (notification.canRetry(maxAttempts)) {
-                notification.setStatus(NotificationStatus.QUEUED);
-                notificationRepository.save(notification);
-                
-                log.warn("Intento fallido, reintentando: id={}, attempt={}/{}, error={}", 
-                        notification.getId(),
-                        notification.getAttemptCount(),
-                        maxAttempts,
-                        result.errorMessage());
-                throw new RuntimeException("Reintento requerido: " + result.errorMessage());
-                
-            } else {
-                notification.markAsFailed(result.errorMessage());
-                notificationRepository.save(notification);
-                log.error("Notificación fallida después de {} intentos: id={}, error={}", 
-                        notification.getAttemptCount(),
-                        notification.getId(),
-                        result.errorMessage());
-            }
+            log.error("Notificación fallida después de {} intentos: id={}, error={}, decision={}",
+                    event.getAttemptNumber(),
+                    notification.getId(),
+                    result.errorMessage(),
+                    decision);
         }
+        return null;
     }
 
-    private void markAsFailed(java.util.UUID notificationId, String reason) {
-        notificationRepository.findById(notificationId).ifPresent(notification -> {
-            if (!notification.getStatus().isTerminal()) {
-                notification.markAsFailed(reason);
-                notificationRepository.save(notification);
+    private void scheduleRetry(NotificationEvent event, long minDelayMillis) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notificationPublisher.publishRetry(event, minDelayMillis);
             }
         });
     }
+
+    private void markAsFailed(UUID notificationId, String reason) {
+        notificationRepository.transition(notificationId, NotificationStatus.FAILED, reason,
+                NotificationStatus.nonTerminal());
+    }
 }
@@ -0,0 +1,243 @@
+package dev.codebymelendez.notifications.infrastructure.messaging;
+
+import dev.codebymelendez.notifications.application.event.NotificationEvent;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.Priority;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Converter binario para {@link NotificationEvent} con formato fijo y versionado.
+ *
+ * <p>Layout v1 (big-endian):
+ * <pre>
+ *   u8   versión (= 1)
+ *   i64  notificationId (msb), i64 (lsb)
+ *   u8   longitud del código de canal (0 = sin canal) + bytes ASCII
+ *   i64  createdAt (segundos epoch), i32 (nanos)
+ *   i32  attemptNumber
+ *   u8   tipo de correlationId (0 = null, 1 = UUID, 2 = texto)
+ *        UUID: i64 msb, i64 lsb | texto: u16 longitud + bytes UTF-8
+ * </pre>
+ *
+ * <p>Layout v2: v1 seguido de
+ * <pre>
+ *   u8   longitud del código de prioridad (0 = sin prioridad) + bytes ASCII
+ * </pre>
+ *
+ * <p>Layout v3: v2 seguido de
+ * <pre>
+ *   u8   presencia de orderingKey (0 = null, 1 = presente) + i32 si presente
+ * </pre>
+ *
+ * <p>Layout v4: v3 seguido de
+ * <pre>
+ *   u8   presencia de notBefore (0 = null, 1 = presente) + i64 (milisegundos epoch) si presente
+ * </pre>
+ *
+ * <p>Los cambios de formato añaden una versión nueva; las anteriores se siguen
+ * leyendo. Los mensajes con otro content type (JSON publicado antes del
+ * despliegue) y los payloads que no son eventos pasan al converter delegado.
+ * Con {@code writeBinary = false} solo se lee el formato binario, lo que
+ * permite volver atrás sin dejar mensajes ilegibles en las colas.
+ */
+public class NotificationEventMessageConverter implements MessageConverter {
+
+    public static final String CONTENT_TYPE = "application/x-notification-event";
+
+    private static final byte VERSION_1 = 1;
+    private static final byte VERSION_2 = 2;
+    private static final byte VERSION_3 = 3;
+    private static final byte VERSION_4 = 4;
+
+    private static final byte CORRELATION_NULL = 0;
+    private static final byte CORRELATION_UUID = 1;
+    private static final byte CORRELATION_TEXT = 2;
+
+    private final MessageConverter delegate;
+    private final boolean writeBinary;
+
+    public NotificationEventMessageConverter(MessageConverter delegate, boolean writeBinary) {
+        this.delegate = delegate;
+        this.writeBinary = writeBinary;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        // Los eventos fat usan JSON: el layout binario solo cubre el evento por ID
+        if (!writeBinary || !(object instanceof NotificationEvent event) || event.hasPayload()) {
+            return delegate.toMessage(object, messageProperties);
+        }
+
+        byte[] body = encode(event);
+        messageProperties.setContentType(CONTENT_TYPE);
+        messageProperties.setContentLength(body.length);
+        return new Message(body, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        if (!CONTENT_TYPE.equals(message.getMessageProperties().getContentType())) {
+            return delegate.fromMessage(message);
+        }
+        return decode(message.getBody());
+    }
+
+    public static byte[] encode(NotificationEvent event) {
+        byte[] channel = event.getChannel() != null
+                ? event.getChannel().getCode().getBytes(StandardCharsets.US_ASCII)
+                : new byte[0];
+        byte[] priority = event.getPriority() != null
+                ? event.getPriority().getCode().getBytes(StandardCharsets.US_ASCII)
+                : new byte[0];
+        String correlationId = event.getCorrelationId();
+        UUID correlationUuid = parseUuid(correlationId);
+        byte[] correlationText = correlationId != null && correlationUuid == null
+                ? correlationId.getBytes(StandardCharsets.UTF_8)
+                : null;
+        if (correlationText != null && correlationText.length > 0xFFFF) {
+            throw new MessageConversionException("correlationId demasiado largo: " + correlationText.length + " bytes");
+        }
+
+        int size = 1 + 16 + 1 + channel.length + 12 + 4 + 1
+                + (correlationUuid != null ? 16 : 0)
+                + (correlationText != null ? 2 + correlationText.length : 0)
+                + 1 + priority.length
+                + 1 + (event.getOrderingKey() != null ? 4 : 0)
+                + 1 + (event.getNotBefore() != null ? 8 : 0);
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(VERSION_4);
+        buffer.putLong(event.getNotificationId().getMostSignificantBits());
+        buffer.putLong(event.getNotificationId().getLeastSignificantBits());
+        buffer.put((byte) channel.length);
+        buffer.put(channel);
+        Instant createdAt = event.getCreatedAt() != null ? event.getCreatedAt() : Instant.EPOCH;
+        buffer.putLong(createdAt.getEpochSecond());
+        buffer.putInt(createdAt.getNano());
+        buffer.putInt(event.getAttemptNumber());
+
+        if (correlationUuid != null) {
+            buffer.put(CORRELATION_UUID);
+            buffer.putLong(correlationUuid.getMostSignificantBits());
+            buffer.putLong(correlationUuid.getLeastSignificantBits());
+        } else if (correlationText != null) {
+            buffer.put(CORRELATION_TEXT);
+            buffer.putShort((short) correlationText.length);
+            buffer.put(correlationText);
+        } else {
+            buffer.put(CORRELATION_NULL);
+        }
+
+        buffer.put((byte) priority.length);
+        buffer.put(priority);
+
+        if (event.getOrderingKey() != null) {
+            buffer.put((byte) 1);
+            buffer.putInt(event.getOrderingKey());
+        } else {
+            buffer.put((byte) 0);
+        }
+
+        if (event.getNotBefore() != null) {
+            buffer.put((byte) 1);
+            buffer.putLong(event.getNotBefore().toEpochMilli());
+        } else {
+            buffer.put((byte) 0);
+        }
+
+        return buffer.array();
+    }
+
+    public static NotificationEvent decode(byte[] body) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(body);
+            byte version = buffer.get();
+            if (version < VERSION_1 || version > VERSION_4) {
+                throw new MessageConversionException("Versión de NotificationEvent no soportada: " + version);
+            }
+
+            UUID notificationId = new UUID(buffer.getLong(), buffer.getLong());
+
+            Channel channel = null;
+            int channelLength = Byte.toUnsignedInt(buffer.get());
+            if (channelLength > 0) {
+                byte[] code = new byte[channelLength];
+                buffer.get(code);
+                channel = Channel.fromCode(new String(code, StandardCharsets.US_ASCII));
+            }
+
+            Instant createdAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+            int attemptNumber = buffer.getInt();
+
+            String correlationId = switch (buffer.get()) {
+                case CORRELATION_NULL -> null;
+                case CORRELATION_UUID -> new UUID(buffer.getLong(), buffer.getLong()).toString();
+                case CORRELATION_TEXT -> {
+                    byte[] text = new byte[Short.toUnsignedInt(buffer.getShort())];
+                    buffer.get(text);
+                    yield new String(text, StandardCharsets.UTF_8);
+                }
+                default -> throw new MessageConversionException("Tipo de correlationId desconocido");
+            };
+
+            Priority priority = null;
+            if (version >= VERSION_2) {
+                int priorityLength = Byte.toUnsignedInt(buffer.get());
+                if (priorityLength > 0) {
+                    byte[] code = new byte[priorityLength];
+                    buffer.get(code);
+                    priority = Priority.fromCode(new String(code, StandardCharsets.US_ASCII));
+                }
+            }
+
+            Integer orderingKey = null;
+            if (version >= VERSION_3 && buffer.get() == 1) {
+                orderingKey = buffer.getInt();
+            }
+
+            Instant notBefore = null;
+            if (version >= VERSION_4 && buffer.get() == 1) {
+                notBefore = Instant.ofEpochMilli(buffer.getLong());
+            }
+
+            return NotificationEvent.builder()
+                    .notificationId(notificationId)
+                    .channel(channel)
+                    .priority(priority)
+                    .orderingKey(orderingKey)
+                    .createdAt(createdAt)
+                    .attemptNumber(attemptNumber)
+                    .correlationId(correlationId)
+                    .notBefore(notBefore)
+                    .build();
+
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new MessageConversionException("NotificationEvent binario corrupto", e);
+        }
+    }
+
+    /**
+     * Los correlationId generados por el servicio son UUID y ocupan 16 bytes en
+     * lugar de 36; solo se usa esa forma si el texto se reconstruye idéntico.
+     */
+    private static UUID parseUuid(String value) {
+        if (value == null || value.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(value);
+            return uuid.toString().equals(value) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
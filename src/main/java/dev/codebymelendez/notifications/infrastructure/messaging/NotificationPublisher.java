@@ -1,13 +1,21 @@
 package dev.codebymelendez.notifications.infrastructure.messaging;
 
 import dev.codebymelendez.notifications.application.event.NotificationEvent;
+import dev.codebymelendez.notifications.config.ChannelTopology;
+import dev.codebymelendez.notifications.config.RetryTopology;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 
 @Slf4j
@@ -16,6 +24,9 @@ import java.util.UUID;
 public class NotificationPublisher {
     
     private final RabbitTemplate rabbitTemplate;
+    private final ChannelTopology channelTopology;
+    private final RetryTopology retryTopology;
+    private final ConfirmBatchingPublisher confirmBatchingPublisher;
     
     @Value("${app.rabbitmq.exchange.notifications}")
     private String exchange;
@@ -23,6 +34,9 @@ public class NotificationPublisher {
     @Value("${app.rabbitmq.routing-key.notifications}")
     private String routingKey;
     
+    @Value("${app.rabbitmq.exchange.retry}")
+    private String retryExchange;
+    
     public void publish(NotificationEvent event) {
         log.info("Publicando evento: notificationId={}, attempt={}, correlationId={}", 
                 event.getNotificationId(), 
@@ -30,10 +44,11 @@ public class NotificationPublisher {
                 event.getCorrelationId());
         
         try {
-            rabbitTemplate.convertAndSend(exchange, routingKey, event);
+            String key = routingKeyFor(event);
+            rabbitTemplate.convertAndSend(exchange, key, event);
             
             log.debug("Evento publicado exitosamente en exchange={}, routingKey={}", 
-                    exchange, routingKey);
+                    exchange, key);
             
         } catch (Exception e) {
             log.error("Error al publicar evento: notificationId={}, error={}", 
@@ -42,18 +57,163 @@ public class NotificationPublisher {
         }
     }
     
+    /**
+     * Publica todos los eventos reutilizando un único canal AMQP, en lugar de
+     * obtener y devolver un canal de la caché por cada mensaje.
+     */
+    public void publishAll(List<NotificationEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        log.info("Publicando lote de {} eventos", events.size());
+
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (NotificationEvent event : events) {
+                    operations.convertAndSend(exchange, routingKeyFor(event), event);
+                }
+                return null;
+            });
+
+            log.debug("Lote publicado exitosamente en exchange={}", exchange);
+
+        } catch (Exception e) {
+            log.error("Error al publicar lote de {} eventos: error={}",
+                    events.size(), e.getMessage(), e);
+            throw new RuntimeException("Error al publicar lote de notificaciones en RabbitMQ", e);
+        }
+    }
+
+    /**
+     * Publica el lote con publisher confirms: envía todos los mensajes y después
+     * espera las confirmaciones, en lugar de esperar una por una.
+     *
+     * @return los eventos confirmados (ack) por el broker; los que recibieron nack
+     *         o no se confirmaron dentro del timeout quedan fuera
+     */
+    public List<NotificationEvent> publishConfirmed(List<NotificationEvent> events, long timeoutMillis) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+
+        List<CorrelationData> correlations = new ArrayList<>(events.size());
+
+        rabbitTemplate.invoke(operations -> {
+            for (NotificationEvent event : events) {
+                CorrelationData correlation = new CorrelationData(event.getCorrelationId());
+                correlations.add(correlation);
+                operations.convertAndSend(exchange, routingKeyFor(event), event, correlation);
+            }
+            return null;
+        });
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        List<NotificationEvent> confirmed = new ArrayList<>(events.size());
+
+        for (int i = 0; i < events.size(); i++) {
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                CorrelationData.Confirm confirm = correlations.get(i).getFuture()
+                        .get(remaining, TimeUnit.NANOSECONDS);
+                if (confirm.isAck()) {
+                    confirmed.add(events.get(i));
+                } else {
+                    log.warn("Evento rechazado por el broker (nack): notificationId={}, reason={}",
+                            events.get(i).getNotificationId(), confirm.getReason());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("Confirmación no recibida: notificationId={}, error={}",
+                        events.get(i).getNotificationId(), e.getMessage());
+            }
+        }
+
+        log.debug("Lote publicado con confirms: {}/{} confirmados", confirmed.size(), events.size());
+        return confirmed;
+    }
+
+    /**
+     * Publicación asíncrona con confirms: el evento se agrupa con otros del mismo
+     * canal y el futuro se completa con el ack del broker (ver
+     * {@link ConfirmBatchingPublisher}).
+     */
+    public CompletableFuture<Void> publishAsync(NotificationEvent event) {
+        return confirmBatchingPublisher.publish(exchange, routingKeyFor(event), event, event.getCorrelationId());
+    }
+
     public void publish(UUID notificationId) {
         NotificationEvent event = NotificationEvent.of(notificationId);
         publish(event);
     }
     
+    /**
+     * Publica el siguiente intento en el nivel de backoff que le corresponde
+     * según su número de reintento.
+     */
     public void publishRetry(NotificationEvent originalEvent) {
+        publishRetry(originalEvent, 0);
+    }
+    
+    /**
+     * Como {@link #publishRetry(NotificationEvent)}, pero esperando al menos
+     * {@code minDelayMillis} (por ejemplo, un retry-after del proveedor).
+     *
+     * <p>Si la espera supera el nivel más largo, el evento lleva
+     * {@link NotificationEvent#getNotBefore()} y el consumer lo vuelve a aparcar
+     * hasta que se cumpla, en lugar de reintentar antes de lo pedido.
+     */
+    public void publishRetry(NotificationEvent originalEvent, long minDelayMillis) {
         NotificationEvent retryEvent = originalEvent.forRetry();
+        if (minDelayMillis > retryTopology.maxDelay()) {
+            retryEvent.setNotBefore(Instant.now().plusMillis(minDelayMillis));
+        }
+        long delay = retryTopology.parkDelay(Math.max(
+                retryTopology.delayForRetry(retryEvent.getAttemptNumber() - 1), minDelayMillis));
         
-        log.info("Publicando reintento: notificationId={}, attempt={}", 
+        log.info("Publicando reintento: notificationId={}, attempt={}, delay={}ms, notBefore={}", 
                 retryEvent.getNotificationId(), 
-                retryEvent.getAttemptNumber());
+                retryEvent.getAttemptNumber(),
+                delay,
+                retryEvent.getNotBefore());
+        
+        publishDelayed(retryEvent, delay);
+    }
+    
+    /**
+     * Publica el evento tal cual en la cola de retardo que corresponde a
+     * {@code delayMillis} ({@link RetryTopology#parkDelay}). Al expirar, el broker
+     * lo devuelve a la cola de su canal; una espera más larga que el nivel
+     * elegido se completa en los siguientes aparcamientos.
+     */
+    public void publishDelayed(NotificationEvent event, long delayMillis) {
+        String delay = String.valueOf(retryTopology.parkDelay(delayMillis));
         
-        publish(retryEvent);
+        try {
+            rabbitTemplate.convertAndSend(retryExchange, routingKeyFor(event), event, message -> {
+                message.getMessageProperties().setHeader(RetryTopology.DELAY_HEADER, delay);
+                return message;
+            });
+            
+            log.debug("Evento diferido: notificationId={}, delay={}ms", event.getNotificationId(), delay);
+            
+        } catch (Exception e) {
+            log.error("Error al publicar evento diferido: notificationId={}, error={}", 
+                    event.getNotificationId(), e.getMessage(), e);
+            throw new RuntimeException("Error al publicar reintento en RabbitMQ", e);
+        }
+    }
+    
+    /**
+     * Routing key de la cola del canal (o de su carril exprés si la prioridad es
+     * HIGH, o del shard del destinatario si el canal tiene entrega ordenada);
+     * los eventos sin canal van a la cola compartida.
+     */
+    private String routingKeyFor(NotificationEvent event) {
+        return event.getChannel() != null
+                ? channelTopology.routingKey(event.getChannel(), event.getPriority(), event.getOrderingKey())
+                : routingKey;
     }
 }
@@ -0,0 +1,127 @@
+package dev.codebymelendez.notifications.infrastructure.messaging;
+
+import dev.codebymelendez.notifications.application.event.NotificationEvent;
+import dev.codebymelendez.notifications.application.event.NotificationEventFactory;
+import dev.codebymelendez.notifications.domain.model.Notification;
+import dev.codebymelendez.notifications.domain.model.OutboxMessage;
+import dev.codebymelendez.notifications.domain.repository.NotificationRepository;
+import dev.codebymelendez.notifications.domain.repository.OutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Drena el outbox hacia RabbitMQ.
+ *
+ * <p>Cada lote se procesa en una transacción: se bloquean las filas con
+ * {@code FOR UPDATE SKIP LOCKED}, se publican con publisher confirms y solo las
+ * confirmadas se borran del outbox y pasan a QUEUED. Las no confirmadas quedan
+ * para el siguiente ciclo (entrega at-least-once).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+    private final NotificationRepository notificationRepository;
+    private final NotificationPublisher notificationPublisher;
+    private final NotificationEventFactory notificationEventFactory;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.outbox.confirm-timeout:5000}")
+    private long confirmTimeout;
+
+    public OutboxRelay(
+            OutboxRepository outboxRepository,
+            NotificationRepository notificationRepository,
+            NotificationPublisher notificationPublisher,
+            NotificationEventFactory notificationEventFactory,
+            TransactionTemplate transactionTemplate) {
+        this.outboxRepository = outboxRepository;
+        this.notificationRepository = notificationRepository;
+        this.notificationPublisher = notificationPublisher;
+        this.notificationEventFactory = notificationEventFactory;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:200}")
+    public void drain() {
+        int relayed;
+        do {
+            Integer count = transactionTemplate.execute(status -> relayBatch());
+            relayed = count != null ? count : 0;
+        } while (relayed == batchSize);
+    }
+
+    private int relayBatch() {
+        List<OutboxMessage> messages = outboxRepository.lockNextBatch(batchSize);
+        if (messages.isEmpty()) {
+            return 0;
+        }
+
+        Map<NotificationEvent, OutboxMessage> sources = new IdentityHashMap<>(messages.size());
+        List<NotificationEvent> events = messages.stream()
+                .map(message -> {
+                    NotificationEvent event = NotificationEvent.fromOutbox(message);
+                    sources.put(event, message);
+                    return event;
+                })
+                .toList();
+
+        if (notificationEventFactory.isFatEnabled()) {
+            attachPayloads(events);
+        }
+
+        List<NotificationEvent> confirmed = notificationPublisher.publishConfirmed(events, confirmTimeout);
+
+        List<Long> relayedIds = confirmed.stream()
+                .map(event -> sources.get(event).getId())
+                .toList();
+        outboxRepository.deleteAllByIdInBatch(relayedIds);
+
+        notificationRepository.markAllAsQueued(confirmed.stream()
+                .map(NotificationEvent::getNotificationId)
+                .toList());
+
+        if (confirmed.size() < messages.size()) {
+            log.warn("Relay parcial del outbox: {}/{} confirmados, el resto se reintentará",
+                    confirmed.size(), messages.size());
+        } else {
+            log.debug("Relay del outbox: {} eventos publicados", confirmed.size());
+        }
+
+        return confirmed.size();
+    }
+
+    /**
+     * Modo fat: una sola lectura por lote para que el consumer no tenga que
+     * leer cada notificación.
+     */
+    private void attachPayloads(List<NotificationEvent> events) {
+        Map<UUID, Notification> notifications = new HashMap<>(events.size());
+        notificationRepository.findAllForDispatch(events.stream()
+                        .map(NotificationEvent::getNotificationId)
+                        .toList())
+                .forEach(notification -> notifications.put(notification.getId(), notification));
+
+        for (NotificationEvent event : events) {
+            Notification notification = notifications.get(event.getNotificationId());
+            if (notification != null) {
+                notificationEventFactory.attachPayload(event, notification);
+            }
+        }
+    }
+}
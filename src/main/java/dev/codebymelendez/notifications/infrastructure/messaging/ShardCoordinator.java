@@ -0,0 +1,193 @@
+package dev.codebymelendez.notifications.infrastructure.messaging;
+
+import dev.codebymelendez.notifications.config.ChannelTopology;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.repository.ConsumerInstanceRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reparte los shards de los canales con entrega ordenada entre las instancias vivas.
+ *
+ * <p>Cada instancia renueva su heartbeat en {@code consumer_instances} y asigna
+ * cada shard con rendezvous hashing (gana la instancia con mayor hash de
+ * (instancia, shard)) sobre las instancias con heartbeat reciente. Todas llegan
+ * al mismo reparto sin coordinarse, y cuando una instancia entra o sale solo
+ * cambian de dueño los shards que le corresponden. Los containers de los shards
+ * propios se arrancan y los ajenos se paran.
+ *
+ * <p>Durante un cambio de dueño dos instancias pueden estar suscritas a la vez;
+ * {@code x-single-active-consumer} garantiza que solo una recibe mensajes.
+ */
+@Slf4j
+@Component
+public class ShardCoordinator {
+
+    private final RabbitListenerEndpointRegistry registry;
+    private final ChannelTopology channelTopology;
+    private final ConsumerInstanceRepository consumerInstanceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String instanceId;
+    private final Duration instanceTimeout;
+
+    private volatile List<String> liveInstances = List.of();
+
+    public ShardCoordinator(
+            RabbitListenerEndpointRegistry registry,
+            ChannelTopology channelTopology,
+            ConsumerInstanceRepository consumerInstanceRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.ordering.instance-id:}") String instanceId,
+            @Value("${app.ordering.instance-timeout:15s}") Duration instanceTimeout) {
+        this.registry = registry;
+        this.channelTopology = channelTopology;
+        this.consumerInstanceRepository = consumerInstanceRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.instanceId = instanceId.isBlank() ? defaultInstanceId() : instanceId;
+        this.instanceTimeout = instanceTimeout;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.ordering.heartbeat-interval:5000}")
+    public void rebalance() {
+        if (Arrays.stream(Channel.values()).noneMatch(channelTopology::isOrdered)) {
+            return;
+        }
+
+        List<String> live = transactionTemplate.execute(status -> {
+            consumerInstanceRepository.heartbeat(instanceId);
+            consumerInstanceRepository.deleteStale(Instant.now().minus(instanceTimeout.multipliedBy(10)));
+            return consumerInstanceRepository.findLiveInstanceIds(Instant.now().minus(instanceTimeout));
+        });
+        if (!live.contains(instanceId)) {
+            live = new ArrayList<>(live);
+            live.add(instanceId);
+        }
+        if (!live.equals(liveInstances)) {
+            log.info("Instancias para el reparto de shards: {} (esta: {})", live, instanceId);
+            liveInstances = List.copyOf(live);
+        }
+
+        for (Channel channel : Channel.values()) {
+            if (!channelTopology.isOrdered(channel)) {
+                continue;
+            }
+            for (int shard = 0; shard < channelTopology.shards(channel); shard++) {
+                apply(channel, shard, instanceId.equals(owner(channel, shard, liveInstances)));
+            }
+        }
+    }
+
+    /**
+     * Salida ordenada: sin el heartbeat, el resto de instancias toma sus shards
+     * en su siguiente ciclo en lugar de esperar al timeout.
+     */
+    @PreDestroy
+    public void leave() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> consumerInstanceRepository.deleteById(instanceId));
+        } catch (RuntimeException e) {
+            log.warn("No se pudo eliminar el registro de la instancia {}: {}", instanceId, e.getMessage());
+        }
+    }
+
+    public List<ShardAssignment> assignments() {
+        List<String> live = liveInstances;
+        List<ShardAssignment> assignments = new ArrayList<>();
+        for (Channel channel : Channel.values()) {
+            if (!channelTopology.isOrdered(channel)) {
+                continue;
+            }
+            for (int shard = 0; shard < channelTopology.shards(channel); shard++) {
+                MessageListenerContainer container =
+                        registry.getListenerContainer(channelTopology.shardListenerId(channel, shard));
+                assignments.add(new ShardAssignment(channel, shard, channelTopology.shardQueue(channel, shard),
+                        owner(channel, shard, live), container != null && container.isRunning()));
+            }
+        }
+        return assignments;
+    }
+
+    public String instanceId() {
+        return instanceId;
+    }
+
+    private void apply(Channel channel, int shard, boolean owned) {
+        MessageListenerContainer container =
+                registry.getListenerContainer(channelTopology.shardListenerId(channel, shard));
+        if (container == null) {
+            return;
+        }
+        if (owned && !container.isRunning()) {
+            container.start();
+            log.info("Shard asignado a esta instancia: queue={}", channelTopology.shardQueue(channel, shard));
+        } else if (!owned && container.isRunning()) {
+            container.stop();
+            log.info("Shard cedido a otra instancia: queue={}", channelTopology.shardQueue(channel, shard));
+        }
+    }
+
+    private static String owner(Channel channel, int shard, List<String> instances) {
+        String owner = null;
+        long best = Long.MIN_VALUE;
+        long shardHash = hash(channel.getCode() + "#" + shard);
+        for (String instance : instances) {
+            long score = mix(hash(instance) ^ shardHash);
+            if (owner == null || score > best) {
+                best = score;
+                owner = instance;
+            }
+        }
+        return owner;
+    }
+
+    /** FNV-1a de 64 bits. */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /** Finalizador de SplitMix64. */
+    private static long mix(long value) {
+        long z = value + 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "instance";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * @param owner        instancia a la que corresponde el shard según el último reparto
+     * @param runningHere  si el container del shard está activo en esta instancia
+     */
+    public record ShardAssignment(Channel channel, int shard, String queue, String owner, boolean runningHere) {
+    }
+}
@@ -0,0 +1,105 @@
+package dev.codebymelendez.notifications.infrastructure.persistence;
+
+import dev.codebymelendez.notifications.domain.model.DeliveryAttempt;
+import dev.codebymelendez.notifications.domain.repository.DeliveryAttemptRepositoryCustom;
+import dev.codebymelendez.notifications.domain.repository.StatusCounterRecorder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+
+@RequiredArgsConstructor
+public class DeliveryAttemptRepositoryCustomImpl implements DeliveryAttemptRepositoryCustom {
+
+    private static final String INSERT_SQL = """
+        INSERT INTO delivery_attempts
+            (id, notification_id, attempt_number, status, error_message, error_code, retry_decision, attempted_at,
+             notification_created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    // Con la clave de partición el MAX solo lee la partición de la notificación
+    private static final String APPEND_SQL = """
+        INSERT INTO delivery_attempts
+            (id, notification_id, attempt_number, status, error_message, error_code, retry_decision, attempted_at,
+             notification_created_at)
+        SELECT ?, ?, COALESCE(MAX(attempt_number), 0) + 1, ?, ?, ?, ?, ?, ?
+        FROM delivery_attempts
+        WHERE notification_id = ? AND notification_created_at = ?
+        ON CONFLICT ON CONSTRAINT uq_notification_attempt DO NOTHING
+        RETURNING attempt_number
+        """;
+
+    private static final int APPEND_TRIES = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StatusCounterRecorder statusCounters;
+
+    @Value("${app.batch.jdbc-batch-size:1000}")
+    private int jdbcBatchSize;
+
+    @Override
+    public void insertAll(List<DeliveryAttempt> attempts) {
+        if (attempts.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, attempts, jdbcBatchSize, (ps, attempt) -> {
+            ps.setObject(1, attempt.getId());
+            ps.setObject(2, attempt.getNotification().getId());
+            ps.setInt(3, attempt.getAttemptNumber());
+            ps.setString(4, attempt.getStatus().name());
+            ps.setString(5, attempt.getErrorMessage());
+            ps.setString(6, attempt.getErrorCode());
+            ps.setString(7, attempt.getRetryDecision());
+            ps.setTimestamp(8, Timestamp.from(attempt.getAttemptedAt()));
+            ps.setTimestamp(9, Timestamp.from(notificationCreatedAt(attempt)));
+        });
+
+        statusCounters.attempted(attempts.stream().map(DeliveryAttemptRepositoryCustomImpl::counted).toList());
+    }
+
+    /**
+     * Dos appends concurrentes de la misma notificación pueden calcular el mismo
+     * número: el que llega segundo no inserta (ON CONFLICT DO NOTHING, sin
+     * abortar la transacción) y repite el cálculo, que ya ve la fila del otro.
+     */
+    @Override
+    public int append(DeliveryAttempt attempt) {
+        Timestamp notificationCreatedAt = Timestamp.from(notificationCreatedAt(attempt));
+        for (int i = 0; i < APPEND_TRIES; i++) {
+            List<Integer> inserted = jdbcTemplate.queryForList(APPEND_SQL, Integer.class,
+                    attempt.getId(),
+                    attempt.getNotification().getId(),
+                    attempt.getStatus().name(),
+                    attempt.getErrorMessage(),
+                    attempt.getErrorCode(),
+                    attempt.getRetryDecision(),
+                    Timestamp.from(attempt.getAttemptedAt()),
+                    notificationCreatedAt,
+                    attempt.getNotification().getId(),
+                    notificationCreatedAt);
+            if (!inserted.isEmpty()) {
+                attempt.setAttemptNumber(inserted.getFirst());
+                statusCounters.attempted(List.of(counted(attempt)));
+                return inserted.getFirst();
+            }
+        }
+        throw new IllegalStateException("Número de intento en conflicto tras " + APPEND_TRIES
+                + " reintentos: notification=" + attempt.getNotification().getId());
+    }
+
+    private static Instant notificationCreatedAt(DeliveryAttempt attempt) {
+        return attempt.getNotificationCreatedAt() != null
+                ? attempt.getNotificationCreatedAt()
+                : attempt.getNotification().getCreatedAt();
+    }
+
+    private static StatusCounterRecorder.Attempt counted(DeliveryAttempt attempt) {
+        return new StatusCounterRecorder.Attempt(attempt.getNotification().getChannel(), attempt.getStatus());
+    }
+}
@@ -0,0 +1,36 @@
+package dev.codebymelendez.notifications.infrastructure.persistence;
+
+import dev.codebymelendez.notifications.domain.repository.IdempotencyKeyRepositoryCustom;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+
+@RequiredArgsConstructor
+public class IdempotencyKeyRepositoryCustomImpl implements IdempotencyKeyRepositoryCustom {
+
+    private static final String RESERVE_SQL = """
+        INSERT INTO idempotency_keys (idempotency_key, request_hash)
+        VALUES (?, ?)
+        ON CONFLICT (idempotency_key) DO NOTHING
+        """;
+
+    private static final String BIND_SQL = """
+        UPDATE idempotency_keys
+        SET notification_id = ?
+        WHERE idempotency_key = ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public boolean reserve(String key, String requestHash) {
+        return jdbcTemplate.update(RESERVE_SQL, key, requestHash) == 1;
+    }
+
+    @Override
+    public void bind(String key, UUID notificationId) {
+        jdbcTemplate.update(BIND_SQL, notificationId, key);
+    }
+}
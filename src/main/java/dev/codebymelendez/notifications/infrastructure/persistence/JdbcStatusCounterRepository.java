@@ -0,0 +1,89 @@
+package dev.codebymelendez.notifications.infrastructure.persistence;
+
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.repository.StatusCounterRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Implementación JDBC de {@link StatusCounterRepository}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JdbcStatusCounterRepository implements StatusCounterRepository {
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO status_counters (bucket_start, kind, channel, status, entered, exited)
+        VALUES (?, ?, ?, ?, ?, ?)
+        ON CONFLICT (bucket_start, kind, channel, status)
+        DO UPDATE SET entered = status_counters.entered + EXCLUDED.entered,
+                      exited = status_counters.exited + EXCLUDED.exited
+        """;
+
+    private static final String TOTALS_SQL = """
+        SELECT kind, channel, status, SUM(entered - exited)
+        FROM status_counters
+        GROUP BY kind, channel, status
+        """;
+
+    private static final String HISTORY_SQL = """
+        SELECT bucket_start, kind, channel, status, entered, exited
+        FROM status_counters
+        WHERE bucket_start >= ? AND bucket_start < ?
+        ORDER BY bucket_start, kind, channel, status
+        """;
+
+    // El intervalo diario destino no se borra: acumula los demás de su día
+    private static final String COMPACT_SQL = """
+        WITH moved AS (
+            DELETE FROM status_counters
+            WHERE bucket_start < ? AND bucket_start <> date_trunc('day', bucket_start)
+            RETURNING bucket_start, kind, channel, status, entered, exited
+        )
+        INSERT INTO status_counters (bucket_start, kind, channel, status, entered, exited)
+        SELECT date_trunc('day', bucket_start), kind, channel, status, SUM(entered), SUM(exited)
+        FROM moved
+        GROUP BY 1, 2, 3, 4
+        ON CONFLICT (bucket_start, kind, channel, status)
+        DO UPDATE SET entered = status_counters.entered + EXCLUDED.entered,
+                      exited = status_counters.exited + EXCLUDED.exited
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void add(List<Row> deltas) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, deltas, deltas.size(), (ps, row) -> {
+            ps.setTimestamp(1, Timestamp.from(row.bucketStart()));
+            ps.setString(2, row.kind());
+            ps.setString(3, row.channel().name());
+            ps.setString(4, row.status());
+            ps.setLong(5, row.entered());
+            ps.setLong(6, row.exited());
+        });
+    }
+
+    @Override
+    public List<Row> totals() {
+        return jdbcTemplate.query(TOTALS_SQL, (rs, rowNum) -> new Row(
+                null, rs.getString(1), Channel.valueOf(rs.getString(2)), rs.getString(3), rs.getLong(4), 0));
+    }
+
+    @Override
+    public List<Row> history(Instant from, Instant to) {
+        return jdbcTemplate.query(HISTORY_SQL, (rs, rowNum) -> new Row(
+                        rs.getTimestamp(1).toInstant(), rs.getString(2), Channel.valueOf(rs.getString(3)),
+                        rs.getString(4), rs.getLong(5), rs.getLong(6)),
+                Timestamp.from(from), Timestamp.from(to));
+    }
+
+    @Override
+    public int compact(Instant before) {
+        return jdbcTemplate.update(COMPACT_SQL, Timestamp.from(before));
+    }
+}
@@ -0,0 +1,307 @@
+package dev.codebymelendez.notifications.infrastructure.persistence;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.DeliveryAttempt;
+import dev.codebymelendez.notifications.domain.model.DeliveryAttemptStatus;
+import dev.codebymelendez.notifications.domain.model.Notification;
+import dev.codebymelendez.notifications.domain.model.NotificationStatus;
+import dev.codebymelendez.notifications.domain.model.Priority;
+import dev.codebymelendez.notifications.domain.repository.NotificationArchiveRepositoryCustom;
+import dev.codebymelendez.notifications.domain.repository.StatusCounterRecorder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Implementación JDBC de {@link NotificationArchiveRepositoryCustom}.
+ *
+ * <p>Un bloque es un array JSON de {@link ArchivedNotification} comprimido con
+ * gzip. Leer una notificación archivada descomprime su bloque entero; es un
+ * camino poco frecuente y el bloque está acotado por {@code app.archive.chunk-size}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationArchiveRepositoryCustomImpl implements NotificationArchiveRepositoryCustom {
+
+    // Ordenado por la clave de partición: los primeros bloques vacían las particiones más antiguas
+    private static final String LOCK_TERMINAL_SQL = """
+        SELECT id, channel, priority, recipient, subject, content, CAST(metadata AS TEXT) AS metadata,
+               status, failure_reason, created_at, updated_at, delivered_at
+        FROM notifications
+        WHERE status IN ('DELIVERED', 'FAILED') AND created_at < ?
+        ORDER BY created_at
+        LIMIT ?
+        FOR UPDATE SKIP LOCKED
+        """;
+
+    private static final String SELECT_ATTEMPTS_SQL = """
+        SELECT id, notification_id, attempt_number, status, error_message, error_code,
+               retry_decision, attempted_at
+        FROM delivery_attempts
+        WHERE notification_id = ANY(?) AND notification_created_at < ?
+        ORDER BY notification_id, attempt_number
+        """;
+
+    private static final String INSERT_BLOCK_SQL = """
+        INSERT INTO notification_archive_blocks (created_from, created_to, item_count, raw_bytes, payload)
+        VALUES (?, ?, ?, ?, ?)
+        RETURNING id
+        """;
+
+    private static final String INSERT_INDEX_SQL = """
+        INSERT INTO notification_archive_index (notification_id, block_id) VALUES (?, ?)
+        """;
+
+    private static final String FIND_BLOCK_SQL = """
+        SELECT b.payload
+        FROM notification_archive_index i
+        JOIN notification_archive_blocks b ON b.id = i.block_id
+        WHERE i.notification_id = ?
+        """;
+
+    private static final TypeReference<List<ArchivedNotification>> BLOCK_TYPE = new TypeReference<>() {
+    };
+
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final StatusCounterRecorder statusCounters;
+
+    @Override
+    public ArchiveChunk archiveTerminal(Instant createdBefore, int limit) {
+        List<ArchivedNotification> rows = jdbcTemplate.query(
+                LOCK_TERMINAL_SQL, this::mapNotification, Timestamp.from(createdBefore), limit);
+        if (rows.isEmpty()) {
+            return ArchiveChunk.EMPTY;
+        }
+
+        UUID[] ids = rows.stream().map(ArchivedNotification::id).toArray(UUID[]::new);
+        Map<UUID, List<ArchivedAttempt>> attempts = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(SELECT_ATTEMPTS_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", ids));
+            ps.setTimestamp(2, Timestamp.from(createdBefore));
+            return ps;
+        }, rs -> {
+            attempts.computeIfAbsent(rs.getObject("notification_id", UUID.class), k -> new ArrayList<>())
+                    .add(mapAttempt(rs));
+        });
+
+        List<ArchivedNotification> block = rows.stream()
+                .map(row -> row.withAttempts(attempts.getOrDefault(row.id(), List.of())))
+                .toList();
+        byte[] json = toJson(block);
+        byte[] payload = gzip(json);
+
+        Long blockId = jdbcTemplate.queryForObject(INSERT_BLOCK_SQL, Long.class,
+                Timestamp.from(rows.getFirst().createdAt()), Timestamp.from(rows.getLast().createdAt()),
+                rows.size(), json.length, payload);
+
+        jdbcTemplate.batchUpdate(INSERT_INDEX_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setObject(1, row.id());
+            ps.setLong(2, blockId);
+        });
+
+        int deletedAttempts = jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement(
+                    "DELETE FROM delivery_attempts WHERE notification_id = ANY(?) AND notification_created_at < ?");
+            ps.setArray(1, con.createArrayOf("uuid", ids));
+            ps.setTimestamp(2, Timestamp.from(createdBefore));
+            return ps;
+        });
+        jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement("DELETE FROM notifications WHERE id = ANY(?) AND created_at < ?");
+            ps.setArray(1, con.createArrayOf("uuid", ids));
+            ps.setTimestamp(2, Timestamp.from(createdBefore));
+            return ps;
+        });
+
+        Map<Channel, Map<NotificationStatus, Long>> removed = new EnumMap<>(Channel.class);
+        rows.forEach(row -> removed.computeIfAbsent(row.channel(), c -> new EnumMap<>(NotificationStatus.class))
+                .merge(row.status(), 1L, Long::sum));
+        statusCounters.removed(removed.entrySet().stream()
+                .flatMap(byChannel -> byChannel.getValue().entrySet().stream()
+                        .map(e -> new StatusCounterRecorder.Removed(byChannel.getKey(), e.getKey(), e.getValue())))
+                .toList());
+
+        log.debug("Bloque de archivo {}: {} notificaciones, {} intentos, {} → {} bytes",
+                blockId, rows.size(), deletedAttempts, json.length, payload.length);
+        return new ArchiveChunk(rows.size(), deletedAttempts, json.length, payload.length);
+    }
+
+    @Override
+    public Optional<Notification> findArchived(UUID id) {
+        List<byte[]> payloads = jdbcTemplate.query(FIND_BLOCK_SQL, (rs, rowNum) -> rs.getBytes(1), id);
+        if (payloads.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return fromJson(gunzip(payloads.getFirst())).stream()
+                .filter(archived -> archived.id().equals(id))
+                .findFirst()
+                .map(this::toEntity);
+    }
+
+    private ArchivedNotification mapNotification(ResultSet rs, int rowNum) throws SQLException {
+        String metadata = rs.getString("metadata");
+        return new ArchivedNotification(
+                rs.getObject("id", UUID.class),
+                Channel.valueOf(rs.getString("channel")),
+                Priority.valueOf(rs.getString("priority")),
+                rs.getString("recipient"),
+                rs.getString("subject"),
+                rs.getString("content"),
+                metadata != null ? readMetadata(metadata) : null,
+                NotificationStatus.valueOf(rs.getString("status")),
+                rs.getString("failure_reason"),
+                toInstant(rs.getTimestamp("created_at")),
+                toInstant(rs.getTimestamp("updated_at")),
+                toInstant(rs.getTimestamp("delivered_at")),
+                List.of());
+    }
+
+    private ArchivedAttempt mapAttempt(ResultSet rs) throws SQLException {
+        return new ArchivedAttempt(
+                rs.getObject("id", UUID.class),
+                rs.getInt("attempt_number"),
+                DeliveryAttemptStatus.valueOf(rs.getString("status")),
+                rs.getString("error_message"),
+                rs.getString("error_code"),
+                rs.getString("retry_decision"),
+                toInstant(rs.getTimestamp("attempted_at")));
+    }
+
+    private Notification toEntity(ArchivedNotification archived) {
+        Notification notification = Notification.builder()
+                .id(archived.id())
+                .channel(archived.channel())
+                .priority(archived.priority())
+                .recipient(archived.recipient())
+                .subject(archived.subject())
+                .content(archived.content())
+                .metadata(archived.metadata())
+                .status(archived.status())
+                .failureReason(archived.failureReason())
+                .createdAt(archived.createdAt())
+                .updatedAt(archived.updatedAt())
+                .deliveredAt(archived.deliveredAt())
+                .build();
+
+        for (ArchivedAttempt attempt : archived.attempts()) {
+            notification.getDeliveryAttempts().add(DeliveryAttempt.builder()
+                    .id(attempt.id())
+                    .notification(notification)
+                    .attemptNumber(attempt.attemptNumber())
+                    .status(attempt.status())
+                    .errorMessage(attempt.errorMessage())
+                    .errorCode(attempt.errorCode())
+                    .retryDecision(attempt.retryDecision())
+                    .attemptedAt(attempt.attemptedAt())
+                    .build());
+        }
+        return notification;
+    }
+
+    private Map<String, Object> readMetadata(String json) {
+        try {
+            return objectMapper.readValue(json, METADATA_TYPE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Metadata no legible al archivar", e);
+        }
+    }
+
+    private byte[] toJson(List<ArchivedNotification> block) {
+        try {
+            return objectMapper.writeValueAsBytes(block);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Bloque de archivo no serializable a JSON", e);
+        }
+    }
+
+    private List<ArchivedNotification> fromJson(byte[] json) {
+        try {
+            return objectMapper.readValue(json, BLOCK_TYPE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Bloque de archivo corrupto", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] data) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Bloque de archivo corrupto", e);
+        }
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+
+    /**
+     * Formato de una notificación dentro de un bloque. Añadir campos es
+     * compatible: los bloques antiguos los leen como null.
+     */
+    record ArchivedNotification(
+            UUID id,
+            Channel channel,
+            Priority priority,
+            String recipient,
+            String subject,
+            String content,
+            Map<String, Object> metadata,
+            NotificationStatus status,
+            String failureReason,
+            Instant createdAt,
+            Instant updatedAt,
+            Instant deliveredAt,
+            List<ArchivedAttempt> attempts) {
+
+        ArchivedNotification withAttempts(List<ArchivedAttempt> attempts) {
+            return new ArchivedNotification(id, channel, priority, recipient, subject, content, metadata,
+                    status, failureReason, createdAt, updatedAt, deliveredAt, attempts);
+        }
+    }
+
+    record ArchivedAttempt(
+            UUID id,
+            int attemptNumber,
+            DeliveryAttemptStatus status,
+            String errorMessage,
+            String errorCode,
+            String retryDecision,
+            Instant attemptedAt) {
+    }
+}
@@ -0,0 +1,410 @@
+package dev.codebymelendez.notifications.infrastructure.persistence;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.Notification;
+import dev.codebymelendez.notifications.domain.model.NotificationStatus;
+import dev.codebymelendez.notifications.domain.repository.NotificationRepositoryCustom;
+import dev.codebymelendez.notifications.domain.repository.StatusCounterRecorder;
+import dev.codebymelendez.notifications.domain.repository.StatusCounterRecorder.Transition;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Implementación JDBC de {@link NotificationRepositoryCustom}.
+ *
+ * <p>Con {@code reWriteBatchedInserts=true} el driver de PostgreSQL reescribe
+ * cada lote como un único INSERT multi-fila.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationRepositoryCustomImpl implements NotificationRepositoryCustom {
+
+    private static final int MAX_TRANSITION_ROUNDS = 3;
+
+    private static final String INSERT_SQL = """
+        INSERT INTO notifications (id, channel, priority, recipient, subject, content, metadata, status)
+        VALUES (?, ?, ?, ?, ?, ?, CAST(? AS jsonb), ?)
+        """;
+
+    private static final String MARK_QUEUED_SQL = """
+        UPDATE notifications
+        SET status = 'QUEUED', updated_at = NOW(), version = version + 1
+        WHERE id = ANY(?) AND status = 'PENDING'
+        RETURNING channel
+        """;
+
+    /**
+     * Claim condicionado sin bloqueo previo. {@code c} es la imagen previa de
+     * cada fila, leída en la instantánea de la sentencia: si otra transacción la
+     * cambia antes del UPDATE, PostgreSQL reevalúa el WHERE sobre la versión
+     * vigente y {@code n.status = c.status} la descarta, así que el estado
+     * devuelto para los contadores es siempre el que había de verdad.
+     */
+    private static final String CLAIM_SQL = """
+        UPDATE notifications n
+        SET status = 'PROCESSING', claimed_attempt = c.attempt, claimed_at = NOW(),
+            updated_at = NOW(), version = n.version + 1
+        FROM (
+            SELECT cur.id, cur.created_at, cur.status, r.attempt
+            FROM unnest(CAST(? AS uuid[]), CAST(? AS int[])) AS r(id, attempt)
+            JOIN notifications cur ON cur.id = r.id
+            ORDER BY cur.id
+        ) c
+        WHERE n.id = c.id AND n.created_at = c.created_at
+          AND n.status = c.status
+          AND n.status NOT IN ('DELIVERED', 'FAILED')
+          AND (n.claimed_attempt < c.attempt
+               OR (n.status = 'PROCESSING' AND n.claimed_attempt = c.attempt AND n.claimed_at < ?))
+        RETURNING n.id, n.channel, c.status
+        """;
+
+    private static final String RELEASE_CLAIM_SQL = """
+        UPDATE notifications n
+        SET status = 'QUEUED', claimed_attempt = n.claimed_attempt - 1,
+            updated_at = NOW(), version = n.version + 1
+        FROM unnest(CAST(? AS uuid[]), CAST(? AS int[])) AS r(id, attempt)
+        WHERE n.id = r.id AND n.status = 'PROCESSING' AND n.claimed_attempt = r.attempt
+        RETURNING n.channel
+        """;
+
+    private static final String CLAIM_STATE_SQL = """
+        SELECT status, claimed_attempt, claimed_at
+        FROM notifications
+        WHERE id = ?
+        """;
+
+    private static final String UPDATE_STATUS_SQL = """
+        UPDATE notifications
+        SET status = ?, failure_reason = ?, delivered_at = ?, updated_at = NOW(), version = version + 1
+        WHERE id = ? AND status = 'PROCESSING' AND claimed_attempt = ?
+        """;
+
+    // Misma técnica que CLAIM_SQL: imagen previa comparada con la versión vigente, sin FOR UPDATE
+    private static final String TRANSITION_SQL = """
+        UPDATE notifications n
+        SET status = ?,
+            failure_reason = COALESCE(?, n.failure_reason),
+            delivered_at = CASE WHEN ? THEN NOW() ELSE n.delivered_at END,
+            updated_at = NOW(),
+            version = n.version + 1
+        FROM (
+            SELECT id, created_at, status
+            FROM notifications
+            WHERE id = ? AND status = ANY(?)
+        ) c
+        WHERE n.id = c.id AND n.created_at = c.created_at AND n.status = c.status
+        RETURNING n.channel, c.status
+        """;
+
+    private static final String CURRENT_STATUS_SQL = """
+        SELECT status FROM notifications WHERE id = ?
+        """;
+
+    private static final String RESET_FOR_REPLAY_SQL = """
+        UPDATE notifications
+        SET status = 'QUEUED', failure_reason = NULL, claimed_attempt = 0, claimed_at = NULL,
+            updated_at = NOW(), version = version + 1
+        WHERE id = ANY(?) AND status = 'FAILED'
+        RETURNING id, channel
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final StatusCounterRecorder statusCounters;
+
+    @Value("${app.batch.jdbc-batch-size:1000}")
+    private int jdbcBatchSize;
+
+    @Override
+    public void insertAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, notifications, jdbcBatchSize, (ps, notification) -> {
+            ps.setObject(1, notification.getId());
+            ps.setString(2, notification.getChannel().name());
+            ps.setString(3, notification.getPriority().name());
+            ps.setString(4, notification.getRecipient());
+            ps.setString(5, notification.getSubject());
+            ps.setString(6, notification.getContent());
+            ps.setObject(7, toJson(notification.getMetadata()), Types.VARCHAR);
+            ps.setString(8, notification.getStatus().name());
+        });
+
+        statusCounters.transitioned(notifications.stream()
+                .map(notification -> new Transition(notification.getChannel(), null, notification.getStatus()))
+                .toList());
+        log.debug("Insertadas {} notificaciones en lotes de {}", notifications.size(), jdbcBatchSize);
+    }
+
+    @Override
+    public int markAllAsQueued(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<Channel> queued = jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(MARK_QUEUED_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", ids.toArray()));
+            return ps;
+        }, (rs, rowNum) -> Channel.valueOf(rs.getString(1)));
+
+        statusCounters.transitioned(queued.stream()
+                .map(channel -> new Transition(channel, NotificationStatus.PENDING, NotificationStatus.QUEUED))
+                .toList());
+        return queued.size();
+    }
+
+    @Override
+    public boolean claimForDispatch(UUID id, int attemptNumber, Instant leaseExpiredBefore) {
+        return !claimAllForDispatch(Map.of(id, attemptNumber), leaseExpiredBefore).isEmpty();
+    }
+
+    /**
+     * Una fila que cambió entre la lectura y el UPDATE (por ejemplo, PENDING →
+     * QUEUED al confirmar el relay) no se reclama en la primera sentencia; las
+     * no reclamadas se intentan una vez más con una instantánea nueva.
+     */
+    @Override
+    public Set<UUID> claimAllForDispatch(Map<UUID, Integer> attempts, Instant leaseExpiredBefore) {
+        if (attempts.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<UUID> claimed = new HashSet<>();
+        List<Transition> transitions = new ArrayList<>();
+        claim(attempts, leaseExpiredBefore, claimed, transitions);
+        if (claimed.size() < attempts.size()) {
+            Map<UUID, Integer> remaining = new LinkedHashMap<>(attempts);
+            remaining.keySet().removeAll(claimed);
+            claim(remaining, leaseExpiredBefore, claimed, transitions);
+        }
+
+        statusCounters.transitioned(transitions);
+        return claimed;
+    }
+
+    private void claim(Map<UUID, Integer> attempts, Instant leaseExpiredBefore,
+                       Set<UUID> claimed, List<Transition> transitions) {
+        AttemptArrays arrays = AttemptArrays.of(attempts);
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(CLAIM_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", arrays.ids()));
+            ps.setArray(2, con.createArrayOf("integer", arrays.attemptNumbers()));
+            ps.setTimestamp(3, Timestamp.from(leaseExpiredBefore));
+            return ps;
+        }, rs -> {
+            claimed.add(rs.getObject(1, UUID.class));
+            transitions.add(new Transition(Channel.valueOf(rs.getString(2)),
+                    NotificationStatus.valueOf(rs.getString(3)), NotificationStatus.PROCESSING));
+        });
+    }
+
+    @Override
+    public void releaseClaims(Map<UUID, Integer> attempts) {
+        if (attempts.isEmpty()) {
+            return;
+        }
+
+        AttemptArrays arrays = AttemptArrays.of(attempts);
+
+        List<Channel> released = jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(RELEASE_CLAIM_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", arrays.ids()));
+            ps.setArray(2, con.createArrayOf("integer", arrays.attemptNumbers()));
+            return ps;
+        }, (rs, rowNum) -> Channel.valueOf(rs.getString(1)));
+
+        statusCounters.transitioned(released.stream()
+                .map(channel -> new Transition(channel, NotificationStatus.PROCESSING, NotificationStatus.QUEUED))
+                .toList());
+    }
+
+    @Override
+    public Optional<ClaimState> findClaimState(UUID id) {
+        return jdbcTemplate.query(CLAIM_STATE_SQL, (rs, rowNum) -> new ClaimState(
+                        NotificationStatus.valueOf(rs.getString("status")),
+                        rs.getInt("claimed_attempt"),
+                        rs.getTimestamp("claimed_at") != null ? rs.getTimestamp("claimed_at").toInstant() : null),
+                id).stream().findFirst();
+    }
+
+    /**
+     * Si no se aplica pero la notificación sigue en uno de los estados
+     * {@code from}, otra transacción la cambió entre la lectura y el UPDATE: se
+     * reintenta con el estado nuevo. Solo el caso sin transición paga la lectura.
+     */
+    @Override
+    public boolean transition(UUID id, NotificationStatus to, String failureReason, NotificationStatus... from) {
+        if (from.length == 0) {
+            return false;
+        }
+
+        Set<NotificationStatus> expected = EnumSet.copyOf(Arrays.asList(from));
+        String[] names = expected.stream().map(Enum::name).toArray(String[]::new);
+        for (int round = 0; round < MAX_TRANSITION_ROUNDS; round++) {
+            List<Transition> applied = jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement(TRANSITION_SQL);
+                ps.setString(1, to.name());
+                ps.setString(2, failureReason);
+                ps.setBoolean(3, to == NotificationStatus.DELIVERED);
+                ps.setObject(4, id);
+                ps.setArray(5, con.createArrayOf("varchar", names));
+                return ps;
+            }, (rs, rowNum) -> new Transition(Channel.valueOf(rs.getString(1)),
+                    NotificationStatus.valueOf(rs.getString(2)), to));
+
+            if (!applied.isEmpty()) {
+                statusCounters.transitioned(applied);
+                return true;
+            }
+            Optional<NotificationStatus> current = jdbcTemplate.query(CURRENT_STATUS_SQL,
+                    (rs, rowNum) -> NotificationStatus.valueOf(rs.getString(1)), id).stream().findFirst();
+            if (current.isEmpty() || !expected.contains(current.get())) {
+                return false;
+            }
+        }
+        log.warn("Transición a {} abandonada tras {} intentos con cambios concurrentes: id={}",
+                to, MAX_TRANSITION_ROUNDS, id);
+        return false;
+    }
+
+    @Override
+    public void updateStatuses(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, notifications, jdbcBatchSize, (ps, notification) -> {
+            ps.setString(1, notification.getStatus().name());
+            ps.setString(2, notification.getFailureReason());
+            ps.setTimestamp(3, notification.getDeliveredAt() != null
+                    ? Timestamp.from(notification.getDeliveredAt())
+                    : null);
+            ps.setObject(4, notification.getId());
+            ps.setInt(5, notification.getClaimedAttempt());
+        });
+
+        List<Transition> transitions = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                Notification notification = notifications.get(index++);
+                if (count == 1) {
+                    transitions.add(new Transition(notification.getChannel(),
+                            NotificationStatus.PROCESSING, notification.getStatus()));
+                }
+            }
+        }
+        statusCounters.transitioned(transitions);
+    }
+
+    @Override
+    public List<UUID> findFailedIds(FailedFilter filter, UUID afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT id FROM notifications WHERE status = 'FAILED'");
+        List<Object> args = new ArrayList<>();
+        if (filter.channel() != null) {
+            sql.append(" AND channel = ?");
+            args.add(filter.channel().name());
+        }
+        if (filter.errorContains() != null && !filter.errorContains().isBlank()) {
+            sql.append(" AND failure_reason ILIKE ?");
+            args.add("%" + escapeLike(filter.errorContains()) + "%");
+        }
+        if (filter.failedFrom() != null) {
+            sql.append(" AND updated_at >= ?");
+            args.add(Timestamp.from(filter.failedFrom()));
+        }
+        if (filter.failedTo() != null) {
+            sql.append(" AND updated_at < ? AND created_at < ?");
+            args.add(Timestamp.from(filter.failedTo()));
+            args.add(Timestamp.from(filter.failedTo()));
+        }
+        if (filter.createdFrom() != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(Timestamp.from(filter.createdFrom()));
+        }
+        if (afterId != null) {
+            sql.append(" AND id > ?");
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY id LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.queryForList(sql.toString(), UUID.class, args.toArray());
+    }
+
+    @Override
+    public List<UUID> resetForReplay(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<UUID> reset = new ArrayList<>();
+        List<Transition> transitions = new ArrayList<>();
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(RESET_FOR_REPLAY_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", ids.toArray()));
+            return ps;
+        }, rs -> {
+            reset.add(rs.getObject(1, UUID.class));
+            transitions.add(new Transition(Channel.valueOf(rs.getString(2)),
+                    NotificationStatus.FAILED, NotificationStatus.QUEUED));
+        });
+
+        statusCounters.transitioned(transitions);
+        return reset;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private String toJson(Map<String, Object> metadata) {
+        if (metadata == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Metadata no serializable a JSON", e);
+        }
+    }
+
+    /**
+     * IDs e intentos en el mismo orden, para {@code unnest} de dos arrays.
+     */
+    private record AttemptArrays(UUID[] ids, Integer[] attemptNumbers) {
+
+        static AttemptArrays of(Map<UUID, Integer> attempts) {
+            UUID[] ids = new UUID[attempts.size()];
+            Integer[] attemptNumbers = new Integer[attempts.size()];
+            int i = 0;
+            for (Map.Entry<UUID, Integer> entry : attempts.entrySet()) {
+                ids[i] = entry.getKey();
+                attemptNumbers[i++] = entry.getValue();
+            }
+            return new AttemptArrays(ids, attemptNumbers);
+        }
+    }
+}
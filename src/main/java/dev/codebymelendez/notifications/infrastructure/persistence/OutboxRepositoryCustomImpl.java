@@ -0,0 +1,41 @@
+package dev.codebymelendez.notifications.infrastructure.persistence;
+
+import dev.codebymelendez.notifications.domain.model.OutboxMessage;
+import dev.codebymelendez.notifications.domain.repository.OutboxRepositoryCustom;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.List;
+
+
+@RequiredArgsConstructor
+public class OutboxRepositoryCustomImpl implements OutboxRepositoryCustom {
+
+    private static final String INSERT_SQL = """
+        INSERT INTO notification_outbox (notification_id, channel, priority, ordering_key, correlation_id, attempt_number)
+        VALUES (?, ?, ?, ?, ?, ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.batch.jdbc-batch-size:1000}")
+    private int jdbcBatchSize;
+
+    @Override
+    public void insertAll(List<OutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, messages, jdbcBatchSize, (ps, message) -> {
+            ps.setObject(1, message.getNotificationId());
+            ps.setString(2, message.getChannel() != null ? message.getChannel().name() : null);
+            ps.setString(3, message.getPriority() != null ? message.getPriority().name() : null);
+            ps.setObject(4, message.getOrderingKey(), Types.INTEGER);
+            ps.setString(5, message.getCorrelationId());
+            ps.setInt(6, message.getAttemptNumber());
+        });
+    }
+}
@@ -0,0 +1,259 @@
+package dev.codebymelendez.notifications.infrastructure.persistence;
+
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.NotificationStatus;
+import dev.codebymelendez.notifications.domain.repository.StatusCounterRecorder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mantiene las particiones por rango de {@code notifications} (por
+ * {@code created_at}) y {@code delivery_attempts} (por
+ * {@code notification_created_at}, el {@code created_at} de su notificación).
+ * Con los mismos límites, una notificación y sus intentos caducan en el mismo
+ * ciclo.
+ *
+ * <p>En cada ciclo, para ambas tablas y con los mismos límites:
+ * <ul>
+ *   <li>crea particiones por delante hasta cubrir {@code premake} intervalos
+ *       desde ahora, empezando donde termina la última existente;</li>
+ *   <li>desengancha ({@code DETACH}, la tabla queda para archivarla o borrarla
+ *       aparte) o elimina ({@code DROP}) las particiones cuyo límite superior
+ *       quedó fuera de la retención. Es un cambio de catálogo: no hay DELETE ni
+ *       vacuum.</li>
+ * </ul>
+ *
+ * <p>{@code DETACH} es el valor por defecto: {@code DROP} borra sin copia las
+ * notificaciones que el {@link
+ * dev.codebymelendez.notifications.application.archive.NotificationArchiver}
+ * no haya archivado, así que hay que pedirlo explícitamente.
+ *
+ * <p>Las particiones caducadas se sueltan con {@code DETACH PARTITION ...
+ * CONCURRENTLY}, fuera de la transacción del ciclo: no toma un lock exclusivo
+ * sobre la tabla padre y las escrituras siguen mientras tanto. Una vez
+ * desenganchada, nadie más escribe en la partición de {@code notifications}:
+ * entonces se cuentan sus filas por canal y estado, se descuentan de los
+ * contadores de estado y, con {@code DROP}, se elimina. Un detach interrumpido
+ * se completa con {@code FINALIZE} en el ciclo siguiente.
+ *
+ * <p>Las fechas se calculan con el reloj de la base de datos, el mismo que
+ * escribe {@code created_at}. Un advisory lock evita que dos instancias creen
+ * particiones a la vez; la que no lo obtiene se salta el ciclo. Si dos
+ * instancias intentan soltar la misma partición, solo el detach de una tiene
+ * éxito y solo esa la cuenta.
+ */
+@Slf4j
+@Component
+public class PartitionManager {
+
+    private static final long LOCK_KEY = 0x6e6f7469706172L;
+
+    private static final String PARTITIONS_SQL = """
+        SELECT c.relname, pg_get_expr(c.relpartbound, c.oid), i.inhdetachpending
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = CAST(? AS regclass)
+        """;
+
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+
+    private static final DateTimeFormatter BOUND_FORMAT = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd HH:mm:ss")
+            .optionalStart()
+            .appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true)
+            .optionalEnd()
+            .toFormatter();
+
+    private static final DateTimeFormatter SQL_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final List<String> TABLES = List.of("notifications", "delivery_attempts");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StatusCounterRecorder statusCounters;
+    private final Interval interval;
+    private final int premake;
+    private final Duration retention;
+    private final boolean detach;
+
+    public PartitionManager(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            StatusCounterRecorder statusCounters,
+            @Value("${app.partitions.interval:MONTH}") Interval interval,
+            @Value("${app.partitions.premake:3}") int premake,
+            @Value("${app.partitions.retention:90d}") Duration retention,
+            @Value("${app.partitions.retention-action:DETACH}") RetentionAction retentionAction,
+            @Value("${app.archive.enabled:false}") boolean archiveEnabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.statusCounters = statusCounters;
+        this.interval = interval;
+        this.premake = premake;
+        this.retention = retention;
+        this.detach = retentionAction == RetentionAction.DETACH;
+        if (!detach && !archiveEnabled) {
+            log.warn("Retención por DROP con el archivo desactivado: las particiones caducadas se "
+                    + "eliminarán sin copia tras {}", retention);
+        }
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.partitions.check-interval:3600000}")
+    public void maintain() {
+        List<Partition> expired;
+        try {
+            expired = transactionTemplate.execute(status -> {
+                Boolean locked = jdbcTemplate.queryForObject(
+                        "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY);
+                if (!Boolean.TRUE.equals(locked)) {
+                    log.debug("Mantenimiento de particiones en curso en otra instancia");
+                    return List.of();
+                }
+
+                LocalDateTime now = jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", LocalDateTime.class);
+                LocalDateTime cutoff = now.minus(retention);
+                List<Partition> result = new ArrayList<>();
+                for (String table : TABLES) {
+                    List<Partition> partitions = partitions(table);
+                    premake(table, partitions, now);
+                    partitions.stream()
+                            .filter(partition -> !partition.upperBound().isAfter(cutoff))
+                            .forEach(result::add);
+                }
+                return result;
+            });
+        } catch (RuntimeException e) {
+            log.error("Error en el mantenimiento de particiones: {}", e.getMessage(), e);
+            return;
+        }
+
+        // DETACH CONCURRENTLY no puede ejecutarse dentro de una transacción
+        for (Partition partition : expired) {
+            try {
+                expire(partition);
+            } catch (RuntimeException e) {
+                log.error("Error al soltar la partición {}: {}", partition.name(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void premake(String table, List<Partition> partitions, LocalDateTime now) {
+        LocalDateTime horizon = interval.floor(now);
+        for (int i = 0; i < premake; i++) {
+            horizon = interval.next(horizon);
+        }
+
+        LocalDateTime start = partitions.stream()
+                .map(Partition::upperBound)
+                .max(LocalDateTime::compareTo)
+                .orElse(interval.floor(now));
+
+        while (start.isBefore(horizon)) {
+            // Alinea al intervalo aunque la última partición se creara con otro
+            LocalDateTime end = interval.next(interval.floor(start));
+            String name = table + "_p" + start.format(NAME_FORMAT);
+            jdbcTemplate.execute("CREATE TABLE " + name + " PARTITION OF " + table
+                    + " FOR VALUES FROM ('" + start.format(SQL_FORMAT) + "') TO ('" + end.format(SQL_FORMAT) + "')");
+            log.info("Partición creada: {} [{}, {})", name, start, end);
+            start = end;
+        }
+    }
+
+    /**
+     * Desengancha la partición en modo autocommit. Si el detach falla (otra
+     * instancia ya la soltó), no se cuenta ni se elimina. Las filas se cuentan
+     * tras el detach, ya sin escritores; una caída entre ambos pasos deja los
+     * contadores por encima hasta la siguiente reconstrucción.
+     */
+    private void expire(Partition partition) {
+        try {
+            jdbcTemplate.execute("ALTER TABLE " + partition.table() + " DETACH PARTITION " + partition.name()
+                    + (partition.detachPending() ? " FINALIZE" : " CONCURRENTLY"));
+        } catch (DataAccessException e) {
+            log.warn("Partición no desenganchada, se reintenta en el siguiente ciclo: {} ({})",
+                    partition.name(), e.getMessage());
+            return;
+        }
+
+        if (partition.table().equals("notifications")) {
+            statusCounters.removed(jdbcTemplate.query(
+                    "SELECT channel, status, COUNT(*) FROM " + partition.name() + " GROUP BY channel, status",
+                    (rs, rowNum) -> new StatusCounterRecorder.Removed(Channel.valueOf(rs.getString(1)),
+                            NotificationStatus.valueOf(rs.getString(2)), rs.getLong(3))));
+        }
+
+        if (detach) {
+            log.info("Partición desenganchada por retención: {} (< {})", partition.name(), partition.upperBound());
+        } else {
+            jdbcTemplate.execute("DROP TABLE " + partition.name());
+            log.info("Partición eliminada por retención: {} (< {})", partition.name(), partition.upperBound());
+        }
+    }
+
+    /**
+     * Particiones de rango de la tabla; la partición DEFAULT, si existe, no se toca.
+     */
+    private List<Partition> partitions(String table) {
+        return jdbcTemplate.query(PARTITIONS_SQL, (rs, rowNum) -> {
+                    Matcher matcher = UPPER_BOUND.matcher(rs.getString(2));
+                    return matcher.find()
+                            ? new Partition(table, rs.getString(1),
+                                    LocalDateTime.parse(matcher.group(1), BOUND_FORMAT), rs.getBoolean(3))
+                            : null;
+                }, table).stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public enum Interval {
+
+        DAY, WEEK, MONTH;
+
+        LocalDateTime floor(LocalDateTime value) {
+            LocalDateTime day = value.toLocalDate().atStartOfDay();
+            return switch (this) {
+                case DAY -> day;
+                case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> day.withDayOfMonth(1);
+            };
+        }
+
+        LocalDateTime next(LocalDateTime value) {
+            return switch (this) {
+                case DAY -> value.plusDays(1);
+                case WEEK -> value.plusWeeks(1);
+                case MONTH -> value.plusMonths(1);
+            };
+        }
+    }
+
+    public enum RetentionAction {
+        DROP, DETACH
+    }
+
+    /**
+     * @param detachPending un {@code DETACH CONCURRENTLY} anterior quedó a medias
+     */
+    private record Partition(String table, String name, LocalDateTime upperBound, boolean detachPending) {
+    }
+}
@@ -3,11 +3,24 @@ package dev.codebymelendez.notifications.infrastructure.sender;
 import dev.codebymelendez.notifications.domain.model.DeliveryResult;
 import dev.codebymelendez.notifications.domain.model.Notification;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 
 @Slf4j
 public abstract class AbstractNotificationSender implements NotificationSender {
     
+    private Executor senderExecutor = Runnable::run;
+    
+    @Autowired(required = false)
+    public void setSenderExecutor(@Qualifier("senderExecutor") Executor senderExecutor) {
+        this.senderExecutor = senderExecutor;
+    }
+    
     @Override
     public final DeliveryResult send(Notification notification) {
         String channelName = getChannel().getDisplayName();
@@ -18,27 +31,30 @@ public abstract class AbstractNotificationSender implements NotificationSender {
         try {
             validate(notification);
 
-            DeliveryResult result = doSend(notification);
-
-            if (result.success()) {
-                log.info("[{}] Envío exitoso: notificationId={}", 
-                        channelName, notification.getId());
-            } else {
-                log.warn("[{}] Envío fallido: notificationId={}, error={}", 
-                        channelName, notification.getId(), result.errorMessage());
-            }
+            return logResult(notification, doSend(notification));
             
-            return result;
-            
-        } catch (IllegalArgumentException e) {
-            log.warn("[{}] Validación fallida: notificationId={}, error={}", 
-                    channelName, notification.getId(), e.getMessage());
-            return DeliveryResult.failure(e.getMessage(), "VALIDATION_ERROR");
+        } catch (Exception e) {
+            return handleException(notification, e);
+        }
+    }
+    
+    @Override
+    public final CompletionStage<DeliveryResult> sendAsync(Notification notification) {
+        String channelName = getChannel().getDisplayName();
+        
+        log.info("[{}] Iniciando envío asíncrono: notificationId={}, recipient={}", 
+                channelName, notification.getId(), notification.getRecipient());
+        
+        try {
+            validate(notification);
+
+            return doSendAsync(notification)
+                    .thenApply(result -> logResult(notification, result))
+                    .exceptionally(e -> handleException(notification,
+                            e.getCause() instanceof Exception cause ? cause : new RuntimeException(e)));
             
         } catch (Exception e) {
-            log.error("[{}] Error inesperado: notificationId={}, error={}", 
-                    channelName, notification.getId(), e.getMessage(), e);
-            return DeliveryResult.fromException(e);
+            return CompletableFuture.completedFuture(handleException(notification, e));
         }
     }
     
@@ -57,4 +73,44 @@ public abstract class AbstractNotificationSender implements NotificationSender {
     }
     
     protected abstract DeliveryResult doSend(Notification notification);
+    
+    /**
+     * Variante asíncrona de {@link #doSend}. Por defecto ejecuta {@code doSend} en el
+     * executor de envíos; los senders con I/O no bloqueante deben sobrescribirla.
+     */
+    protected CompletableFuture<DeliveryResult> doSendAsync(Notification notification) {
+        return CompletableFuture.supplyAsync(() -> doSend(notification), senderExecutor);
+    }
+    
+    protected Executor getSenderExecutor() {
+        return senderExecutor;
+    }
+    
+    private DeliveryResult logResult(Notification notification, DeliveryResult result) {
+        String channelName = getChannel().getDisplayName();
+        
+        if (result.success()) {
+            log.info("[{}] Envío exitoso: notificationId={}", 
+                    channelName, notification.getId());
+        } else {
+            log.warn("[{}] Envío fallido: notificationId={}, error={}", 
+                    channelName, notification.getId(), result.errorMessage());
+        }
+        
+        return result;
+    }
+    
+    private DeliveryResult handleException(Notification notification, Exception e) {
+        String channelName = getChannel().getDisplayName();
+        
+        if (e instanceof IllegalArgumentException) {
+            log.warn("[{}] Validación fallida: notificationId={}, error={}", 
+                    channelName, notification.getId(), e.getMessage());
+            return DeliveryResult.failure(e.getMessage(), "VALIDATION_ERROR");
+        }
+        
+        log.error("[{}] Error inesperado: notificationId={}, error={}", 
+                channelName, notification.getId(), e.getMessage(), e);
+        return DeliveryResult.fromException(e);
+    }
 }
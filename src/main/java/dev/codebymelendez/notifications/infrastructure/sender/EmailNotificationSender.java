@@ -8,6 +8,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 @Slf4j
@@ -59,6 +61,22 @@ public class EmailNotificationSender extends AbstractNotificationSender {
 
         simulateNetworkLatency();
 
+        return complete(notification);
+    }
+
+    /**
+     * La latencia simulada se espera con un delayed executor en lugar de
+     * {@code Thread.sleep}, así ningún hilo queda bloqueado durante el envío.
+     */
+    @Override
+    protected CompletableFuture<DeliveryResult> doSendAsync(Notification notification) {
+        return CompletableFuture.supplyAsync(
+                () -> complete(notification),
+                CompletableFuture.delayedExecutor(nextLatencyMillis(), TimeUnit.MILLISECONDS, getSenderExecutor())
+        );
+    }
+
+    private DeliveryResult complete(Notification notification) {
         if (shouldSimulateFailure()) {
             log.warn("[EMAIL] Simulando fallo de envío para testing");
             return DeliveryResult.failure(
@@ -77,13 +95,16 @@ public class EmailNotificationSender extends AbstractNotificationSender {
     
     private void simulateNetworkLatency() {
         try {
-            int latency = 100 + random.nextInt(400); // 100-500ms
-            Thread.sleep(latency);
+            Thread.sleep(nextLatencyMillis());
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
     }
 
+    private int nextLatencyMillis() {
+        return 100 + random.nextInt(400); // 100-500ms
+    }
+
     private boolean shouldSimulateFailure() {
         if (simulateFailureRate <= 0) {
             return false;
@@ -4,6 +4,9 @@ import dev.codebymelendez.notifications.domain.model.Channel;
 import dev.codebymelendez.notifications.domain.model.DeliveryResult;
 import dev.codebymelendez.notifications.domain.model.Notification;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 
 public interface NotificationSender {
 
@@ -11,6 +14,18 @@ public interface NotificationSender {
     
     DeliveryResult send(Notification notification);
     
+    /**
+     * Envío asíncrono: el hilo que llama no queda bloqueado durante la llamada al
+     * proveedor. La etapa nunca termina excepcionalmente; los errores se reportan
+     * como {@link DeliveryResult} fallido.
+     *
+     * <p>Por defecto delega en {@link #send} de forma síncrona, para senders sin
+     * soporte asíncrono propio.
+     */
+    default CompletionStage<DeliveryResult> sendAsync(Notification notification) {
+        return CompletableFuture.completedFuture(send(notification));
+    }
+    
     default boolean supports(Channel channel) {
         return getChannel() == channel;
     }
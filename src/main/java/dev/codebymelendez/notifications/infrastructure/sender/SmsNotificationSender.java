@@ -8,6 +8,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 
@@ -67,6 +69,22 @@ public class SmsNotificationSender extends AbstractNotificationSender {
 
         simulateNetworkLatency();
 
+        return complete(notification);
+    }
+
+    /**
+     * La latencia simulada se espera con un delayed executor en lugar de
+     * {@code Thread.sleep}, así ningún hilo queda bloqueado durante el envío.
+     */
+    @Override
+    protected CompletableFuture<DeliveryResult> doSendAsync(Notification notification) {
+        return CompletableFuture.supplyAsync(
+                () -> complete(notification),
+                CompletableFuture.delayedExecutor(nextLatencyMillis(), TimeUnit.MILLISECONDS, getSenderExecutor())
+        );
+    }
+
+    private DeliveryResult complete(Notification notification) {
         if (shouldSimulateFailure()) {
             log.warn("[SMS] Simulando fallo de envío para testing");
             return DeliveryResult.failure(
@@ -88,13 +106,16 @@ public class SmsNotificationSender extends AbstractNotificationSender {
     
     private void simulateNetworkLatency() {
         try {
-            int latency = 200 + random.nextInt(600); // 200-800ms
-            Thread.sleep(latency);
+            Thread.sleep(nextLatencyMillis());
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
     }
     
+    private int nextLatencyMillis() {
+        return 200 + random.nextInt(600); // 200-800ms
+    }
+
     private boolean shouldSimulateFailure() {
         if (simulateFailureRate <= 0) {
             return false;
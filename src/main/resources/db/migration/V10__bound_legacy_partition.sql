@@ -0,0 +1,35 @@
+-- =====================================================
+-- V10: Límite superior de la futura partición legacy
+-- =====================================================
+-- Primer paso del particionado (V10-V13). Las tablas actuales se adjuntarán
+-- como partición FROM (MINVALUE) TO (límite); para que ATTACH no tenga que
+-- recorrerlas con un lock exclusivo, antes se demuestra con un CHECK validado
+-- que todas sus filas caen dentro del rango.
+--
+-- El CHECK se crea NOT VALID: solo se comprueba en las filas nuevas, y el lock
+-- exclusivo dura lo que tarda el ALTER, no lo que tarda leer la tabla. V11 lo
+-- valida sin bloquear escrituras. El límite queda en la definición del CHECK y
+-- V13 lo lee de ahí.
+--
+-- Límite: inicio del mes siguiente al último registro (o al actual). Las
+-- inserciones posteriores usan NOW(), así que cumplen el CHECK salvo que V13 se
+-- aplique después de ese cambio de mes.
+
+SET LOCAL lock_timeout = '10s';
+
+DO $$
+DECLARE
+    boundary TIMESTAMP;
+BEGIN
+    SELECT GREATEST(
+               date_trunc('month', LOCALTIMESTAMP),
+               COALESCE((SELECT date_trunc('month', MAX(created_at)) FROM notifications), '-infinity'),
+               COALESCE((SELECT date_trunc('month', MAX(attempted_at)) FROM delivery_attempts), '-infinity')
+           ) + INTERVAL '1 month'
+    INTO boundary;
+
+    EXECUTE format('ALTER TABLE notifications ADD CONSTRAINT chk_notifications_partition_bound '
+                   'CHECK (created_at < %L::timestamp) NOT VALID', boundary);
+    EXECUTE format('ALTER TABLE delivery_attempts ADD CONSTRAINT chk_delivery_attempts_partition_bound '
+                   'CHECK (attempted_at < %L::timestamp) NOT VALID', boundary);
+END $$;
@@ -0,0 +1,9 @@
+-- =====================================================
+-- V11: Validar el límite de la partición legacy
+-- =====================================================
+-- VALIDATE recorre la tabla con SHARE UPDATE EXCLUSIVE: lecturas y escrituras
+-- siguen funcionando mientras tanto. Con el CHECK validado, el ATTACH de V13
+-- no vuelve a recorrerla.
+
+ALTER TABLE notifications VALIDATE CONSTRAINT chk_notifications_partition_bound;
+ALTER TABLE delivery_attempts VALIDATE CONSTRAINT chk_delivery_attempts_partition_bound;
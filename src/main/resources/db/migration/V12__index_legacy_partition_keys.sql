@@ -0,0 +1,17 @@
+-- =====================================================
+-- V12: Índices de la futura PK de la partición legacy
+-- =====================================================
+-- La PK de una tabla particionada incluye la clave de partición. Los índices
+-- únicos (id, created_at) e (id, attempted_at) se construyen aquí con
+-- CONCURRENTLY, sin bloquear escrituras; V13 los convierte en PK con USING
+-- INDEX y el ATTACH los reutiliza en lugar de reconstruirlos.
+--
+-- Flyway ejecuta esta migración fuera de transacción (CONCURRENTLY no admite
+-- otra cosa). Si falla a medias deja un índice INVALID: hay que borrarlo con
+-- DROP INDEX CONCURRENTLY antes de reintentar.
+
+CREATE UNIQUE INDEX CONCURRENTLY notifications_legacy_pkey
+    ON notifications (id, created_at);
+
+CREATE UNIQUE INDEX CONCURRENTLY delivery_attempts_legacy_pkey
+    ON delivery_attempts (id, attempted_at);
@@ -0,0 +1,98 @@
+-- =====================================================
+-- V13: Particionado por rango temporal
+-- =====================================================
+-- notifications se particiona por created_at y delivery_attempts por
+-- attempted_at, con los mismos límites. La retención suelta particiones
+-- completas (DETACH/DROP) en lugar de hacer DELETE masivos; ver PartitionManager.
+--
+-- Las tablas actuales no se copian: pasan a ser una partición "legacy" que
+-- cubre desde MINVALUE hasta el límite fijado en V10 y caduca como cualquier
+-- otra cuando todo su contenido supera la retención.
+--
+-- Ninguna sentencia recorre las tablas: el CHECK validado en V11 prueba que
+-- caben en el rango, las PK nuevas usan los índices construidos en V12 y el
+-- resto de índices del padre se emparejan con los existentes. Los locks
+-- exclusivos de los ALTER duran lo que tarda el catálogo.
+--
+-- Una PK o UNIQUE de una tabla particionada debe incluir la clave de partición:
+--   * notifications: PK (id, created_at)
+--   * delivery_attempts: PK (id, attempted_at); uq_notification_attempt
+--     desaparece (el claim por intento ya evita duplicados)
+--   * la FK delivery_attempts → notifications desaparece: no se puede
+--     referenciar una tabla particionada solo por id
+
+SET LOCAL lock_timeout = '10s';
+
+-- 1. Constraints que no se pueden mantener; las PK pasan a los índices de V12
+ALTER TABLE delivery_attempts DROP CONSTRAINT delivery_attempts_notification_id_fkey;
+ALTER TABLE delivery_attempts DROP CONSTRAINT uq_notification_attempt;
+ALTER TABLE delivery_attempts DROP CONSTRAINT delivery_attempts_pkey;
+ALTER TABLE notifications DROP CONSTRAINT notifications_pkey;
+
+ALTER TABLE notifications ADD CONSTRAINT notifications_legacy_pkey
+    PRIMARY KEY USING INDEX notifications_legacy_pkey;
+ALTER TABLE delivery_attempts ADD CONSTRAINT delivery_attempts_legacy_pkey
+    PRIMARY KEY USING INDEX delivery_attempts_legacy_pkey;
+
+-- 2. Las tablas actuales pasan a ser la partición legacy
+ALTER TABLE notifications RENAME TO notifications_legacy;
+ALTER INDEX idx_notifications_status RENAME TO notifications_legacy_status_idx;
+ALTER INDEX idx_notifications_channel_status RENAME TO notifications_legacy_channel_status_idx;
+ALTER INDEX idx_notifications_created_at RENAME TO notifications_legacy_created_at_idx;
+
+ALTER TABLE delivery_attempts RENAME TO delivery_attempts_legacy;
+ALTER INDEX idx_delivery_attempts_notification RENAME TO delivery_attempts_legacy_notification_idx;
+
+-- 3. Tablas particionadas con las mismas columnas, defaults y CHECK (salvo el
+--    límite de la legacy, que no aplica al padre)
+CREATE TABLE notifications (
+    LIKE notifications_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING COMMENTS
+) PARTITION BY RANGE (created_at);
+
+ALTER TABLE notifications DROP CONSTRAINT chk_notifications_partition_bound;
+ALTER TABLE notifications ADD CONSTRAINT notifications_pkey PRIMARY KEY (id, created_at);
+
+-- Mismas definiciones que los índices legacy: al adjuntar se reutilizan
+CREATE INDEX idx_notifications_status ON notifications(status);
+CREATE INDEX idx_notifications_channel_status ON notifications(channel, status);
+CREATE INDEX idx_notifications_created_at ON notifications(created_at DESC);
+
+CREATE TABLE delivery_attempts (
+    LIKE delivery_attempts_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING COMMENTS
+) PARTITION BY RANGE (attempted_at);
+
+ALTER TABLE delivery_attempts DROP CONSTRAINT chk_delivery_attempts_partition_bound;
+ALTER TABLE delivery_attempts ADD CONSTRAINT delivery_attempts_pkey PRIMARY KEY (id, attempted_at);
+
+CREATE INDEX idx_delivery_attempts_notification ON delivery_attempts(notification_id);
+
+-- 4. Adjuntar las tablas legacy y crear la primera partición mensual
+DO $$
+DECLARE
+    boundary TIMESTAMP;
+BEGIN
+    -- El límite fijado en V10: CHECK ((created_at < '...'::timestamp without time zone))
+    SELECT substring(pg_get_constraintdef(oid) FROM '''([^'']+)''')::timestamp
+    INTO boundary
+    FROM pg_constraint
+    WHERE conrelid = 'notifications_legacy'::regclass
+      AND conname = 'chk_notifications_partition_bound';
+
+    EXECUTE format('ALTER TABLE notifications ATTACH PARTITION notifications_legacy '
+                   'FOR VALUES FROM (MINVALUE) TO (%L)', boundary);
+    EXECUTE format('ALTER TABLE delivery_attempts ATTACH PARTITION delivery_attempts_legacy '
+                   'FOR VALUES FROM (MINVALUE) TO (%L)', boundary);
+
+    -- El PartitionManager crea las siguientes al arrancar
+    EXECUTE format('CREATE TABLE %I PARTITION OF notifications FOR VALUES FROM (%L) TO (%L)',
+                   'notifications_p' || to_char(boundary, 'YYYYMMDD'), boundary, boundary + INTERVAL '1 month');
+    EXECUTE format('CREATE TABLE %I PARTITION OF delivery_attempts FOR VALUES FROM (%L) TO (%L)',
+                   'delivery_attempts_p' || to_char(boundary, 'YYYYMMDD'), boundary, boundary + INTERVAL '1 month');
+END $$;
+
+-- La restricción de partición ya cubre el límite
+ALTER TABLE notifications_legacy DROP CONSTRAINT chk_notifications_partition_bound;
+ALTER TABLE delivery_attempts_legacy DROP CONSTRAINT chk_delivery_attempts_partition_bound;
+
+COMMENT ON TABLE notifications IS 'Notificaciones, particionadas por mes de created_at';
+COMMENT ON TABLE delivery_attempts IS 'Historial de intentos de entrega, particionado por mes de attempted_at';
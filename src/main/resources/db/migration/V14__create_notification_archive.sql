@@ -0,0 +1,35 @@
+-- =====================================================
+-- V14: Archivo de notificaciones terminales
+-- =====================================================
+-- Las notificaciones DELIVERED/FAILED antiguas salen de las tablas calientes
+-- junto con sus intentos y se guardan en bloques comprimidos: cada bloque es
+-- un array JSON con gzip de varias notificaciones. Comprimir muchas filas
+-- juntas aprovecha lo que se repite entre ellas (plantillas, claves de
+-- metadata, destinatarios) mucho mejor que el TOAST fila a fila.
+--
+-- notification_archive_index resuelve un ID al bloque que lo contiene, para
+-- que GET /api/v1/notifications/{id} siga funcionando tras archivar.
+
+CREATE TABLE notification_archive_blocks (
+    id                  BIGSERIAL PRIMARY KEY,
+    created_from        TIMESTAMP NOT NULL,
+    created_to          TIMESTAMP NOT NULL,
+    item_count          INT NOT NULL,
+    raw_bytes           BIGINT NOT NULL,
+    payload             BYTEA NOT NULL,
+    archived_at         TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- El bloque ya está comprimido: sin recompresión TOAST
+ALTER TABLE notification_archive_blocks ALTER COLUMN payload SET STORAGE EXTERNAL;
+
+CREATE TABLE notification_archive_index (
+    notification_id     UUID PRIMARY KEY,
+    block_id            BIGINT NOT NULL REFERENCES notification_archive_blocks(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_notification_archive_index_block ON notification_archive_index(block_id);
+
+COMMENT ON TABLE notification_archive_blocks IS 'Notificaciones terminales archivadas con sus intentos, en bloques JSON con gzip';
+COMMENT ON COLUMN notification_archive_blocks.raw_bytes IS 'Tamaño del JSON sin comprimir';
+COMMENT ON TABLE notification_archive_index IS 'Bloque que contiene cada notificación archivada';
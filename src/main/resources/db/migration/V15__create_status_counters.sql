@@ -0,0 +1,34 @@
+-- =====================================================
+-- V15: Contadores de estado agregados por intervalo
+-- =====================================================
+-- Cada instancia acumula en memoria las transiciones de estado y las vuelca
+-- periódicamente como deltas: entered = filas que entraron en el estado en
+-- ese intervalo, exited = filas que salieron. El número de notificaciones en
+-- un estado es SUM(entered - exited), sin recorrer notifications.
+--
+-- kind = NOTIFICATION (status de notifications) o ATTEMPT (status de
+-- delivery_attempts, que solo entran). Ver StatusCounters.
+
+CREATE TABLE status_counters (
+    bucket_start        TIMESTAMP NOT NULL,
+    kind                VARCHAR(20) NOT NULL,
+    channel             VARCHAR(20) NOT NULL,
+    status              VARCHAR(20) NOT NULL,
+    entered             BIGINT NOT NULL DEFAULT 0,
+    exited              BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket_start, kind, channel, status)
+);
+
+-- Punto de partida: las filas existentes, por día de creación y en su estado actual
+INSERT INTO status_counters (bucket_start, kind, channel, status, entered)
+SELECT date_trunc('day', created_at), 'NOTIFICATION', channel, status, COUNT(*)
+FROM notifications
+GROUP BY 1, 3, 4;
+
+INSERT INTO status_counters (bucket_start, kind, channel, status, entered)
+SELECT date_trunc('day', a.attempted_at), 'ATTEMPT', n.channel, a.status, COUNT(*)
+FROM delivery_attempts a
+JOIN notifications n ON n.id = a.notification_id
+GROUP BY 1, 3, 4;
+
+COMMENT ON TABLE status_counters IS 'Transiciones de estado por intervalo, canal y estado; los intervalos antiguos se compactan por día';
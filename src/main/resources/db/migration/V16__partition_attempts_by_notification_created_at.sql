@@ -0,0 +1,84 @@
+-- =====================================================
+-- V16: delivery_attempts particionada como su notificación
+-- =====================================================
+-- V13 particionó delivery_attempts por attempted_at. Los intentos de una
+-- notificación creada al final de un mes caían en la partición siguiente y
+-- caducaban un intervalo después que ella, y la unicidad de
+-- (notification_id, attempt_number) se perdió porque no incluía la clave.
+--
+-- Ahora la clave es notification_created_at, el created_at de la notificación:
+--   * una notificación y sus intentos están en particiones con el mismo
+--     límite y el PartitionManager las suelta en el mismo ciclo;
+--   * uq_notification_attempt vuelve como (notification_id, attempt_number,
+--     notification_created_at). notification_created_at depende solo de
+--     notification_id, así que sigue siendo único por notificación.
+--
+-- No se puede cambiar la clave de una tabla particionada: la tabla se
+-- reconstruye y las filas se copian. A diferencia de V10-V13 esto reescribe
+-- delivery_attempts con un lock exclusivo durante la copia. Los intentos cuya
+-- notificación ya no existe (partición suelta antes que la de sus intentos) se
+-- descartan, y los duplicados que V13 pudo dejar pasar se renumeran en orden.
+
+SET LOCAL lock_timeout = '10s';
+
+-- 1. La tabla actual se aparta; sus nombres quedan libres para la nueva
+ALTER TABLE delivery_attempts RENAME TO delivery_attempts_v15;
+ALTER TABLE delivery_attempts_v15 RENAME CONSTRAINT delivery_attempts_pkey TO delivery_attempts_v15_pkey;
+ALTER INDEX idx_delivery_attempts_notification RENAME TO delivery_attempts_v15_notification_idx;
+
+CREATE TABLE delivery_attempts (
+    LIKE delivery_attempts_v15 INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING COMMENTS,
+    notification_created_at TIMESTAMP NOT NULL
+) PARTITION BY RANGE (notification_created_at);
+
+ALTER TABLE delivery_attempts ADD CONSTRAINT delivery_attempts_pkey PRIMARY KEY (id, notification_created_at);
+
+-- Empieza por notification_id: sirve también para buscar los intentos de una notificación
+ALTER TABLE delivery_attempts ADD CONSTRAINT uq_notification_attempt
+    UNIQUE (notification_id, attempt_number, notification_created_at);
+
+-- 2. Copia con la clave nueva antes de soltar las particiones antiguas
+CREATE TEMP TABLE delivery_attempts_copy ON COMMIT DROP AS
+SELECT a.id,
+       a.notification_id,
+       ROW_NUMBER() OVER (PARTITION BY a.notification_id
+                          ORDER BY a.attempt_number, a.attempted_at, a.id)::INT AS attempt_number,
+       a.status,
+       a.error_message,
+       a.error_code,
+       a.retry_decision,
+       a.attempted_at,
+       n.created_at AS notification_created_at
+FROM delivery_attempts_v15 a
+JOIN notifications n ON n.id = a.notification_id;
+
+DROP TABLE delivery_attempts_v15;
+
+-- 3. Mismas particiones y límites que notifications
+DO $$
+DECLARE
+    part RECORD;
+BEGIN
+    FOR part IN
+        SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) AS bound
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'notifications'::regclass
+          AND NOT i.inhdetachpending
+    LOOP
+        -- notifications_legacy → delivery_attempts_legacy, notifications_pYYYYMMDD → delivery_attempts_pYYYYMMDD
+        EXECUTE format('CREATE TABLE %I PARTITION OF delivery_attempts %s',
+                       'delivery_attempts' || substring(part.relname FROM length('notifications') + 1),
+                       part.bound);
+    END LOOP;
+END $$;
+
+INSERT INTO delivery_attempts
+    (id, notification_id, attempt_number, status, error_message, error_code, retry_decision, attempted_at,
+     notification_created_at)
+SELECT id, notification_id, attempt_number, status, error_message, error_code, retry_decision, attempted_at,
+       notification_created_at
+FROM delivery_attempts_copy;
+
+COMMENT ON TABLE delivery_attempts IS 'Historial de intentos de entrega, particionado por mes de created_at de su notificación';
+COMMENT ON COLUMN delivery_attempts.notification_created_at IS 'created_at de la notificación; clave de partición';
@@ -0,0 +1,14 @@
+-- =====================================================
+-- V2: Transactional outbox para la publicación de eventos
+-- =====================================================
+
+-- Eventos pendientes de publicar, escritos en la misma transacción que la notificación
+CREATE TABLE notification_outbox (
+    id                  BIGSERIAL PRIMARY KEY,
+    notification_id     UUID NOT NULL,
+    correlation_id      VARCHAR(64) NOT NULL,
+    attempt_number      INT NOT NULL DEFAULT 1,
+    created_at          TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+COMMENT ON TABLE notification_outbox IS 'Eventos pendientes de publicar en RabbitMQ. El relay los drena en orden de id con FOR UPDATE SKIP LOCKED';
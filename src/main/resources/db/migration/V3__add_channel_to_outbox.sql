@@ -0,0 +1,8 @@
+-- =====================================================
+-- V3: Canal en el outbox para enrutar a la cola del canal
+-- =====================================================
+
+-- NULL en filas previas: se publican con la routing key compartida
+ALTER TABLE notification_outbox ADD COLUMN channel VARCHAR(20);
+
+COMMENT ON COLUMN notification_outbox.channel IS 'Canal de la notificación; determina la routing key de publicación';
@@ -0,0 +1,9 @@
+-- =====================================================
+-- V4: Código de error y decisión de reintento por intento
+-- =====================================================
+
+ALTER TABLE delivery_attempts ADD COLUMN error_code VARCHAR(64);
+ALTER TABLE delivery_attempts ADD COLUMN retry_decision VARCHAR(255);
+
+COMMENT ON COLUMN delivery_attempts.error_code IS 'Código de error devuelto por el sender (TIMEOUT, VALIDATION_ERROR...)';
+COMMENT ON COLUMN delivery_attempts.retry_decision IS 'Decisión de la política de reintentos tras el fallo y su motivo';
@@ -0,0 +1,17 @@
+-- =====================================================
+-- V5: Prioridad de entrega
+-- =====================================================
+
+ALTER TABLE notifications ADD COLUMN priority VARCHAR(10) NOT NULL DEFAULT 'NORMAL';
+ALTER TABLE notifications ADD CONSTRAINT chk_priority CHECK (priority IN ('HIGH', 'NORMAL', 'LOW'));
+
+-- Prioridad declarada hasta ahora como clave libre en metadata
+UPDATE notifications
+SET priority = UPPER(metadata->>'priority')
+WHERE UPPER(metadata->>'priority') IN ('HIGH', 'LOW');
+
+-- NULL en filas previas: se publican como NORMAL
+ALTER TABLE notification_outbox ADD COLUMN priority VARCHAR(10);
+
+COMMENT ON COLUMN notifications.priority IS 'Prioridad de entrega: HIGH usa el carril exprés del canal';
+COMMENT ON COLUMN notification_outbox.priority IS 'Prioridad de la notificación; determina el carril de publicación';
@@ -0,0 +1,9 @@
+-- =====================================================
+-- V6: Claim de despacho por intento (idempotencia ante redeliveries)
+-- =====================================================
+
+ALTER TABLE notifications ADD COLUMN claimed_attempt INT NOT NULL DEFAULT 0;
+ALTER TABLE notifications ADD COLUMN claimed_at TIMESTAMP;
+
+COMMENT ON COLUMN notifications.claimed_attempt IS 'Último intento (attemptNumber del evento) reclamado por un consumer';
+COMMENT ON COLUMN notifications.claimed_at IS 'Momento del claim; pasado el lease, otro consumer puede recuperar un PROCESSING huérfano';
@@ -0,0 +1,16 @@
+-- =====================================================
+-- V7: Idempotency-Key del API de creación
+-- =====================================================
+
+-- La clave primaria es el índice único que impide crear dos notificaciones con la misma clave
+CREATE TABLE idempotency_keys (
+    idempotency_key     VARCHAR(255) PRIMARY KEY,
+    request_hash        VARCHAR(64) NOT NULL,
+    notification_id     UUID,
+    created_at          TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys(created_at);
+
+COMMENT ON TABLE idempotency_keys IS 'Claves Idempotency-Key de POST /api/v1/notifications; se purgan pasada la retención';
+COMMENT ON COLUMN idempotency_keys.request_hash IS 'SHA-256 del cuerpo normalizado: la misma clave con otro cuerpo es un conflicto';
@@ -0,0 +1,16 @@
+-- =====================================================
+-- V8: Entrega ordenada por destinatario (colas sharded)
+-- =====================================================
+
+-- Hash del destinatario; decide el shard en los canales con entrega ordenada
+ALTER TABLE notification_outbox ADD COLUMN ordering_key INT;
+
+-- Instancias vivas, para repartir los shards entre ellas (rendezvous hashing)
+CREATE TABLE consumer_instances (
+    instance_id         VARCHAR(128) PRIMARY KEY,
+    started_at          TIMESTAMP NOT NULL DEFAULT NOW(),
+    heartbeat_at        TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+COMMENT ON COLUMN notification_outbox.ordering_key IS 'Hash del destinatario; NULL en filas previas (se publican sin shard)';
+COMMENT ON TABLE consumer_instances IS 'Heartbeat de cada instancia; las que no lo renuevan dejan de recibir shards';
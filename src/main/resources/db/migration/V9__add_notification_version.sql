@@ -0,0 +1,14 @@
+-- =====================================================
+-- V9: Versión optimista y updated_at escrito por la aplicación
+-- =====================================================
+
+-- Cada UPDATE de la aplicación incrementa version; JPA la usa para rechazar
+-- guardados de entidades leídas antes de una transición JDBC
+ALTER TABLE notifications ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Todas las sentencias fijan updated_at = NOW(): el trigger por fila solo
+-- duplicaba ese trabajo en cada transición
+DROP TRIGGER IF EXISTS update_notifications_updated_at ON notifications;
+DROP FUNCTION IF EXISTS update_updated_at_column();
+
+COMMENT ON COLUMN notifications.version IS 'Versión optimista; la incrementa cada transición de estado';
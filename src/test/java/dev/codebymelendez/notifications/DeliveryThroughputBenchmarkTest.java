@@ -0,0 +1,107 @@
+package dev.codebymelendez.notifications;
+
+import dev.codebymelendez.notifications.api.dto.NotificationRequest;
+import dev.codebymelendez.notifications.application.NotificationService;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Entregas por segundo de extremo a extremo (outbox → RabbitMQ → consumer →
+ * sender con la latencia simulada de email) con hilos de plataforma y con
+ * virtual threads, con la misma configuración de listeners. Solo con
+ * {@code -Pbenchmark}.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class DeliveryThroughputBenchmarkTest {
+
+    private static final int DELIVERIES = Integer.getInteger("benchmark.deliveries", 5_000);
+    private static final int CHUNK = 500;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Container
+    static final RabbitMQContainer RABBITMQ = new RabbitMQContainer("rabbitmq:3.12-management-alpine");
+
+    @Test
+    void platformVersusVirtualThreads() {
+        double platform = deliveriesPerSecond(false);
+        double virtual = deliveriesPerSecond(true);
+
+        System.out.printf("%-10s %14s%n", "threads", "deliveries/s");
+        System.out.printf("%-10s %14.1f%n", "platform", platform);
+        System.out.printf("%-10s %14.1f%n", "virtual", virtual);
+    }
+
+    private static double deliveriesPerSecond(boolean virtualThreads) {
+        String database = virtualThreads ? "bench_virtual" : "bench_platform";
+        new JdbcTemplate(new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(),
+                POSTGRES.getPassword())).execute("CREATE DATABASE " + database);
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url",
+                POSTGRES.getJdbcUrl().replaceFirst("/" + POSTGRES.getDatabaseName(), "/" + database));
+        properties.put("spring.datasource.username", POSTGRES.getUsername());
+        properties.put("spring.datasource.password", POSTGRES.getPassword());
+        properties.put("spring.rabbitmq.host", RABBITMQ.getHost());
+        properties.put("spring.rabbitmq.port", RABBITMQ.getAmqpPort());
+        properties.put("spring.rabbitmq.username", RABBITMQ.getAdminUsername());
+        properties.put("spring.rabbitmq.password", RABBITMQ.getAdminPassword());
+        properties.put("spring.threads.virtual.enabled", virtualThreads);
+        properties.put("spring.main.keep-alive", false);
+        properties.put("server.port", 0);
+        // Solo la latencia del proveedor: sin fallos simulados ni rate limiting
+        properties.put("app.channels.email.simulate-failure-rate", 0);
+        properties.put("app.channels.email.rate-limit.permits-per-second", 0);
+        properties.put("app.channels.email.rate-limit.key", "none");
+        properties.put("logging.level.root", "WARN");
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(NotificationServiceApplication.class)
+                .properties(properties)
+                .run()) {
+            NotificationService notificationService = context.getBean(NotificationService.class);
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+            long start = System.nanoTime();
+            for (int created = 0; created < DELIVERIES; created += CHUNK) {
+                notificationService.createAndQueueBatch(requests(created, Math.min(CHUNK, DELIVERIES - created)));
+            }
+            await().atMost(Duration.ofMinutes(15))
+                    .pollInterval(Duration.ofMillis(200))
+                    .until(() -> jdbcTemplate.queryForObject(
+                            "SELECT COUNT(*) FROM notifications WHERE status = 'DELIVERED'", Long.class) >= DELIVERIES);
+            return DELIVERIES / ((System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    private static List<NotificationRequest> requests(int offset, int size) {
+        List<NotificationRequest> requests = new ArrayList<>(size);
+        for (int i = offset; i < offset + size; i++) {
+            requests.add(NotificationRequest.builder()
+                    .channel(Channel.EMAIL)
+                    .recipient("user" + i + "@example" + (i % 50) + ".com")
+                    .subject("Bienvenida")
+                    .content("Hola, gracias por registrarte")
+                    .build());
+        }
+        return requests;
+    }
+}
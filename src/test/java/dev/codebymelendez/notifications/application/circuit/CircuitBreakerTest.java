@@ -0,0 +1,181 @@
+package dev.codebymelendez.notifications.application.circuit;
+
+import dev.codebymelendez.notifications.config.ChannelProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofMillis(100);
+    private static final Duration PROBE_TIMEOUT = Duration.ofMillis(300);
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        CircuitBreaker breaker = new CircuitBreaker(config(Duration.ZERO));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(breaker.record(true)).isNull();
+        }
+
+        assertThat(breaker.state()).isEqualTo(CircuitState.CLOSED);
+        assertThat(breaker.tryAcquire()).isZero();
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        CircuitBreaker breaker = new CircuitBreaker(config(Duration.ZERO));
+        breaker.record(false);
+        breaker.record(false);
+        breaker.record(true);
+
+        assertThat(breaker.record(true)).isEqualTo(CircuitState.OPEN);
+
+        long wait = breaker.tryAcquire();
+        assertThat(wait).isPositive().isLessThanOrEqualTo(OPEN_DURATION.toMillis() + 1);
+        assertThat(breaker.snapshot().trips()).isEqualTo(1);
+        assertThat(breaker.snapshot().rejected()).isEqualTo(1);
+    }
+
+    @Test
+    void slidingWindowForgetsOldFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(config(Duration.ZERO));
+        breaker.record(true);
+        // Cuatro éxitos desplazan el fallo fuera de la ventana de cuatro llamadas
+        for (int i = 0; i < 4; i++) {
+            breaker.record(false);
+        }
+        breaker.record(true);
+
+        assertThat(breaker.snapshot().failureRate()).isEqualTo(0.25);
+        assertThat(breaker.state()).isEqualTo(CircuitState.CLOSED);
+    }
+
+    @Test
+    void halfOpenClosesAfterSuccessfulProbes() throws InterruptedException {
+        CircuitBreaker breaker = tripped(config(Duration.ZERO));
+        Thread.sleep(OPEN_DURATION.toMillis() + 20);
+
+        // Dos pruebas concedidas; la tercera espera
+        assertThat(breaker.tryAcquire()).isZero();
+        assertThat(breaker.state()).isEqualTo(CircuitState.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isZero();
+        assertThat(breaker.tryAcquire()).isPositive();
+
+        assertThat(breaker.record(false)).isNull();
+        assertThat(breaker.record(false)).isEqualTo(CircuitState.CLOSED);
+        assertThat(breaker.snapshot().calls()).isZero();
+        assertThat(breaker.tryAcquire()).isZero();
+    }
+
+    @Test
+    void failedProbeReopens() throws InterruptedException {
+        CircuitBreaker breaker = tripped(config(Duration.ZERO));
+        Thread.sleep(OPEN_DURATION.toMillis() + 20);
+
+        assertThat(breaker.tryAcquire()).isZero();
+        assertThat(breaker.record(true)).isEqualTo(CircuitState.OPEN);
+        assertThat(breaker.snapshot().trips()).isEqualTo(2);
+        assertThat(breaker.tryAcquire()).isPositive();
+    }
+
+    @Test
+    void releasedProbeCanBeGrantedAgain() throws InterruptedException {
+        CircuitBreaker breaker = tripped(config(Duration.ZERO));
+        Thread.sleep(OPEN_DURATION.toMillis() + 20);
+
+        assertThat(breaker.tryAcquire()).isZero();
+        assertThat(breaker.tryAcquire()).isZero();
+        assertThat(breaker.tryAcquire()).isPositive();
+
+        breaker.release();
+        assertThat(breaker.tryAcquire()).isZero();
+    }
+
+    @Test
+    void probeWithoutResultIsFreedAfterTheTimeout() throws InterruptedException {
+        CircuitBreaker breaker = tripped(config(Duration.ZERO));
+        Thread.sleep(OPEN_DURATION.toMillis() + 20);
+
+        // Dos pruebas cuyos envíos nunca terminan
+        assertThat(breaker.tryAcquire()).isZero();
+        assertThat(breaker.tryAcquire()).isZero();
+        assertThat(breaker.tryAcquire()).isPositive();
+        assertThat(breaker.snapshot().probesInFlight()).isEqualTo(2);
+
+        Thread.sleep(PROBE_TIMEOUT.toMillis() + 20);
+
+        assertThat(breaker.snapshot().probesInFlight()).isZero();
+        assertThat(breaker.snapshot().probeTimeouts()).isEqualTo(2);
+        assertThat(breaker.tryAcquire()).isZero();
+        assertThat(breaker.tryAcquire()).isZero();
+        assertThat(breaker.record(false)).isNull();
+        assertThat(breaker.record(false)).isEqualTo(CircuitState.CLOSED);
+    }
+
+    @Test
+    void snapshotReportsTheRemainingOpenTime() {
+        CircuitBreaker breaker = tripped(config(Duration.ZERO));
+
+        CircuitBreaker.Snapshot snapshot = breaker.snapshot();
+        assertThat(snapshot.state()).isEqualTo(CircuitState.OPEN);
+        assertThat(snapshot.openRemainingMillis()).isPositive().isLessThanOrEqualTo(OPEN_DURATION.toMillis());
+        assertThat(snapshot.probesInFlight()).isZero();
+    }
+
+    @Test
+    void lateResultsWhileOpenAreIgnored() {
+        CircuitBreaker breaker = tripped(config(Duration.ZERO));
+
+        assertThat(breaker.record(false)).isNull();
+        assertThat(breaker.record(true)).isNull();
+        assertThat(breaker.state()).isEqualTo(CircuitState.OPEN);
+        assertThat(breaker.snapshot().trips()).isEqualTo(1);
+    }
+
+    @Test
+    void rampUpAdmitsOnlyPartOfTheTrafficAfterClosing() throws InterruptedException {
+        CircuitBreaker breaker = tripped(config(Duration.ofMinutes(1)));
+        Thread.sleep(OPEN_DURATION.toMillis() + 20);
+        breaker.tryAcquire();
+        breaker.tryAcquire();
+        breaker.record(false);
+        breaker.record(false);
+
+        // Recién cerrado se admite en torno al 10 %
+        int admitted = 0;
+        for (int i = 0; i < 1000; i++) {
+            long wait = breaker.tryAcquire();
+            if (wait == 0) {
+                admitted++;
+            } else {
+                assertThat(wait).isEqualTo(500);
+            }
+        }
+        assertThat(admitted).isBetween(30, 250);
+    }
+
+    private static CircuitBreaker tripped(ChannelProperties.CircuitBreaker config) {
+        CircuitBreaker breaker = new CircuitBreaker(config);
+        for (int i = 0; i < config.getMinimumCalls(); i++) {
+            breaker.record(true);
+        }
+        assertThat(breaker.state()).isEqualTo(CircuitState.OPEN);
+        return breaker;
+    }
+
+    private static ChannelProperties.CircuitBreaker config(Duration rampUp) {
+        ChannelProperties.CircuitBreaker config = new ChannelProperties.CircuitBreaker();
+        config.setWindowSize(4);
+        config.setMinimumCalls(4);
+        config.setFailureRateThreshold(0.5);
+        config.setOpenDuration(OPEN_DURATION);
+        config.setHalfOpenCalls(2);
+        config.setProbeTimeout(PROBE_TIMEOUT);
+        config.setRampUp(rampUp);
+        config.setRampUpDelay(Duration.ofMillis(500));
+        return config;
+    }
+}
@@ -0,0 +1,154 @@
+package dev.codebymelendez.notifications.application.coalescing;
+
+import dev.codebymelendez.notifications.config.ChannelProperties;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.DeliveryResult;
+import dev.codebymelendez.notifications.domain.model.Notification;
+import dev.codebymelendez.notifications.domain.model.Priority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class NotificationCoalescerTest {
+
+    private ChannelProperties.Coalescing email;
+    private ChannelProperties.Settings sms;
+    private NotificationCoalescer coalescer;
+
+    private final List<Notification> dispatched = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ChannelProperties channelProperties = new ChannelProperties();
+        ChannelProperties.Settings emailSettings = new ChannelProperties.Settings();
+        email = emailSettings.getCoalescing();
+        email.setEnabled(true);
+        email.setMaxSize(3);
+        email.setWindow(Duration.ofMinutes(1));
+        channelProperties.getChannels().put(Channel.EMAIL, emailSettings);
+
+        sms = new ChannelProperties.Settings();
+        sms.getCoalescing().setEnabled(true);
+        sms.getOrdering().setEnabled(true);
+        channelProperties.getChannels().put(Channel.SMS, sms);
+
+        coalescer = new NotificationCoalescer(channelProperties, List.of(new ConcatenatingDigestStrategy()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.flushAll();
+    }
+
+    @Test
+    void sameRecipientIsSentAsOneDigestAtMaxSize() {
+        CompletableFuture<DeliveryResult> first = coalescer.submit(email("uno", "User@Example.com "), this::dispatch);
+        CompletableFuture<DeliveryResult> second = coalescer.submit(email("dos", "user@example.com"), this::dispatch);
+        assertThat(dispatched).isEmpty();
+
+        CompletableFuture<DeliveryResult> third = coalescer.submit(email("tres", "user@example.com"), this::dispatch);
+
+        assertThat(dispatched).singleElement()
+                .satisfies(digest -> assertThat(digest.getContent()).isEqualTo("uno\n\ndos\n\ntres"));
+        // El resultado del digest llega a cada notificación agrupada
+        assertThat(List.of(first, second, third)).allSatisfy(result ->
+                assertThat(result).isCompletedWithValue(DeliveryResult.ok()));
+        assertThat(coalescer.stats()).isEqualTo(new NotificationCoalescer.Stats(1, 3, 2, 0));
+    }
+
+    @Test
+    void windowFlushesAPartialBuffer() {
+        email.setWindow(Duration.ofMillis(50));
+        Notification alone = email("solo", "user@example.com");
+
+        CompletableFuture<DeliveryResult> result = coalescer.submit(alone, this::dispatch);
+
+        await().atMost(Duration.ofSeconds(5)).until(result::isDone);
+        // Un grupo de uno se envía tal cual, sin digest
+        assertThat(dispatched).containsExactly(alone);
+        assertThat(coalescer.stats().buffered()).isZero();
+    }
+
+    @Test
+    void differentRecipientsAreNotMerged() {
+        coalescer.submit(email("a", "a@example.com"), this::dispatch);
+        coalescer.submit(email("b", "b@example.com"), this::dispatch);
+
+        assertThat(coalescer.stats().buffered()).isEqualTo(2);
+
+        coalescer.flushAll();
+        assertThat(dispatched).extracting(Notification::getContent).containsExactlyInAnyOrder("a", "b");
+    }
+
+    @Test
+    void dispatcherErrorFailsEveryGroupedNotification() {
+        email.setMaxSize(2);
+        CompletableFuture<DeliveryResult> first = coalescer.submit(email("uno", "user@example.com"),
+                digest -> CompletableFuture.failedFuture(new IllegalStateException("proveedor caído")));
+        CompletableFuture<DeliveryResult> second = coalescer.submit(email("dos", "user@example.com"),
+                digest -> { throw new IllegalStateException("proveedor caído"); });
+
+        assertThat(first).isCompletedExceptionally();
+        assertThat(second).isCompletedExceptionally();
+    }
+
+    @Test
+    void expressAndOrderedNotificationsAreNotCoalesced() {
+        Notification express = email("otp", "user@example.com");
+        express.setPriority(Priority.HIGH);
+        Notification ordered = Notification.builder()
+                .id(UUID.randomUUID())
+                .channel(Channel.SMS)
+                .recipient("+15550001111")
+                .content("hola")
+                .build();
+
+        assertThat(coalescer.isEnabled(email("normal", "user@example.com"))).isTrue();
+        assertThat(coalescer.isEnabled(express)).isFalse();
+        assertThat(coalescer.isEnabled(ordered)).isFalse();
+
+        sms.getOrdering().setEnabled(false);
+        assertThat(coalescer.isEnabled(ordered)).isTrue();
+    }
+
+    @Test
+    void batchIsGroupedByRecipientAndSplitAtMaxSize() {
+        email.setMaxSize(2);
+        Notification express = email("otp", "user@example.com");
+        express.setPriority(Priority.HIGH);
+
+        List<List<Notification>> groups = coalescer.group(List.of(
+                email("1", "user@example.com"),
+                express,
+                email("2", "user@example.com"),
+                email("3", "user@example.com"),
+                email("x", "other@example.com")));
+
+        assertThat(groups).extracting(group -> group.stream().map(Notification::getContent).toList())
+                .containsExactly(List.of("otp"), List.of("1", "2"), List.of("3"), List.of("x"));
+    }
+
+    private CompletableFuture<DeliveryResult> dispatch(Notification digest) {
+        dispatched.add(digest);
+        return CompletableFuture.completedFuture(DeliveryResult.ok());
+    }
+
+    private static Notification email(String content, String recipient) {
+        return Notification.builder()
+                .id(UUID.randomUUID())
+                .channel(Channel.EMAIL)
+                .recipient(recipient)
+                .subject("Aviso")
+                .content(content)
+                .build();
+    }
+}
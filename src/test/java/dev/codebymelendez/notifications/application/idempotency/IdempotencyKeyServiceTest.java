@@ -0,0 +1,170 @@
+package dev.codebymelendez.notifications.application.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.codebymelendez.notifications.api.dto.NotificationRequest;
+import dev.codebymelendez.notifications.api.exception.IdempotencyKeyConflictException;
+import dev.codebymelendez.notifications.application.NotificationService;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.IdempotencyKey;
+import dev.codebymelendez.notifications.domain.model.Notification;
+import dev.codebymelendez.notifications.domain.model.NotificationStatus;
+import dev.codebymelendez.notifications.domain.repository.IdempotencyKeyRepository;
+import dev.codebymelendez.notifications.domain.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyKeyServiceTest {
+
+    private static final String KEY = "pedido-12345";
+
+    private NotificationService notificationService;
+    private NotificationRepository notificationRepository;
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    private IdempotencyKeyService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        notificationService = mock(NotificationService.class);
+        notificationRepository = mock(NotificationRepository.class);
+        idempotencyKeyRepository = mock(IdempotencyKeyRepository.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(
+                inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        service = new IdempotencyKeyService(notificationService, notificationRepository, idempotencyKeyRepository,
+                transactionTemplate, new ObjectMapper(), 100, Duration.ofMinutes(10), Duration.ofHours(24));
+    }
+
+    @Test
+    void concurrentRequestsWithTheSameKeyCreateOnce() throws Exception {
+        Notification created = notification();
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(idempotencyKeyRepository.reserve(anyString(), anyString())).thenReturn(true);
+        // La primera petición se queda dentro de la transacción mientras llegan las demás
+        when(notificationService.createAndQueue(any())).thenAnswer(inv -> {
+            creating.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return created;
+        });
+
+        List<IdempotencyKeyService.Result> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            Future<IdempotencyKeyService.Result> leader = executor.submit(() -> service.createAndQueue(KEY, request()));
+            assertThat(creating.await(10, TimeUnit.SECONDS)).isTrue();
+
+            List<Future<IdempotencyKeyService.Result>> followers = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                followers.add(executor.submit(() -> service.createAndQueue(KEY, request())));
+            }
+            release.countDown();
+
+            results.add(leader.get(10, TimeUnit.SECONDS));
+            for (Future<IdempotencyKeyService.Result> follower : followers) {
+                results.add(follower.get(10, TimeUnit.SECONDS));
+            }
+        }
+
+        verify(notificationService, times(1)).createAndQueue(any());
+        verify(idempotencyKeyRepository, times(1)).reserve(anyString(), anyString());
+        assertThat(results).extracting(result -> result.response().getId()).containsOnly(created.getId());
+        assertThat(results).filteredOn(result -> !result.replayed()).hasSize(1);
+    }
+
+    @Test
+    void repeatedRequestIsServedFromTheCache() {
+        Notification created = notification();
+        when(idempotencyKeyRepository.reserve(anyString(), anyString())).thenReturn(true);
+        when(notificationService.createAndQueue(any())).thenReturn(created);
+
+        service.createAndQueue(KEY, request());
+        IdempotencyKeyService.Result replayed = service.createAndQueue(KEY, request());
+
+        assertThat(replayed.replayed()).isTrue();
+        assertThat(replayed.response().getId()).isEqualTo(created.getId());
+        verify(idempotencyKeyRepository, times(1)).reserve(anyString(), anyString());
+    }
+
+    @Test
+    void keyReservedByAnotherInstanceReturnsItsNotification() {
+        Notification existing = notification();
+        // La otra instancia reservó la clave con el mismo cuerpo
+        AtomicReference<String> requestHash = new AtomicReference<>();
+        when(idempotencyKeyRepository.reserve(anyString(), anyString())).thenAnswer(inv -> {
+            requestHash.set(inv.getArgument(1));
+            return false;
+        });
+        when(idempotencyKeyRepository.findById(KEY)).thenAnswer(inv -> Optional.of(IdempotencyKey.builder()
+                .key(KEY)
+                .requestHash(requestHash.get())
+                .notificationId(existing.getId())
+                .createdAt(Instant.now())
+                .build()));
+        when(notificationRepository.findById(existing.getId())).thenReturn(Optional.of(existing));
+
+        IdempotencyKeyService.Result result = service.createAndQueue(KEY, request());
+
+        assertThat(result.replayed()).isTrue();
+        assertThat(result.response().getId()).isEqualTo(existing.getId());
+        verify(notificationService, never()).createAndQueue(any());
+    }
+
+    @Test
+    void sameKeyWithAnotherBodyIsRejected() {
+        when(idempotencyKeyRepository.reserve(anyString(), anyString())).thenReturn(true);
+        when(notificationService.createAndQueue(any())).thenReturn(notification());
+        service.createAndQueue(KEY, request());
+
+        NotificationRequest other = request();
+        other.setContent("Otro contenido");
+
+        assertThatThrownBy(() -> service.createAndQueue(KEY, other))
+                .isInstanceOf(IdempotencyKeyConflictException.class);
+    }
+
+    private static NotificationRequest request() {
+        return NotificationRequest.builder()
+                .channel(Channel.EMAIL)
+                .recipient("cliente@example.com")
+                .subject("Pedido")
+                .content("Su pedido ha sido confirmado")
+                .build();
+    }
+
+    private static Notification notification() {
+        return Notification.builder()
+                .id(UUID.randomUUID())
+                .channel(Channel.EMAIL)
+                .recipient("cliente@example.com")
+                .content("Su pedido ha sido confirmado")
+                .status(NotificationStatus.QUEUED)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package dev.codebymelendez.notifications.application.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RotatingBloomFilterTest {
+
+    @Test
+    void insertedKeysAreAlwaysFound() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("key-" + i));
+
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("key-" + i))).isTrue();
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(10_000, 0.01);
+        IntStream.range(0, 9_999).forEach(i -> filter.put("key-" + i));
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("other-" + i))
+                .count();
+        // Con la generación anterior vacía la tasa es la del filtro lleno: ~1 %
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    void previousGenerationIsStillQueried() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(100, 0.01);
+        IntStream.range(0, 100).forEach(i -> filter.put("old-" + i));
+        IntStream.range(0, 50).forEach(i -> filter.put("new-" + i));
+
+        assertThat(IntStream.range(0, 100).allMatch(i -> filter.mightContain("old-" + i))).isTrue();
+    }
+
+    @Test
+    void keysOlderThanTwoGenerationsAreForgotten() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(100, 0.01);
+        IntStream.range(0, 100).forEach(i -> filter.put("old-" + i));
+        IntStream.range(0, 200).forEach(i -> filter.put("new-" + i));
+
+        // Solo quedan falsos positivos de las dos generaciones vivas
+        long remembered = IntStream.range(0, 100).filter(i -> filter.mightContain("old-" + i)).count();
+        assertThat(remembered).isLessThan(10);
+    }
+}
@@ -0,0 +1,165 @@
+package dev.codebymelendez.notifications.application.metrics;
+
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.DeliveryAttemptStatus;
+import dev.codebymelendez.notifications.domain.model.NotificationStatus;
+import dev.codebymelendez.notifications.domain.repository.StatusCounterRecorder;
+import dev.codebymelendez.notifications.domain.repository.StatusCounterRepository;
+import dev.codebymelendez.notifications.domain.repository.StatusCounterRepository.Row;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StatusCountersTest {
+
+    private final StatusCounterRepository store = mock(StatusCounterRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private StatusCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        counters = new StatusCounters(store, transactionTemplate, Duration.ofHours(1), Duration.ofDays(7));
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void flushWritesOnlyTheDeltaSinceTheLastFlush() {
+        counters.created(Channel.EMAIL, NotificationStatus.PENDING);
+        counters.created(Channel.EMAIL, NotificationStatus.PENDING);
+
+        counters.flush();
+        assertThat(flushed()).singleElement().satisfies(row -> {
+            assertThat(row.status()).isEqualTo("PENDING");
+            assertThat(row.entered()).isEqualTo(2);
+            assertThat(row.exited()).isZero();
+        });
+
+        // Sin cambios no se escribe nada
+        reset(store);
+        counters.flush();
+        verify(store, never()).add(anyList());
+
+        counters.created(Channel.EMAIL, NotificationStatus.PENDING);
+        counters.flush();
+        assertThat(flushed()).singleElement().extracting(Row::entered).isEqualTo(1L);
+    }
+
+    @Test
+    void transitionMovesCountBetweenStates() {
+        counters.transitioned(Channel.SMS, NotificationStatus.PENDING, NotificationStatus.DELIVERED);
+        // Una transición al mismo estado no cuenta
+        counters.transitioned(Channel.SMS, NotificationStatus.DELIVERED, NotificationStatus.DELIVERED);
+
+        counters.flush();
+
+        assertThat(flushed()).extracting(Row::kind, Row::channel, Row::status, Row::entered, Row::exited)
+                .containsExactlyInAnyOrder(
+                        tuple("NOTIFICATION", Channel.SMS, "PENDING", 0L, 1L),
+                        tuple("NOTIFICATION", Channel.SMS, "DELIVERED", 1L, 0L));
+    }
+
+    @Test
+    void failedFlushIsRetriedWithTheAccumulatedDelta() {
+        counters.created(Channel.EMAIL, NotificationStatus.PENDING);
+        doThrow(new IllegalStateException("db down")).when(store).add(anyList());
+        counters.flush();
+
+        reset(store);
+        counters.created(Channel.EMAIL, NotificationStatus.PENDING);
+        counters.flush();
+
+        assertThat(flushed()).singleElement().extracting(Row::entered).isEqualTo(2L);
+    }
+
+    @Test
+    void changesInsideATransactionApplyOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        counters.transitioned(List.of(new StatusCounterRecorder.Transition(
+                Channel.EMAIL, NotificationStatus.PENDING, NotificationStatus.FAILED)));
+
+        counters.flush();
+        verify(store, never()).add(anyList());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        counters.flush();
+        assertThat(flushed()).hasSize(2);
+    }
+
+    @Test
+    void rolledBackChangesLeaveNoTrace() {
+        TransactionSynchronizationManager.initSynchronization();
+        counters.created(Channel.EMAIL, NotificationStatus.PENDING);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        counters.flush();
+        verify(store, never()).add(anyList());
+    }
+
+    @Test
+    void totalsAddUnflushedDeltasAndRemovals() {
+        when(store.totals()).thenReturn(List.of(
+                new Row(null, "NOTIFICATION", Channel.EMAIL, "DELIVERED", 10, 0),
+                new Row(null, "ATTEMPT", Channel.EMAIL, "SUCCESS", 12, 0)));
+
+        counters.transitioned(Channel.EMAIL, NotificationStatus.PENDING, NotificationStatus.DELIVERED);
+        counters.removed(List.of(new StatusCounterRecorder.Removed(Channel.EMAIL, NotificationStatus.DELIVERED, 4)));
+        counters.attempted(List.of(new StatusCounterRecorder.Attempt(Channel.EMAIL, DeliveryAttemptStatus.SUCCESS)));
+
+        StatusCounters.Totals totals = counters.totals();
+
+        assertThat(totals.notifications())
+                .containsEntry(NotificationStatus.DELIVERED, 7L)
+                .containsEntry(NotificationStatus.PENDING, -1L);
+        assertThat(totals.notificationsByChannel().get(Channel.EMAIL)).containsEntry(NotificationStatus.DELIVERED, 7L);
+        assertThat(totals.attempts()).containsEntry(DeliveryAttemptStatus.SUCCESS, 13L);
+
+        // Tras volcar, lo pendiente ya no se suma dos veces
+        counters.flush();
+        verify(store, times(1)).add(anyList());
+        assertThat(counters.totals().notifications()).containsEntry(NotificationStatus.DELIVERED, 10L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Row> flushed() {
+        ArgumentCaptor<List<Row>> captor = ArgumentCaptor.forClass(List.class);
+        verify(store).add(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,84 @@
+package dev.codebymelendez.notifications.application.ratelimit;
+
+import dev.codebymelendez.notifications.config.ChannelProperties;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.Notification;
+import dev.codebymelendez.notifications.infrastructure.sender.NotificationSender;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DispatchRateLimiterTest {
+
+    private final NotificationSender sender = mock(NotificationSender.class);
+
+    @Test
+    void keyDeferralRefundsTheSenderToken() {
+        DispatchRateLimiter limiter = limiter(1, 2, 1);
+
+        assertThat(limiter.acquire(sender, email("a@example.com")).granted()).isTrue();
+        // Sin token para "a": el del canal se devuelve
+        assertThat(limiter.acquire(sender, email("a@example.com")).granted()).isFalse();
+        assertThat(limiter.acquire(sender, email("b@example.com")).granted()).isTrue();
+        // Ahora sí se agotó la ráfaga del canal
+        RateLimitDecision deferred = limiter.acquire(sender, email("c@example.com"));
+        assertThat(deferred.granted()).isFalse();
+        assertThat(deferred.waitMillis()).isPositive();
+
+        assertThat(saturation(limiter).immediate()).isEqualTo(2);
+        assertThat(saturation(limiter).deferred()).isEqualTo(2);
+    }
+
+    @Test
+    void idleKeyBucketsAreEvicted() throws InterruptedException {
+        DispatchRateLimiter limiter = limiter(0, 1, 5);
+
+        limiter.acquire(sender, email("a@example.com"));
+        limiter.acquire(sender, email("b@example.com"));
+        assertThat(saturation(limiter).activeKeys()).isEqualTo(2);
+
+        // Recién usados: un bucket nuevo no se comportaría igual
+        limiter.evictIdleBuckets();
+        assertThat(saturation(limiter).activeKeys()).isEqualTo(2);
+
+        Thread.sleep(250);
+
+        limiter.evictIdleBuckets();
+        assertThat(saturation(limiter).activeKeys()).isZero();
+    }
+
+    private DispatchRateLimiter limiter(double permitsPerSecond, int burst, double keyPermitsPerSecond) {
+        ChannelProperties.Settings settings = new ChannelProperties.Settings();
+        ChannelProperties.RateLimit rateLimit = settings.getRateLimit();
+        rateLimit.setPermitsPerSecond(permitsPerSecond);
+        rateLimit.setBurst(burst);
+        rateLimit.setKey(ChannelProperties.RateLimitKey.RECIPIENT);
+        rateLimit.setKeyPermitsPerSecond(keyPermitsPerSecond);
+        rateLimit.setKeyBurst(1);
+        rateLimit.setMaxInlineWait(Duration.ZERO);
+
+        ChannelProperties properties = new ChannelProperties();
+        properties.getChannels().put(Channel.EMAIL, settings);
+        when(sender.getChannel()).thenReturn(Channel.EMAIL);
+        return new DispatchRateLimiter(properties);
+    }
+
+    private static DispatchRateLimiter.Saturation saturation(DispatchRateLimiter limiter) {
+        return limiter.saturation().stream()
+                .filter(s -> s.channel() == Channel.EMAIL)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static Notification email(String recipient) {
+        return Notification.builder()
+                .channel(Channel.EMAIL)
+                .recipient(recipient)
+                .content("Hola")
+                .build();
+    }
+}
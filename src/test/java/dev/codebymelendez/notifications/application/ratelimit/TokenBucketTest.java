@@ -0,0 +1,86 @@
+package dev.codebymelendez.notifications.application.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstIsGrantedImmediately() {
+        TokenBucket bucket = new TokenBucket(1, 3);
+
+        assertThat(bucket.reserve(0)).isZero();
+        assertThat(bucket.reserve(0)).isZero();
+        assertThat(bucket.reserve(0)).isZero();
+    }
+
+    @Test
+    void emptyBucketRejectsWithoutReserving() {
+        TokenBucket bucket = new TokenBucket(1, 1);
+        bucket.reserve(0);
+
+        long rejected = bucket.reserve(0);
+        assertThat(rejected).isNegative();
+        assertThat(-rejected).isCloseTo(SECOND, within(SECOND / 10));
+
+        // El rechazo no avanzó el bucket: la espera sigue siendo de un intervalo
+        assertThat(-bucket.reserve(0)).isCloseTo(SECOND, within(SECOND / 10));
+    }
+
+    @Test
+    void waitWithinMaximumIsReserved() {
+        TokenBucket bucket = new TokenBucket(1, 1);
+        bucket.reserve(0);
+
+        long wait = bucket.reserve(2 * SECOND);
+        assertThat(wait).isCloseTo(SECOND, within(SECOND / 10));
+
+        // El siguiente token llega un intervalo después del reservado
+        assertThat(-bucket.reserve(0)).isCloseTo(2 * SECOND, within(SECOND / 10));
+    }
+
+    @Test
+    void refundReturnsTheToken() {
+        TokenBucket bucket = new TokenBucket(1, 2);
+        bucket.reserve(0);
+        bucket.reserve(0);
+        assertThat(bucket.reserve(0)).isNegative();
+
+        bucket.refund();
+
+        assertThat(bucket.reserve(0)).isZero();
+        assertThat(bucket.reserve(0)).isNegative();
+    }
+
+    @Test
+    void saturationAndFullness() {
+        TokenBucket bucket = new TokenBucket(1, 2);
+        assertThat(bucket.isFull()).isTrue();
+        assertThat(bucket.saturation()).isZero();
+
+        bucket.reserve(0);
+        assertThat(bucket.isFull()).isFalse();
+        assertThat(bucket.saturation()).isCloseTo(0.5, within(0.05));
+
+        bucket.reserve(0);
+        assertThat(bucket.saturation()).isCloseTo(1.0, within(0.05));
+    }
+
+    @Test
+    void refilledBucketIsFullAgain() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(50, 1);
+        bucket.reserve(0);
+        assertThat(bucket.isFull()).isFalse();
+
+        Thread.sleep(40);
+
+        assertThat(bucket.isFull()).isTrue();
+        assertThat(bucket.reserve(0)).isZero();
+    }
+}
@@ -0,0 +1,189 @@
+package dev.codebymelendez.notifications.application.replay;
+
+import dev.codebymelendez.notifications.application.event.NotificationEvent;
+import dev.codebymelendez.notifications.application.event.NotificationEventFactory;
+import dev.codebymelendez.notifications.config.ChannelTopology;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.Notification;
+import dev.codebymelendez.notifications.domain.model.NotificationStatus;
+import dev.codebymelendez.notifications.domain.model.OutboxMessage;
+import dev.codebymelendez.notifications.domain.model.Priority;
+import dev.codebymelendez.notifications.domain.repository.NotificationRepository;
+import dev.codebymelendez.notifications.domain.repository.NotificationRepositoryCustom.FailedFilter;
+import dev.codebymelendez.notifications.domain.repository.OutboxRepository;
+import dev.codebymelendez.notifications.infrastructure.messaging.NotificationPublisher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DeadLetterReplayServiceTest {
+
+    private static final FailedFilter EMAIL = new FailedFilter(Channel.EMAIL, null, null, null, null);
+
+    private NotificationRepository notificationRepository;
+    private OutboxRepository outboxRepository;
+    private final AtomicInteger backlog = new AtomicInteger();
+    private DeadLetterReplayService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        notificationRepository = mock(NotificationRepository.class);
+        outboxRepository = mock(OutboxRepository.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(
+                inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        // Todo lo que llega a reiniciarse se reenvía
+        when(notificationRepository.resetForReplay(any())).thenAnswer(inv -> List.copyOf(inv.<Collection<UUID>>getArgument(0)));
+        when(notificationRepository.findAllForDispatch(any())).thenAnswer(inv -> inv.<Collection<UUID>>getArgument(0)
+                .stream().map(DeadLetterReplayServiceTest::requeued).toList());
+        NotificationEventFactory eventFactory = mock(NotificationEventFactory.class);
+        when(eventFactory.create(any())).thenAnswer(inv -> NotificationEvent.of(
+                inv.<Notification>getArgument(0).getId(), Channel.EMAIL, Priority.HIGH));
+
+        AmqpAdmin amqpAdmin = mock(AmqpAdmin.class);
+        when(amqpAdmin.getQueueInfo(anyString())).thenAnswer(
+                inv -> new QueueInformation(inv.getArgument(0), backlog.get(), 1));
+        ChannelTopology channelTopology = mock(ChannelTopology.class);
+        when(channelTopology.queue(Channel.EMAIL)).thenReturn("notifications.email.queue");
+
+        service = new DeadLetterReplayService(notificationRepository, outboxRepository, mock(NotificationPublisher.class),
+                eventFactory, transactionTemplate, amqpAdmin, channelTopology);
+        ReflectionTestUtils.setField(service, "outboxEnabled", true);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "defaultRate", 50.0);
+        ReflectionTestUtils.setField(service, "maxRate", 500.0);
+        ReflectionTestUtils.setField(service, "maxQueueDepth", 100L);
+        ReflectionTestUtils.setField(service, "backlogPollMillis", 20L);
+        ReflectionTestUtils.setField(service, "creationLookback", Duration.ofDays(7));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void replayIsPacedToTheRequestedRate() {
+        List<UUID> ids = ids(4);
+        failedIds(ids);
+
+        // 4 notificaciones a 20/s: al menos 200ms aunque la base responda al instante
+        ReplayJob job = service.start(EMAIL, null, 20.0);
+        awaitFinished(job);
+
+        assertThat(job.getStatus()).isEqualTo(ReplayStatus.COMPLETED);
+        assertThat(job.getReplayed().get()).isEqualTo(4);
+        assertThat(job.getBatches().get()).isEqualTo(2);
+        assertThat(Duration.between(job.getStartedAt(), job.getFinishedAt())).isGreaterThanOrEqualTo(Duration.ofMillis(190));
+    }
+
+    @Test
+    void rateIsCappedAtTheMaximum() {
+        failedIds(List.of());
+
+        ReplayJob job = service.start(EMAIL, null, 10_000.0);
+        awaitFinished(job);
+
+        assertThat(job.getRatePerSecond()).isEqualTo(500.0);
+    }
+
+    @Test
+    void replayPausesWhileTheQueueIsBackedUp() {
+        List<UUID> ids = ids(2);
+        failedIds(ids);
+        backlog.set(1_000);
+
+        ReplayJob job = service.start(EMAIL, null, null);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> job.getStatus() == ReplayStatus.PAUSED);
+        await().atMost(Duration.ofSeconds(5)).until(() -> job.getPausedMillis().get() >= 40);
+        verify(notificationRepository, never()).findFailedIds(any(), any(), anyInt());
+
+        // La cola se vacía: el replay sigue donde estaba
+        backlog.set(0);
+        awaitFinished(job);
+
+        assertThat(job.getStatus()).isEqualTo(ReplayStatus.COMPLETED);
+        assertThat(job.getReplayed().get()).isEqualTo(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void notificationsNoLongerFailedAreSkipped() {
+        List<UUID> ids = ids(2);
+        failedIds(ids);
+        // La segunda la reenvió otro replay entre la selección y el reinicio
+        doReturn(List.of(ids.getFirst())).when(notificationRepository).resetForReplay(any());
+
+        ReplayJob job = service.start(EMAIL, null, null);
+        awaitFinished(job);
+
+        assertThat(job.getScanned().get()).isEqualTo(2);
+        assertThat(job.getReplayed().get()).isEqualTo(1);
+        assertThat(job.getSkipped()).isEqualTo(1);
+        verify(notificationRepository).findAllForDispatch(List.of(ids.getFirst()));
+
+        ArgumentCaptor<List<OutboxMessage>> messages = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository).insertAll(messages.capture());
+        assertThat(messages.getValue()).singleElement().satisfies(message -> {
+            assertThat(message.getNotificationId()).isEqualTo(ids.getFirst());
+            // El replay nunca ocupa el carril exprés
+            assertThat(message.getPriority()).isEqualTo(Priority.LOW);
+        });
+    }
+
+    /**
+     * Pagina los ids por cursor como lo haría findFailedIds.
+     */
+    private void failedIds(List<UUID> ids) {
+        when(notificationRepository.findFailedIds(any(), any(), anyInt())).thenAnswer(inv -> {
+            UUID cursor = inv.getArgument(1);
+            int from = cursor == null ? 0 : ids.indexOf(cursor) + 1;
+            return ids.subList(from, Math.min(ids.size(), from + inv.<Integer>getArgument(2)));
+        });
+    }
+
+    private static void awaitFinished(ReplayJob job) {
+        await().atMost(Duration.ofSeconds(5)).until(() -> job.getStatus().isFinished());
+    }
+
+    private static List<UUID> ids(int count) {
+        return Stream.generate(UUID::randomUUID).limit(count).sorted().toList();
+    }
+
+    private static Notification requeued(UUID id) {
+        return Notification.builder()
+                .id(id)
+                .channel(Channel.EMAIL)
+                .recipient("user@example.com")
+                .content("Hola")
+                .status(NotificationStatus.QUEUED)
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package dev.codebymelendez.notifications.application.retry;
+
+import dev.codebymelendez.notifications.config.ChannelProperties;
+import dev.codebymelendez.notifications.config.RetryProperties;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.DeliveryResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryPolicyTest {
+
+    private RetryProperties retryProperties;
+    private ChannelProperties.RetryOverrides smsOverrides;
+    private RetryPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        retryProperties = new RetryProperties();
+        ChannelProperties channelProperties = new ChannelProperties();
+        ChannelProperties.Settings sms = new ChannelProperties.Settings();
+        smsOverrides = sms.getRetry();
+        channelProperties.getChannels().put(Channel.SMS, sms);
+        policy = new RetryPolicy(retryProperties, channelProperties);
+    }
+
+    @Test
+    void transientCodeIsRetriedWhileAttemptsRemain() {
+        DeliveryResult timeout = DeliveryResult.failure("timeout", "TIMEOUT");
+
+        assertThat(policy.decide(Channel.EMAIL, timeout, 1).retry()).isTrue();
+        assertThat(policy.decide(Channel.EMAIL, timeout, 2).retry()).isTrue();
+
+        RetryDecision exhausted = policy.decide(Channel.EMAIL, timeout, 3);
+        assertThat(exhausted.retry()).isFalse();
+        assertThat(exhausted.reason()).contains("intentos agotados (3/3)");
+    }
+
+    @Test
+    void permanentCodeFailsOnFirstAttempt() {
+        RetryDecision decision = policy.decide(Channel.EMAIL, DeliveryResult.failure("bad", "VALIDATION_ERROR"), 1);
+
+        assertThat(decision.retry()).isFalse();
+        assertThat(decision.toString()).startsWith("FAIL: código permanente VALIDATION_ERROR");
+    }
+
+    @Test
+    void channelOverridesTakePrecedenceOverGlobalCodes() {
+        smsOverrides.getFailFastCodes().add("TIMEOUT");
+        smsOverrides.getRetryableCodes().add("VALIDATION_ERROR");
+
+        assertThat(policy.decide(Channel.SMS, DeliveryResult.failure("t", "TIMEOUT"), 1).retry()).isFalse();
+        assertThat(policy.decide(Channel.SMS, DeliveryResult.failure("v", "VALIDATION_ERROR"), 1).retry()).isTrue();
+        // Los demás canales siguen con la política global
+        assertThat(policy.decide(Channel.EMAIL, DeliveryResult.failure("t", "TIMEOUT"), 1).retry()).isTrue();
+    }
+
+    @Test
+    void channelMaxAttemptsOverridesGlobal() {
+        smsOverrides.setMaxAttempts(5);
+        DeliveryResult timeout = DeliveryResult.failure("timeout", "TIMEOUT");
+
+        assertThat(policy.maxAttempts(Channel.SMS)).isEqualTo(5);
+        assertThat(policy.decide(Channel.SMS, timeout, 4).retry()).isTrue();
+        assertThat(policy.decide(Channel.SMS, timeout, 5).retry()).isFalse();
+        assertThat(policy.maxAttempts(Channel.EMAIL)).isEqualTo(3);
+    }
+
+    @Test
+    void unknownCodesFollowRetryUnknown() {
+        DeliveryResult unknown = DeliveryResult.failure("??", "SOMETHING_ELSE");
+        DeliveryResult noCode = DeliveryResult.failure("??");
+
+        // Por defecto no se reintentan
+        assertThat(policy.decide(Channel.EMAIL, unknown, 1).retry()).isFalse();
+        assertThat(policy.decide(Channel.EMAIL, noCode, 1).retry()).isFalse();
+
+        retryProperties.getPolicy().setRetryUnknown(true);
+        assertThat(policy.decide(Channel.EMAIL, unknown, 1).retry()).isTrue();
+        assertThat(policy.decide(Channel.EMAIL, noCode, 1).retry()).isTrue();
+    }
+
+    @Test
+    void defaultRetryableCodesAreTheTransientOnes() {
+        assertThat(retryProperties.getPolicy().getRetryableCodes())
+                .containsExactlyInAnyOrderElementsOf(DeliveryResult.TRANSIENT_CODES);
+
+        for (String code : DeliveryResult.TRANSIENT_CODES) {
+            DeliveryResult result = DeliveryResult.failure("fallo", code);
+            assertThat(result.isTransient()).isTrue();
+            assertThat(policy.decide(Channel.EMAIL, result, 1).retry()).isTrue();
+        }
+    }
+
+    @Test
+    void providerRetryAfterBecomesMinimumDelay() {
+        RetryDecision decision = policy.decide(Channel.EMAIL,
+                DeliveryResult.failure("slow down", "RATE_LIMITED", Duration.ofSeconds(7)), 1);
+
+        assertThat(decision.retry()).isTrue();
+        assertThat(decision.minDelayMillis()).isEqualTo(7000);
+
+        assertThat(policy.decide(Channel.EMAIL, DeliveryResult.failure("t", "TIMEOUT"), 1).minDelayMillis()).isZero();
+    }
+}
@@ -0,0 +1,57 @@
+package dev.codebymelendez.notifications.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryTopologyTest {
+
+    private final RetryTopology topology =
+            new RetryTopology("notifications.retry.%dms", 1000, 2.0, 10_000, 300_000);
+
+    @Test
+    void parkTiersContinueTheSeriesUpToTheLease() {
+        assertThat(topology.delays()).containsExactly(1000L, 2000L, 4000L, 8000L, 10_000L);
+        assertThat(topology.parkDelays()).containsExactly(20_000L, 40_000L, 80_000L, 160_000L, 300_000L);
+    }
+
+    @Test
+    void leaseIsWaitedInAFewHops() {
+        // Antes: 30 republicaciones de 10s para un lease de 5 minutos
+        assertThat(hops(300_000)).containsExactly(300_000L);
+        assertThat(hops(290_000)).containsExactly(160_000L, 80_000L, 40_000L, 10_000L);
+    }
+
+    @Test
+    void waitsWithinTheRetryTiersAreCovered() {
+        assertThat(topology.parkDelay(0)).isEqualTo(1000);
+        assertThat(topology.parkDelay(3_000)).isEqualTo(4000);
+        assertThat(topology.parkDelay(10_000)).isEqualTo(10_000);
+        assertThat(topology.parkDelay(15_000)).isEqualTo(10_000);
+        assertThat(topology.parkDelay(3_600_000)).isEqualTo(300_000);
+    }
+
+    @Test
+    void noParkTiersWhenTheLimitIsNotAboveMaxInterval() {
+        RetryTopology withoutPark = new RetryTopology("q.%dms", 1000, 2.0, 10_000, 10_000);
+
+        assertThat(withoutPark.parkDelays()).isEmpty();
+        assertThat(withoutPark.parkDelay(60_000)).isEqualTo(10_000);
+    }
+
+    /**
+     * Niveles por los que pasa una espera hasta cumplirse.
+     */
+    private List<Long> hops(long wait) {
+        List<Long> hops = new ArrayList<>();
+        while (wait > 0) {
+            long delay = topology.parkDelay(wait);
+            hops.add(delay);
+            wait -= delay;
+        }
+        return hops;
+    }
+}
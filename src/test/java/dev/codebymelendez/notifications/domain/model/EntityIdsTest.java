@@ -0,0 +1,78 @@
+package dev.codebymelendez.notifications.domain.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntityIdsTest {
+
+    @AfterEach
+    void resetFormat() {
+        EntityIds.setTimeOrdered(false);
+    }
+
+    @Test
+    void randomIdsByDefault() {
+        assertThat(EntityIds.newId().version()).isEqualTo(4);
+    }
+
+    @Test
+    void timeOrderedIdsAreVersion7() {
+        EntityIds.setTimeOrdered(true);
+        long before = System.currentTimeMillis();
+
+        UUID id = EntityIds.newId();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        // Los 48 bits altos son el instante de creación (el contador puede adelantarlo)
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, System.currentTimeMillis() + 1);
+    }
+
+    @Test
+    void idsAreStrictlyIncreasingWithinTheSameMillisecond() {
+        UUID previous = EntityIds.uuidV7();
+        // Muchos más IDs que milisegundos: se ejercitan el contador y su desbordamiento
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = EntityIds.uuidV7();
+            assertThat(compareAsPostgres(next, previous)).as("id %d", i).isPositive();
+            previous = next;
+        }
+    }
+
+    @Test
+    void concurrentIdsAreUnique() throws Exception {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        ids.add(EntityIds.uuidV7());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertThat(ids).hasSize(80_000);
+    }
+
+    /** PostgreSQL ordena los {@code uuid} byte a byte, sin signo. */
+    private static int compareAsPostgres(UUID a, UUID b) {
+        int msb = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return msb != 0 ? msb : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,136 @@
+package dev.codebymelendez.notifications.infrastructure.messaging;
+
+import dev.codebymelendez.notifications.application.metrics.SenderLatencyTracker;
+import dev.codebymelendez.notifications.config.AutoscalerProperties;
+import dev.codebymelendez.notifications.config.ChannelProperties;
+import dev.codebymelendez.notifications.config.ChannelTopology;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ListenerAutoscalerTest {
+
+    private SimpleMessageListenerContainer container;
+    private AmqpAdmin amqpAdmin;
+    private ListenerAutoscaler autoscaler;
+
+    @BeforeEach
+    void setUp() {
+        container = mock(SimpleMessageListenerContainer.class);
+        when(container.isRunning()).thenReturn(true);
+        when(container.getActiveConsumerCount()).thenReturn(1);
+
+        // Solo el listener principal de email tiene container
+        RabbitListenerEndpointRegistry registry = mock(RabbitListenerEndpointRegistry.class);
+        when(registry.getListenerContainer("notifications.email")).thenReturn(container);
+        ChannelTopology channelTopology = mock(ChannelTopology.class);
+        when(channelTopology.listenerId(Channel.EMAIL)).thenReturn("notifications.email");
+        when(channelTopology.listenerId(Channel.SMS)).thenReturn("notifications.sms");
+        when(channelTopology.listenerId(Channel.CONSOLE)).thenReturn("notifications.console");
+        when(channelTopology.expressListenerId(any())).thenReturn("express");
+        when(channelTopology.queue(Channel.EMAIL)).thenReturn("notifications.email.queue");
+
+        amqpAdmin = mock(AmqpAdmin.class);
+        SenderLatencyTracker latencyTracker = mock(SenderLatencyTracker.class);
+        when(latencyTracker.sample(any(), anyBoolean())).thenReturn(new SenderLatencyTracker.Sample(0, 0));
+
+        ChannelProperties channelProperties = new ChannelProperties();
+        ChannelProperties.Settings email = new ChannelProperties.Settings();
+        email.setConcurrency(1);
+        email.setMaxConcurrency(4);
+        email.setPrefetch(10);
+        email.setMaxInFlight(400);
+        channelProperties.getChannels().put(Channel.EMAIL, email);
+
+        autoscaler = new ListenerAutoscaler(registry, amqpAdmin, channelTopology, channelProperties,
+                new AutoscalerProperties(), mock(NotificationConsumer.class), latencyTracker);
+    }
+
+    @Test
+    void backlogRaisesMaxConcurrencyWithConsumersAndRestartsForPrefetch() {
+        backlog(2_000);
+
+        autoscaler.rebalance();
+
+        InOrder order = inOrder(container);
+        // max-concurrency primero: el container no acepta concurrency por encima
+        order.verify(container).setMaxConcurrentConsumers(4);
+        order.verify(container).setConcurrentConsumers(4);
+        // Cupo de 400 entre 4 consumers; el prefetch se aplica al reiniciar
+        order.verify(container).setPrefetchCount(100);
+        order.verify(container).stop();
+        order.verify(container).start();
+
+        ListenerAutoscaler.Stats stats = autoscaler.stats();
+        assertThat(stats.scaleUps()).isEqualTo(1);
+        assertThat(stats.prefetchChanges()).isEqualTo(1);
+        assertThat(stats.recentDecisions()).singleElement().satisfies(decision -> {
+            assertThat(decision.toConsumers()).isEqualTo(4);
+            assertThat(decision.fromPrefetch()).isEqualTo(10);
+            assertThat(decision.toPrefetch()).isEqualTo(100);
+        });
+    }
+
+    @Test
+    void prefetchIsNotChangedAgainWithinTheCooldown() {
+        backlog(2_000);
+        autoscaler.rebalance();
+        when(container.getActiveConsumerCount()).thenReturn(4);
+
+        // Sin backlog el prefetch objetivo baja, pero el último cambio es reciente
+        backlog(0);
+        autoscaler.rebalance();
+
+        verify(container).stop();
+        assertThat(autoscaler.stats().prefetchChanges()).isEqualTo(1);
+    }
+
+    @Test
+    void failedRestartIsNotCountedAsAppliedPrefetch() {
+        backlog(2_000);
+        doThrow(new IllegalStateException("broker caído")).when(container).start();
+        when(container.isRunning()).thenReturn(true, false);
+
+        autoscaler.rebalance();
+
+        verify(container).setPrefetchCount(10);
+        ListenerAutoscaler.Stats stats = autoscaler.stats();
+        assertThat(stats.prefetchChanges()).isZero();
+        assertThat(stats.recentDecisions()).singleElement()
+                .satisfies(decision -> assertThat(decision.toPrefetch()).isEqualTo(10));
+    }
+
+    @Test
+    void noChangeLeavesTheContainerAlone() {
+        // Un consumer (el mínimo), cupo ocioso y prefetch en el mínimo: nada que ajustar
+        backlog(0);
+
+        autoscaler.rebalance();
+
+        verify(container, never()).stop();
+        verify(container, never()).setConcurrentConsumers(anyInt());
+        assertThat(autoscaler.decisions()).isEmpty();
+    }
+
+    private void backlog(int messages) {
+        when(amqpAdmin.getQueueInfo(anyString())).thenReturn(new QueueInformation("notifications.email.queue",
+                messages, 1));
+    }
+}
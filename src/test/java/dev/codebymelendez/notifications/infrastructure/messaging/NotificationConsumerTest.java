@@ -0,0 +1,231 @@
+package dev.codebymelendez.notifications.infrastructure.messaging;
+
+import dev.codebymelendez.notifications.application.circuit.SenderCircuitBreakers;
+import dev.codebymelendez.notifications.application.coalescing.ConcatenatingDigestStrategy;
+import dev.codebymelendez.notifications.application.coalescing.NotificationCoalescer;
+import dev.codebymelendez.notifications.application.event.NotificationEvent;
+import dev.codebymelendez.notifications.application.idempotency.RedeliveryGuard;
+import dev.codebymelendez.notifications.application.metrics.DeliveryLatencyTracker;
+import dev.codebymelendez.notifications.application.metrics.SenderLatencyTracker;
+import dev.codebymelendez.notifications.application.ratelimit.DispatchRateLimiter;
+import dev.codebymelendez.notifications.application.ratelimit.RateLimitDecision;
+import dev.codebymelendez.notifications.application.retry.RetryPolicy;
+import dev.codebymelendez.notifications.config.ChannelProperties;
+import dev.codebymelendez.notifications.config.RetryTopology;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.DeliveryResult;
+import dev.codebymelendez.notifications.domain.model.Notification;
+import dev.codebymelendez.notifications.domain.model.NotificationStatus;
+import dev.codebymelendez.notifications.domain.repository.DeliveryAttemptRepository;
+import dev.codebymelendez.notifications.domain.repository.NotificationRepository;
+import dev.codebymelendez.notifications.infrastructure.sender.NotificationSender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class NotificationConsumerTest {
+
+    private static final RedeliveryGuard.Admission CLAIMED =
+            new RedeliveryGuard.Admission(RedeliveryGuard.Outcome.CLAIMED, 0, null);
+
+    private NotificationRepository notificationRepository;
+    private NotificationPublisher notificationPublisher;
+    private RedeliveryGuard redeliveryGuard;
+    private NotificationSender sender;
+    private SenderCircuitBreakers circuitBreakers;
+    private DispatchRateLimiter rateLimiter;
+    private NotificationConsumer consumer;
+
+    private final NotificationEvent event = NotificationEvent.builder()
+            .notificationId(UUID.randomUUID())
+            .channel(Channel.EMAIL)
+            .attemptNumber(1)
+            .correlationId(UUID.randomUUID().toString())
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository = mock(NotificationRepository.class);
+        notificationPublisher = mock(NotificationPublisher.class);
+        redeliveryGuard = mock(RedeliveryGuard.class);
+        sender = mock(NotificationSender.class);
+        when(sender.getChannel()).thenReturn(Channel.EMAIL);
+        circuitBreakers = mock(SenderCircuitBreakers.class);
+        rateLimiter = mock(DispatchRateLimiter.class);
+
+        // Email agrupa de dos en dos; la ventana no llega a vencer en los tests
+        ChannelProperties channelProperties = new ChannelProperties();
+        ChannelProperties.Settings email = new ChannelProperties.Settings();
+        email.getCoalescing().setEnabled(true);
+        email.getCoalescing().setMaxSize(2);
+        email.getCoalescing().setWindow(Duration.ofMinutes(1));
+        channelProperties.getChannels().put(Channel.EMAIL, email);
+
+        consumer = new NotificationConsumer(
+                notificationRepository,
+                mock(DeliveryAttemptRepository.class),
+                List.of(sender),
+                notificationPublisher,
+                mock(RetryPolicy.class),
+                mock(RetryTopology.class),
+                mock(TransactionTemplate.class),
+                mock(DeliveryLatencyTracker.class),
+                mock(SenderLatencyTracker.class),
+                rateLimiter,
+                circuitBreakers,
+                new NotificationCoalescer(channelProperties, List.of(new ConcatenatingDigestStrategy())),
+                redeliveryGuard,
+                channelProperties);
+    }
+
+    @Test
+    void failingAdmitReturnsFailedFuture() {
+        when(redeliveryGuard.admit(event)).thenThrow(new DataAccessResourceFailureException("sin conexión"));
+
+        CompletableFuture<Void> result = consumer.processNotification(event);
+
+        // El adapter hace nack del futuro fallido: el mensaje no queda sin ack
+        assertThat(result).isCompletedExceptionally();
+        verify(redeliveryGuard, never()).abandon(any());
+        verifyNoInteractions(notificationPublisher);
+        verify(sender, never()).sendAsync(any());
+    }
+
+    @Test
+    void failingLoadAbandonsTheClaim() {
+        when(redeliveryGuard.admit(event)).thenReturn(CLAIMED);
+        when(notificationRepository.findById(event.getNotificationId()))
+                .thenThrow(new DataAccessResourceFailureException("sin conexión"));
+
+        CompletableFuture<Void> result = consumer.processNotification(event);
+
+        assertThat(result).isCompletedExceptionally();
+        verify(redeliveryGuard).abandon(event);
+        verify(sender, never()).sendAsync(any());
+    }
+
+    @Test
+    void failingParkReturnsFailedFuture() {
+        when(redeliveryGuard.admit(event)).thenReturn(
+                new RedeliveryGuard.Admission(RedeliveryGuard.Outcome.IN_PROGRESS, 1000, "claim vigente"));
+        doThrow(new IllegalStateException("broker caído"))
+                .when(notificationPublisher).publishDelayed(any(), anyLong());
+
+        assertThat(consumer.processNotification(event)).isCompletedExceptionally();
+    }
+
+    @Test
+    void pendingRetryAfterIsParkedAgainWithoutClaiming() {
+        event.setNotBefore(Instant.now().plusSeconds(30));
+
+        assertThat(consumer.processNotification(event)).isCompleted();
+
+        verify(notificationPublisher).publishDelayed(eq(event), longThat(wait -> wait > 25_000));
+        verifyNoInteractions(redeliveryGuard);
+    }
+
+    @Test
+    void coalescedDigestTakesOneBreakerTurnAndRecordsItsResult() {
+        NotificationEvent second = eventFor(notification("Segundo"));
+        when(notificationRepository.findById(event.getNotificationId()))
+                .thenReturn(Optional.of(notification(event.getNotificationId(), "Primero")));
+        readyToSend();
+
+        CompletableFuture<Void> first = consumer.processNotification(event);
+        CompletableFuture<Void> last = consumer.processNotification(second);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> first.isDone() && last.isDone());
+        verify(sender).sendAsync(argThat(digest -> digest.getContent().equals("Primero\n\nSegundo")));
+        // Un turno por mensaje al entrar, devuelto al retenerlo, y otro para el digest
+        verify(circuitBreakers, times(3)).tryAcquire(Channel.EMAIL);
+        verify(circuitBreakers, times(2)).release(Channel.EMAIL);
+        verify(circuitBreakers).record(eq(Channel.EMAIL), any());
+        verify(rateLimiter, times(1)).acquire(any(), any());
+    }
+
+    @Test
+    void digestWaitsWhileTheCircuitIsOpen() {
+        NotificationEvent second = eventFor(notification("Segundo"));
+        when(notificationRepository.findById(event.getNotificationId()))
+                .thenReturn(Optional.of(notification(event.getNotificationId(), "Primero")));
+        readyToSend();
+        // Cerrado al recibir los mensajes; abierto 50 ms cuando se cierra el digest
+        when(circuitBreakers.tryAcquire(Channel.EMAIL)).thenReturn(0L, 0L, 50L, 0L);
+
+        consumer.processNotification(event);
+        CompletableFuture<Void> last = consumer.processNotification(second);
+
+        await().atMost(Duration.ofSeconds(5)).until(last::isDone);
+        verify(circuitBreakers, times(4)).tryAcquire(Channel.EMAIL);
+        verify(sender, times(1)).sendAsync(any());
+        verify(notificationPublisher, never()).publishDelayed(any(), anyLong());
+    }
+
+    @Test
+    void orderedListenerReturnsFailedFutureToo() {
+        when(redeliveryGuard.admit(event)).thenReturn(CLAIMED);
+        when(notificationRepository.findById(event.getNotificationId()))
+                .thenThrow(new DataAccessResourceFailureException("sin conexión"));
+
+        CompletableFuture<Void> result = consumer.processOrdered(event);
+
+        assertThat(result).isCompletedExceptionally();
+        verify(redeliveryGuard).abandon(event);
+    }
+
+    private void readyToSend() {
+        when(redeliveryGuard.admit(any())).thenReturn(CLAIMED);
+        when(sender.supports(Channel.EMAIL)).thenReturn(true);
+        when(sender.isEnabled()).thenReturn(true);
+        when(sender.sendAsync(any())).thenReturn(CompletableFuture.completedFuture(DeliveryResult.ok()));
+        when(rateLimiter.acquire(any(), any())).thenReturn(RateLimitDecision.immediate());
+    }
+
+    private NotificationEvent eventFor(Notification notification) {
+        when(notificationRepository.findById(notification.getId())).thenReturn(Optional.of(notification));
+        return NotificationEvent.builder()
+                .notificationId(notification.getId())
+                .channel(Channel.EMAIL)
+                .correlationId(UUID.randomUUID().toString())
+                .build();
+    }
+
+    private static Notification notification(String content) {
+        return notification(UUID.randomUUID(), content);
+    }
+
+    private static Notification notification(UUID id, String content) {
+        return Notification.builder()
+                .id(id)
+                .channel(Channel.EMAIL)
+                .recipient("user@example.com")
+                .subject("Aviso")
+                .content(content)
+                .status(NotificationStatus.PROCESSING)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
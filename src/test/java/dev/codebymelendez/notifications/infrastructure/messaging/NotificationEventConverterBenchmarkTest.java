@@ -0,0 +1,82 @@
+package dev.codebymelendez.notifications.infrastructure.messaging;
+
+import dev.codebymelendez.notifications.application.event.NotificationEvent;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.Priority;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Coste por mensaje del converter binario frente al JSON actual: ns/op de
+ * codificar y decodificar, y bytes del body. Solo con {@code -Pbenchmark}.
+ */
+@Tag("benchmark")
+class NotificationEventConverterBenchmarkTest {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    private final MessageConverter json = new Jackson2JsonMessageConverter("*");
+    private final MessageConverter binary = new NotificationEventMessageConverter(json, true);
+
+    private long sink;
+
+    @Test
+    void binaryVersusJson() {
+        NotificationEvent event = NotificationEvent.builder()
+                .notificationId(UUID.randomUUID())
+                .channel(Channel.EMAIL)
+                .priority(Priority.NORMAL)
+                .orderingKey(123_456)
+                .attemptNumber(1)
+                .correlationId(UUID.randomUUID().toString())
+                .build();
+
+        Result jsonResult = measure(json, event);
+        Result binaryResult = measure(binary, event);
+
+        System.out.printf("%-8s %12s %12s %8s%n", "format", "encode ns/op", "decode ns/op", "bytes");
+        System.out.printf("%-8s %12.1f %12.1f %8d%n", "json", jsonResult.encodeNanos(), jsonResult.decodeNanos(),
+                jsonResult.bytes());
+        System.out.printf("%-8s %12.1f %12.1f %8d%n", "binary", binaryResult.encodeNanos(),
+                binaryResult.decodeNanos(), binaryResult.bytes());
+
+        assertThat(binaryResult.bytes()).isLessThan(jsonResult.bytes());
+        assertThat(sink).isNotZero();
+    }
+
+    private Result measure(MessageConverter converter, NotificationEvent event) {
+        Message message = converter.toMessage(event, new MessageProperties());
+        assertThat(converter.fromMessage(message)).isEqualTo(event);
+
+        for (int i = 0; i < WARMUP; i++) {
+            sink += converter.toMessage(event, new MessageProperties()).getBody().length;
+            sink += ((NotificationEvent) converter.fromMessage(message)).getAttemptNumber();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += converter.toMessage(event, new MessageProperties()).getBody().length;
+        }
+        double encode = (double) (System.nanoTime() - start) / ITERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += ((NotificationEvent) converter.fromMessage(message)).getAttemptNumber();
+        }
+        double decode = (double) (System.nanoTime() - start) / ITERATIONS;
+
+        return new Result(encode, decode, message.getBody().length);
+    }
+
+    private record Result(double encodeNanos, double decodeNanos, int bytes) {
+    }
+}
@@ -0,0 +1,142 @@
+package dev.codebymelendez.notifications.infrastructure.messaging;
+
+import dev.codebymelendez.notifications.application.event.NotificationEvent;
+import dev.codebymelendez.notifications.application.event.NotificationPayload;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.Priority;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotificationEventMessageConverterTest {
+
+    private final NotificationEventMessageConverter converter = new NotificationEventMessageConverter(
+            new Jackson2JsonMessageConverter("*"), true);
+
+    @Test
+    void roundTripsEveryField() {
+        NotificationEvent event = NotificationEvent.builder()
+                .notificationId(UUID.randomUUID())
+                .channel(Channel.EMAIL)
+                .priority(Priority.HIGH)
+                .orderingKey(-42)
+                .createdAt(Instant.parse("2026-03-01T10:15:30.123456789Z"))
+                .attemptNumber(3)
+                .correlationId(UUID.randomUUID().toString())
+                .notBefore(Instant.parse("2026-03-01T10:20:00.250Z"))
+                .build();
+
+        Message message = converter.toMessage(event, new MessageProperties());
+
+        assertThat(message.getMessageProperties().getContentType())
+                .isEqualTo(NotificationEventMessageConverter.CONTENT_TYPE);
+        // UUID de correlación en 16 bytes: 1 + 16 + 1 + 5 + 12 + 4 + 1 + 16 + 1 + 4 + 1 + 4 + 1 + 8
+        assertThat(message.getBody()).hasSize(75);
+        assertThat(converter.fromMessage(message)).isEqualTo(event);
+    }
+
+    @Test
+    void roundTripsOptionalFieldsAsNull() {
+        NotificationEvent event = NotificationEvent.builder()
+                .notificationId(UUID.randomUUID())
+                .build();
+
+        NotificationEvent decoded = NotificationEventMessageConverter.decode(
+                NotificationEventMessageConverter.encode(event));
+
+        assertThat(decoded).isEqualTo(event);
+        assertThat(decoded.getChannel()).isNull();
+        assertThat(decoded.getPriority()).isNull();
+        assertThat(decoded.getOrderingKey()).isNull();
+        assertThat(decoded.getCorrelationId()).isNull();
+        assertThat(decoded.getNotBefore()).isNull();
+    }
+
+    @Test
+    void nonCanonicalCorrelationIdIsKeptAsText() {
+        NotificationEvent event = NotificationEvent.builder()
+                .notificationId(UUID.randomUUID())
+                .channel(Channel.SMS)
+                .correlationId("req-ÄÖ-" + "x".repeat(200))
+                .build();
+
+        assertThat(NotificationEventMessageConverter.decode(NotificationEventMessageConverter.encode(event)))
+                .isEqualTo(event);
+
+        String upperCaseUuid = UUID.randomUUID().toString().toUpperCase();
+        event.setCorrelationId(upperCaseUuid);
+        assertThat(NotificationEventMessageConverter.decode(NotificationEventMessageConverter.encode(event))
+                .getCorrelationId()).isEqualTo(upperCaseUuid);
+    }
+
+    @Test
+    void decodesVersion1Messages() {
+        UUID id = UUID.randomUUID();
+        byte[] channel = Channel.CONSOLE.getCode().getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer v1 = ByteBuffer.allocate(1 + 16 + 1 + channel.length + 12 + 4 + 1);
+        v1.put((byte) 1)
+                .putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits())
+                .put((byte) channel.length).put(channel)
+                .putLong(1_700_000_000L).putInt(5)
+                .putInt(2)
+                .put((byte) 0);
+
+        NotificationEvent decoded = NotificationEventMessageConverter.decode(v1.array());
+
+        assertThat(decoded.getNotificationId()).isEqualTo(id);
+        assertThat(decoded.getChannel()).isEqualTo(Channel.CONSOLE);
+        assertThat(decoded.getCreatedAt()).isEqualTo(Instant.ofEpochSecond(1_700_000_000L, 5));
+        assertThat(decoded.getAttemptNumber()).isEqualTo(2);
+        assertThat(decoded.getPriority()).isNull();
+        assertThat(decoded.getOrderingKey()).isNull();
+    }
+
+    @Test
+    void fatEventsAndJsonMessagesGoThroughTheDelegate() {
+        NotificationEvent fat = NotificationEvent.builder()
+                .notificationId(UUID.randomUUID())
+                .channel(Channel.EMAIL)
+                .payload(NotificationPayload.builder().recipient("a@example.com").content("hola").build())
+                .build();
+
+        Message message = converter.toMessage(fat, new MessageProperties());
+
+        assertThat(message.getMessageProperties().getContentType()).isEqualTo(MessageProperties.CONTENT_TYPE_JSON);
+        assertThat(converter.fromMessage(message)).isEqualTo(fat);
+    }
+
+    @Test
+    void readOnlyModeStillDecodesBinary() {
+        NotificationEventMessageConverter readOnly = new NotificationEventMessageConverter(
+                new Jackson2JsonMessageConverter("*"), false);
+        NotificationEvent event = NotificationEvent.of(UUID.randomUUID(), Channel.SMS, Priority.LOW);
+
+        assertThat(readOnly.toMessage(event, new MessageProperties()).getMessageProperties().getContentType())
+                .isEqualTo(MessageProperties.CONTENT_TYPE_JSON);
+        assertThat(readOnly.fromMessage(converter.toMessage(event, new MessageProperties()))).isEqualTo(event);
+    }
+
+    @Test
+    void truncatedOrUnknownBodiesAreRejected() {
+        byte[] body = NotificationEventMessageConverter.encode(NotificationEvent.of(UUID.randomUUID(), Channel.EMAIL));
+
+        assertThatThrownBy(() -> NotificationEventMessageConverter.decode(Arrays.copyOf(body, body.length - 3)))
+                .isInstanceOf(MessageConversionException.class);
+
+        body[0] = 99;
+        assertThatThrownBy(() -> NotificationEventMessageConverter.decode(body))
+                .isInstanceOf(MessageConversionException.class)
+                .hasMessageContaining("99");
+    }
+}
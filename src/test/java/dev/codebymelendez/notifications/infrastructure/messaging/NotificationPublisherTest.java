@@ -0,0 +1,95 @@
+package dev.codebymelendez.notifications.infrastructure.messaging;
+
+import dev.codebymelendez.notifications.application.event.NotificationEvent;
+import dev.codebymelendez.notifications.config.ChannelTopology;
+import dev.codebymelendez.notifications.config.RetryTopology;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class NotificationPublisherTest {
+
+    private RabbitTemplate rabbitTemplate;
+    private NotificationPublisher publisher;
+
+    private final NotificationEvent event = NotificationEvent.of(UUID.randomUUID(), Channel.SMS);
+
+    @BeforeEach
+    void setUp() {
+        rabbitTemplate = mock(RabbitTemplate.class);
+        // Niveles 1s, 2s, 4s, 8s, 10s; para aparcar 20s, 40s, 80s, 160s, 300s
+        RetryTopology retryTopology = new RetryTopology("notifications.retry.%dms", 1000, 2.0, 10_000, 300_000);
+        publisher = new NotificationPublisher(rabbitTemplate, mock(ChannelTopology.class), retryTopology,
+                mock(ConfirmBatchingPublisher.class));
+        ReflectionTestUtils.setField(publisher, "retryExchange", "notifications.retry");
+    }
+
+    @Test
+    void retryAfterWithinTheTiersUsesTheNextTier() {
+        publisher.publishRetry(event, 3_000);
+
+        Published published = published();
+        assertThat(published.delay()).isEqualTo("4000");
+        assertThat(published.event().getAttemptNumber()).isEqualTo(2);
+        assertThat(published.event().getNotBefore()).isNull();
+    }
+
+    @Test
+    void retryAfterAboveTheLongestTierIsCarriedInTheEvent() {
+        Instant before = Instant.now();
+
+        publisher.publishRetry(event, 60_000);
+
+        // Se aparca en el mayor nivel que no se pasa y el consumer lo vuelve a aparcar hasta cumplir la espera
+        Published published = published();
+        assertThat(published.delay()).isEqualTo("40000");
+        assertThat(published.event().getNotBefore())
+                .isBetween(before.plus(Duration.ofSeconds(60)), Instant.now().plus(Duration.ofSeconds(60)));
+        assertThat(published.event().remainingDelayMillis()).isGreaterThan(50_000);
+    }
+
+    @Test
+    void longWaitsAreParkedInDecreasingHops() {
+        // Claim en curso con 290s de lease por delante
+        publisher.publishDelayed(event, 290_000);
+
+        assertThat(published().delay()).isEqualTo("160000");
+    }
+
+    @Test
+    void shortWaitsUseTheRetryTierThatCoversThem() {
+        publisher.publishDelayed(event, 3_000);
+
+        assertThat(published().delay()).isEqualTo("4000");
+    }
+
+    private Published published() {
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        ArgumentCaptor<MessagePostProcessor> postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(rabbitTemplate).convertAndSend(eq("notifications.retry"), any(), payload.capture(),
+                postProcessor.capture());
+
+        Message message = postProcessor.getValue().postProcessMessage(new Message(new byte[0], new MessageProperties()));
+        return new Published((NotificationEvent) payload.getValue(),
+                message.getMessageProperties().getHeader(RetryTopology.DELAY_HEADER));
+    }
+
+    private record Published(NotificationEvent event, String delay) {
+    }
+}
@@ -0,0 +1,153 @@
+package dev.codebymelendez.notifications.infrastructure.messaging;
+
+import dev.codebymelendez.notifications.config.ChannelProperties;
+import dev.codebymelendez.notifications.config.ChannelTopology;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.repository.ConsumerInstanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ShardCoordinatorTest {
+
+    private static final int SHARDS = 64;
+
+    private final RabbitListenerEndpointRegistry registry = mock(RabbitListenerEndpointRegistry.class);
+    private final ConsumerInstanceRepository instances = mock(ConsumerInstanceRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private ChannelTopology topology;
+
+    @BeforeEach
+    void setUp() {
+        ChannelProperties properties = new ChannelProperties();
+        ChannelProperties.Settings sms = new ChannelProperties.Settings();
+        sms.getOrdering().setEnabled(true);
+        sms.getOrdering().setShards(SHARDS);
+        properties.getChannels().put(Channel.SMS, sms);
+        topology = new ChannelTopology("notifications.%s.queue", "notifications.%s.dlq", "notification.send.%s",
+                "notification.dead.%s", "notifications.%s.express.queue", "notification.send.%s.express",
+                "notifications.%s.shard.%d.queue", "notification.send.%s.shard.%d", properties);
+
+        when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void everyInstanceComputesTheSameAssignment() {
+        live("a", "b", "c");
+
+        Map<Integer, String> seenByA = owners(coordinator("a"));
+        Map<Integer, String> seenByC = owners(coordinator("c"));
+
+        assertThat(seenByA).hasSize(SHARDS).isEqualTo(seenByC);
+    }
+
+    @Test
+    void shardsAreSpreadAcrossInstances() {
+        live("a", "b", "c", "d");
+
+        Map<String, Long> perInstance = owners(coordinator("a")).values().stream()
+                .collect(Collectors.groupingBy(owner -> owner, Collectors.counting()));
+
+        assertThat(perInstance).containsOnlyKeys("a", "b", "c", "d");
+        assertThat(perInstance.values()).allSatisfy(count -> assertThat(count).isBetween(6L, 28L));
+    }
+
+    @Test
+    void joiningInstanceOnlyTakesShardsFromOthers() {
+        live("a", "b", "c");
+        Map<Integer, String> before = owners(coordinator("a"));
+
+        live("a", "b", "c", "d");
+        Map<Integer, String> after = owners(coordinator("a"));
+
+        // Rendezvous hashing: los shards que cambian de dueño pasan todos a la instancia nueva
+        List<Integer> moved = new ArrayList<>();
+        before.forEach((shard, owner) -> {
+            if (!owner.equals(after.get(shard))) {
+                moved.add(shard);
+            }
+        });
+        assertThat(moved).isNotEmpty().allSatisfy(shard -> assertThat(after.get(shard)).isEqualTo("d"));
+        assertThat(moved.size()).isLessThan(SHARDS / 2);
+    }
+
+    @Test
+    void leavingInstanceOnlyReleasesItsOwnShards() {
+        live("a", "b", "c");
+        Map<Integer, String> before = owners(coordinator("a"));
+
+        live("a", "b");
+        Map<Integer, String> after = owners(coordinator("a"));
+
+        before.forEach((shard, owner) -> {
+            if (!owner.equals("c")) {
+                assertThat(after.get(shard)).isEqualTo(owner);
+            }
+        });
+        assertThat(after.values()).doesNotContain("c");
+    }
+
+    @Test
+    void thisInstanceIsIncludedEvenBeforeItsHeartbeatIsVisible() {
+        live("b");
+
+        assertThat(owners(coordinator("a")).values()).contains("a", "b");
+    }
+
+    @Test
+    void startsOwnedShardsAndStopsTheRest() {
+        live("a", "b");
+        ShardCoordinator coordinator = coordinator("a");
+        coordinator.rebalance();
+        Map<Integer, String> owners = owners(coordinator);
+        int owned = owners.entrySet().stream().filter(e -> e.getValue().equals("a")).findFirst().orElseThrow().getKey();
+        int foreign = owners.entrySet().stream().filter(e -> e.getValue().equals("b")).findFirst().orElseThrow().getKey();
+
+        MessageListenerContainer ownedContainer = mock(MessageListenerContainer.class);
+        MessageListenerContainer foreignContainer = mock(MessageListenerContainer.class);
+        when(foreignContainer.isRunning()).thenReturn(true);
+        when(registry.getListenerContainer(topology.shardListenerId(Channel.SMS, owned))).thenReturn(ownedContainer);
+        when(registry.getListenerContainer(topology.shardListenerId(Channel.SMS, foreign))).thenReturn(foreignContainer);
+
+        coordinator.rebalance();
+
+        verify(ownedContainer).start();
+        verify(ownedContainer, never()).stop();
+        verify(foreignContainer).stop();
+        verify(foreignContainer, never()).start();
+    }
+
+    private void live(String... ids) {
+        when(instances.findLiveInstanceIds(any())).thenReturn(List.of(ids));
+    }
+
+    private ShardCoordinator coordinator(String instanceId) {
+        return new ShardCoordinator(registry, topology, instances, transactionTemplate, instanceId,
+                Duration.ofSeconds(15));
+    }
+
+    private static Map<Integer, String> owners(ShardCoordinator coordinator) {
+        coordinator.rebalance();
+        Map<Integer, String> owners = new HashMap<>();
+        coordinator.assignments().forEach(assignment -> owners.put(assignment.shard(), assignment.owner()));
+        return owners;
+    }
+}
@@ -0,0 +1,121 @@
+package dev.codebymelendez.notifications.infrastructure.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.EntityIds;
+import dev.codebymelendez.notifications.domain.model.Notification;
+import dev.codebymelendez.notifications.domain.model.NotificationStatus;
+import dev.codebymelendez.notifications.domain.repository.StatusCounterRecorder;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Inserts sostenidos con UUID v4 aleatorios frente a UUID v7: filas por segundo,
+ * tamaño del índice de la PK y WAL generado. Solo con {@code -Pbenchmark}.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class EntityIdInsertBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 500_000);
+    private static final int CHUNK = 1_000;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @AfterEach
+    void resetFormat() {
+        EntityIds.setTimeOrdered(false);
+    }
+
+    @Test
+    void timeOrderedVersusRandomIds() {
+        Properties connection = new Properties();
+        connection.setProperty("user", POSTGRES.getUsername());
+        connection.setProperty("password", POSTGRES.getPassword());
+        connection.setProperty("reWriteBatchedInserts", "true");
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), connection);
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        NotificationRepositoryCustomImpl repository = new NotificationRepositoryCustomImpl(
+                jdbcTemplate, new ObjectMapper(), mock(StatusCounterRecorder.class));
+        ReflectionTestUtils.setField(repository, "jdbcBatchSize", CHUNK);
+
+        Result random = run(false, jdbcTemplate, transactionTemplate, repository);
+        Result timeOrdered = run(true, jdbcTemplate, transactionTemplate, repository);
+
+        System.out.printf("%-8s %10s %12s %12s%n", "ids", "rows/s", "pk index MB", "WAL MB");
+        random.print("v4");
+        timeOrdered.print("v7");
+
+        assertThat(timeOrdered.indexBytes()).isLessThan(random.indexBytes());
+    }
+
+    private static Result run(boolean timeOrdered, JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate, NotificationRepositoryCustomImpl repository) {
+        jdbcTemplate.execute("TRUNCATE notifications, delivery_attempts");
+        jdbcTemplate.execute("CHECKPOINT");
+        EntityIds.setTimeOrdered(timeOrdered);
+
+        String walStart = jdbcTemplate.queryForObject("SELECT pg_current_wal_lsn()::text", String.class);
+        long start = System.nanoTime();
+        for (int inserted = 0; inserted < ROWS; inserted += CHUNK) {
+            List<Notification> chunk = chunk(Math.min(CHUNK, ROWS - inserted));
+            transactionTemplate.executeWithoutResult(status -> repository.insertAll(chunk));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Long walBytes = jdbcTemplate.queryForObject(
+                "SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), CAST(? AS pg_lsn))::bigint", Long.class, walStart);
+        // PK de todas las particiones de notifications
+        Long indexBytes = jdbcTemplate.queryForObject("""
+                SELECT COALESCE(SUM(pg_relation_size(i.indexrelid)), 0)
+                FROM pg_index i
+                JOIN pg_inherits h ON h.inhrelid = i.indrelid
+                WHERE h.inhparent = 'notifications'::regclass AND i.indisprimary
+                """, Long.class);
+        return new Result(ROWS / seconds, indexBytes, walBytes);
+    }
+
+    private static List<Notification> chunk(int size) {
+        List<Notification> notifications = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            notifications.add(Notification.builder()
+                    .id(EntityIds.newId())
+                    .channel(Channel.EMAIL)
+                    .recipient("user" + i + "@example.com")
+                    .subject("Bienvenida")
+                    .content("Hola, gracias por registrarte")
+                    .status(NotificationStatus.PENDING)
+                    .build());
+        }
+        return notifications;
+    }
+
+    private record Result(double rowsPerSecond, long indexBytes, long walBytes) {
+
+        void print(String ids) {
+            System.out.printf("%-8s %10.0f %12.1f %12.1f%n", ids, rowsPerSecond,
+                    indexBytes / 1024.0 / 1024.0, walBytes / 1024.0 / 1024.0);
+        }
+    }
+}
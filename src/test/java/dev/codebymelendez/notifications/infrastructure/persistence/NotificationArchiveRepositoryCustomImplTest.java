@@ -0,0 +1,200 @@
+package dev.codebymelendez.notifications.infrastructure.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.codebymelendez.notifications.application.archive.NotificationArchiver;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.DeliveryAttempt;
+import dev.codebymelendez.notifications.domain.model.DeliveryAttemptStatus;
+import dev.codebymelendez.notifications.domain.model.NotificationStatus;
+import dev.codebymelendez.notifications.domain.repository.NotificationArchiveRepositoryCustom.ArchiveChunk;
+import dev.codebymelendez.notifications.domain.repository.NotificationRepository;
+import dev.codebymelendez.notifications.domain.repository.StatusCounterRecorder;
+import dev.codebymelendez.notifications.domain.repository.StatusCounterRecorder.Removed;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Archivo de notificaciones terminales contra PostgreSQL real: las filas
+ * calientes pasan a un bloque comprimido y se leen de vuelta desde él.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class NotificationArchiveRepositoryCustomImplTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static DriverManagerDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    private StatusCounterRecorder statusCounters;
+    private NotificationArchiveRepositoryCustomImpl repository;
+    private TransactionTemplate transactionTemplate;
+
+    // Más antigua que el corte de archivo, pero dentro de las particiones vigentes
+    private final Instant old = Instant.now().minus(Duration.ofDays(20)).truncatedTo(ChronoUnit.MILLIS);
+
+    @BeforeAll
+    static void migrate() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE notifications, delivery_attempts, notification_archive_blocks CASCADE");
+        statusCounters = mock(StatusCounterRecorder.class);
+        repository = new NotificationArchiveRepositoryCustomImpl(jdbcTemplate, new ObjectMapper().findAndRegisterModules(),
+                statusCounters);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    void terminalNotificationsMoveToABlockAndLeaveTheHotTables() {
+        UUID delivered = insert(NotificationStatus.DELIVERED, old);
+        UUID failed = insert(NotificationStatus.FAILED, old.plusSeconds(1));
+        UUID queued = insert(NotificationStatus.QUEUED, old);
+        UUID recent = insert(NotificationStatus.DELIVERED, Instant.now());
+        attempt(failed, 1, DeliveryAttemptStatus.FAILED);
+        attempt(failed, 2, DeliveryAttemptStatus.FAILED);
+
+        ArchiveChunk chunk = archive(cutoff(), 10);
+
+        assertThat(chunk.notifications()).isEqualTo(2);
+        assertThat(chunk.attempts()).isEqualTo(2);
+        assertThat(chunk.storedBytes()).isPositive();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT item_count FROM notification_archive_blocks", Integer.class)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT notification_id FROM notification_archive_index", UUID.class))
+                .containsExactlyInAnyOrder(delivered, failed);
+
+        // Solo quedan las no terminales y las recientes
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM notifications", UUID.class))
+                .containsExactlyInAnyOrder(queued, recent);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM delivery_attempts", Long.class)).isZero();
+        assertThat(removed()).containsExactlyInAnyOrder(
+                new Removed(Channel.EMAIL, NotificationStatus.DELIVERED, 1),
+                new Removed(Channel.EMAIL, NotificationStatus.FAILED, 1));
+    }
+
+    @Test
+    void archivedNotificationIsReadBackWithItsAttemptsInOrder() {
+        UUID id = insert(NotificationStatus.FAILED, old);
+        // Insertados desordenados: el bloque los guarda por número de intento
+        attempt(id, 3, DeliveryAttemptStatus.FAILED);
+        attempt(id, 1, DeliveryAttemptStatus.FAILED);
+        attempt(id, 2, DeliveryAttemptStatus.FAILED);
+
+        archive(cutoff(), 10);
+
+        assertThat(repository.findArchived(id)).hasValueSatisfying(notification -> {
+            assertThat(notification.getStatus()).isEqualTo(NotificationStatus.FAILED);
+            assertThat(notification.getRecipient()).isEqualTo("user@example.com");
+            assertThat(notification.getMetadata()).containsEntry("orderId", "A-1");
+            assertThat(notification.getCreatedAt()).isEqualTo(old);
+            assertThat(notification.getDeliveryAttempts())
+                    .extracting(DeliveryAttempt::getAttemptNumber).containsExactly(1, 2, 3);
+            assertThat(notification.getDeliveryAttempts())
+                    .allSatisfy(attempt -> assertThat(attempt.getErrorCode()).isEqualTo("TIMEOUT"));
+        });
+        assertThat(repository.findArchived(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void nothingToArchiveLeavesCountersAlone() {
+        insert(NotificationStatus.DELIVERED, Instant.now());
+
+        assertThat(archive(cutoff(), 10)).isEqualTo(ArchiveChunk.EMPTY);
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notification_archive_blocks", Long.class)).isZero();
+        verify(statusCounters, never()).removed(any());
+    }
+
+    @Test
+    void archiverSplitsTheBacklogIntoChunks() {
+        for (int i = 0; i < 5; i++) {
+            insert(NotificationStatus.DELIVERED, old.plusSeconds(i));
+        }
+        NotificationRepository notificationRepository = mock(NotificationRepository.class);
+        when(notificationRepository.archiveTerminal(any(), anyInt())).thenAnswer(
+                inv -> repository.archiveTerminal(inv.getArgument(0), inv.getArgument(1)));
+        NotificationArchiver archiver = new NotificationArchiver(notificationRepository, transactionTemplate,
+                true, Duration.ofDays(7), 2, 10);
+
+        archiver.archive();
+
+        // 2 + 2 + 1: el bloque incompleto corta la pasada
+        NotificationArchiver.Stats stats = archiver.stats();
+        assertThat(stats.notifications()).isEqualTo(5);
+        assertThat(stats.blocks()).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT item_count FROM notification_archive_blocks ORDER BY id", Integer.class))
+                .containsExactly(2, 2, 1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notifications", Long.class)).isZero();
+    }
+
+    private ArchiveChunk archive(Instant createdBefore, int limit) {
+        return transactionTemplate.execute(status -> repository.archiveTerminal(createdBefore, limit));
+    }
+
+    private static Instant cutoff() {
+        return Instant.now().minus(Duration.ofDays(7));
+    }
+
+    private static UUID insert(NotificationStatus status, Instant createdAt) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO notifications (id, channel, recipient, subject, content, metadata, status, priority,
+                                           created_at, updated_at)
+                VALUES (?, 'EMAIL', 'user@example.com', 'Pedido', 'Hola', '{"orderId": "A-1"}'::jsonb, ?, 'NORMAL', ?, ?)
+                """, id, status.name(), Timestamp.from(createdAt), Timestamp.from(createdAt));
+        return id;
+    }
+
+    private void attempt(UUID notificationId, int attemptNumber, DeliveryAttemptStatus status) {
+        jdbcTemplate.update("""
+                INSERT INTO delivery_attempts (id, notification_id, attempt_number, status, error_code, attempted_at,
+                                               notification_created_at)
+                SELECT ?, id, ?, ?, 'TIMEOUT', ?, created_at FROM notifications WHERE id = ?
+                """, UUID.randomUUID(), attemptNumber, status.name(), Timestamp.from(old.plusSeconds(attemptNumber)),
+                notificationId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Removed> removed() {
+        ArgumentCaptor<List<Removed>> captor = ArgumentCaptor.forClass(List.class);
+        verify(statusCounters, atLeastOnce()).removed(captor.capture());
+        List<Removed> all = new ArrayList<>();
+        captor.getAllValues().forEach(all::addAll);
+        return all;
+    }
+}
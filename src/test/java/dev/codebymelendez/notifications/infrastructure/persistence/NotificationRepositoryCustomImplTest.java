@@ -0,0 +1,266 @@
+package dev.codebymelendez.notifications.infrastructure.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.Notification;
+import dev.codebymelendez.notifications.domain.model.NotificationStatus;
+import dev.codebymelendez.notifications.domain.repository.NotificationRepositoryCustom.ClaimState;
+import dev.codebymelendez.notifications.domain.repository.StatusCounterRecorder;
+import dev.codebymelendez.notifications.domain.repository.StatusCounterRecorder.Transition;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * UPDATE condicionados del claim y de las transiciones contra PostgreSQL real,
+ * con el esquema particionado de las migraciones.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class NotificationRepositoryCustomImplTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static DriverManagerDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    private StatusCounterRecorder statusCounters;
+    private NotificationRepositoryCustomImpl repository;
+
+    @BeforeAll
+    static void migrate() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void setUp() {
+        statusCounters = mock(StatusCounterRecorder.class);
+        repository = new NotificationRepositoryCustomImpl(jdbcTemplate, new ObjectMapper(), statusCounters);
+        ReflectionTestUtils.setField(repository, "jdbcBatchSize", 100);
+    }
+
+    @Test
+    void eachAttemptIsClaimedOnce() {
+        UUID id = insert(NotificationStatus.QUEUED);
+
+        assertThat(repository.claimForDispatch(id, 1, leaseExpired())).isTrue();
+        assertThat(repository.claimForDispatch(id, 1, leaseExpired())).isFalse();
+        assertThat(repository.findClaimState(id)).hasValueSatisfying(state -> {
+            assertThat(state.status()).isEqualTo(NotificationStatus.PROCESSING);
+            assertThat(state.claimedAttempt()).isEqualTo(1);
+        });
+
+        // Un intento posterior sí se reclama; uno anterior ya no
+        assertThat(repository.claimForDispatch(id, 2, leaseExpired())).isTrue();
+        assertThat(repository.claimForDispatch(id, 1, leaseExpired())).isFalse();
+    }
+
+    @Test
+    void expiredLeaseCanBeReclaimed() {
+        UUID id = insert(NotificationStatus.QUEUED);
+        repository.claimForDispatch(id, 1, leaseExpired());
+
+        assertThat(repository.claimForDispatch(id, 1, Instant.now().plusSeconds(60))).isTrue();
+    }
+
+    @Test
+    void terminalNotificationsAreNotClaimed() {
+        UUID id = insert(NotificationStatus.DELIVERED);
+
+        assertThat(repository.claimForDispatch(id, 1, leaseExpired())).isFalse();
+        assertThat(repository.claimForDispatch(UUID.randomUUID(), 1, leaseExpired())).isFalse();
+    }
+
+    @Test
+    void batchClaimReportsThePreviousStatusOfEachRow() {
+        UUID pending = insert(NotificationStatus.PENDING);
+        UUID queued = insert(NotificationStatus.QUEUED);
+        UUID failed = insert(NotificationStatus.FAILED);
+        Map<UUID, Integer> attempts = new LinkedHashMap<>();
+        attempts.put(pending, 1);
+        attempts.put(queued, 1);
+        attempts.put(failed, 1);
+
+        assertThat(repository.claimAllForDispatch(attempts, leaseExpired())).containsExactlyInAnyOrder(pending, queued);
+
+        assertThat(recordedTransitions()).containsExactlyInAnyOrder(
+                new Transition(Channel.EMAIL, NotificationStatus.PENDING, NotificationStatus.PROCESSING),
+                new Transition(Channel.EMAIL, NotificationStatus.QUEUED, NotificationStatus.PROCESSING));
+    }
+
+    @Test
+    void releasedClaimCanBeClaimedAgain() {
+        UUID id = insert(NotificationStatus.QUEUED);
+        repository.claimForDispatch(id, 1, leaseExpired());
+
+        repository.releaseClaims(Map.of(id, 1));
+
+        assertThat(repository.findClaimState(id)).get()
+                .extracting(ClaimState::status).isEqualTo(NotificationStatus.QUEUED);
+        assertThat(repository.claimForDispatch(id, 1, leaseExpired())).isTrue();
+    }
+
+    @Test
+    void transitionOnlyAppliesFromExpectedStatus() {
+        UUID id = insert(NotificationStatus.QUEUED);
+
+        assertThat(repository.transition(id, NotificationStatus.DELIVERED, null, NotificationStatus.PROCESSING))
+                .isFalse();
+        assertThat(repository.transition(id, NotificationStatus.DELIVERED, null,
+                NotificationStatus.QUEUED, NotificationStatus.PROCESSING)).isTrue();
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT status, delivered_at, version FROM notifications WHERE id = ?", id);
+        assertThat(row.get("status")).isEqualTo("DELIVERED");
+        assertThat(row.get("delivered_at")).isNotNull();
+        assertThat(row.get("version")).isEqualTo(1L);
+        assertThat(recordedTransitions()).containsExactly(
+                new Transition(Channel.EMAIL, NotificationStatus.QUEUED, NotificationStatus.DELIVERED));
+    }
+
+    @Test
+    void concurrentChangeIsCountedFromTheStatusActuallyReplaced() throws Exception {
+        UUID id = insert(NotificationStatus.QUEUED);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            // Otra transacción pasa la fila a PROCESSING y mantiene el lock
+            Future<?> writer = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("UPDATE notifications SET status = 'PROCESSING' WHERE id = ?", id);
+                locked.countDown();
+                try {
+                    release.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertThat(locked.await(30, TimeUnit.SECONDS)).isTrue();
+
+            // La transición lee QUEUED en su instantánea y queda esperando el lock
+            Future<Boolean> transition = executor.submit(() -> repository.transition(
+                    id, NotificationStatus.FAILED, "cancelada", NotificationStatus.QUEUED, NotificationStatus.PROCESSING));
+            await().atMost(Duration.ofSeconds(30)).until(() -> jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pg_locks WHERE NOT granted", Integer.class) > 0);
+
+            release.countDown();
+            writer.get(30, TimeUnit.SECONDS);
+            assertThat(transition.get(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        // Se cuenta la salida de PROCESSING, no de la QUEUED que ya no existía
+        assertThat(recordedTransitions()).containsExactly(
+                new Transition(Channel.EMAIL, NotificationStatus.PROCESSING, NotificationStatus.FAILED));
+        assertThat(jdbcTemplate.queryForObject("SELECT failure_reason FROM notifications WHERE id = ?", String.class, id))
+                .isEqualTo("cancelada");
+    }
+
+    @Test
+    void updateStatusesSkipsNotificationsReclaimedByAnotherAttempt() {
+        UUID stale = insert(NotificationStatus.QUEUED);
+        UUID current = insert(NotificationStatus.QUEUED);
+        repository.claimForDispatch(stale, 1, leaseExpired());
+        repository.claimForDispatch(current, 1, leaseExpired());
+        // El lease de stale venció y otro consumer reclamó el intento 2
+        repository.claimForDispatch(stale, 2, leaseExpired());
+
+        repository.updateStatuses(List.of(
+                delivered(stale, 1),
+                delivered(current, 1)));
+
+        assertThat(status(stale)).isEqualTo("PROCESSING");
+        assertThat(status(current)).isEqualTo("DELIVERED");
+    }
+
+    @Test
+    void resetForReplaySkipsNotificationsNoLongerFailed() {
+        UUID failed = insert(NotificationStatus.FAILED);
+        UUID delivered = insert(NotificationStatus.DELIVERED);
+        // Otro replay ya la devolvió a la cola
+        UUID requeued = insert(NotificationStatus.QUEUED);
+
+        List<UUID> reset = repository.resetForReplay(List.of(failed, delivered, requeued));
+
+        assertThat(reset).containsExactly(failed);
+        assertThat(status(failed)).isEqualTo("QUEUED");
+        assertThat(status(delivered)).isEqualTo("DELIVERED");
+        assertThat(status(requeued)).isEqualTo("QUEUED");
+        assertThat(recordedTransitions()).containsExactly(
+                new Transition(Channel.EMAIL, NotificationStatus.FAILED, NotificationStatus.QUEUED));
+    }
+
+    private UUID insert(NotificationStatus status) {
+        UUID id = UUID.randomUUID();
+        repository.insertAll(List.of(Notification.builder()
+                .id(id)
+                .channel(Channel.EMAIL)
+                .recipient("user@example.com")
+                .subject("Prueba")
+                .content("Hola")
+                .status(status)
+                .build()));
+        clearInvocations(statusCounters);
+        return id;
+    }
+
+    private Notification delivered(UUID id, int claimedAttempt) {
+        Notification notification = Notification.builder()
+                .id(id)
+                .channel(Channel.EMAIL)
+                .status(NotificationStatus.DELIVERED)
+                .deliveredAt(Instant.now())
+                .build();
+        notification.setClaimedAttempt(claimedAttempt);
+        return notification;
+    }
+
+    private String status(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM notifications WHERE id = ?", String.class, id);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Transition> recordedTransitions() {
+        ArgumentCaptor<List<Transition>> captor = ArgumentCaptor.forClass(List.class);
+        verify(statusCounters, atLeastOnce()).transitioned(captor.capture());
+        List<Transition> all = new ArrayList<>();
+        captor.getAllValues().forEach(all::addAll);
+        return all;
+    }
+
+    private static Instant leaseExpired() {
+        return Instant.now().minusSeconds(300);
+    }
+}
@@ -0,0 +1,125 @@
+package dev.codebymelendez.notifications.infrastructure.persistence;
+
+import dev.codebymelendez.notifications.domain.model.Channel;
+import dev.codebymelendez.notifications.domain.model.NotificationStatus;
+import dev.codebymelendez.notifications.domain.repository.StatusCounterRecorder;
+import dev.codebymelendez.notifications.domain.repository.StatusCounterRecorder.Removed;
+import dev.codebymelendez.notifications.infrastructure.persistence.PartitionManager.Interval;
+import dev.codebymelendez.notifications.infrastructure.persistence.PartitionManager.RetentionAction;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Retención de particiones contra PostgreSQL real: la partición caducada se
+ * suelta con DETACH CONCURRENTLY y sus filas se descuentan de los contadores.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PartitionManagerTest {
+
+    private static final String EXPIRED = "notifications_p20200101";
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Test
+    void detachedPartitionIsCountedAndKept() {
+        JdbcTemplate jdbc = expiredPartition("retention_detach");
+        StatusCounterRecorder statusCounters = mock(StatusCounterRecorder.class);
+
+        manager(jdbc, statusCounters, RetentionAction.DETACH).maintain();
+
+        assertThat(partitions(jdbc)).doesNotContain(EXPIRED);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM " + EXPIRED, Long.class)).isEqualTo(3);
+        assertThat(removed(statusCounters)).containsExactlyInAnyOrder(
+                new Removed(Channel.EMAIL, NotificationStatus.DELIVERED, 2),
+                new Removed(Channel.EMAIL, NotificationStatus.FAILED, 1));
+    }
+
+    @Test
+    void droppedPartitionIsCountedBeforeTheDrop() {
+        JdbcTemplate jdbc = expiredPartition("retention_drop");
+        StatusCounterRecorder statusCounters = mock(StatusCounterRecorder.class);
+
+        manager(jdbc, statusCounters, RetentionAction.DROP).maintain();
+
+        assertThat(jdbc.queryForObject("SELECT to_regclass(?) IS NULL", Boolean.class, EXPIRED)).isTrue();
+        assertThat(removed(statusCounters)).hasSize(2);
+        // Las particiones vigentes no se tocan
+        assertThat(partitions(jdbc)).contains("notifications_legacy");
+    }
+
+    /**
+     * La partición legacy empieza en MINVALUE: para tener una partición
+     * caducada se desengancha y se crea una de enero de 2020 con tres filas.
+     */
+    private static JdbcTemplate expiredPartition(String database) {
+        new JdbcTemplate(new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(),
+                POSTGRES.getPassword())).execute("CREATE DATABASE " + database);
+        String url = POSTGRES.getJdbcUrl().replaceFirst("/" + POSTGRES.getDatabaseName(), "/" + database);
+        DataSource dataSource = new DriverManagerDataSource(url, POSTGRES.getUsername(), POSTGRES.getPassword());
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        String bound = jdbc.queryForObject("""
+                SELECT pg_get_expr(relpartbound, oid) FROM pg_class WHERE oid = 'notifications_legacy'::regclass
+                """, String.class);
+        jdbc.execute("ALTER TABLE notifications DETACH PARTITION notifications_legacy");
+        jdbc.execute("CREATE TABLE " + EXPIRED
+                + " PARTITION OF notifications FOR VALUES FROM ('2020-01-01') TO ('2020-02-01')");
+        jdbc.execute("ALTER TABLE notifications ATTACH PARTITION notifications_legacy "
+                + bound.replace("MINVALUE", "'2020-02-01'"));
+
+        LocalDateTime createdAt = LocalDateTime.of(2020, 1, 15, 10, 0);
+        insert(jdbc, createdAt, "DELIVERED");
+        insert(jdbc, createdAt, "DELIVERED");
+        insert(jdbc, createdAt, "FAILED");
+        return jdbc;
+    }
+
+    private static PartitionManager manager(JdbcTemplate jdbc, StatusCounterRecorder statusCounters,
+                                            RetentionAction action) {
+        TransactionTemplate transactionTemplate =
+                new TransactionTemplate(new DataSourceTransactionManager(jdbc.getDataSource()));
+        return new PartitionManager(jdbc, transactionTemplate, statusCounters,
+                Interval.MONTH, 3, Duration.ofDays(90), action, true);
+    }
+
+    private static void insert(JdbcTemplate jdbc, LocalDateTime createdAt, String status) {
+        jdbc.update("""
+                INSERT INTO notifications (id, channel, recipient, content, status, priority, created_at, updated_at)
+                VALUES (?, 'EMAIL', 'user@example.com', 'Hola', ?, 'NORMAL', ?, ?)
+                """, UUID.randomUUID(), status, Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt));
+    }
+
+    private static List<String> partitions(JdbcTemplate jdbc) {
+        return jdbc.queryForList(
+                "SELECT inhrelid::regclass::text FROM pg_inherits WHERE inhparent = 'notifications'::regclass",
+                String.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Removed> removed(StatusCounterRecorder statusCounters) {
+        ArgumentCaptor<List<Removed>> captor = ArgumentCaptor.forClass(List.class);
+        verify(statusCounters).removed(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,199 @@
+package dev.codebymelendez.notifications.infrastructure.persistence;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Migraciones V10-V16 sobre una base con datos de versiones anteriores: las
+ * tablas existentes pasan a ser la partición legacy sin perder filas, y los
+ * intentos se reparten como su notificación.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PartitionMigrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Test
+    void existingTablesBecomeTheLegacyPartition() {
+        DataSource dataSource = database("legacy_rows");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        migrate(dataSource, "9");
+
+        UUID old = insertNotification(jdbc, LocalDateTime.now().minusMonths(14), "DELIVERED");
+        UUID recent = insertNotification(jdbc, LocalDateTime.now(), "FAILED");
+        insertAttempt(jdbc, old, 1, "SUCCESS", LocalDateTime.now().minusMonths(14));
+        insertAttempt(jdbc, recent, 1, "FAILED", LocalDateTime.now());
+
+        migrate(dataSource, null);
+
+        assertThat(relkind(jdbc, "notifications")).isEqualTo("p");
+        assertThat(relkind(jdbc, "delivery_attempts")).isEqualTo("p");
+
+        String boundary = jdbc.queryForObject(
+                "SELECT to_char(date_trunc('month', LOCALTIMESTAMP) + INTERVAL '1 month', 'YYYYMMDD')", String.class);
+        assertThat(partitions(jdbc, "notifications"))
+                .containsExactlyInAnyOrder("notifications_legacy", "notifications_p" + boundary);
+        assertThat(partitions(jdbc, "delivery_attempts"))
+                .containsExactlyInAnyOrder("delivery_attempts_legacy", "delivery_attempts_p" + boundary);
+        assertThat(partitionBound(jdbc, "notifications_legacy")).startsWith("FOR VALUES FROM (MINVALUE) TO (");
+
+        // Filas conservadas, en la partición legacy
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM notifications", Long.class)).isEqualTo(2);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM delivery_attempts", Long.class)).isEqualTo(2);
+        assertThat(partitionOf(jdbc, old)).isEqualTo("notifications_legacy");
+        assertThat(partitionOf(jdbc, recent)).isEqualTo("notifications_legacy");
+
+        // PK con la clave de partición; la de la legacy es el índice construido en V12
+        assertThat(primaryKey(jdbc, "notifications")).isEqualTo("PRIMARY KEY (id, created_at)");
+        assertThat(primaryKey(jdbc, "delivery_attempts")).isEqualTo("PRIMARY KEY (id, notification_created_at)");
+        assertThat(jdbc.queryForObject("""
+                SELECT indexrelid::regclass::text FROM pg_index
+                WHERE indrelid = 'notifications_legacy'::regclass AND indisprimary
+                """, String.class)).isEqualTo("notifications_legacy_pkey");
+
+        // Los CHECK auxiliares de V10 ya no existen
+        assertThat(jdbc.queryForObject(
+                "SELECT COUNT(*) FROM pg_constraint WHERE conname LIKE 'chk_%partition_bound'", Long.class)).isZero();
+
+        // V15 parte de las filas existentes
+        assertThat(jdbc.queryForObject(
+                "SELECT SUM(entered - exited) FROM status_counters WHERE kind = 'NOTIFICATION'", Long.class))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void attemptsFollowTheirNotificationPartition() {
+        DataSource dataSource = database("attempt_rows");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        migrate(dataSource, "15");
+
+        // Creada en la legacy, reintentada ya en el mes siguiente y con un número repetido
+        LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        UUID id = insertNotification(jdbc, createdAt, "FAILED");
+        insertAttempt(jdbc, id, 1, "FAILED", createdAt.plusMonths(1).withDayOfMonth(2));
+        insertAttempt(jdbc, id, 1, "FAILED", createdAt.plusMonths(1).withDayOfMonth(3));
+
+        migrate(dataSource, null);
+
+        assertThat(jdbc.queryForList("""
+                SELECT tableoid::regclass::text FROM delivery_attempts WHERE notification_id = ?
+                """, String.class, id)).containsOnly("delivery_attempts_legacy");
+        assertThat(jdbc.queryForList("""
+                SELECT attempt_number FROM delivery_attempts WHERE notification_id = ? ORDER BY attempted_at
+                """, Integer.class, id)).containsExactly(1, 2);
+        assertThat(partitions(jdbc, "delivery_attempts")).containsExactlyInAnyOrderElementsOf(
+                partitions(jdbc, "notifications").stream()
+                        .map(name -> name.replace("notifications", "delivery_attempts"))
+                        .toList());
+
+        // La unicidad por notificación vuelve a imponerla la base de datos
+        assertThatThrownBy(() -> jdbc.update("""
+                INSERT INTO delivery_attempts (id, notification_id, attempt_number, status, notification_created_at)
+                VALUES (?, ?, 2, 'FAILED', ?)
+                """, UUID.randomUUID(), id, Timestamp.valueOf(createdAt)))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void newRowsAfterTheBoundaryGoToTheMonthlyPartition() {
+        DataSource dataSource = database("new_rows");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        migrate(dataSource, null);
+
+        UUID next = insertNotification(jdbc, LocalDateTime.now().plusMonths(1).withDayOfMonth(2), "PENDING");
+
+        String boundary = jdbc.queryForObject(
+                "SELECT to_char(date_trunc('month', LOCALTIMESTAMP) + INTERVAL '1 month', 'YYYYMMDD')", String.class);
+        assertThat(partitionOf(jdbc, next)).isEqualTo("notifications_p" + boundary);
+    }
+
+    @Test
+    void boundaryCoversFutureDatedRows() {
+        DataSource dataSource = database("future_rows");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        migrate(dataSource, "9");
+
+        UUID future = insertNotification(jdbc, LocalDateTime.now().plusMonths(3), "PENDING");
+
+        migrate(dataSource, null);
+
+        // El límite es el mes siguiente al registro más reciente, no al actual
+        String boundary = jdbc.queryForObject(
+                "SELECT to_char(date_trunc('month', LOCALTIMESTAMP) + INTERVAL '4 months', 'YYYYMMDD')", String.class);
+        assertThat(partitions(jdbc, "notifications")).contains("notifications_p" + boundary);
+        assertThat(partitionOf(jdbc, future)).isEqualTo("notifications_legacy");
+    }
+
+    private static DataSource database(String name) {
+        new JdbcTemplate(new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(),
+                POSTGRES.getPassword())).execute("CREATE DATABASE " + name);
+        String url = POSTGRES.getJdbcUrl().replaceFirst("/" + POSTGRES.getDatabaseName(), "/" + name);
+        return new DriverManagerDataSource(url, POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+
+    private static void migrate(DataSource dataSource, String target) {
+        var configuration = Flyway.configure().dataSource(dataSource);
+        if (target != null) {
+            configuration.target(target);
+        }
+        configuration.load().migrate();
+    }
+
+    private static UUID insertNotification(JdbcTemplate jdbc, LocalDateTime createdAt, String status) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO notifications (id, channel, recipient, content, status, created_at, updated_at)
+                VALUES (?, 'EMAIL', 'user@example.com', 'Hola', ?, ?, ?)
+                """, id, status, Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt));
+        return id;
+    }
+
+    private static void insertAttempt(JdbcTemplate jdbc, UUID notificationId, int number, String status,
+                                      LocalDateTime attemptedAt) {
+        jdbc.update("""
+                INSERT INTO delivery_attempts (id, notification_id, attempt_number, status, attempted_at)
+                VALUES (?, ?, ?, ?, ?)
+                """, UUID.randomUUID(), notificationId, number, status, Timestamp.valueOf(attemptedAt));
+    }
+
+    private static String relkind(JdbcTemplate jdbc, String table) {
+        return jdbc.queryForObject("SELECT relkind::text FROM pg_class WHERE oid = ?::regclass", String.class, table);
+    }
+
+    private static List<String> partitions(JdbcTemplate jdbc, String table) {
+        return jdbc.queryForList(
+                "SELECT inhrelid::regclass::text FROM pg_inherits WHERE inhparent = ?::regclass", String.class, table);
+    }
+
+    private static String partitionBound(JdbcTemplate jdbc, String partition) {
+        return jdbc.queryForObject("SELECT pg_get_expr(relpartbound, oid) FROM pg_class WHERE oid = ?::regclass",
+                String.class, partition);
+    }
+
+    private static String partitionOf(JdbcTemplate jdbc, UUID id) {
+        return jdbc.queryForObject("SELECT tableoid::regclass::text FROM notifications WHERE id = ?", String.class, id);
+    }
+
+    private static String primaryKey(JdbcTemplate jdbc, String table) {
+        return jdbc.queryForObject(
+                "SELECT pg_get_constraintdef(oid) FROM pg_constraint WHERE conrelid = ?::regclass AND contype = 'p'",
+                String.class, table);
+    }
+}